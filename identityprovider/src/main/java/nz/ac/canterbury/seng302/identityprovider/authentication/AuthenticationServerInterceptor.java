@@ -9,8 +9,12 @@ public class AuthenticationServerInterceptor implements ServerInterceptor {
 
     private final Metadata.Key<String> sessionTokenHeaderKey = Metadata.Key.of("X-Authorization", Metadata.ASCII_STRING_MARSHALLER);
 
+    private final Metadata.Key<String> clientAddressHeaderKey = Metadata.Key.of("X-Client-Address", Metadata.ASCII_STRING_MARSHALLER);
+
     public static final Context.Key<String> SESSION_TOKEN = Context.key("lens-session-token");
     public static final Context.Key<AuthState> AUTH_STATE = Context.key("auth-state");
+    // Address of the browser the portfolio is making the call for, used to throttle password checks
+    public static final Context.Key<String> CLIENT_ADDRESS = Context.keyWithDefault("client-address", "unknown");
 
 
     @Override
@@ -23,9 +27,12 @@ public class AuthenticationServerInterceptor implements ServerInterceptor {
         String bearerStrippedSessionToken = sessionToken != null ? sessionToken.replaceFirst("Bearer ", "") : "";
         AuthState authState = AuthenticationValidatorUtil.validateTokenForAuthState(bearerStrippedSessionToken);
 
+        String clientAddress = headers.get(clientAddressHeaderKey);
+
         Context context = Context.current()
                 .withValue(SESSION_TOKEN, sessionToken)
-                .withValue(AUTH_STATE, authState);
+                .withValue(AUTH_STATE, authState)
+                .withValue(CLIENT_ADDRESS, clientAddress != null ? clientAddress : "unknown");
 
         return Contexts.interceptCall(context, call, headers, next);
     }
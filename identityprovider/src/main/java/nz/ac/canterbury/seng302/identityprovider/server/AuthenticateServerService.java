@@ -1,58 +1,90 @@
 package nz.ac.canterbury.seng302.identityprovider.server;
 
 import com.google.protobuf.Empty;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 
 import nz.ac.canterbury.seng302.identityprovider.authentication.AuthenticationServerInterceptor;
 import nz.ac.canterbury.seng302.identityprovider.authentication.JwtTokenUtil;
 import nz.ac.canterbury.seng302.identityprovider.model.UserModel;
+import nz.ac.canterbury.seng302.identityprovider.service.AttemptThrottle;
+import nz.ac.canterbury.seng302.identityprovider.service.PasswordHasher;
 import nz.ac.canterbury.seng302.identityprovider.service.UserModelService;
 import nz.ac.canterbury.seng302.shared.identityprovider.AuthState;
 import nz.ac.canterbury.seng302.shared.identityprovider.AuthenticateRequest;
 import nz.ac.canterbury.seng302.shared.identityprovider.AuthenticateResponse;
 import nz.ac.canterbury.seng302.shared.identityprovider.AuthenticationServiceGrpc.AuthenticationServiceImplBase;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 
 
 @GrpcService
 public class AuthenticateServerService extends AuthenticationServiceImplBase {
 
-    private Pbkdf2PasswordEncoder pbkdf2PasswordEncoder = new Pbkdf2PasswordEncoder();
+    /**
+     * Message given when a log in attempt is turned away because there have been too many for the username or address.
+     */
+    public static final String TOO_MANY_ATTEMPTS_MESSAGE = "Log in attempt failed: too many attempts";
 
     private JwtTokenUtil jwtTokenService = JwtTokenUtil.getInstance();
 
     @Autowired
     private UserModelService userModelService;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private AttemptThrottle attemptThrottle;
+
     /**
-     * Attempts to authenticate a user with a given username and password.
+     * Attempts to authenticate a user with a given username and password. Attempts are throttled by username and by
+     * the address they come from, and turned away without checking the password when there have been too many. They
+     * are also turned away when too many passwords are being checked for this one to be checked in time.
      */
     @Override
     public void authenticate(AuthenticateRequest request, StreamObserver<AuthenticateResponse> responseObserver) {
         AuthenticateResponse.Builder reply = AuthenticateResponse.newBuilder();
 
-        UserModel user = userModelService.getUserByUsername(request.getUsername());
-        if (user == null) {
+        if (!attemptThrottle.tryAcquire(request.getUsername(), AuthenticationServerInterceptor.CLIENT_ADDRESS.get())) {
             reply
-                    .setMessage("Log in attempt failed: username incorrect")
+                    .setMessage(TOO_MANY_ATTEMPTS_MESSAGE)
                     .setSuccess(false)
                     .setToken("");
-        } else if (user.getUsername().equals(request.getUsername()) && pbkdf2PasswordEncoder.matches( request.getPassword(),  user.getPassword())) {
-            String token = jwtTokenService.generateTokenForUser(user.getUsername(), user.getUserId(),
-                    user.getFirstName() + user.getMiddleName() + user.getLastName(), userModelService.getHighestRole(user));
-            reply
-                    .setEmail(user.getEmail())
-                    .setFirstName(user.getFirstName())
-                    .setLastName(user.getLastName())
-                    .setMessage("Logged in successfully!")
-                    .setSuccess(true)
-                    .setToken(token)
-                    .setUserId(user.getUserId())
-                    .setUsername(user.getUsername());
-        } else {
+            responseObserver.onNext(reply.build());
+            responseObserver.onCompleted();
+            return;
+        }
+
+        UserModel user = userModelService.getUserByUsername(request.getUsername());
+        try {
+            if (user == null) {
+                reply
+                        .setMessage("Log in attempt failed: username incorrect")
+                        .setSuccess(false)
+                        .setToken("");
+            } else if (user.getUsername().equals(request.getUsername()) && passwordHasher.matches(request.getPassword(), user.getPassword())) {
+                String token = jwtTokenService.generateTokenForUser(user.getUsername(), user.getUserId(),
+                        user.getFirstName() + user.getMiddleName() + user.getLastName(), userModelService.getHighestRole(user));
+                reply
+                        .setEmail(user.getEmail())
+                        .setFirstName(user.getFirstName())
+                        .setLastName(user.getLastName())
+                        .setMessage("Logged in successfully!")
+                        .setSuccess(true)
+                        .setToken(token)
+                        .setUserId(user.getUserId())
+                        .setUsername(user.getUsername());
+            } else {
+                reply
+                        .setMessage("Log in attempt failed: password incorrect")
+                        .setSuccess(false)
+                        .setToken("");
+            }
+        } catch (StatusRuntimeException e) {
+            // The password could not be checked in time, as too many are being checked at once
             reply
-                    .setMessage("Log in attempt failed: password incorrect")
+                    .setMessage(TOO_MANY_ATTEMPTS_MESSAGE)
                     .setSuccess(false)
                     .setToken("");
         }
@@ -0,0 +1,58 @@
+package nz.ac.canterbury.seng302.identityprovider.server;
+
+import io.grpc.ServerBuilder;
+import net.devh.boot.grpc.server.serverfactory.GrpcServerConfigurer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the gRPC server's calls on a fixed number of threads, rather than gRPC's default pool, which starts a new
+ * thread whenever every thread is busy and so lets a burst of calls start as many threads as there are calls.
+ * The {@link MethodConcurrencyLimiter} keeps expensive methods from taking all of these threads, so there are always
+ * threads left for cheap ones.
+ */
+@Component
+public class GrpcServerExecutor implements GrpcServerConfigurer {
+
+    private final ExecutorService executor;
+
+    /**
+     * Creates the executor with the number of threads from the application properties.
+     * @param threads number of threads running calls
+     */
+    @Autowired
+    public GrpcServerExecutor(@Value("${identityprovider.grpc.threads:16}") int threads) {
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "grpc-call-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Gives the server this executor.
+     * @param serverBuilder builder of the server
+     */
+    @Override
+    public void accept(ServerBuilder<?> serverBuilder) {
+        serverBuilder.executor(executor);
+    }
+
+    /**
+     * Stops the threads once the server has stopped.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
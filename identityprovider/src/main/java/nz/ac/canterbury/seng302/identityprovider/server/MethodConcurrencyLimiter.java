@@ -0,0 +1,109 @@
+package nz.ac.canterbury.seng302.identityprovider.server;
+
+import io.grpc.*;
+import net.devh.boot.grpc.server.interceptor.GrpcGlobalServerInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Limits how many calls to each expensive method run at once, so a burst of them cannot take every thread of the
+ * server. Logging in hashes the password, which is slow on purpose, and getting every user loads the whole table.
+ * Without limits a login storm at the start of a lab holds every thread, and the checks of each page's session wait
+ * behind it. Calls over a method's limit fail straight away with RESOURCE_EXHAUSTED rather than waiting, so the
+ * portfolio can tell the user to try again, and cheap methods without a limit always find a thread free.
+ * This runs before any other interceptor, so rejected calls cost as little as possible.
+ */
+@GrpcGlobalServerInterceptor
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class MethodConcurrencyLimiter implements ServerInterceptor {
+
+    /**
+     * Package of the identity provider's services.
+     */
+    static final String SERVICE_PACKAGE = "nz.ac.canterbury.seng302";
+
+    /**
+     * Permits of each limited method, by full method name.
+     */
+    private final Map<String, Semaphore> permits = new HashMap<>();
+
+    /**
+     * Creates the limiter with the limits from the application properties.
+     * @param methodLimits limits of the methods that have one, each as Service/Method=limit
+     */
+    @Autowired
+    public MethodConcurrencyLimiter(@Value("${identityprovider.grpc.method-limits:}") List<String> methodLimits) {
+        for (String methodLimit : methodLimits) {
+            if (methodLimit.isBlank()) {
+                continue;
+            }
+            String[] pair = methodLimit.trim().split("=", 2);
+            if (pair.length != 2 || !pair[0].contains("/")) {
+                throw new IllegalArgumentException("Method limit " + methodLimit + " is not Service/Method=limit");
+            }
+            permits.put(SERVICE_PACKAGE + "." + pair[0].trim(), new Semaphore(Integer.parseInt(pair[1].trim())));
+        }
+    }
+
+    /**
+     * Starts the call if its method has a permit free, or has no limit, and otherwise fails it with
+     * RESOURCE_EXHAUSTED. The permit is given back when the call completes or is cancelled.
+     */
+    @Override
+    public <ReqT, RespT> ServerCall.Listener<ReqT> interceptCall(ServerCall<ReqT, RespT> call, Metadata headers,
+                                                                 ServerCallHandler<ReqT, RespT> next) {
+        Semaphore methodPermits = permits.get(call.getMethodDescriptor().getFullMethodName());
+        if (methodPermits == null) {
+            return next.startCall(call, headers);
+        }
+        if (!methodPermits.tryAcquire()) {
+            call.close(Status.RESOURCE_EXHAUSTED.withDescription("Too many calls to "
+                    + call.getMethodDescriptor().getBareMethodName() + ", try again shortly"), new Metadata());
+            return new ServerCall.Listener<>() {};
+        }
+        AtomicBoolean isReleased = new AtomicBoolean(false);
+        Runnable release = () -> {
+            if (isReleased.compareAndSet(false, true)) {
+                methodPermits.release();
+            }
+        };
+        ServerCall.Listener<ReqT> listener;
+        try {
+            listener = next.startCall(call, headers);
+        } catch (RuntimeException e) {
+            release.run();
+            throw e;
+        }
+        return new ForwardingServerCallListener.SimpleForwardingServerCallListener<>(listener) {
+            @Override
+            public void onComplete() {
+                release.run();
+                super.onComplete();
+            }
+
+            @Override
+            public void onCancel() {
+                release.run();
+                super.onCancel();
+            }
+        };
+    }
+
+    /**
+     * Gets how many more calls to a method can start now.
+     * @param fullMethodName full name of the method
+     * @return the permits free, or -1 if the method has no limit
+     */
+    int getAvailablePermits(String fullMethodName) {
+        Semaphore methodPermits = permits.get(fullMethodName);
+        return methodPermits == null ? -1 : methodPermits.availablePermits();
+    }
+}
@@ -2,13 +2,17 @@ package nz.ac.canterbury.seng302.identityprovider.server;
 
 import com.fasterxml.jackson.databind.util.ArrayIterator;
 import com.google.common.annotations.VisibleForTesting;
+import io.grpc.StatusRuntimeException;
 import io.grpc.stub.StreamObserver;
 import net.devh.boot.grpc.server.service.GrpcService;
 import nz.ac.canterbury.seng302.identityprovider.IdentityProviderApplication;
+import nz.ac.canterbury.seng302.identityprovider.authentication.AuthenticationServerInterceptor;
 import nz.ac.canterbury.seng302.identityprovider.model.Roles;
 import nz.ac.canterbury.seng302.identityprovider.model.UserModel;
 import nz.ac.canterbury.seng302.identityprovider.repository.RolesRepository;
+import nz.ac.canterbury.seng302.identityprovider.service.AttemptThrottle;
 import nz.ac.canterbury.seng302.identityprovider.service.GroupModelService;
+import nz.ac.canterbury.seng302.identityprovider.service.PasswordHasher;
 import nz.ac.canterbury.seng302.identityprovider.service.UserModelService;
 import nz.ac.canterbury.seng302.shared.identityprovider.UserAccountServiceGrpc;
 import nz.ac.canterbury.seng302.shared.identityprovider.UserRegisterRequest;
@@ -21,7 +25,6 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import nz.ac.canterbury.seng302.shared.identityprovider.*;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 
 import javax.naming.directory.InvalidAttributesException;
 import java.text.MessageFormat;
@@ -40,7 +43,11 @@ import static nz.ac.canterbury.seng302.shared.util.FileUploadStatus.*;
 @GrpcService
 public class UserAccountServerService extends UserAccountServiceGrpc.UserAccountServiceImplBase {
 
-    private Pbkdf2PasswordEncoder pbkdf2PasswordEncoder = new Pbkdf2PasswordEncoder();
+    /**
+     * Message given when a password change is turned away because there have been too many attempts for the user or
+     * address.
+     */
+    public static final String TOO_MANY_ATTEMPTS_MESSAGE = "Too many attempts, please try again later.";
 
     @Autowired
     private UserModelService userModelService;
@@ -51,6 +58,12 @@ public class UserAccountServerService extends UserAccountServiceGrpc.UserAccount
     @Autowired
     private GroupModelService groupModelService;
 
+    @Autowired
+    private PasswordHasher passwordHasher;
+
+    @Autowired
+    private AttemptThrottle attemptThrottle;
+
     @Value("${spring.datasource.url}")
     private String dataSource;
 
@@ -207,7 +220,10 @@ public class UserAccountServerService extends UserAccountServiceGrpc.UserAccount
         boolean wasSaved;
         try {
             UserModel currentUser = userModelService.getUserById(request.getUserId());
-            if (pbkdf2PasswordEncoder.matches(request.getCurrentPassword(), currentUser.getPassword())) {
+            if (!attemptThrottle.tryAcquire(currentUser.getUsername(),
+                    AuthenticationServerInterceptor.CLIENT_ADDRESS.get())) {
+                reply.setIsSuccess(false).setMessage(TOO_MANY_ATTEMPTS_MESSAGE);
+            } else if (passwordHasher.matches(request.getCurrentPassword(), currentUser.getPassword())) {
                 UserModel user = new UserModel();
                 user.setUserId(request.getUserId());
                 user.setBio(currentUser.getBio());
@@ -231,6 +247,9 @@ public class UserAccountServerService extends UserAccountServiceGrpc.UserAccount
             } else {
                 reply.setIsSuccess(false).setMessage("Current password was incorrect.");
             }
+        } catch (StatusRuntimeException e) {
+            // The password could not be checked in time, as too many are being checked at once
+            reply.setIsSuccess(false).setMessage(TOO_MANY_ATTEMPTS_MESSAGE);
         } catch (Exception e) {
             logger.error(MessageFormat.format(
                     "User failed to be changed to new values: {0}", e.getMessage()));
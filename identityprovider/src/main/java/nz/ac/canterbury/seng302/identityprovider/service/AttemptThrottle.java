@@ -0,0 +1,160 @@
+package nz.ac.canterbury.seng302.identityprovider.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits how often a password can be checked for each username from each address, and for each address the attempts
+ * come from, so guessing a password is slow and the cost of hashing cannot be used to overload the server.
+ * Each username at an address and each address has a bucket of tokens that refills at a steady rate up to its
+ * capacity, and each attempt takes a token from both. Attempts with either bucket empty are turned away without
+ * checking the password. A username gets only a few attempts in a row from one address, while an address gets many,
+ * as a whole lab may share one. Usernames are only limited per address, so someone guessing at a username cannot lock
+ * its owner out from everywhere else.
+ */
+@Service
+public class AttemptThrottle {
+
+    /**
+     * Number of stripes the buckets are split between. Each stripe has its own lock, so attempts for different
+     * usernames and addresses rarely wait for each other.
+     */
+    static final int STRIPES = 64;
+
+    /**
+     * Most buckets kept in each stripe. When a stripe is full the bucket used least recently is dropped, so an
+     * attacker using many addresses cannot use up the server's memory.
+     */
+    static final int MAX_BUCKETS_PER_STRIPE = 1024;
+
+    /**
+     * Tokens left in one bucket, as of the time it was last refilled.
+     */
+    private static class TokenBucket {
+
+        private double tokens;
+
+        private long refilledAtNanos;
+
+        private TokenBucket(double tokens, long refilledAtNanos) {
+            this.tokens = tokens;
+            this.refilledAtNanos = refilledAtNanos;
+        }
+    }
+
+    /**
+     * Buckets for one kind of key, such as addresses, split between stripes by the hash of the key.
+     */
+    static class StripedTokenBuckets {
+
+        private final double capacity;
+
+        private final double tokensPerNano;
+
+        private final List<Map<String, TokenBucket>> stripes = new ArrayList<>(STRIPES);
+
+        StripedTokenBuckets(int capacity, int refillPerMinute) {
+            this.capacity = capacity;
+            this.tokensPerNano = refillPerMinute / 60e9;
+            for (int i = 0; i < STRIPES; i++) {
+                stripes.add(new LinkedHashMap<>(16, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<String, TokenBucket> eldest) {
+                        return size() > MAX_BUCKETS_PER_STRIPE;
+                    }
+                });
+            }
+        }
+
+        private Map<String, TokenBucket> stripeFor(String key) {
+            return stripes.get(Math.floorMod(key.hashCode(), STRIPES));
+        }
+
+        /**
+         * Takes a token from the key's bucket if it has one.
+         * @return true if a token was taken
+         */
+        boolean tryTake(String key, long nowNanos) {
+            Map<String, TokenBucket> stripe = stripeFor(key);
+            synchronized (stripe) {
+                TokenBucket bucket = stripe.computeIfAbsent(key, unused -> new TokenBucket(capacity, nowNanos));
+                bucket.tokens = Math.min(capacity, bucket.tokens + (nowNanos - bucket.refilledAtNanos) * tokensPerNano);
+                bucket.refilledAtNanos = nowNanos;
+                if (bucket.tokens < 1) {
+                    return false;
+                }
+                bucket.tokens--;
+                return true;
+            }
+        }
+
+        /**
+         * Gives back a token taken for an attempt that was then turned away for another reason.
+         */
+        void giveBack(String key) {
+            Map<String, TokenBucket> stripe = stripeFor(key);
+            synchronized (stripe) {
+                TokenBucket bucket = stripe.get(key);
+                if (bucket != null) {
+                    bucket.tokens = Math.min(capacity, bucket.tokens + 1);
+                }
+            }
+        }
+    }
+
+    private final StripedTokenBuckets usernameBuckets;
+
+    private final StripedTokenBuckets addressBuckets;
+
+    private final LongSupplier clock;
+
+    /**
+     * Creates the throttle with the bucket sizes and refill rates from the application properties.
+     * @param usernameCapacity most attempts in a row for one username from one address
+     * @param usernameRefillPerMinute attempts a minute one username gets back at one address
+     * @param addressCapacity most attempts in a row from one address
+     * @param addressRefillPerMinute attempts a minute one address gets back
+     */
+    @Autowired
+    public AttemptThrottle(@Value("${identityprovider.throttle.username.capacity:10}") int usernameCapacity,
+                           @Value("${identityprovider.throttle.username.refill-per-minute:10}") int usernameRefillPerMinute,
+                           @Value("${identityprovider.throttle.address.capacity:100}") int addressCapacity,
+                           @Value("${identityprovider.throttle.address.refill-per-minute:300}") int addressRefillPerMinute) {
+        this(new StripedTokenBuckets(usernameCapacity, usernameRefillPerMinute),
+                new StripedTokenBuckets(addressCapacity, addressRefillPerMinute), System::nanoTime);
+    }
+
+    AttemptThrottle(StripedTokenBuckets usernameBuckets, StripedTokenBuckets addressBuckets, LongSupplier clock) {
+        this.usernameBuckets = usernameBuckets;
+        this.addressBuckets = addressBuckets;
+        this.clock = clock;
+    }
+
+    /**
+     * Takes a token for an attempt to check a password, if both the username at the address and the address have one
+     * left.
+     * @param username username the attempt is for
+     * @param address address the attempt comes from
+     * @return true if the password may be checked, false if the attempt must be turned away
+     */
+    public boolean tryAcquire(String username, String address) {
+        long now = clock.getAsLong();
+        String usernameKey = username.toLowerCase(Locale.ROOT) + "\n" + address;
+        if (!usernameBuckets.tryTake(usernameKey, now)) {
+            return false;
+        }
+        if (!addressBuckets.tryTake(address, now)) {
+            usernameBuckets.giveBack(usernameKey);
+            return false;
+        }
+        return true;
+    }
+}
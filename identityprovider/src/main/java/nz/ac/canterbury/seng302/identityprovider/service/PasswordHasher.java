@@ -0,0 +1,40 @@
+package nz.ac.canterbury.seng302.identityprovider.service;
+
+import nz.ac.canterbury.seng302.shared.util.BoundedPasswordHasher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Checks passwords against their hashes off the gRPC threads, so a class logging in at once cannot take every core
+ * of the server. See {@link BoundedPasswordHasher}.
+ */
+@Service
+public class PasswordHasher extends BoundedPasswordHasher {
+
+    /**
+     * Creates the hasher with the pool size, queue limit and timeout from the application properties.
+     * @param threads number of threads hashing passwords
+     * @param queueLimit most checks that may wait for a thread
+     * @param timeoutMillis longest a caller waits for its check, including the time spent waiting for a thread
+     */
+    @Autowired
+    public PasswordHasher(@Value("${identityprovider.password-hashing.threads:4}") int threads,
+                          @Value("${identityprovider.password-hashing.queue-limit:32}") int queueLimit,
+                          @Value("${identityprovider.password-hashing.timeout-millis:4000}") long timeoutMillis) {
+        super(threads, queueLimit, timeoutMillis);
+    }
+
+    PasswordHasher(long timeoutMillis, ExecutorService executor) {
+        super(timeoutMillis, executor);
+    }
+
+    @Override
+    @PreDestroy
+    public void shutdown() {
+        super.shutdown();
+    }
+}
@@ -0,0 +1,94 @@
+package nz.ac.canterbury.seng302.identityprovider.server;
+
+import io.grpc.Status;
+import io.grpc.stub.StreamObserver;
+import nz.ac.canterbury.seng302.identityprovider.model.UserModel;
+import nz.ac.canterbury.seng302.identityprovider.service.AttemptThrottle;
+import nz.ac.canterbury.seng302.identityprovider.service.PasswordHasher;
+import nz.ac.canterbury.seng302.identityprovider.service.UserModelService;
+import nz.ac.canterbury.seng302.shared.identityprovider.AuthenticateRequest;
+import nz.ac.canterbury.seng302.shared.identityprovider.AuthenticateResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link AuthenticateServerService} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class AuthenticateServerServiceTest {
+
+    @Mock
+    private UserModelService userModelService;
+
+    @Mock
+    private PasswordHasher passwordHasher;
+
+    @Mock
+    private AttemptThrottle attemptThrottle;
+
+    @Mock
+    private StreamObserver<AuthenticateResponse> responseObserver;
+
+    @InjectMocks
+    private AuthenticateServerService authenticateServerService;
+
+    private final UserModel user = new UserModel("test", "hash", "first", "middle", "last", "nickname",
+            "email@email.com", "default bio", "He/him");
+
+    private final AuthenticateRequest request = AuthenticateRequest.newBuilder()
+            .setUsername("test").setPassword("password").build();
+
+    @BeforeEach
+    void setUp() {
+        when(attemptThrottle.tryAcquire(eq("test"), any())).thenReturn(true);
+        when(userModelService.getUserByUsername("test")).thenReturn(user);
+    }
+
+    /**
+     * Tests that a log in whose password cannot be checked, as the hashing pool is full or too slow, is told there
+     * have been too many attempts rather than failing the call.
+     */
+    @Test
+    void testAuthenticateWhenPasswordCannotBeChecked() {
+        when(passwordHasher.matches(any(), any()))
+                .thenThrow(Status.RESOURCE_EXHAUSTED.asRuntimeException())
+                .thenThrow(Status.DEADLINE_EXCEEDED.asRuntimeException());
+
+        authenticateServerService.authenticate(request, responseObserver);
+        authenticateServerService.authenticate(request, responseObserver);
+
+        ArgumentCaptor<AuthenticateResponse> reply = ArgumentCaptor.forClass(AuthenticateResponse.class);
+        verify(responseObserver, times(2)).onNext(reply.capture());
+        verify(responseObserver, times(2)).onCompleted();
+        verify(responseObserver, never()).onError(any());
+        for (AuthenticateResponse response : reply.getAllValues()) {
+            assertFalse(response.getSuccess());
+            assertEquals(AuthenticateServerService.TOO_MANY_ATTEMPTS_MESSAGE, response.getMessage());
+        }
+    }
+
+    /**
+     * Tests that a wrong password is still reported as incorrect.
+     */
+    @Test
+    void testAuthenticateWithWrongPassword() {
+        when(passwordHasher.matches("password", "hash")).thenReturn(false);
+
+        authenticateServerService.authenticate(request, responseObserver);
+
+        ArgumentCaptor<AuthenticateResponse> reply = ArgumentCaptor.forClass(AuthenticateResponse.class);
+        verify(responseObserver).onNext(reply.capture());
+        assertFalse(reply.getValue().getSuccess());
+        assertEquals("Log in attempt failed: password incorrect", reply.getValue().getMessage());
+    }
+}
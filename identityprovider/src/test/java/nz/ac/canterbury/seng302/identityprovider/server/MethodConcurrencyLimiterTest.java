@@ -0,0 +1,125 @@
+package nz.ac.canterbury.seng302.identityprovider.server;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.protobuf.Empty;
+import io.grpc.*;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import nz.ac.canterbury.seng302.shared.identityprovider.AuthState;
+import nz.ac.canterbury.seng302.shared.identityprovider.AuthenticateRequest;
+import nz.ac.canterbury.seng302.shared.identityprovider.AuthenticateResponse;
+import nz.ac.canterbury.seng302.shared.identityprovider.AuthenticationServiceGrpc;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link MethodConcurrencyLimiter} class. Calls are made over an in-process channel to a stand-in
+ * authentication service, whose logins wait until the test lets them finish.
+ */
+class MethodConcurrencyLimiterTest {
+
+    private static final String AUTHENTICATE = "nz.ac.canterbury.seng302.AuthenticationService/Authenticate";
+
+    private final MethodConcurrencyLimiter limiter =
+            new MethodConcurrencyLimiter(List.of("AuthenticationService/Authenticate=1"));
+
+    private final CountDownLatch loginsMayFinish = new CountDownLatch(1);
+
+    private final CountDownLatch loginStarted = new CountDownLatch(1);
+
+    private final ExecutorService serverExecutor = Executors.newFixedThreadPool(4);
+
+    private Server server;
+
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String serverName = InProcessServerBuilder.generateName();
+        AuthenticationServiceGrpc.AuthenticationServiceImplBase service =
+                new AuthenticationServiceGrpc.AuthenticationServiceImplBase() {
+                    @Override
+                    public void authenticate(AuthenticateRequest request,
+                                             StreamObserver<AuthenticateResponse> responseObserver) {
+                        loginStarted.countDown();
+                        try {
+                            loginsMayFinish.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                        responseObserver.onNext(AuthenticateResponse.newBuilder().setSuccess(true).build());
+                        responseObserver.onCompleted();
+                    }
+
+                    @Override
+                    public void checkAuthState(Empty request, StreamObserver<AuthState> responseObserver) {
+                        responseObserver.onNext(AuthState.newBuilder().setIsAuthenticated(true).build());
+                        responseObserver.onCompleted();
+                    }
+                };
+        server = InProcessServerBuilder.forName(serverName).executor(serverExecutor)
+                .addService(ServerInterceptors.intercept(service, limiter)).build().start();
+        channel = InProcessChannelBuilder.forName(serverName).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        loginsMayFinish.countDown();
+        channel.shutdownNow();
+        server.shutdownNow();
+        serverExecutor.shutdownNow();
+    }
+
+    /**
+     * Tests that a call over its method's limit fails straight away, while calls to methods without a limit still
+     * run, and that the permit is given back once the running call finishes.
+     */
+    @Test
+    void testCallOverLimitIsRejected() throws Exception {
+        AuthenticateRequest request = AuthenticateRequest.newBuilder().setUsername("user").build();
+        ListenableFuture<AuthenticateResponse> firstLogin =
+                AuthenticationServiceGrpc.newFutureStub(channel).authenticate(request);
+        assertTrue(loginStarted.await(5, TimeUnit.SECONDS));
+        AuthenticationServiceGrpc.AuthenticationServiceBlockingStub stub =
+                AuthenticationServiceGrpc.newBlockingStub(channel).withDeadlineAfter(5, TimeUnit.SECONDS);
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> stub.authenticate(request));
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, exception.getStatus().getCode());
+        assertTrue(stub.checkAuthState(Empty.getDefaultInstance()).getIsAuthenticated());
+
+        loginsMayFinish.countDown();
+        assertTrue(firstLogin.get(5, TimeUnit.SECONDS).getSuccess());
+        assertTrue(stub.authenticate(request).getSuccess());
+        assertEquals(1, limiter.getAvailablePermits(AUTHENTICATE));
+    }
+
+    /**
+     * Tests that the permit of a call the client cancels is given back.
+     */
+    @Test
+    void testPermitIsGivenBackWhenCallIsCancelled() throws Exception {
+        AuthenticateRequest request = AuthenticateRequest.newBuilder().setUsername("user").build();
+        ListenableFuture<AuthenticateResponse> login =
+                AuthenticationServiceGrpc.newFutureStub(channel).authenticate(request);
+        assertTrue(loginStarted.await(5, TimeUnit.SECONDS));
+        assertEquals(0, limiter.getAvailablePermits(AUTHENTICATE));
+
+        login.cancel(true);
+
+        long giveUpAt = System.currentTimeMillis() + 5000;
+        while (limiter.getAvailablePermits(AUTHENTICATE) == 0 && System.currentTimeMillis() < giveUpAt) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, limiter.getAvailablePermits(AUTHENTICATE));
+        assertEquals(-1, limiter.getAvailablePermits("nz.ac.canterbury.seng302.AuthenticationService/CheckAuthState"));
+    }
+}
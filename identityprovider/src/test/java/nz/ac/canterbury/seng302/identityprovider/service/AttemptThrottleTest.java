@@ -0,0 +1,108 @@
+package nz.ac.canterbury.seng302.identityprovider.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link AttemptThrottle} class. The throttle is given a clock the tests move forward themselves.
+ */
+class AttemptThrottleTest {
+
+    private final AtomicLong nowNanos = new AtomicLong();
+
+    /**
+     * Each username gets 3 attempts in a row from each address and 60 a minute back, and each address 5 in a row and 60
+     * a minute back.
+     */
+    private final AttemptThrottle attemptThrottle = new AttemptThrottle(
+            new AttemptThrottle.StripedTokenBuckets(3, 60),
+            new AttemptThrottle.StripedTokenBuckets(5, 60), nowNanos::get);
+
+    /**
+     * Tests that a username is turned away once it has used its attempts, whatever the case it is given in, and that
+     * other usernames are not.
+     */
+    @Test
+    void testUsernameIsTurnedAwayOnceItsAttemptsAreUsed() {
+        assertTrue(attemptThrottle.tryAcquire("user", "address"));
+        assertTrue(attemptThrottle.tryAcquire("USER", "address"));
+        assertTrue(attemptThrottle.tryAcquire("User", "address"));
+
+        assertFalse(attemptThrottle.tryAcquire("user", "address"));
+        assertTrue(attemptThrottle.tryAcquire("other", "address"));
+    }
+
+    /**
+     * Tests that using up a username's attempts from one address does not turn away attempts for it from another
+     * address, so its owner cannot be locked out by someone else.
+     */
+    @Test
+    void testUsernameIsOnlyTurnedAwayAtTheAddressThatUsedItsAttempts() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(attemptThrottle.tryAcquire("user", "attacker"));
+        }
+        assertFalse(attemptThrottle.tryAcquire("user", "attacker"));
+
+        assertTrue(attemptThrottle.tryAcquire("user", "owner"));
+    }
+
+    /**
+     * Tests that a username gets an attempt back once enough time has passed.
+     */
+    @Test
+    void testUsernameGetsAttemptsBackOverTime() {
+        for (int i = 0; i < 3; i++) {
+            assertTrue(attemptThrottle.tryAcquire("user", "address"));
+        }
+        assertFalse(attemptThrottle.tryAcquire("user", "address"));
+
+        nowNanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1000));
+
+        assertTrue(attemptThrottle.tryAcquire("user", "address"));
+        assertFalse(attemptThrottle.tryAcquire("user", "address"));
+    }
+
+    /**
+     * Tests that an address is turned away once it has used its attempts, even for usernames with attempts left, and
+     * that those usernames keep their attempts for other addresses.
+     */
+    @Test
+    void testAddressIsTurnedAwayOnceItsAttemptsAreUsed() {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(attemptThrottle.tryAcquire("user" + i, "address"));
+        }
+
+        assertFalse(attemptThrottle.tryAcquire("user", "address"));
+        assertFalse(attemptThrottle.tryAcquire("user", "address"));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(attemptThrottle.tryAcquire("user", "other address"));
+        }
+        assertFalse(attemptThrottle.tryAcquire("user", "other address"));
+    }
+
+    /**
+     * Tests that a stripe drops the bucket used least recently once it holds too many, so it gets its attempts back.
+     */
+    @Test
+    void testStripeDropsBucketUsedLeastRecently() {
+        AttemptThrottle.StripedTokenBuckets buckets = new AttemptThrottle.StripedTokenBuckets(1, 0);
+        assertTrue(buckets.tryTake("key", 0));
+        assertFalse(buckets.tryTake("key", 0));
+
+        int keysAdded = 0;
+        for (int i = 0; keysAdded < AttemptThrottle.MAX_BUCKETS_PER_STRIPE; i++) {
+            String key = "key" + i;
+            if (Math.floorMod(key.hashCode(), AttemptThrottle.STRIPES)
+                    == Math.floorMod("key".hashCode(), AttemptThrottle.STRIPES)) {
+                assertTrue(buckets.tryTake(key, 0));
+                keysAdded++;
+            }
+        }
+
+        assertTrue(buckets.tryTake("key", 0));
+    }
+}
@@ -0,0 +1,86 @@
+package nz.ac.canterbury.seng302.identityprovider.service;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PasswordHasher} class.
+ */
+class PasswordHasherTest {
+
+    private final String encodedPassword = new Pbkdf2PasswordEncoder().encode("password");
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(1));
+
+    private final PasswordHasher passwordHasher = new PasswordHasher(5000, executor);
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    /**
+     * Tests that the right password matches its hash and a wrong one does not.
+     */
+    @Test
+    void testMatches() {
+        assertTrue(passwordHasher.matches("password", encodedPassword));
+        assertFalse(passwordHasher.matches("wrong password", encodedPassword));
+    }
+
+    /**
+     * Tests that a check asked for while the pool is busy and its queue is full fails straight away with
+     * RESOURCE_EXHAUSTED.
+     */
+    @Test
+    void testCheckIsRejectedWhenQueueIsFull() throws InterruptedException {
+        CountDownLatch blockerStarted = new CountDownLatch(1);
+        CountDownLatch blockerMayFinish = new CountDownLatch(1);
+        executor.execute(() -> {
+            blockerStarted.countDown();
+            try {
+                blockerMayFinish.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(blockerStarted.await(5, TimeUnit.SECONDS));
+        executor.execute(() -> {});
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> passwordHasher.matches("password", encodedPassword));
+        assertEquals(Status.Code.RESOURCE_EXHAUSTED, exception.getStatus().getCode());
+
+        blockerMayFinish.countDown();
+    }
+
+    /**
+     * Tests that a check that waits longer than the timeout fails with DEADLINE_EXCEEDED.
+     */
+    @Test
+    void testCheckTimesOut() throws InterruptedException {
+        PasswordHasher impatientHasher = new PasswordHasher(50, executor);
+        CountDownLatch blockerMayFinish = new CountDownLatch(1);
+        executor.execute(() -> {
+            try {
+                blockerMayFinish.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> impatientHasher.matches("password", encodedPassword));
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, exception.getStatus().getCode());
+
+        blockerMayFinish.countDown();
+    }
+}
@@ -16,16 +16,30 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
 
     private static final String LOGIN_URL = "/login";
 
+    /**
+     * Allows signed in users whose current role is teacher or course administrator, checked with the IdP as roles in
+     * the session token may be out of date.
+     */
+    private static final String TEACHER_OR_ADMIN = "isAuthenticated() and "
+            + "@permissionService.isValidToModify(@userAccountClientService.getUserIDFromAuthState(principal))";
+
     @Override
     protected void configure(HttpSecurity security) throws Exception
     {
         // Force authentication for all endpoints except /login, /register, /, css files and webjars files.
+        // Actuator endpoints other than health, such as metrics, are only for teachers and course administrators.
         security
             .addFilterBefore(new JwtAuthenticationFilter(), BasicAuthenticationFilter.class)
                 .authorizeRequests()
                     .antMatchers(HttpMethod.GET, LOGIN_URL, "/register", "/css/**", "/", "/webjars/**")
                     .permitAll()
                     .and()
+                .authorizeRequests()
+                    .antMatchers("/actuator/health", "/actuator/health/**")
+                    .authenticated()
+                    .antMatchers("/actuator/**")
+                    .access(TEACHER_OR_ADMIN)
+                    .and()
                 .authorizeRequests()
                     .anyRequest()
                     .authenticated();
@@ -52,6 +66,7 @@ public class SecurityConfig extends WebSecurityConfigurerAdapter {
     @Override
     public void configure(WebSecurity web) throws Exception
     {
-        web.ignoring().antMatchers(LOGIN_URL, "/register", "/css/**", "/", "/webjars/**", "/mywebsockets/**");
+        // WebSocket handshakes are not ignored, so sessions know which user opened them
+        web.ignoring().antMatchers(LOGIN_URL, "/register", "/css/**", "/", "/webjars/**");
     }
 }
\ No newline at end of file
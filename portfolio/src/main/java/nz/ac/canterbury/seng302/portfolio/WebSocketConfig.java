@@ -1,19 +1,69 @@
 package nz.ac.canterbury.seng302.portfolio;
 
+import nz.ac.canterbury.seng302.portfolio.authentication.WebSocketAuthorisationInterceptor;
+import nz.ac.canterbury.seng302.portfolio.authentication.WebSocketHandshakeHandler;
+import nz.ac.canterbury.seng302.portfolio.service.NotificationLogService;
+import nz.ac.canterbury.seng302.portfolio.service.UserAccountClientService;
+import nz.ac.canterbury.seng302.portfolio.utility.FailoverTcpClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import java.util.List;
+
+/**
+ * Sets up the websocket endpoint pages connect to, and the broker that sends live updates to them.
+ * By default each node has its own in-memory broker, so only pages connected to the node that made a change see it.
+ * Setting portfolio.websocket.broker to relay sends updates through external STOMP brokers instead, such as an
+ * ActiveMQ Artemis cluster, so every node's pages see every change. The brokers must deliver /webSocketGet and
+ * /topic destinations to every subscriber, e.g. with multicastPrefix=/webSocketGet/,/topic/ on an Artemis acceptor.
+ * Tests can point the relay at a local embedded broker.
+ */
 @Configuration
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    @Autowired
+    private UserAccountClientService userAccountClientService;
+
+    @Autowired
+    private NotificationLogService notificationLogService;
+
+    @Value("${portfolio.websocket.broker:simple}")
+    private String brokerMode;
+
+    @Value("${portfolio.websocket.relay.hosts:localhost:61613}")
+    private List<String> relayHosts;
+
+    @Value("${portfolio.websocket.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${portfolio.websocket.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${portfolio.websocket.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    @Value("${portfolio.websocket.relay.heartbeat-millis:10000}")
+    private long relayHeartbeatMillis;
+
+    @Value("${portfolio.websocket.relay.reconnect-initial-millis:1000}")
+    private long relayReconnectInitialMillis;
+
+    @Value("${portfolio.websocket.relay.reconnect-max-millis:30000}")
+    private long relayReconnectMaxMillis;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
-        // Endpoint all websockets are set up at
+        // Endpoint all websockets are set up at, with each session named by the logged in user's id
         registry.addEndpoint("mywebsockets")
+                .setHandshakeHandler(new WebSocketHandshakeHandler(userAccountClientService))
                 .setAllowedOriginPatterns("https://*.canterbury.ac.nz")
                 .withSockJS()
                 .setClientLibraryUrl("https://cdn.jsdelivr.net/sockjs/1.1.2/sockjs.min.js");
@@ -21,10 +71,47 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
-        // Sets up brokers for endpoint
-        config.enableSimpleBroker("/webSocketGet");
+        // Sets up brokers for endpoint. /webSocketGet holds page and group destinations, /queue holds each user's
+        // queues, which sessions subscribe to through /user
+        if ("relay".equals(brokerMode)) {
+            configureBrokerRelay(config.enableStompBrokerRelay("/webSocketGet", "/queue", "/topic"));
+        } else {
+            config.enableSimpleBroker("/webSocketGet", "/queue");
+        }
+        config.setUserDestinationPrefix("/user");
         // Sets up endpoint the application back end is listening to (Where the front-end sends to)
         config.setApplicationDestinationPrefixes("/webSocketPost");
+        // Numbers and logs each update sent to pages, so reconnecting pages can catch up on what they missed
+        config.configureBrokerChannel().interceptors(notificationLogService);
+    }
+
+    /**
+     * Relays to the configured brokers, failing over between them, with heartbeats on the relay's own connection so a
+     * broker that stops responding is noticed and reconnected to. Sessions on other nodes are found through the
+     * brokers, so updates to a user reach them whichever node they are connected to. Pages cannot subscribe to
+     * /topic, which only carries these messages between nodes.
+     * @param relay Relay to configure.
+     */
+    private void configureBrokerRelay(StompBrokerRelayRegistration relay) {
+        relay.setTcpClient(FailoverTcpClient.forStomp(FailoverTcpClient.parseAddresses(relayHosts),
+                        relayReconnectInitialMillis, relayReconnectMaxMillis))
+                .setClientLogin(relayLogin)
+                .setClientPasscode(relayPasscode)
+                .setSystemLogin(relayLogin)
+                .setSystemPasscode(relayPasscode)
+                .setSystemHeartbeatSendInterval(relayHeartbeatMillis)
+                .setSystemHeartbeatReceiveInterval(relayHeartbeatMillis)
+                .setUserDestinationBroadcast("/topic/unresolved-user-destination")
+                .setUserRegistryBroadcast("/topic/user-registry");
+        if (!relayVirtualHost.isEmpty()) {
+            relay.setVirtualHost(relayVirtualHost);
+        }
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Checks what each session subscribes and sends to
+        registration.interceptors(new WebSocketAuthorisationInterceptor());
     }
 
 }
@@ -22,6 +22,8 @@ public class AuthenticationClientInterceptor implements ClientInterceptor {
 
     private final Metadata.Key<String> sessionTokenHeaderKey = Metadata.Key.of("X-Authorization", Metadata.ASCII_STRING_MARSHALLER);
 
+    private final Metadata.Key<String> clientAddressHeaderKey = Metadata.Key.of("X-Client-Address", Metadata.ASCII_STRING_MARSHALLER);
+
     /**
      * For every call that a client sends, perform the following actions before it is sent:
      *  1.  Attempt to retrieve some information about the HTTP session between this application and the user's browser
@@ -30,16 +32,20 @@ public class AuthenticationClientInterceptor implements ClientInterceptor {
      *  3.  Add a new HTTP header to the gRPC request, of the following format
      *      Header name: "X-Authorization"
      *      Header value: "Bearer {value of cookie, or blank if null}"
+     *  4.  Add the address of the user's browser, so the IdP can throttle password checks made from it
      */
     @Override
     public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method, CallOptions callOptions, Channel next) {
         String sessionToken;
+        String clientAddress;
         ServletRequestAttributes requestAttributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
         if (requestAttributes == null) {
             sessionToken = "Invalid";
+            clientAddress = null;
         } else {
             HttpServletRequest request = requestAttributes.getRequest();
             sessionToken = CookieUtil.getValue(request, "lens-session-token");
+            clientAddress = request.getRemoteAddr();
         }
 
         // Every time we send a gRPC request, include a copy of our authentication token in the headers
@@ -47,6 +53,9 @@ public class AuthenticationClientInterceptor implements ClientInterceptor {
             @Override
             public void start(Listener<RespT> responseListener, Metadata headers) {
                 headers.put(sessionTokenHeaderKey, String.format("Bearer %s", sessionToken));
+                if (clientAddress != null) {
+                    headers.put(clientAddressHeaderKey, clientAddress);
+                }
                 super.start(responseListener, headers);
             }
         };
@@ -0,0 +1,78 @@
+package nz.ac.canterbury.seng302.portfolio.authentication;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.List;
+
+/**
+ * Checks the frames clients send over WebSockets before they reach the broker or the message controllers.
+ * Only logged in sessions may subscribe or send. Subscriptions are limited to the destinations the server publishes
+ * to: page wide destinations, a group's destinations, a user's evidence, and the session's own user queues. Clients
+ * may only send to the message controllers, never straight to subscribers.
+ */
+public class WebSocketAuthorisationInterceptor implements ChannelInterceptor {
+
+    private static final List<String> SUBSCRIBE_PATTERNS = List.of(
+            "/webSocketGet/*",
+            "/webSocketGet/group/{groupId:\\d+}/*",
+            "/webSocketGet/evidence/{userId:\\d+}",
+            "/user/queue/*"
+    );
+
+    private static final String SEND_PATTERN = "/webSocketPost/**";
+
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    /**
+     * Rejects subscriptions and sends the session is not allowed to make.
+     * @throws MessagingException if the frame is not allowed, which closes the session with an error frame.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        StompCommand command = accessor.getCommand();
+        if (command != StompCommand.SUBSCRIBE && command != StompCommand.SEND) {
+            return message;
+        }
+        if (accessor.getUser() == null) {
+            throw new MessagingException(message, "Not logged in");
+        }
+        String destination = accessor.getDestination();
+        boolean isAllowed = command == StompCommand.SUBSCRIBE ? canSubscribe(destination) : canSend(destination);
+        if (!isAllowed) {
+            throw new MessagingException(message, String.format("Not allowed to %s %s",
+                    command == StompCommand.SUBSCRIBE ? "subscribe to" : "send to", destination));
+        }
+        return message;
+    }
+
+    /**
+     * Checks a destination is one the server publishes to. Sessions reach their own queues through /user, so
+     * subscribing to another user's queue directly is not allowed.
+     * @param destination Destination being subscribed to.
+     * @return True if the subscription is allowed.
+     */
+    boolean canSubscribe(String destination) {
+        return destination != null
+                && SUBSCRIBE_PATTERNS.stream().anyMatch(pattern -> pathMatcher.match(pattern, destination));
+    }
+
+    /**
+     * Checks a destination is handled by a message controller.
+     * @param destination Destination being sent to.
+     * @return True if the send is allowed.
+     */
+    boolean canSend(String destination) {
+        return destination != null && pathMatcher.match(SEND_PATTERN, destination);
+    }
+}
@@ -0,0 +1,61 @@
+package nz.ac.canterbury.seng302.portfolio.authentication;
+
+import nz.ac.canterbury.seng302.portfolio.service.UserAccountClientService;
+import nz.ac.canterbury.seng302.shared.identityprovider.AuthState;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.support.DefaultHandshakeHandler;
+
+import java.security.Principal;
+import java.util.Map;
+
+/**
+ * Names each WebSocket session after the id of the user who opened it, using the authentication set up by
+ * {@link JwtAuthenticationFilter} for the handshake request. This lets messages be sent to a single user's sessions
+ * and lets subscriptions be checked against who the user is.
+ */
+public class WebSocketHandshakeHandler extends DefaultHandshakeHandler {
+
+    private final UserAccountClientService userAccountClientService;
+
+    /**
+     * Principal of a WebSocket session, named by user id.
+     */
+    public static class UserPrincipal implements Principal {
+
+        private final int userId;
+
+        public UserPrincipal(int userId) {
+            this.userId = userId;
+        }
+
+        public int getUserId() {
+            return userId;
+        }
+
+        @Override
+        public String getName() {
+            return Integer.toString(userId);
+        }
+    }
+
+    public WebSocketHandshakeHandler(UserAccountClientService userAccountClientService) {
+        this.userAccountClientService = userAccountClientService;
+    }
+
+    /**
+     * Gets the user of a new session.
+     * @return Principal named by user id, or null if the handshake was not made by a logged in user.
+     */
+    @Override
+    protected Principal determineUser(ServerHttpRequest request, WebSocketHandler wsHandler,
+                                      Map<String, Object> attributes) {
+        Principal principal = request.getPrincipal();
+        if (principal instanceof Authentication authentication && authentication.isAuthenticated()
+                && authentication.getPrincipal() instanceof AuthState authState) {
+            return new UserPrincipal(userAccountClientService.getUserIDFromAuthState(authState));
+        }
+        return null;
+    }
+}
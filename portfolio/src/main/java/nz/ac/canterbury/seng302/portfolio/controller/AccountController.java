@@ -3,12 +3,10 @@ package nz.ac.canterbury.seng302.portfolio.controller;
 import io.grpc.StatusRuntimeException;
 
 
-import java.util.ArrayList;
 import java.util.List;
 
 import nz.ac.canterbury.seng302.portfolio.model.*;
 import nz.ac.canterbury.seng302.portfolio.model.Evidence;
-import nz.ac.canterbury.seng302.portfolio.model.HighFivers;
 import nz.ac.canterbury.seng302.portfolio.model.Project;
 import nz.ac.canterbury.seng302.portfolio.service.*;
 import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
@@ -111,12 +109,7 @@ public class AccountController {
             model.addAttribute("evidence", evidence);
 
             List<Evidence> evidenceList = evidenceService.getEvidences(userId);
-            List<Integer> evidenceHighFivedIds = new ArrayList<>();
-            for (Evidence eachEvidence:evidenceList) {
-                if (eachEvidence.getHighFivers().stream().map(HighFivers::getUserId).anyMatch(x -> x.equals(id))) {
-                    evidenceHighFivedIds.add(eachEvidence.getEvidenceId());
-                }
-            }
+            List<Integer> evidenceHighFivedIds = evidenceService.getEvidenceIdsHighFivedByUser(evidenceList, id);
             model.addAttribute("evidences", evidenceList);
             model.addAttribute("evidenceHighFivedIds", evidenceHighFivedIds);
 
@@ -60,7 +60,7 @@ public class DeadlineLifetimeController {
         try {
             deadlineService.validateDeadline(deadline, model);
             if (permissionService.isValidToModify(userID)) {
-                deadlineService.addDeadline(deadline);
+                deadlineService.addDeadline(deadline, userID);
             }
         } catch (NotAcceptableException e) {
             logger.error(String.format("Error adding deadline: %s", e.getMessage()));
@@ -83,7 +83,7 @@ public class DeadlineLifetimeController {
         elementService.addHeaderAttributes(model, userID);
 
         if (permissionService.isValidToModify(userID)) {
-            deadlineService.removeDeadline(id);
+            deadlineService.removeDeadline(id, userID);
         }
         return "redirect:/details";
     }
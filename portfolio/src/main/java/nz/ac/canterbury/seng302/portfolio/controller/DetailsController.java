@@ -3,6 +3,7 @@ package nz.ac.canterbury.seng302.portfolio.controller;
 import com.google.protobuf.Timestamp;
 import nz.ac.canterbury.seng302.portfolio.model.*;
 import nz.ac.canterbury.seng302.portfolio.service.*;
+import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
 import nz.ac.canterbury.seng302.portfolio.utility.ToastUtility;
 import nz.ac.canterbury.seng302.shared.identityprovider.UserResponse;
 import org.hibernate.ObjectNotFoundException;
@@ -10,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.stereotype.Controller;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import nz.ac.canterbury.seng302.shared.identityprovider.AuthState;
@@ -19,10 +21,9 @@ import javax.servlet.http.HttpServletRequest;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
-import java.util.ArrayList;
-import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for the display project details page
@@ -54,37 +55,44 @@ public class DetailsController {
     @Autowired
     private RegisterClientService registerClientService;
 
-    /**
-     * Holds list of events information for displaying.
-     */
-    private final ArrayList<NotificationResponse> eventsToDisplay = new ArrayList<>();
-
     /**
      * Holds the number of toasts to be generated in the HTML. Must be the same as or greater than NUM_OF_TOASTS in DetailsLive.js and
      * GroupsLive.js.
      */
     public static final int NUM_OF_TOASTS = 3;
 
+    @Autowired
+    private RecentNotificationService recentNotificationService;
+
+    @Autowired
+    private PageDataLoader pageDataLoader;
+
 
     /***
      * GET request method, followed by the request URL(../details)
+     * The page is rendered in a read-only transaction, nothing is written unless the default project has to be created.
+     * The user is fetched from the identity provider while the project and its artefacts are loaded.
      *
      * @param principal For getting the user ID
      * @param model Parameters sent to thymeleaf template to be rendered into HTML
      * @return projectDetails page or throw exception
      */
     @GetMapping("/details")
+    @Transactional(readOnly = true)
     public String details(@AuthenticationPrincipal AuthState principal,
                           Model model,
                           HttpServletRequest request
                           ) {
+        Integer id = userAccountClientService.getUserIDFromAuthState(principal);
+        CompletableFuture<UserResponse> userFuture = registerClientService.getUserDataAsync(id);
+
         /* Add project details to the model */
         // Gets the project with id 0 to plonk on the page
         Project project;
         try {
             project = projectService.getProjectById(0);
         } catch (ObjectNotFoundException e) {
-            int currentYear = Calendar.getInstance().get(Calendar.YEAR);
+            int currentYear = LocalDate.now().getYear();
             Instant time = Instant.now();
             Timestamp dateAdded = Timestamp.newBuilder().setSeconds(time.getEpochSecond()).build();
             LocalDate endDate = time.atZone(ZoneId.systemDefault()).toLocalDate();
@@ -112,31 +120,27 @@ public class DetailsController {
         model.addAttribute("sprints", sprintList);
         model.addAttribute("events", eventList);
 
-        List<List<Event>> eventsForSprints = getAllEventsForAllSprints(sprintList);
-        List<List<Deadline>> deadlinesForSprints = getAllDeadlinesForAllSprints(sprintList);
-        model.addAttribute("eventsForSprints", eventsForSprints);
-        model.addAttribute("deadlinesForSprints", deadlinesForSprints);
-
-        List<List<Milestone>> milestonesForSprints = getAllMilestonesForAllSprints(sprintList);
-        model.addAttribute("milestonesForSprints", milestonesForSprints);
-
         List<Milestone> milestoneList = milestoneService.getAllEventsOrderedWithColour(sprintList);
         model.addAttribute("milestones", milestoneList);
 
         List<Deadline> deadlineList = deadlineService.getAllDeadlinesOrderedWithColour(sprintList);
         model.addAttribute("deadlines", deadlineList);
-        UserResponse getUserByIdReply;
-        Integer id = userAccountClientService.getUserIDFromAuthState(principal);
-        elementService.addHeaderAttributes(model, id);
 
-        ToastUtility.addToastsToModel(model, eventsToDisplay, NUM_OF_TOASTS);
+        // Each artefact list is loaded once above and sorted into sprints in a single pass
+        model.addAttribute("eventsForSprints", eventService.getEventsForEachSprint(sprintList, eventList));
+        model.addAttribute("deadlinesForSprints", deadlineService.getDeadlinesForEachSprint(sprintList, deadlineList));
+        model.addAttribute("milestonesForSprints", milestoneService.getMilestonesForEachSprint(sprintList, milestoneList));
 
-        getUserByIdReply = registerClientService.getUserData(id);
-        String role = elementService.getUserHighestRole(getUserByIdReply);
+        UserResponse user = pageDataLoader.join(userFuture);
+        elementService.addHeaderAttributes(model, id, user);
+
+        ToastUtility.addToastsToModel(model, recentNotificationService.getRecent(RecentNotificationService.DETAILS_FEED,
+                Instant.now().getEpochSecond()), NUM_OF_TOASTS);
+
+        String role = elementService.getUserHighestRole(user);
         model.addAttribute("currentUserRole", role);
 
         model.addAttribute("userId", id);
-        UserResponse user = registerClientService.getUserData(id);
         model.addAttribute("username", user.getUsername());
         model.addAttribute("userFirstName", user.getFirstName());
         model.addAttribute("userLastName", user.getLastName());
@@ -145,10 +149,8 @@ public class DetailsController {
 
         model.addAttribute("newDeadline", new Deadline(0, "", new Date()));
 
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(new Date());
-        calendar.add(Calendar.DATE, 3);
-        model.addAttribute("newEvent", new Event(0, "", new Date(), calendar.getTime()));
+        Date now = new Date();
+        model.addAttribute("newEvent", new Event(0, "", now, DateUtility.toDate(DateUtility.toLocalDateTime(now).plusDays(3))));
 
         elementService.addDeniedMessage(model, request);
 
@@ -182,133 +184,4 @@ public class DetailsController {
     public NotificationResponse stopUpdatingArtefact(NotificationMessage message) {
         return NotificationResponse.fromMessage(message, "edit");
     }
-
-    /**
-     * This method maps @MessageMapping endpoint to the @SendTo endpoint. Called when something is sent to
-     * the MessageMapping endpoint. This method also triggers some sort of re-render of the events.
-     * @param message NotificationMessage that holds information about the artefact being updated
-     * @return returns an NotificationResponse that holds information about the event being updated.
-     */
-    @MessageMapping("/saved-edited-artefact")
-    @SendTo("/webSocketGet/artefact-save")
-    public NotificationResponse savingUpdatedArtefact(NotificationMessage message) {
-        NotificationResponse response = NotificationResponse.fromMessage(message, "save");
-        // Trigger reload and save the last event's information
-        eventsToDisplay.add(response);
-        while (eventsToDisplay.size() > NUM_OF_TOASTS) {
-            eventsToDisplay.remove(0);
-        }
-        return response;
-    }
-
-    /**
-     * This method maps @MessageMapping endpoint to the @SendTo endpoint. Called when an artefact is added.
-     * @param message NotificationMessage that holds information about the artefact being added
-     * @return returns an NotificationResponse that holds information about the artefact being added.
-     */
-    @MessageMapping("/added-artefact")
-    @SendTo("/webSocketGet/artefact-add")
-    public NotificationResponse addingArtefact(NotificationMessage message) {
-        NotificationResponse response = NotificationResponse.fromMessage(message, "add");
-        // Trigger reload and save the last event's information
-        eventsToDisplay.add(response);
-        while (eventsToDisplay.size() > NUM_OF_TOASTS) {
-            eventsToDisplay.remove(0);
-        }
-        return response;
-    }
-
-    /**
-     * This method maps @MessageMapping endpoint to the @SendTo endpoint. Called when an artefact is deleted.
-     * @param message NotificationMessage that holds information about the artefact being deleted
-     * @return returns an NotificationResponse that holds information about the artefact being deleted.
-     */
-    @MessageMapping("/deleted-artefact")
-    @SendTo("/webSocketGet/artefact-delete")
-    public NotificationResponse deletingArtefact(NotificationMessage message) {
-        NotificationResponse response = NotificationResponse.fromMessage(message, "delete");
-        // Trigger reload and save the last event's information
-        eventsToDisplay.add(response);
-        while (eventsToDisplay.size() > NUM_OF_TOASTS) {
-            eventsToDisplay.remove(0);
-        }
-        return response;
-    }
-
-    /**
-     * Tells the calendar that sprints or projects have been updated on the details page.
-     * Only sends a string because the calendar has no implementation to show the changes of the project and
-     * sprints other than reloading.
-     * @param message The message to send to the calendar
-     * @return The message to send to the calendar
-     */
-    @MessageMapping("/sprint-project-details-save")
-    @SendTo("/webSocketGet/sprint-project-details-save")
-    public String sprintProjectDetailsChange(String message) {
-        return message;
-    }
-
-    /**
-     * Tells the details page that a sprint has been updated.
-     * @param message The message to send to the details page containing the sprint.
-     * @return The message to send to the details page containing the sprint.
-     */
-    @MessageMapping("/sprint-project-calendar-save")
-    @SendTo("/webSocketGet/sprint-project-calendar-save")
-    public NotificationResponse sprintProjectCalendarChange(NotificationMessage message) {
-        NotificationResponse response = NotificationResponse.fromMessage(message, "save");
-        eventsToDisplay.add(response);
-        while (eventsToDisplay.size() > NUM_OF_TOASTS) {
-            eventsToDisplay.remove(0);
-        }
-        return response;
-    }
-
-    /**
-     * Gets a list where each element is a list of events that is a part of the sprint from sprintList with the same
-     * index.
-     * @param sprintList List of sprints to get the events of.
-     * @return List of lists of events that are within their given sprint.
-     */
-    private List<List<Event>> getAllEventsForAllSprints(List<Sprint> sprintList) {
-        List<List<Event>> allEventsList = new ArrayList<>();
-
-        for (Sprint sprint : sprintList) {
-            allEventsList.add(eventService.getAllEventsOverlappingWithSprint(sprint));
-        }
-
-        return allEventsList;
-    }
-
-    /**
-     * Get a list where each element is a list of deadline that is a part of the sprint from sprintList with the same index
-     * @param sprintList List of sprints to get the deadlines of.
-     * @return List of lists of deadlines that are within their given sprint
-     */
-    private List<List<Deadline>> getAllDeadlinesForAllSprints(List<Sprint> sprintList) {
-        List<List<Deadline>> allDeadlinesList = new ArrayList<>();
-
-        for (Sprint sprint : sprintList) {
-            allDeadlinesList.add(deadlineService.getAllDeadlinesOverLappingWithSprint(sprint));
-        }
-
-        return allDeadlinesList;
-    }
-
-    /**
-     * Gets a list where each element is a list of milestones that is a part of the sprint from sprintList with the same
-     * index.
-     * @param sprintList List of sprints to get the milestones of.
-     * @return List of lists of milestones that are within their given sprint.
-     */
-    private List<List<Milestone>> getAllMilestonesForAllSprints(List<Sprint> sprintList) {
-        List<List<Milestone>> allMilestonesList = new ArrayList<>();
-
-        for (Sprint sprint : sprintList) {
-            allMilestonesList.add(milestoneService.getAllMilestonesOverlappingWithSprint(sprint));
-        }
-
-        return allMilestonesList;
-    }
-
 }
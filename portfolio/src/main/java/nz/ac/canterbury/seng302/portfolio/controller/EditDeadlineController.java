@@ -65,7 +65,7 @@ public class EditDeadlineController {
                 Deadline newDeadline = deadlineService.getDeadlineById(id);
                 newDeadline.setDeadlineName(deadline.getDeadlineName());
                 newDeadline.setDeadlineDate(deadline.getDeadlineDate());
-                deadlineService.updateDeadline(newDeadline);
+                deadlineService.updateDeadline(newDeadline, userID);
             } else {
                 rm.addFlashAttribute("isAccessDenied", true);
             }
@@ -63,7 +63,7 @@ public class EditEventController {
         try {
             eventService.validateEvent(event, model);
             if (permissionService.isValidToModify(userID)) {
-                eventService.updateEvent(event);
+                eventService.updateEvent(event, userID);
             } else {
                 rm.addFlashAttribute("isAccessDenied", true);
             }
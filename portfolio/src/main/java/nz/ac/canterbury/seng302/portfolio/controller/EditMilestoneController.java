@@ -67,7 +67,7 @@ public class EditMilestoneController {
                 newMilestone.setMilestoneName(milestone.getMilestoneName());
                 newMilestone.setMilestoneDate(milestone.getMilestoneDate());
 
-                milestoneService.updateMilestone(newMilestone);
+                milestoneService.updateMilestone(newMilestone, userID);
             }
         } catch (NotAcceptableException e) {
             httpServletResponse.setStatus(HttpServletResponse.SC_BAD_REQUEST);
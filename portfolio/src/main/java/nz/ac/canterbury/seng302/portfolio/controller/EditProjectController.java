@@ -61,7 +61,7 @@ public class EditProjectController {
             newProject.setStartDateString(projectStartDate);
             newProject.setEndDateString(projectEndDate);
             newProject.setDescription(projectDescription);
-            projectService.updateProject(newProject);
+            projectService.updateProject(newProject, userID);
         }
         return "redirect:/details";
     }
@@ -55,7 +55,7 @@ public class EditSprintController {
             newSprint.setEndDateString(sprint.getEndDateString());
             newSprint.setDescription(sprint.getDescription());
 
-            sprintService.updateSprint(newSprint);
+            sprintService.updateSprint(newSprint, userID);
         }
 
 
@@ -51,7 +51,7 @@ public class EventLifetimeController {
         try {
             eventService.validateEvent(event, model);
             if (permissionService.isValidToModify(userID)) {
-                eventService.addEvent(event);
+                eventService.addEvent(event, userID);
             }
         } catch (NotAcceptableException e) {
             httpServletResponse.setStatus(HttpServletResponse.SC_BAD_REQUEST);
@@ -76,7 +76,7 @@ public class EventLifetimeController {
         Integer userID = userAccountClientService.getUserIDFromAuthState(principal);
         elementService.addHeaderAttributes(model, userID);
         if (permissionService.isValidToModify(userID)) {
-            eventService.removeEvent(id);
+            eventService.removeEvent(id, userID);
         }
         /* Return the name of the Thymeleaf template */
         return "redirect:/details";
@@ -8,8 +8,6 @@ import nz.ac.canterbury.seng302.shared.identityprovider.UserResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -17,10 +15,10 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletResponse;
 import javax.ws.rs.NotAcceptableException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Controller for evidence endpoints.
@@ -51,6 +49,12 @@ public class EvidenceController {
     @Autowired
     private UserAccountClientService userAccountClientService;
 
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private PageDataLoader pageDataLoader;
+
     private static final String ADD_EVIDENCE_MODAL_FRAGMENT = "fragments/evidenceModal::evidenceModalBody";
 
     public static final String ADD_EVIDENCE_MODAL_FRAGMENT_TITLE_MESSAGE = "evidenceTitleAlertMessage";
@@ -98,25 +102,6 @@ public class EvidenceController {
         return ADD_EVIDENCE_MODAL_FRAGMENT;
     }
 
-    /**
-     * Method for getting all highfivers IDs from a list of evidences.
-     * This method filters so that only evidences with a given userID are used.
-     * @param evidences The list of evidences.
-     * @param id    The id of the user who made the evidence.
-     * @return  A list of all highfivers id found from valid evidences.
-     */
-    private List<Integer> getHighFiveIds(List<Evidence> evidences, int id) {
-        List<Integer> ids = new ArrayList<>();
-        if (evidences != null) {
-            for (Evidence eachEvidence:evidences) {
-                if (eachEvidence.getHighFivers().stream().map(HighFivers::getUserId).anyMatch(x -> x.equals(id))) {
-                    ids.add(eachEvidence.getEvidenceId());
-                }
-            }
-        }
-        return ids;
-    }
-
     /**
      * Method to display the main page for viewing skill or category specific pieces of evidence.
      * @param model         Parameters sent to thymeleaf template to be rendered into HTML.
@@ -137,13 +122,13 @@ public class EvidenceController {
         // This code is duplicated in the update evidence list section as this method needs both the userAccount and
         // the returned ID while the swap list method needs only the returned ID.
         Integer id = userAccountClientService.getUserIDFromAuthState(principal);
-        elementService.addHeaderAttributes(model, id);
-        UserResponse userAccount = registerClientService.getUserData(viewedUserId);
-        // This is done as the UserResponse has a default of 0 for ID when the user doesn't exist. Note the database needs to not have an ID of 0.
-        int returnId = ((userAccount.getId() == 0) ?  id : userAccount.getId());
+        // Both users are fetched from the identity provider while the evidence is loaded
+        CompletableFuture<UserResponse> currentUserFuture = registerClientService.getUserDataAsync(id);
+        CompletableFuture<UserResponse> viewedUserFuture = registerClientService.getUserDataAsync(viewedUserId);
 
-        List<Evidence> evidenceList;
-        String tagName;
+        List<Evidence> evidenceList = null;
+        String tagName = null;
+        boolean isValidTag = false;
 
         try {
             if (Objects.equals(tagType, "Skills")) {
@@ -158,6 +143,7 @@ public class EvidenceController {
                     }
                     tagName = skillTag.getSpacedTagName();
                 }
+                isValidTag = true;
             } else if (Objects.equals(tagType, "Categories")) {
                 evidenceList = evidenceService.getEvidencesWithCategory(tagId);
                 Category category = categoryService.getCategory(tagId);
@@ -165,16 +151,24 @@ public class EvidenceController {
                     throw new NullPointerException("Invalid Category Id");
                 }
                 tagName = category.getCategoryName();
-            } else { // Invalid parameter given.
-                return "redirect:account?userId=" + returnId;
+                isValidTag = true;
             }
         } catch (NullPointerException ignore) { // Either exception from getting evidence or an invalid tag id.
+            isValidTag = false;
+        }
+
+        UserResponse currentUser = pageDataLoader.join(currentUserFuture);
+        elementService.addHeaderAttributes(model, id, currentUser);
+        UserResponse userAccount = pageDataLoader.join(viewedUserFuture);
+        // This is done as the UserResponse has a default of 0 for ID when the user doesn't exist. Note the database needs to not have an ID of 0.
+        int returnId = ((userAccount.getId() == 0) ?  id : userAccount.getId());
+        if (!isValidTag) { // Invalid parameter given, or an invalid tag id.
             return "redirect:account?userId=" + returnId;
         }
 
-        String userName = registerClientService.getUserData(returnId).getUsername();
+        String userName = ((userAccount.getId() == 0) ? currentUser : userAccount).getUsername();
         evidenceService.addUserDataToEvidence(evidenceList);
-        elementService.addRoles(model, registerClientService.getUserData(id));
+        elementService.addRoles(model, currentUser);
         model.addAttribute("userName", ((userName.toLowerCase(Locale.ROOT).endsWith("s")) ? userName + "'" : userName + "'s"));
         model.addAttribute("tagType", tagType);
         model.addAttribute("evidencesExists", ((evidenceList != null) && (!evidenceList.isEmpty())));
@@ -185,7 +179,7 @@ public class EvidenceController {
         model.addAttribute("validViewedUser", (userAccount.getId() != 0));
         model.addAttribute("allSkills", tagService.getTagsSortedList());
         model.addAttribute("allCategories", categoryService.getAllCategories());
-        model.addAttribute("evidenceHighFivedIds", getHighFiveIds(evidenceList, id));
+        model.addAttribute("evidenceHighFivedIds", evidenceService.getEvidenceIdsHighFivedByUser(evidenceList, id));
         // This id should be the same as the userId stored in the header but for redundancy and safety this variable is also used.
         model.addAttribute("currentUserId", id);
 
@@ -245,7 +239,7 @@ public class EvidenceController {
         model.addAttribute("evidencesExists", ((evidenceList != null) && (!evidenceList.isEmpty())));
         model.addAttribute("evidences", evidenceList);
         model.addAttribute("viewableUser", returnId);
-        model.addAttribute("evidenceHighFivedIds", getHighFiveIds(evidenceList, id));
+        model.addAttribute("evidenceHighFivedIds", evidenceService.getEvidenceIdsHighFivedByUser(evidenceList, id));
         model.addAttribute("allCategories", categoryService.getAllCategories());
         // This id should be the same as the userId stored in the header but for redundancy and safety this variable is also used.
         model.addAttribute("currentUserId", id);
@@ -280,10 +274,11 @@ public class EvidenceController {
 
 
     /**
-     * Saves a piece of evidence after being high-fived.
+     * Saves a piece of evidence after being high-fived. The owner of the evidence is told once the high five is saved.
+     * Users can only high five as themselves.
      * @param evidenceId evidence id of the piece of evidence being high-fived
-     * @param userId user id of the owner of the piece of evidence
-     * @param userName userName of the owner of the piece of evidence
+     * @param userId user id of the user high fiving the piece of evidence
+     * @param userName full name of the user high fiving the piece of evidence
      * @return a redirect to load the page
      */
     @PostMapping("/saveHighFiveEvidence")
@@ -292,8 +287,13 @@ public class EvidenceController {
             @RequestParam("userId") int userId,
             @RequestParam("userName") String userName,
             Model model,
-            HttpServletResponse httpServletResponse
+            HttpServletResponse httpServletResponse,
+            @AuthenticationPrincipal AuthState principal
     ) {
+        if (!Objects.equals(userAccountClientService.getUserIDFromAuthState(principal), userId)) {
+            httpServletResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return ACCOUNT_EVIDENCE;
+        }
         boolean wasHighFived = evidenceService.saveHighFiveEvidence(evidenceId, userId, userName);
         if (wasHighFived) {
             httpServletResponse.setStatus(HttpServletResponse.SC_OK);
@@ -304,10 +304,10 @@ public class EvidenceController {
     }
 
     /**
-     * Saves a piece of evidence after being un-high-fived.
+     * Saves a piece of evidence after being un-high-fived. Users can only remove their own high fives.
      * @param evidenceId evidence id of the piece of evidence being un-high-fived
-     * @param userId user id of the owner of the piece of evidence
-     * @param userName userName of the owner of the piece of evidence
+     * @param userId user id of the user removing their high five
+     * @param userName full name of the user removing their high five
      * @return a redirect to load the page
      */
     @PostMapping("/removeHighFiveEvidence")
@@ -319,6 +319,10 @@ public class EvidenceController {
             HttpServletResponse httpServletResponse,
             @AuthenticationPrincipal AuthState principal
     ) {
+        if (!Objects.equals(userAccountClientService.getUserIDFromAuthState(principal), userId)) {
+            httpServletResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return ACCOUNT_EVIDENCE;
+        }
         boolean wasRemoved = evidenceService.removeHighFiveEvidence(evidenceId, userId, userName);
         if (wasRemoved) {
             httpServletResponse.setStatus(HttpServletResponse.SC_OK);
@@ -327,50 +331,4 @@ public class EvidenceController {
         }
         return ACCOUNT_EVIDENCE;
     }
-
-    /**
-     * This method maps @MessageMapping endpoint to the @SendTo endpoint. Called when something is sent to
-     * the MessageMapping endpoint. This is triggered when a user adds a piece of evidence.
-     * @param message Information about the added piece of evidence.
-     * @return Returns the message given.
-     */
-    @MessageMapping("/evidence-add")
-    @SendTo("/webSocketGet/evidence-added")
-    public NotificationResponse evidenceAddNotification(NotificationMessage message) {
-        return NotificationResponse.fromMessage(message, "add");
-    }
-
-    /**
-     * This method maps @MessageMapping endpoint to the @SendTo endpoint. Called when something is sent to
-     * the MessageMapping endpoint. This is triggered when a user deletes a piece of evidence.
-     * @param message Information about the deleted piece of evidence.
-     * @return Returns the message given.
-     */
-    @MessageMapping("/evidence-delete")
-    @SendTo("/webSocketGet/evidence-deleted")
-    public NotificationResponse evidenceDeleteNotification(NotificationMessage message) {
-        return NotificationResponse.fromMessage(message, "delete");
-    }
-
-    /***
-     * Used to handle the interaction between a piece of evidence being highfived
-     * and the notification being shown through the header.
-     *
-     * @return Send a notification to the header to display a highfive notification.
-     */
-    @MessageMapping("/high-fived-evidence")
-    @SendTo("/webSocketGet/notification-of-highfive")
-    public NotificationHighFive highFiveNotification(NotificationHighFive notificationHighFive) {
-        return notificationHighFive;
-    }
-
-    /***
-     * Used to handle the interaction between a piece of evidence being un-highfived
-     * @return Send a message to reload the page if viewing.
-     */
-    @MessageMapping("/remove-high-fived-evidence")
-    @SendTo("/webSocketGet/notification-of-remove-highfive")
-    public NotificationHighFive removeHighFiveNotification(NotificationHighFive notificationHighFive) {
-        return notificationHighFive;
-    }
 }
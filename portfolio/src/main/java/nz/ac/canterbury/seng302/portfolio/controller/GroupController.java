@@ -41,6 +41,9 @@ public class GroupController {
     @Autowired
     public RegisterClientService registerClientService;
 
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
     private static final String CURRENT_USER_ROLE = "currentUserRole";
 
     private static final String GROUP_CARD_FRAGMENT = "group::groupCard";
@@ -74,7 +77,7 @@ public class GroupController {
         model.addAttribute(CURRENT_USER_ROLE, role);
         groupService.addGroupListToModel(model);
 
-        groupService.addToastsToModel(model, 3);
+        groupService.addToastsToModel(model, GroupService.NUM_OF_TOASTS);
 
         return "group";
     }
@@ -240,7 +243,7 @@ public class GroupController {
         ) {
             userIds.remove(userId);
         }
-        AddGroupMembersResponse response = groupService.addMemberToGroup(groupId, userIds);
+        AddGroupMembersResponse response = groupService.addMemberToGroup(groupId, userIds, currentGroupId);
         return returnGroupFragment(response.getIsSuccess(), httpServletResponse, groupId, model);
     }
 
@@ -331,7 +334,8 @@ public class GroupController {
 
     /**
      * This method maps @MessageMapping endpoint to the @SendTo endpoint. Called when something is sent to
-     * the MessageMapping endpoint. This method also triggers some sort of re-render of the groups.
+     * the MessageMapping endpoint. This method also triggers some sort of re-render of the groups, and of the
+     * group's settings page.
      * @param message NotificationMessage that holds information about the group being updated
      * @return returns an NotificationResponse that holds information about the group being updated.
      */
@@ -340,7 +344,9 @@ public class GroupController {
     public NotificationResponse savingUpdatedGroupWebsocket(NotificationMessage message) {
         NotificationResponse response = NotificationResponse.fromMessage(message, "save");
         // Trigger reload and save the last group's information
-        groupService.addNotification(response, 3);
+        groupService.addNotification(response);
+        liveUpdateService.publish(LiveUpdateService.groupDestination(message.getArtefactId(),
+                GroupService.GROUP_SETTINGS_TOPIC), new NotificationGroup(message.getArtefactId(), message.getArtefactId()));
         return response;
     }
 
@@ -353,7 +359,7 @@ public class GroupController {
     @SendTo("/webSocketGet/group-add")
     public NotificationResponse addingGroupWebsocket(NotificationMessage message) {
         NotificationResponse response = NotificationResponse.fromMessage(message, "add");
-        groupService.addNotification(response, 3);
+        groupService.addNotification(response);
         return response;
     }
 
@@ -366,30 +372,10 @@ public class GroupController {
     @SendTo("/webSocketGet/group-delete")
     public NotificationResponse deletingGroupWebsocket(NotificationMessage message) {
         NotificationResponse response = NotificationResponse.fromMessage(message, "delete");
-        groupService.addNotification(response, 3);
+        groupService.addNotification(response);
+        liveUpdateService.publish(LiveUpdateService.groupDestination(message.getArtefactId(),
+                GroupService.GROUP_DELETED_TOPIC), response);
         return response;
     }
 
-    /**
-     * This method maps @MessageMapping endpoint to the @SendTo endpoint. Called when a groups members are updated.
-     * @param message NotificationMessage that holds information about the groups being updated.
-     * @return returns an NotificationResponse that holds information about the groups being updated.
-     */
-    @MessageMapping("/changed-members-group")
-    @SendTo("/webSocketGet/group-change-users")
-    public NotificationGroup changeGroupMembersWebsocket(NotificationGroup message) {
-        return message;
-    }
-
-    /**
-     * This method maps @MessageMapping endpoint to the @SendTo endpoint.
-     * Called when a groups long name is updated within the group settings page.
-     * @param message NotificationMessage that holds information about the groups being updated.
-     * @return returns an NotificationResponse that holds information about the groups being updated.
-     */
-    @MessageMapping("/save-group-settings-outside")
-    @SendTo("/webSocketGet/saved-group-settings-outside")
-    public NotificationGroup changeGroupSettingsWebsocket(NotificationGroup message) {
-        return message; }
-
 }
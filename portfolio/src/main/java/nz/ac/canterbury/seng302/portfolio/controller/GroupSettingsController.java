@@ -4,18 +4,17 @@ package nz.ac.canterbury.seng302.portfolio.controller;
 import nz.ac.canterbury.seng302.portfolio.model.NotificationGroup;
 import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
 import nz.ac.canterbury.seng302.portfolio.service.*;
+import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
 import nz.ac.canterbury.seng302.portfolio.utility.ToastUtility;
 import nz.ac.canterbury.seng302.shared.identityprovider.AuthState;
 import nz.ac.canterbury.seng302.shared.identityprovider.GroupDetailsResponse;
 import nz.ac.canterbury.seng302.shared.identityprovider.ModifyGroupDetailsResponse;
 import nz.ac.canterbury.seng302.shared.identityprovider.UserResponse;
 import org.gitlab4j.api.GitLabApiException;
-import org.gitlab4j.api.models.Commit;
-import org.gitlab4j.api.models.Contributor;
 import org.hibernate.ObjectNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
@@ -23,8 +22,9 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import javax.servlet.http.HttpServletResponse;
-import java.util.ArrayList;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 
 /**
@@ -48,12 +48,24 @@ public class GroupSettingsController {
     @Autowired
     private GitLabApiService gitLabApiService;
 
+    @Autowired
+    private GitLabRepositoryCache gitLabRepositoryCache;
+
+    @Autowired
+    private CommitMirrorService commitMirrorService;
+
     @Autowired
     private RegisterClientService registerClientService;
 
     @Autowired
     private PermissionService permissionService;
 
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private PageDataLoader pageDataLoader;
+
     private static final String GROUP_SETTING_ALERT_MESSAGE = "groupSettingsAlertMessage";
 
     private static final String GROUP_ID = "groupId";
@@ -66,6 +78,8 @@ public class GroupSettingsController {
 
     /**
      * Method to handle GetMapping request from frontend, and return the group settings page.
+     * The user and group are fetched from the identity provider, and the repository's branches and contributors from
+     * GitLab, all at the same time.
      * @param groupId current group id
      * @param model group setting page model
      * @return group settings page
@@ -77,34 +91,35 @@ public class GroupSettingsController {
             Model model
     ) {
         Integer id = userAccountClientService.getUserIDFromAuthState(principal);
-        elementService.addHeaderAttributes(model, id);
-        UserResponse user = registerClientService.getUserData(id);
-        String role = elementService.getUserHighestRole(user);
-
-        model.addAttribute(GROUP_ID, groupId);
-        model.addAttribute(CURRENT_USER_ROLE, role);
+        CompletableFuture<UserResponse> userFuture = registerClientService.getUserDataAsync(id);
+        CompletableFuture<GroupDetailsResponse> groupFuture = groupService.getGroupDetailsAsync(groupId);
+        GroupSettings groupSettings = groupSettingsService.getGroupSettingsByGroupId(groupId);
+        CompletableFuture<GitLabRepositoryCache.RepositoryInfo> repositoryFuture =
+                pageDataLoader.load(() -> gitLabRepositoryCache.get(groupSettings));
 
+        GroupDetailsResponse group = pageDataLoader.join(groupFuture);
         // Non-existent group will have a group id of 0 when calling getGroupDetails
-        if (0 <= groupService.getGroupDetails(groupId).getGroupId() &&
-                groupService.getGroupDetails(groupId).getGroupId() <= 2) {
+        if (0 <= group.getGroupId() && group.getGroupId() <= 2) {
+            repositoryFuture.cancel(true);
             return "redirect:/groups";
         }
-        ToastUtility.addToastsToModel(model, new ArrayList<>(), 3);
 
-        long repoId = groupSettingsService.getGroupSettingsByGroupId(groupId).getRepoId();
-        String repoToken = groupSettingsService.getGroupSettingsByGroupId(groupId).getRepoApiKey();
-        String repoUrl = groupSettingsService.getGroupSettingsByGroupId(groupId).getRepoUrl();
-        gitLabApiService.checkGitLabToken(model, repoId, repoToken, repoUrl);
+        UserResponse user = pageDataLoader.join(userFuture);
+        elementService.addHeaderAttributes(model, id, user);
+        String role = elementService.getUserHighestRole(user);
+
+        model.addAttribute(GROUP_ID, groupId);
+        model.addAttribute(CURRENT_USER_ROLE, role);
+        ToastUtility.addToastsToModel(model, 3);
 
         boolean isValidToModify = permissionService.isValidToModifyGroupSettingPage(groupId, id);
         model.addAttribute("isValidToModify", isValidToModify);
 
-        groupService.addGroupDetailToModel(model, groupId);
+        groupService.addGroupDetailToModel(model, group);
 
-        GroupSettings groupSettings = groupSettingsService.getGroupSettingsByGroupId(groupId);
         groupSettingsService.addSettingAttributesToModel(model, groupSettings);
 
-        addGroupSettingAttributeToModel(model, groupId);
+        addGroupSettingAttributeToModel(model, groupSettings, pageDataLoader.join(repositoryFuture));
 
         model.addAttribute("userId", id);
         model.addAttribute("username", user.getUsername());
@@ -115,20 +130,28 @@ public class GroupSettingsController {
     }
 
     /**
-     * Method to partial refresh the group repository commits list.
+     * Method to partial refresh the group repository commits list, one page at a time.
+     * The filters are applied by GitLab, so only the commits on the page are fetched.
      * @param groupId current group id
      * @param branchName Current project's branches
-     * @param userEmail current user's emailal
+     * @param userEmail current user's email
+     * @param since only show commits from this day, if given
+     * @param until only show commits up to the end of this day, if given
+     * @param pageToken token of the page to show from the previous page, or none for the first page
      * @param model model for group setting page
-     * @return repository commits fragment
+     * @return repository commits fragment, or the fragment with the next page of commits if given a page token
      */
     @GetMapping("/repository-commits")
     public String getRepositoryCommits(
             @RequestParam(value = "groupId") int groupId,
             @RequestParam(value = "branchName") String branchName,
             @RequestParam(value = "userEmail") String userEmail,
+            @RequestParam(value = "since", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate since,
+            @RequestParam(value = "until", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate until,
+            @RequestParam(value = "pageToken", required = false) String pageToken,
             @AuthenticationPrincipal AuthState principal,
             Model model) {
+        String fragment = pageToken == null ? "groupSettings::commitsListRefresh" : "groupSettings::commitsPage";
         try {
             String branchRequestName = null;
             String userRequestEmail = null;
@@ -138,14 +161,39 @@ public class GroupSettingsController {
             if (!userEmail.equals("All Users")) {
                 userRequestEmail = userEmail;
             }
-            List<Commit> allCommit = gitLabApiService.getCommits(groupId, branchRequestName, userRequestEmail);
-            model.addAttribute("commitList", allCommit);
-            return "groupSettings::commitsListRefresh";
+            GitLabApiService.CommitPage commitPage = gitLabApiService.getCommitPage(groupId, branchRequestName,
+                    userRequestEmail, since == null ? null : DateUtility.toDate(since),
+                    until == null ? null : DateUtility.toDate(until.plusDays(1)), pageToken);
+            model.addAttribute("commitList", commitPage.getCommits());
+            model.addAttribute("nextPageToken", commitPage.getNextPageToken());
+            return fragment;
         } catch (GitLabApiException | ObjectNotFoundException e) {
-            return "groupSettings::commitsListRefresh";
+            return fragment;
         }
     }
 
+    /**
+     * Method to partial refresh the table of how many commits each member of the group made in each sprint.
+     * The counts come from the local copy of the group's commits, so GitLab is not asked for anything. Only teachers
+     * and course administrators can see the counts.
+     * @param groupId current group id
+     * @param model model for group setting page
+     * @return contributions fragment
+     */
+    @GetMapping("/groupSettings/contributions")
+    public String getContributions(
+            @RequestParam(value = "groupId") int groupId,
+            @AuthenticationPrincipal AuthState principal,
+            Model model) {
+        Integer id = userAccountClientService.getUserIDFromAuthState(principal);
+        String role = elementService.getUserHighestRole(registerClientService.getUserData(id));
+        if (!role.equals("student")) {
+            model.addAttribute("commitCountsBySprint", commitMirrorService.getCommitCountsBySprint(groupId));
+            model.addAttribute("lastSyncedAt", commitMirrorService.getLastSyncedAt(groupId));
+        }
+        return "groupSettings::contributions";
+    }
+
     /**
      * Method to partial refresh the group setting card.
      *
@@ -164,17 +212,13 @@ public class GroupSettingsController {
         UserResponse user = registerClientService.getUserData(id);
         String role = elementService.getUserHighestRole(user);
 
-        long repoId = groupSettingsService.getGroupSettingsByGroupId(groupId).getRepoId();
-        String repoToken = groupSettingsService.getGroupSettingsByGroupId(groupId).getRepoApiKey();
-        String repoUrl = groupSettingsService.getGroupSettingsByGroupId(groupId).getRepoUrl();
-        gitLabApiService.checkGitLabToken(model, repoId, repoToken, repoUrl);
         boolean isValidToModify = permissionService.isValidToModifyGroupSettingPage(groupId, id);
         model.addAttribute("isValidToModify", isValidToModify);
 
         groupService.addGroupDetailToModel(model, groupId);
         GroupSettings groupSettings = groupSettingsService.getGroupSettingsByGroupId(groupId);
         groupSettingsService.addSettingAttributesToModel(model, groupSettings);
-        addGroupSettingAttributeToModel(model, groupId);
+        addGroupSettingAttributeToModel(model, groupSettings);
         model.addAttribute(GROUP_ID, groupId);
         model.addAttribute(CURRENT_USER_ROLE, role);
 
@@ -236,8 +280,10 @@ public class GroupSettingsController {
         }
 
         boolean isSaved = groupSettingsService.isGroupSettingSaved(groupSettingsId, repoId, repoName, repoToken, groupId, repoServerUrl);
-        gitLabApiService.checkGitLabToken(model, repoId, repoToken, repoServerUrl);
-
+        gitLabRepositoryCache.invalidate(groupId);
+        if (isSaved) {
+            commitMirrorService.requestSync(groupId);
+        }
 
         if (!isSaved) {
             model.addAttribute(GROUP_SETTING_ALERT_MESSAGE, "Invalid Repository Information");
@@ -247,7 +293,7 @@ public class GroupSettingsController {
         groupService.addGroupDetailToModel(model, groupId);
         GroupSettings groupSettings = groupSettingsService.getGroupSettingsByGroupId(groupId);
         groupSettingsService.addSettingAttributesToModel(model, groupSettings);
-        addGroupSettingAttributeToModel(model, groupId);
+        addGroupSettingAttributeToModel(model, groupSettings);
 
         httpServletResponse.setStatus(HttpServletResponse.SC_OK);
         model.addAttribute("successMessage", "Save changed");
@@ -276,28 +322,41 @@ public class GroupSettingsController {
 
     /**
      * Method to add model attribute for group setting page, depending on different situations.
+     * The repository information comes from the {@link GitLabRepositoryCache}, so it is only loaded from GitLab when
+     * there is none recent enough to show.
      *
      * Situation 1: if current group has set up group setting, add branches and contributors to model
      * Situation 2: if current group has not set up group repository, add isRepoExist attribute to model
      * Situation 3: if current group has set up group setting with connection error, add error message to model
      * @param model model for group setting page
-     * @param groupId current group id
+     * @param groupSettings current group's settings
      */
-    public void addGroupSettingAttributeToModel(Model model, int groupId) {
-        try {
-            if (groupSettingsService.doesGroupHaveRepo(groupId)){
-                List<Contributor> repositoryContributors = gitLabApiService.getContributors(groupId);
-                model.addAttribute("repositoryContributors",repositoryContributors);
-                List<String> branchesName = gitLabApiService.getBranchNames(groupId);
-                model.addAttribute("branchesName", branchesName);
-                model.addAttribute(IS_REPO_EXIST, true);
-                model.addAttribute(GROUP_ID, groupId);
-                model.addAttribute(IS_CONNECTION_SUCCESSFUL, true);
-            } else {
-                model.addAttribute(IS_REPO_EXIST, false);
-                model.addAttribute(IS_CONNECTION_SUCCESSFUL, true);
-            }
-        } catch (GitLabApiException exception) {
+    public void addGroupSettingAttributeToModel(Model model, GroupSettings groupSettings) {
+        addGroupSettingAttributeToModel(model, groupSettings, gitLabRepositoryCache.get(groupSettings));
+    }
+
+    /**
+     * Method to add model attribute for group setting page, using repository information already loaded.
+     * @param model model for group setting page
+     * @param groupSettings current group's settings
+     * @param repositoryInfo information about the group's repository
+     */
+    private void addGroupSettingAttributeToModel(Model model, GroupSettings groupSettings,
+                                                 GitLabRepositoryCache.RepositoryInfo repositoryInfo) {
+        int groupId = groupSettings.getGroupId();
+        if (repositoryInfo.getAlertMessage() != null) {
+            model.addAttribute(GROUP_SETTING_ALERT_MESSAGE, repositoryInfo.getAlertMessage());
+        }
+        if (!groupSettingsService.doesGroupHaveRepo(groupSettings)) {
+            model.addAttribute(IS_REPO_EXIST, false);
+            model.addAttribute(IS_CONNECTION_SUCCESSFUL, true);
+        } else if (repositoryInfo.isConnectionSuccessful()) {
+            model.addAttribute("repositoryContributors", repositoryInfo.getContributors());
+            model.addAttribute("branchesName", repositoryInfo.getBranchNames());
+            model.addAttribute(IS_REPO_EXIST, true);
+            model.addAttribute(GROUP_ID, groupId);
+            model.addAttribute(IS_CONNECTION_SUCCESSFUL, true);
+        } else {
             model.addAttribute(IS_CONNECTION_SUCCESSFUL, false);
             model.addAttribute(IS_REPO_EXIST, false);
         }
@@ -305,25 +364,14 @@ public class GroupSettingsController {
 
     /**
      * Websocket controller to send notification to users to have their pages refreshed when new settings are saved.
+     * Only the settings pages of the saved group are sent it, along with the group page which lists every group.
      * @param notificationGroup Holds the ID of the group being refreshed.
-     * @return The notificationGroup object.
      */
     @MessageMapping("/save-group-settings")
-    @SendTo("/webSocketGet/group-settings-saved")
-    public NotificationGroup refreshGroupSettings(NotificationGroup notificationGroup) {
-        return notificationGroup;
-    }
-
-    /**
-     * This method maps @MessageMapping endpoint to the @SendTo endpoint.
-     * Called when a groups long name is updated outside the group settings page so that it can be reloaded.
-     * @param notificationGroup NotificationGroup that holds information about the groups being updated.
-     * @return returns an NotificationResponse that holds information about the groups being updated.
-     */
-    @MessageMapping("/outside-save-group-settings")
-    @SendTo("/webSocketGet/outside-group-settings-saved")
-    public NotificationGroup refreshGroupSettingsOutside(NotificationGroup notificationGroup) {
-        return notificationGroup;
+    public void refreshGroupSettings(NotificationGroup notificationGroup) {
+        liveUpdateService.publish(LiveUpdateService.groupDestination(notificationGroup.getSendingGroupId(),
+                GroupService.GROUP_SETTINGS_TOPIC), notificationGroup);
+        liveUpdateService.publish("/webSocketGet/saved-group-settings-outside", notificationGroup);
     }
 }
 
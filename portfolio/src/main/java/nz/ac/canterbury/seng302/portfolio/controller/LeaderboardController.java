@@ -3,6 +3,7 @@ package nz.ac.canterbury.seng302.portfolio.controller;
 import nz.ac.canterbury.seng302.portfolio.model.LeaderboardEntry;
 import nz.ac.canterbury.seng302.portfolio.service.ElementService;
 import nz.ac.canterbury.seng302.portfolio.service.LeaderboardService;
+import nz.ac.canterbury.seng302.portfolio.service.LiveUpdateService;
 import nz.ac.canterbury.seng302.portfolio.service.UserAccountClientService;
 import nz.ac.canterbury.seng302.portfolio.utility.ToastUtility;
 import nz.ac.canterbury.seng302.shared.identityprovider.AuthState;
@@ -12,7 +13,6 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 
-import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -30,6 +30,9 @@ public class LeaderboardController {
     @Autowired
     private ElementService elementService;
 
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
     /**
      * Method to receive GET method for group page to display leaderboard entries to leaderboard page
      * @param model Parameters sent to thymeleaf template to be rendered into HTML
@@ -43,9 +46,10 @@ public class LeaderboardController {
     ) {
         Integer id = userAccountClientService.getUserIDFromAuthState(principal);
         elementService.addHeaderAttributes(model, id);
+        addLeaderboardVersionToModel(model);
         List<LeaderboardEntry> leaderboardEntries = leaderboardService.getLeaderboardEntries(userAccountClientService.getStudentUsers());
         model.addAttribute("leaderboardEntries", leaderboardEntries);
-        ToastUtility.addToastsToModel(model, new ArrayList<>(), 3);
+        ToastUtility.addToastsToModel(model, 3);
         return "leaderboard";
     }
 
@@ -58,8 +62,18 @@ public class LeaderboardController {
     public String leaderboardTable(
             Model model
     ) {
+        addLeaderboardVersionToModel(model);
         List<LeaderboardEntry> leaderboardEntries = leaderboardService.getLeaderboardEntries(userAccountClientService.getStudentUsers());
         model.addAttribute("leaderboardEntries", leaderboardEntries);
         return "leaderboard::leaderboardTable";
     }
+
+    /**
+     * Adds the version of the leaderboard the table is built from, so the page knows which score changes it still
+     * needs. It is read before the scores, so a change made while they are read is applied again, which is harmless.
+     * @param model Parameters sent to thymeleaf template to be rendered into HTML
+     */
+    private void addLeaderboardVersionToModel(Model model) {
+        model.addAttribute("leaderboardVersion", liveUpdateService.getVersion(LeaderboardService.LEADERBOARD_DESTINATION));
+    }
 }
@@ -0,0 +1,33 @@
+package nz.ac.canterbury.seng302.portfolio.controller;
+
+import nz.ac.canterbury.seng302.portfolio.model.CatchUpRequest;
+import nz.ac.canterbury.seng302.portfolio.service.NotificationLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.stereotype.Controller;
+
+/**
+ * Handles websocket messages about the live updates themselves, rather than about any one page.
+ */
+@Controller
+public class LiveUpdateController {
+
+    @Autowired
+    private NotificationLogService notificationLogService;
+
+    /**
+     * Sends a reconnecting page the updates it missed, to the session that asked only. A page connecting for the first
+     * time is sent the latest sequence to count from.
+     * @param request Last sequence the page saw and the destinations it subscribes to.
+     * @return The missed updates, or that the page must reload.
+     */
+    @MessageMapping("/catch-up")
+    @SendToUser(destinations = "/queue/catch-up", broadcast = false)
+    public NotificationLogService.CatchUp catchUp(CatchUpRequest request) {
+        if (request.getLastSequence() == null) {
+            return notificationLogService.getLatest();
+        }
+        return notificationLogService.getSince(request.getLastSequence(), request.getDestinations());
+    }
+}
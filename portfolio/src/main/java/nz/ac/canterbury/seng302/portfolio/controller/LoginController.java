@@ -1,5 +1,6 @@
 package nz.ac.canterbury.seng302.portfolio.controller;
 
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import nz.ac.canterbury.seng302.portfolio.authentication.CookieUtil;
 import nz.ac.canterbury.seng302.portfolio.service.AuthenticateClientService;
@@ -21,6 +22,11 @@ import javax.servlet.http.HttpServletResponse;
 @Controller
 public class LoginController {
 
+    /**
+     * Message the identity provider gives when a log in attempt is turned away because there have been too many.
+     */
+    static final String TOO_MANY_ATTEMPTS_MESSAGE = "Log in attempt failed: too many attempts";
+
     @Autowired
     private AuthenticateClientService authenticateClientService;
 
@@ -64,6 +70,10 @@ public class LoginController {
         try {
             loginReply = authenticateClientService.authenticate(username, password);
         } catch (StatusRuntimeException e) {
+            if (e.getStatus().getCode() == Status.Code.RESOURCE_EXHAUSTED) {
+                // The identity provider is checking too many passwords to take another just now
+                return "redirect:login?tooManyAttemptsError";
+            }
             model.addAttribute("loginMessage", "Error connecting to Identity Provider...");
             return "redirect:login?error";
         }
@@ -81,7 +91,9 @@ public class LoginController {
             return "redirect:account";
         } else {
             model.addAttribute("loginMessage", loginReply.getMessage());
-            if (loginReply.getMessage().equals("Log in attempt failed: username incorrect")) {
+            if (loginReply.getMessage().equals(TOO_MANY_ATTEMPTS_MESSAGE)) {
+                return "redirect:login?tooManyAttemptsError";
+            } else if (loginReply.getMessage().equals("Log in attempt failed: username incorrect")) {
                 return "redirect:login?usernameError";
             } else {
                 return "redirect:login?passwordError";
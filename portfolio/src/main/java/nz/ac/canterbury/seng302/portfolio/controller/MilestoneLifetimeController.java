@@ -57,7 +57,7 @@ public class MilestoneLifetimeController {
         try {
             milestoneService.validateMilestone(milestone, model);
             if (permissionService.isValidToModify(userID)) {
-                milestoneService.addMilestone(milestone);
+                milestoneService.addMilestone(milestone, userID);
             }
         } catch (NotAcceptableException e) {
             httpServletResponse.setStatus(HttpServletResponse.SC_BAD_REQUEST);
@@ -79,7 +79,7 @@ public class MilestoneLifetimeController {
         Integer userID = userAccountClientService.getUserIDFromAuthState(principal);
         elementService.addHeaderAttributes(model, userID);
         if (permissionService.isValidToModify(userID)) {
-            milestoneService.removeMilestone(id);
+            milestoneService.removeMilestone(id, userID);
         }
         return "redirect:/details";
     }
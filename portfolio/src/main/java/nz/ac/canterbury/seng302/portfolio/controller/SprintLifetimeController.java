@@ -5,13 +5,13 @@ import nz.ac.canterbury.seng302.portfolio.service.ElementService;
 import nz.ac.canterbury.seng302.portfolio.service.PermissionService;
 import nz.ac.canterbury.seng302.portfolio.service.SprintService;
 import nz.ac.canterbury.seng302.portfolio.service.UserAccountClientService;
+import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
 import nz.ac.canterbury.seng302.shared.identityprovider.AuthState;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
-import java.util.Calendar;
 import java.util.Date;
 
 /**
@@ -33,7 +33,7 @@ public class SprintLifetimeController {
     private ElementService elementService;
 
     /**
-     * Add a given number of days and/or weeks to a date.util using Calendars.
+     * Add a given number of days and/or weeks to a date.util.
      *
      * @param toUpdate  The starting date.
      * @param day       The number of days to increase by.
@@ -41,11 +41,7 @@ public class SprintLifetimeController {
      * @return          A new updated date.
      */
     public static Date getUpdatedDate(Date toUpdate, int day, int week) {
-        Calendar date = Calendar.getInstance();
-        date.setTime(toUpdate);
-        date.add(Calendar.DATE, day);
-        date.add(Calendar.WEEK_OF_YEAR, week);
-        return date.getTime();
+        return DateUtility.toDate(DateUtility.toLocalDateTime(toUpdate).plusDays(day).plusWeeks(week));
     }
 
     /**
@@ -63,7 +59,7 @@ public class SprintLifetimeController {
         if (permissionService.isValidToModify(userID)) {
             sprint.setStartDateString(sprint.getStartDateString());
             sprint.setEndDateString(sprint.getEndDateString());
-            sprintService.addSprint(sprint);
+            sprintService.addSprint(sprint, userID);
         }
 
         return "redirect:/details";
@@ -80,7 +76,7 @@ public class SprintLifetimeController {
         Integer userID = userAccountClientService.getUserIDFromAuthState(principal);
         elementService.addHeaderAttributes(model, userID);
         if (permissionService.isValidToModify(userID)) {
-            sprintService.removeSprint(id);
+            sprintService.removeSprint(id, userID);
         }
         /* Return the name of the Thymeleaf template */
         return "redirect:/details";
@@ -0,0 +1,65 @@
+package nz.ac.canterbury.seng302.portfolio.controller.rest;
+
+import nz.ac.canterbury.seng302.portfolio.service.PermissionService;
+import nz.ac.canterbury.seng302.portfolio.service.ReferenceDataCacheService;
+import nz.ac.canterbury.seng302.portfolio.service.UserAccountClientService;
+import nz.ac.canterbury.seng302.shared.identityprovider.AuthState;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+/**
+ * Handles REST requests for the second-level cache of project, sprint, category and tag data.
+ * Only teachers and course administrators can use these endpoints.
+ */
+@RestController
+public class CacheStatisticsRestController {
+
+    @Autowired
+    private ReferenceDataCacheService referenceDataCacheService;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private UserAccountClientService userAccountClientService;
+
+    /**
+     * Returns the hit, miss and put counts of each cache region.
+     * @param principal authentication state of the current user
+     * @return statistics per cache region, or 403 if the user is a student
+     */
+    @GetMapping("/cache-statistics")
+    public ResponseEntity<Map<String, Map<String, Long>>> getCacheStatistics(
+            @AuthenticationPrincipal AuthState principal
+    ) {
+        Integer userId = userAccountClientService.getUserIDFromAuthState(principal);
+        if (!permissionService.isValidToModify(userId)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        return ResponseEntity.ok(referenceDataCacheService.getStatistics());
+    }
+
+    /**
+     * Evicts all cached project, sprint, category and tag data, for when the database has been edited directly.
+     * @param principal authentication state of the current user
+     * @return 200 if the cache was evicted, or 403 if the user is a student
+     */
+    @PostMapping("/cache-statistics/evict")
+    public ResponseEntity<Void> evictCache(
+            @AuthenticationPrincipal AuthState principal
+    ) {
+        Integer userId = userAccountClientService.getUserIDFromAuthState(principal);
+        if (!permissionService.isValidToModify(userId)) {
+            return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+        }
+        referenceDataCacheService.evictAll();
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+}
@@ -1,8 +1,23 @@
 package nz.ac.canterbury.seng302.portfolio.controller.rest;
 
+import nz.ac.canterbury.seng302.portfolio.service.CalendarFeedService;
+import nz.ac.canterbury.seng302.portfolio.service.DateValidationService;
+import nz.ac.canterbury.seng302.portfolio.service.ProjectVersionService;
 import nz.ac.canterbury.seng302.portfolio.service.SprintService;
+import nz.ac.canterbury.seng302.portfolio.service.UserAccountClientService;
+import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
+import nz.ac.canterbury.seng302.shared.identityprovider.AuthState;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Date;
 
 /**
  * Handles REST requests for the calendar page.
@@ -16,18 +31,72 @@ public class CalendarRestController {
     @Autowired
     private SprintService sprintService;
 
+    @Autowired
+    private DateValidationService dateValidationService;
+
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    @Autowired
+    private ProjectVersionService projectVersionService;
+
+    @Autowired
+    private UserAccountClientService userAccountClientService;
+
     /**
      * Updates the sprint identified by the given id with the given dates.
-     * Responds with true if the update is successful, otherwise false.
+     * Responds with true if the update is successful, otherwise false. The update is refused if the dates overlap
+     * another sprint or fall outside the project, as the calendar only knows about the sprints it has loaded.
+     * @param principal user moving the sprint, who the pages showing sprints are told saved it
      * @param id sprint id
      * @param sprintStartDate new start date
-     * @param sprintEndDate new end date
+     * @param sprintEndDate new end date, exclusive
      * @return true if the update is successful, otherwise false
      */
     @PostMapping(value="/update-sprint")
-    public boolean updateSprintDates(@RequestParam(value="id") Integer id,
+    public boolean updateSprintDates(@AuthenticationPrincipal AuthState principal,
+                                     @RequestParam(value="id") Integer id,
                                      @RequestParam(value="sprintStartDate") String sprintStartDate,
                                      @RequestParam(value="sprintEndDate") String sprintEndDate) {
-        return sprintService.updateSprintDates(id, sprintStartDate, sprintEndDate);
+        Date startDate = sprintService.calendarDateStringToDate(sprintStartDate, false);
+        Date endDate = sprintService.calendarDateStringToDate(sprintEndDate, true);
+        if (startDate == null || endDate == null || startDate.after(endDate)
+                || !dateValidationService.validateSprintDateRange(startDate, endDate, id).isEmpty()
+                || !dateValidationService.validateDatesInProjectDateRange(startDate, endDate).isEmpty()) {
+            return false;
+        }
+        int userId = userAccountClientService.getUserIDFromAuthState(principal);
+        return sprintService.updateSprintDates(id, sprintStartDate, sprintEndDate, userId);
+    }
+
+    /**
+     * JSON event feed for FullCalendar, holding the sprints and the combined events, deadlines and milestones between
+     * the given dates. Responses carry an ETag of the project's version, and if the client already has the current
+     * version it is sent 304 Not Modified with no body.
+     * @param start start of the range FullCalendar is displaying, in ISO-8601
+     * @param end end of the range FullCalendar is displaying, exclusive, in ISO-8601
+     * @param webRequest request, used to check the client's If-None-Match header
+     * @param response response the JSON is written to
+     * @throws IOException if writing the response fails
+     */
+    @GetMapping(value="/calendar-feed")
+    public void getCalendarFeed(@RequestParam(value="start") String start,
+                                @RequestParam(value="end") String end,
+                                WebRequest webRequest,
+                                HttpServletResponse response) throws IOException {
+        Date startDate = DateUtility.isoStringToDate(start);
+        Date endDate = DateUtility.isoStringToDate(end);
+        if (startDate == null || endDate == null || !startDate.before(endDate)) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        // Clients may keep the feed but must check it is still current before using it
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().cachePrivate().getHeaderValue());
+        // Read before loading anything, so the ETag is never newer than the data sent with it
+        if (webRequest.checkNotModified(projectVersionService.getETag())) {
+            return;
+        }
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        calendarFeedService.writeFeed(startDate, endDate, response.getOutputStream());
     }
 }
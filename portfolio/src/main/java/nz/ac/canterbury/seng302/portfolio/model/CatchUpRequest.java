@@ -0,0 +1,43 @@
+package nz.ac.canterbury.seng302.portfolio.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sent by a page each time its websocket connects, to ask for the live updates it missed while disconnected, or on
+ * first connecting, where to count updates from.
+ */
+public class CatchUpRequest {
+
+    private Long lastSequence;
+
+    private List<String> destinations = new ArrayList<>();
+
+    public CatchUpRequest() {}
+
+    /**
+     * Creates a request for the updates after a sequence number.
+     * @param lastSequence Sequence of the last update the page saw, or null if it has not seen any.
+     * @param destinations Destinations the page subscribes to.
+     */
+    public CatchUpRequest(Long lastSequence, List<String> destinations) {
+        this.lastSequence = lastSequence;
+        this.destinations = destinations;
+    }
+
+    public Long getLastSequence() {
+        return lastSequence;
+    }
+
+    public void setLastSequence(Long lastSequence) {
+        this.lastSequence = lastSequence;
+    }
+
+    public List<String> getDestinations() {
+        return destinations;
+    }
+
+    public void setDestinations(List<String> destinations) {
+        this.destinations = destinations;
+    }
+}
@@ -1,5 +1,8 @@
 package nz.ac.canterbury.seng302.portfolio.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Set;
@@ -8,6 +11,8 @@ import java.util.Set;
  * Category is associated with an evidence and contains a name and id.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Category {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -15,13 +20,7 @@ public class Category {
 
     private String categoryName;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.PERSIST)
-    @JoinTable(name = "evidence_to_category",
-            joinColumns =
-            @JoinColumn(name = "category_id"),
-            inverseJoinColumns =
-            @JoinColumn(name = "evidence_id")
-    )
+    @ManyToMany(mappedBy = "categories", fetch = FetchType.LAZY)
     private Set<Evidence> evidenceWithCategory = new HashSet<>();
 
     /**
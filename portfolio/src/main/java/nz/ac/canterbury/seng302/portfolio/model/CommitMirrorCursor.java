@@ -0,0 +1,92 @@
+package nz.ac.canterbury.seng302.portfolio.model;
+
+import javax.persistence.*;
+import java.util.Date;
+import java.util.Objects;
+
+/**
+ * How far the copy of a group's commits has got, so each sync only asks GitLab for commits newer than the last one.
+ * The repository it was made from is kept, so a copy of a repository the group no longer uses is thrown away.
+ */
+@Entity
+@Table(name = "commit_mirror_cursor")
+public class CommitMirrorCursor {
+
+    @Id
+    @Column(name = "group_id")
+    private int groupId;
+
+    @Column(name = "repo_id")
+    private long repoId;
+
+    @Column(name = "repo_server_url", length = 100)
+    private String repoServerUrl;
+
+    /**
+     * Committed date of the newest commit copied, or null if none have been.
+     */
+    @Column(name = "last_committed_date")
+    private Date lastCommittedDate;
+
+    @Column(name = "last_synced_at")
+    private Date lastSyncedAt;
+
+    /**
+     * When every commit of the repository was last asked for, or null if that has not happened yet.
+     */
+    @Column(name = "last_full_sync_at")
+    private Date lastFullSyncAt;
+
+    /**
+     * Empty constructor for JPA
+     */
+    public CommitMirrorCursor() {
+    }
+
+    /**
+     * Creates a cursor for a group's repository, before any of its commits have been copied.
+     * @param groupSettings Settings of the group's repository.
+     */
+    public CommitMirrorCursor(GroupSettings groupSettings) {
+        this.groupId = groupSettings.getGroupId();
+        this.repoId = groupSettings.getRepoId();
+        this.repoServerUrl = groupSettings.getRepoUrl();
+    }
+
+    /**
+     * Checks if this cursor is for the repository in the given settings.
+     * @param groupSettings Current settings of the group.
+     * @return True if the repository and server are the same.
+     */
+    public boolean isFor(GroupSettings groupSettings) {
+        return repoId == groupSettings.getRepoId() && Objects.equals(repoServerUrl, groupSettings.getRepoUrl());
+    }
+
+    public int getGroupId() {
+        return groupId;
+    }
+
+    public Date getLastCommittedDate() {
+        return lastCommittedDate;
+    }
+
+    public void setLastCommittedDate(Date lastCommittedDate) {
+        this.lastCommittedDate = lastCommittedDate;
+    }
+
+    public Date getLastSyncedAt() {
+        return lastSyncedAt;
+    }
+
+    public void setLastSyncedAt(Date lastSyncedAt) {
+        this.lastSyncedAt = lastSyncedAt;
+    }
+
+    public Date getLastFullSyncAt() {
+        return lastFullSyncAt;
+    }
+
+    public void setLastFullSyncAt(Date lastFullSyncAt) {
+        this.lastFullSyncAt = lastFullSyncAt;
+    }
+}
@@ -5,12 +5,14 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Transient;
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
 import java.util.Date;
 
 /**
@@ -18,6 +20,7 @@ import java.util.Date;
  * a name, a date (that includes a time).
  */
 @Entity
+@EntityListeners(ProjectChangeListener.class)
 public class Deadline {
 
 
@@ -44,8 +47,9 @@ public class Deadline {
     private Date deadlineDate;
 
     /**
-     * Colour of the deadline.
+     * Colour of the sprint the deadline is in. Assigned when the details page is rendered, not stored.
      */
+    @Transient
     private String deadlineColour;
 
     /**
@@ -134,9 +138,8 @@ public class Deadline {
      * @return day of the month of the deadline. 0 if deadlineDate is null.
      */
     public int getDeadlineDay() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("dd");
         if (deadlineDate != null) {
-            return Integer.parseInt(dateFormat.format(deadlineDate));
+            return DateUtility.toLocalDate(deadlineDate).getDayOfMonth();
         }
         return 0;
     }
@@ -146,11 +149,7 @@ public class Deadline {
      * @return month of the year of the deadline. Null if deadlineDate is null.
      */
     public String getDeadlineMonth() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM");
-        if (deadlineDate != null) {
-            return (dateFormat.format(deadlineDate));
-        }
-        return null;
+        return DateUtility.format(deadlineDate, DateUtility.MONTH_FORMAT);
     }
 
     /**
@@ -158,11 +157,7 @@ public class Deadline {
      * @return string representation of the time of the deadline. Null if deadlineDate is null.
      */
     public String getDeadlineTimeString()  {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("kk:mm");
-        if (deadlineDate != null) {
-            return (dateFormat.format(deadlineDate));
-        }
-        return null;
+        return DateUtility.format(deadlineDate, DateUtility.TIME_24_HOUR_FORMAT);
     }
 
     /**
@@ -170,11 +165,7 @@ public class Deadline {
      * @return string representation of the time of the deadline in 12-hour format. Null if deadlineDate is null.
      */
     public String getDeadlineTimeString12Hour()  {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("h:mm a");
-        if (deadlineDate != null) {
-            return (dateFormat.format(deadlineDate));
-        }
-        return null;
+        return DateUtility.format(deadlineDate, DateUtility.TIME_12_HOUR_FORMAT);
     }
 
     /**
@@ -183,18 +174,17 @@ public class Deadline {
      * @throws ParseException Thrown if time parameter is given in the wrong format.
      */
     public void setDeadlineTimeString(String time) throws ParseException {
-        SimpleDateFormat timeFormat = new SimpleDateFormat("kk:mm");
-        Date dateWithTime = timeFormat.parse(time);
-        Calendar cal = Calendar.getInstance();
+        LocalTime timeOfDay;
+        try {
+            timeOfDay = LocalTime.parse(time, DateUtility.TIME_24_HOUR_FORMAT);
+        } catch (DateTimeParseException e) {
+            throw new ParseException(e.getMessage(), e.getErrorIndex());
+        }
         if (deadlineDate == null) {
             deadlineDate = new Date();
         }
-        cal.setTime(deadlineDate);
-        SimpleDateFormat hourFormat = new SimpleDateFormat("HH");
-        SimpleDateFormat minuteFormat = new SimpleDateFormat("mm");
-        cal.add(Calendar.HOUR_OF_DAY, Integer.parseInt(hourFormat.format(dateWithTime)));
-        cal.add(Calendar.MINUTE, Integer.parseInt(minuteFormat.format(dateWithTime)));
-        this.deadlineDate = cal.getTime();
+        this.deadlineDate = DateUtility.toDate(DateUtility.toLocalDateTime(deadlineDate)
+                .plusHours(timeOfDay.getHour()).plusMinutes(timeOfDay.getMinute()));
     }
 
     /**
@@ -215,17 +205,8 @@ public class Deadline {
         if (dateTime != null) {
             this.deadlineDate = dateTime;
         } else {
-            if (this.deadlineDate != null) {
-                Calendar cal = Calendar.getInstance();
-                cal.setTime(Project.stringToDate(date));
-                SimpleDateFormat hourFormat = new SimpleDateFormat("HH");
-                SimpleDateFormat minuteFormat = new SimpleDateFormat("mm");
-                cal.add(Calendar.HOUR_OF_DAY, Integer.parseInt(hourFormat.format(deadlineDate)));
-                cal.add(Calendar.MINUTE, Integer.parseInt(minuteFormat.format(deadlineDate)));
-                this.deadlineDate = cal.getTime();
-            } else {
-                this.deadlineDate = Project.stringToDate(date);
-            }
+            // Keeps the time already set
+            this.deadlineDate = DateUtility.atTimeOf(DateUtility.stringToLocalDate(date), deadlineDate);
         }
     }
 
@@ -8,14 +8,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.text.ParseException;
-import java.text.SimpleDateFormat;
 import java.time.LocalTime;
 import javax.persistence.*;
 import java.time.format.DateTimeFormatter;
-import java.util.Calendar;
 import java.util.Date;
 
 @Entity
+@EntityListeners(ProjectChangeListener.class)
 public class Event {
 
     @Id
@@ -25,18 +24,21 @@ public class Event {
     private String eventName;
     private Date eventStartDate;
     private Date eventEndDate;
-    private String startDateColour;
-    private String endDateColour;
 
+    /**
+     * Colours of the sprints the event starts and ends in. Assigned when the details page is rendered, not stored.
+     */
     @Transient
-    private final SimpleDateFormat simpleDateFormatter = new SimpleDateFormat("dd/MMM/yyyy h:mm a");
-
+    private String startDateColour;
     @Transient
-    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("dd/MMM/yyyy h:mm a");
+    private String endDateColour;
 
     @Transient
     private static final Logger logger = LoggerFactory.getLogger(Event.class);
 
+    @Transient
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss");
+
 
     public Event() {}
 
@@ -88,8 +90,7 @@ public class Event {
         String newTime = "";
         if (time != null) {
             try {
-                DateTimeFormatter myFormatObj = DateTimeFormatter.ofPattern("HH:mm:ss");
-                newTime = time.format(myFormatObj);
+                newTime = time.format(TIME_FORMAT);
             } catch (Exception e) {
                 logger.error(String.format("Error parsing time to string: %s", e.getMessage()));
             }
@@ -130,11 +131,7 @@ public class Event {
      * @return 3 letter string of the start month. Null if start date is null.
      */
     public String getEventStartMonth() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM");
-        if (eventStartDate != null) {
-            return (dateFormat.format(eventStartDate));
-        }
-        return null;
+        return DateUtility.format(eventStartDate, DateUtility.MONTH_FORMAT);
     }
     /**
      * Get event start date as a detailed string.
@@ -158,17 +155,8 @@ public class Event {
         if (dateTime != null) {
             this.eventStartDate = dateTime;
         } else {
-            if (this.eventStartDate != null) {
-                Calendar cal = Calendar.getInstance();
-                cal.setTime(Project.stringToDate(startDateDetail));
-                SimpleDateFormat hourFormat = new SimpleDateFormat("HH");
-                SimpleDateFormat minuteFormat = new SimpleDateFormat("mm");
-                cal.add(Calendar.HOUR_OF_DAY, Integer.parseInt(hourFormat.format(eventStartDate)));
-                cal.add(Calendar.MINUTE, Integer.parseInt(minuteFormat.format(eventStartDate)));
-                this.eventStartDate = cal.getTime();
-            } else {
-                this.eventStartDate = Project.stringToDate(startDateDetail);
-            }
+            // Keeps the time already set
+            this.eventStartDate = DateUtility.atTimeOf(DateUtility.stringToLocalDate(startDateDetail), eventStartDate);
         }
     }
 
@@ -193,17 +181,8 @@ public class Event {
         if (dateTime != null) {
             this.eventEndDate = dateTime;
         } else {
-            if (this.eventEndDate != null) {
-                Calendar cal = Calendar.getInstance();
-                cal.setTime(Project.stringToDate(endDateDetail));
-                SimpleDateFormat hourFormat = new SimpleDateFormat("HH");
-                SimpleDateFormat minuteFormat = new SimpleDateFormat("mm");
-                cal.add(Calendar.HOUR_OF_DAY, Integer.parseInt(hourFormat.format(eventEndDate)));
-                cal.add(Calendar.MINUTE, Integer.parseInt(minuteFormat.format(eventEndDate)));
-                this.eventEndDate = cal.getTime();
-            } else {
-                this.eventEndDate = Project.stringToDate(endDateDetail);
-            }
+            // Keeps the time already set
+            this.eventEndDate = DateUtility.atTimeOf(DateUtility.stringToLocalDate(endDateDetail), eventEndDate);
         }
     }
 
@@ -212,9 +191,8 @@ public class Event {
      * @return Integer of the start date day of the month. 0 if start date is null.
      */
     public int getEventStartDay() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("dd");
         if (eventStartDate != null) {
-            return Integer.parseInt(dateFormat.format(eventStartDate));
+            return DateUtility.toLocalDate(eventStartDate).getDayOfMonth();
         }
         return 0;
 
@@ -233,19 +211,11 @@ public class Event {
     }
 
     public String getEventStartTime() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("h:mm a");
-        if (eventStartDate != null) {
-            return (dateFormat.format(eventStartDate));
-        }
-        return null;
+        return DateUtility.format(eventStartDate, DateUtility.TIME_12_HOUR_FORMAT);
     }
 
     public String getEventEndTime() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("h:mm a");
-        if (eventEndDate != null) {
-            return (dateFormat.format(eventEndDate));
-        }
-        return null;
+        return DateUtility.format(eventEndDate, DateUtility.TIME_12_HOUR_FORMAT);
     }
 
     /**
@@ -256,19 +226,10 @@ public class Event {
      * @return Date with time added to it.
      */
     public Date addTimeToDate(Date date,LocalTime time){
-        SimpleDateFormat timeFormat = new SimpleDateFormat("kk:mm");
-        try {
-            Date dateWithTime = timeFormat.parse(String.valueOf(time));
-            Calendar cal = Calendar.getInstance();
-            cal.setTime(date);
-            SimpleDateFormat hourFormat = new SimpleDateFormat("HH");
-            SimpleDateFormat minuteFormat = new SimpleDateFormat("mm");
-            cal.set(Calendar.HOUR_OF_DAY, Integer.parseInt(hourFormat.format(dateWithTime)));
-            cal.set(Calendar.MINUTE, Integer.parseInt(minuteFormat.format(dateWithTime)));
-            return cal.getTime();
-        } catch (ParseException e) {
+        if (time == null) {
             return date;
         }
+        return DateUtility.toDate(DateUtility.toLocalDateTime(date).withHour(time.getHour()).withMinute(time.getMinute()));
     }
 
     public String getStartDateString() {
@@ -1,10 +1,10 @@
 package nz.ac.canterbury.seng302.portfolio.model;
 
 import javax.persistence.*;
-import java.text.SimpleDateFormat;
 import java.util.*;
 import java.util.stream.Collectors;
 
+import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
 import nz.ac.canterbury.seng302.shared.identityprovider.UserResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,10 +12,36 @@ import org.slf4j.LoggerFactory;
 /**
  * Evidence is associated with a user and contains a title, description, and a date.
  * It also will have a set of tags.
+ * All associations are lazy; read paths choose what to load through the named entity graphs below.
  */
 @Entity
+@NamedEntityGraph(name = Evidence.LISTING_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("tags"),
+                @NamedAttributeNode("categories")
+        }
+)
+@NamedEntityGraph(name = Evidence.DETAIL_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode("tags"),
+                @NamedAttributeNode("categories"),
+                @NamedAttributeNode("webLinks"),
+                @NamedAttributeNode("highFivers")
+        }
+)
 public class Evidence {
 
+    /**
+     * Entity graph for evidence lists. Loads the tags and categories shown on each evidence card, web links and
+     * high fivers are batch loaded when the card is rendered.
+     */
+    public static final String LISTING_GRAPH = "Evidence.listing";
+
+    /**
+     * Entity graph for a single piece of evidence, e.g. the modal or deleting it. Loads every association.
+     */
+    public static final String DETAIL_GRAPH = "Evidence.detail";
+
     @Transient
     private static final Logger logger = LoggerFactory.getLogger(Evidence.class);
 
@@ -36,7 +62,7 @@ public class Evidence {
     /**
      * The tags associated with this evidence.
      */
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.PERSIST)
+    @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
     @JoinTable(name = "evidence_to_tag",
             joinColumns =
             @JoinColumn(name = "evidence_id"),
@@ -48,7 +74,7 @@ public class Evidence {
     /**
      * The categories associated with this evidence.
      */
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.PERSIST)
+    @ManyToMany(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
     @JoinTable(name = "evidence_to_category",
             joinColumns =
             @JoinColumn(name = "evidence_id"),
@@ -60,7 +86,7 @@ public class Evidence {
     /**
      * The Weblinks associated with this evidence.
      */
-    @OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.PERSIST)
+    @OneToMany(fetch = FetchType.LAZY, cascade = CascadeType.PERSIST)
     @JoinTable(name = "evidence_to_weblink",
             joinColumns =
             @JoinColumn(name = "evidence_id"),
@@ -70,19 +96,20 @@ public class Evidence {
     private Set<WebLink> webLinks = new HashSet<>();
 
     /**
-     * The users that have high fived this piece of evidence.
+     * The users that have high fived this piece of evidence. High fives are written by the evidence service,
+     * never through this collection.
      */
-    @OneToMany(fetch = FetchType.EAGER, cascade = CascadeType.PERSIST)
-    @JoinTable(name = "evidence_to_highfivers",
-            joinColumns =
-            @JoinColumn(name = "evidence_id"),
-            inverseJoinColumns =
-            @JoinColumn(name = "high_fivers_id")
-    )
+    @OneToMany(fetch = FetchType.LAZY)
+    @JoinColumn(name = "evidence_id", insertable = false, updatable = false)
     private Set<HighFivers> highFivers = new HashSet<>();
 
-    @Transient
-    private Set<Integer> highFiverIds = new HashSet<>();
+    /**
+     * The number of users that have high fived this piece of evidence, kept in step with the high fivers.
+     * It is only ever changed by {@link nz.ac.canterbury.seng302.portfolio.repository.EvidenceRepository#adjustHighFiveCount},
+     * so saving a piece of evidence loaded before a high five cannot write back an old count.
+     */
+    @Column(nullable = false, updatable = false)
+    private int highFiveCount;
 
     @Transient
     private UserResponse user;
@@ -148,8 +175,7 @@ public class Evidence {
      * @return formatted evidence date string
      */
     public String getDateString() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("dd MMMM yyyy");
-        return dateFormat.format(date);
+        return DateUtility.format(date, DateUtility.LONG_DATE_FORMAT);
     }
 
     public void setDate(Date date) {
@@ -264,8 +290,15 @@ public class Evidence {
      * @return Set of user ids.
      */
     public Set<Integer> getHighFiverIds() {
-        highFiverIds.addAll(highFivers.stream().map(HighFivers::getUserId).collect(Collectors.toSet()));
-        return highFiverIds;
+        return highFivers.stream().map(HighFivers::getUserId).collect(Collectors.toSet());
+    }
+
+    /**
+     * Gets the number of users that have high fived this piece of evidence, without loading the high fivers.
+     * @return number of high fives.
+     */
+    public int getHighFiveCount() {
+        return highFiveCount;
     }
 
     /**
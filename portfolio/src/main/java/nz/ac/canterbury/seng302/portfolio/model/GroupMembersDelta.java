@@ -0,0 +1,120 @@
+package nz.ac.canterbury.seng302.portfolio.model;
+
+import nz.ac.canterbury.seng302.shared.identityprovider.GroupDetailsResponse;
+import nz.ac.canterbury.seng302.shared.identityprovider.UserResponse;
+
+import java.util.List;
+
+/**
+ * This class is used for sending the members of groups after members have moved between them, so the group page can
+ * update its group cards and members table without fetching them again.
+ */
+public class GroupMembersDelta {
+
+    private final long version;
+
+    private final int sendingGroupId;
+
+    private final int receivingGroupId;
+
+    private final List<GroupMembers> groups;
+
+    /**
+     * Members of one group after the change.
+     */
+    public static class GroupMembers {
+
+        private final int groupId;
+
+        private final List<Member> members;
+
+        /**
+         * Copies the members of a group from its details.
+         * @param groupDetails Details of the group from the identity provider.
+         */
+        public GroupMembers(GroupDetailsResponse groupDetails) {
+            this.groupId = groupDetails.getGroupId();
+            this.members = groupDetails.getMembersList().stream().map(Member::new).toList();
+        }
+
+        public int getGroupId() {
+            return groupId;
+        }
+
+        public int getMembersCount() {
+            return members.size();
+        }
+
+        public List<Member> getMembers() {
+            return members;
+        }
+    }
+
+    /**
+     * A row of the members table.
+     */
+    public static class Member {
+
+        private final int id;
+
+        private final String firstName;
+
+        private final String lastName;
+
+        private final String username;
+
+        private Member(UserResponse user) {
+            this.id = user.getId();
+            this.firstName = user.getFirstName();
+            this.lastName = user.getLastName();
+            this.username = user.getUsername();
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getFirstName() {
+            return firstName;
+        }
+
+        public String getLastName() {
+            return lastName;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+    }
+
+    /**
+     * Creates a change to the members of groups.
+     * @param version Version of the group members after this change.
+     * @param sendingGroupId Id of the group the members left, or were copied from.
+     * @param receivingGroupId Id of the group the members joined.
+     * @param groups Members of every group that may have changed, or null if they could not be fetched, in which case
+     *               pages fetch the groups themselves.
+     */
+    public GroupMembersDelta(long version, int sendingGroupId, int receivingGroupId, List<GroupMembers> groups) {
+        this.version = version;
+        this.sendingGroupId = sendingGroupId;
+        this.receivingGroupId = receivingGroupId;
+        this.groups = groups;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getSendingGroupId() {
+        return sendingGroupId;
+    }
+
+    public int getReceivingGroupId() {
+        return receivingGroupId;
+    }
+
+    public List<GroupMembers> getGroups() {
+        return groups;
+    }
+}
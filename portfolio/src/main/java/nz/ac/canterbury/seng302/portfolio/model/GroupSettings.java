@@ -1,6 +1,7 @@
 package nz.ac.canterbury.seng302.portfolio.model;
 
-import org.gitlab4j.api.GitLabApi;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 import java.util.HashSet;
@@ -12,7 +13,10 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "group_settings")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class GroupSettings {
+
     /**
      * Id of the group settings.
      */
@@ -58,13 +62,6 @@ public class GroupSettings {
     @Column(name="user_id")
     private Set<Integer> memberIds = new HashSet<>();
 
-    /**
-     * GitLabApi object made with the api key, so it doesn't need to be stored in the database.
-     * The transient tag stops it from being stored in the database.
-     */
-    @Transient
-    private GitLabApi gitLabApi;
-
     /**
      * Empty constructor for JPA.
      */
@@ -84,7 +81,6 @@ public class GroupSettings {
         this.repoApiKey = repoApiKey;
         this.groupId = groupId;
         this.repoServerUrl = repoServerUrl;
-        this.gitLabApi = new GitLabApi(repoServerUrl, repoApiKey);
     }
 
     /**
@@ -167,17 +163,6 @@ public class GroupSettings {
         this.groupId = groupId;
     }
 
-    /**
-     * Returns the gitLabApi object.
-     * @return gitLabApi object
-     */
-    public GitLabApi getGitLabApi() {
-        if (gitLabApi == null) {
-            gitLabApi = new GitLabApi(getRepoUrl(), repoApiKey);
-        }
-        return gitLabApi;
-    }
-
     /**
      * Returns the repo server url.
      * @return repo server url
@@ -1,19 +1,22 @@
 package nz.ac.canterbury.seng302.portfolio.model;
 
-import javax.persistence.Entity;
-import javax.persistence.GeneratedValue;
-import javax.persistence.GenerationType;
-import javax.persistence.Id;
+import javax.persistence.*;
 
 /**
- * This class is a model which used to replicate the user(s) who has high five to a certain piece of evidence
+ * This class is a model which used to replicate the user(s) who has high five to a certain piece of evidence.
+ * A user can only high five a piece of evidence once, which is enforced by the database.
  */
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(columnNames = {"evidence_id", "user_id"}))
 public class HighFivers {
     private String name;
 
+    @Column(name = "user_id")
     private Integer userId;
 
+    @Column(name = "evidence_id")
+    private Integer evidenceId;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Integer highFiverId;
@@ -51,6 +54,14 @@ public class HighFivers {
         this.highFiverId = highFiverId;
     }
 
+    /**
+     * Getter for the id of the piece of evidence that was high fived
+     * @return the id of the high fived evidence
+     */
+    public Integer getEvidenceId() {
+        return evidenceId;
+    }
+
     /**
      * get the name of high fiver
      * @return the name of the high fiver
@@ -0,0 +1,46 @@
+package nz.ac.canterbury.seng302.portfolio.model;
+
+/**
+ * This class is used for sending a change in one user's leaderboard score over websockets, so the leaderboard page can
+ * update the user's row and re-rank itself without reloading the table.
+ */
+public class LeaderboardDelta {
+
+    private final long version;
+
+    private final int userId;
+
+    private final int score;
+
+    private final NotificationResponse notification;
+
+    /**
+     * Creates a change to a user's score.
+     * @param version Version of the leaderboard after this change.
+     * @param userId Id of the user whose score changed.
+     * @param score The user's new score.
+     * @param notification The evidence change that caused it, which the page shows in a toast.
+     */
+    public LeaderboardDelta(long version, int userId, int score, NotificationResponse notification) {
+        this.version = version;
+        this.userId = userId;
+        this.score = score;
+        this.notification = notification;
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public NotificationResponse getNotification() {
+        return notification;
+    }
+}
@@ -2,12 +2,14 @@ package nz.ac.canterbury.seng302.portfolio.model;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
 
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
-import java.text.SimpleDateFormat;
+import javax.persistence.Transient;
 import java.util.Date;
 
 /**
@@ -15,6 +17,7 @@ import java.util.Date;
  * a name, a date (that includes a time).
  */
 @Entity
+@EntityListeners(ProjectChangeListener.class)
 public class Milestone {
     /**
      * Id of the milestone.
@@ -39,7 +42,10 @@ public class Milestone {
     private Date milestoneDate;
 
 
-
+    /**
+     * Colour of the sprint the milestone is in. Assigned when the details page is rendered, not stored.
+     */
+    @Transient
     private String colour;
 
     /**
@@ -111,9 +117,8 @@ public class Milestone {
      * @return day of the month of the milestone. 0 if milestone date is null
      */
     public int getMilestoneDay() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("dd");
         if (milestoneDate != null) {
-            return Integer.parseInt(dateFormat.format(milestoneDate));
+            return DateUtility.toLocalDate(milestoneDate).getDayOfMonth();
         }
         return 0;
     }
@@ -123,11 +128,7 @@ public class Milestone {
      * @return month of the year of the milestone. Null if milestone date is null
      */
     public String getMilestoneMonth() {
-        SimpleDateFormat dateFormat = new SimpleDateFormat("MMM");
-        if (milestoneDate != null) {
-            return (dateFormat.format(milestoneDate));
-        }
-        return null;
+        return DateUtility.format(milestoneDate, DateUtility.MONTH_FORMAT);
     }
 
     /**
@@ -1,5 +1,7 @@
 package nz.ac.canterbury.seng302.portfolio.model;
 
+import java.util.Objects;
+
 /**
  * This class is used for sending 2 group ids to do with changing members of said groups. It is used in the websocket
  * implementation for reloading the respective user pages when they have selected either group.
@@ -12,6 +14,16 @@ public class NotificationGroup {
 
     private int receivingGroupId;
 
+    /**
+     * Creates a notification for members moving between two groups.
+     * @param sendingGroupId Id of the group the members left, or were copied from.
+     * @param receivingGroupId Id of the group the members joined.
+     */
+    public NotificationGroup(int sendingGroupId, int receivingGroupId) {
+        this.sendingGroupId = sendingGroupId;
+        this.receivingGroupId = receivingGroupId;
+    }
+
     public int getReceivingGroupId() {
         return receivingGroupId;
     }
@@ -27,4 +39,21 @@ public class NotificationGroup {
     public void setSendingGroupId(int sendingGroupId) {
         this.sendingGroupId = sendingGroupId;
     }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof NotificationGroup)) {
+            return false;
+        }
+        NotificationGroup other = (NotificationGroup) o;
+        return sendingGroupId == other.sendingGroupId && receivingGroupId == other.receivingGroupId;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sendingGroupId, receivingGroupId);
+    }
 }
@@ -1,22 +1,18 @@
 package nz.ac.canterbury.seng302.portfolio.model;
 
 /**
- * This class is used to store the parameters of the JSON list as it is passed through message mapping to the controller.
+ * Notification sent to the owner of a piece of evidence when it is high fived, and to the pages listing their evidence
+ * when a high five is added or removed.
  */
 public class NotificationHighFive {
 
     /**
-     * This class should not be able to be created other than through the Javascript message mapping system.
-     */
-    private NotificationHighFive() {}
-
-    /**
-     * The user who is the owner of the piece of evidence being high-fived
+     * The user who is high-fiving the piece of evidence
      */
     private int sendingUserId;
 
     /**
-     * The user who is high-fivig the piece of evidence
+     * The user who is the owner of the piece of evidence being high-fived
      */
     private int receivingUserId;
 
@@ -26,6 +22,23 @@ public class NotificationHighFive {
 
     private int sendingEvidenceId;
 
+    /**
+     * Creates a notification of a high five.
+     * @param sendingUserId Id of the user high fiving the evidence.
+     * @param receivingUserId Id of the owner of the evidence.
+     * @param sendingUserFullName Full name of the user high fiving the evidence.
+     * @param sendingEvidenceTitle Title of the evidence.
+     * @param sendingEvidenceId Id of the evidence.
+     */
+    public NotificationHighFive(int sendingUserId, int receivingUserId, String sendingUserFullName,
+                                String sendingEvidenceTitle, int sendingEvidenceId) {
+        this.sendingUserId = sendingUserId;
+        this.receivingUserId = receivingUserId;
+        this.sendingUserFullName = sendingUserFullName;
+        this.sendingEvidenceTitle = sendingEvidenceTitle;
+        this.sendingEvidenceId = sendingEvidenceId;
+    }
+
     public int getSendingEvidenceId() {
         return sendingEvidenceId;
     }
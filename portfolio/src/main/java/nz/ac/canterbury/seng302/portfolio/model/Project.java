@@ -1,19 +1,23 @@
 package nz.ac.canterbury.seng302.portfolio.model;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.Id;
-import javax.persistence.Transient;
-import java.util.Calendar;
+import java.time.LocalDate;
 import java.util.Date;
-import java.text.SimpleDateFormat;
 import java.util.Objects;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
+import org.hibernate.annotations.Cache;
+import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity // this is an entity, assumed to be in a table called Project
+@EntityListeners(ProjectChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Project {
     @Id
     private int id;
@@ -22,9 +26,6 @@ public class Project {
     private Date projectStartDate;
     private Date projectEndDate;
 
-    @Transient
-    private static final Logger logger = LoggerFactory.getLogger(Project.class);
-
 
     protected Project() {}
 
@@ -46,12 +47,7 @@ public class Project {
      * Adjusts the end date, so it's at 11:59pm (end of the day) rather than midnight (start of the day).
      */
     private Date adjustEndDateTime(Date endDate) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(endDate);
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        return calendar.getTime();
+        return DateUtility.setToEndOfDay(endDate);
     }
 
     @Override
@@ -68,13 +64,8 @@ public class Project {
      * @return the given date, as a date object
      */
     public static Date stringToDate(String dateString) {
-        Date date = null;
-        try {
-            date = new SimpleDateFormat("dd/MMM/yyyy").parse(dateString);
-        } catch (Exception e) {
-            logger.error(String.format("Error parsing date: %s" , e.getMessage()));
-        }
-        return date;
+        LocalDate date = DateUtility.stringToLocalDate(dateString);
+        return date == null ? null : DateUtility.toDate(date);
     }
 
     /**
@@ -85,7 +76,7 @@ public class Project {
      */
     public static String dateToString(Date date) {
         // Returns date in format unless its null which it then makes a new Date object.
-        return new SimpleDateFormat("dd/MMM/yyyy").format(Objects.requireNonNullElseGet(date, Date::new));
+        return DateUtility.format(Objects.requireNonNullElseGet(date, Date::new), DateUtility.DATE_FORMAT);
     }
 
     /* Getters/Setters */
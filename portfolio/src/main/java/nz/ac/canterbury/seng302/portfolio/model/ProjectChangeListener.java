@@ -0,0 +1,30 @@
+package nz.ac.canterbury.seng302.portfolio.model;
+
+import nz.ac.canterbury.seng302.portfolio.service.ProjectVersionService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Entity listener that bumps the project version whenever the project or one of its dated artefacts is written.
+ * Created by Spring through Hibernate's bean container, so it can be autowired.
+ */
+public class ProjectChangeListener {
+
+    @Autowired
+    private ObjectProvider<ProjectVersionService> projectVersionService;
+
+    /**
+     * Called after a project, sprint, event, deadline or milestone is inserted, updated or deleted.
+     * @param entity The entity that was written.
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        projectVersionService.ifAvailable(ProjectVersionService::markChanged);
+    }
+}
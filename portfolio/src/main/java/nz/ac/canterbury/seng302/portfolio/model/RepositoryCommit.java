@@ -0,0 +1,76 @@
+package nz.ac.canterbury.seng302.portfolio.model;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * A commit in a group's repository, copied from GitLab so the group's contributions can be counted without asking
+ * GitLab for its whole history. Only what is needed to count commits by author and date is kept.
+ */
+@Entity
+@Table(name = "repository_commit",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"group_id", "commit_id"}),
+        indexes = @Index(columnList = "group_id, committed_date"))
+public class RepositoryCommit {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "group_id")
+    private int groupId;
+
+    @Column(name = "commit_id", length = 40)
+    private String commitId;
+
+    @Column(name = "author_name")
+    private String authorName;
+
+    @Column(name = "author_email")
+    private String authorEmail;
+
+    @Column(name = "committed_date")
+    private Date committedDate;
+
+    /**
+     * Empty constructor for JPA
+     */
+    public RepositoryCommit() {
+    }
+
+    /**
+     * Creates a copy of a commit.
+     * @param groupId Id of the group whose repository has the commit.
+     * @param commitId Hash of the commit.
+     * @param authorName Name of the commit's author.
+     * @param authorEmail Email of the commit's author.
+     * @param committedDate When the commit was made.
+     */
+    public RepositoryCommit(int groupId, String commitId, String authorName, String authorEmail, Date committedDate) {
+        this.groupId = groupId;
+        this.commitId = commitId;
+        this.authorName = authorName;
+        this.authorEmail = authorEmail;
+        this.committedDate = committedDate;
+    }
+
+    public int getGroupId() {
+        return groupId;
+    }
+
+    public String getCommitId() {
+        return commitId;
+    }
+
+    public String getAuthorName() {
+        return authorName;
+    }
+
+    public String getAuthorEmail() {
+        return authorEmail;
+    }
+
+    public Date getCommittedDate() {
+        return committedDate;
+    }
+}
@@ -0,0 +1,49 @@
+package nz.ac.canterbury.seng302.portfolio.model;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+
+/**
+ * A counter shared by every portfolio node, such as the version of a live update destination.
+ */
+@Entity
+public class SharedCounter {
+
+    @Id
+    @Column(name = "counter_name")
+    private String name;
+
+    @Column(name = "counter_value")
+    private long value;
+
+    /**
+     * Empty constructor for JPA
+     */
+    public SharedCounter() {
+    }
+
+    /**
+     * Creates a counter at 0.
+     * @param name Name of the counter.
+     */
+    public SharedCounter(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * Adds one to the counter.
+     * @return The new value.
+     */
+    public long increment() {
+        return ++value;
+    }
+}
@@ -0,0 +1,72 @@
+package nz.ac.canterbury.seng302.portfolio.model;
+
+import javax.persistence.*;
+
+/**
+ * A value in a log shared by every portfolio node, such as a recent notification.
+ */
+@Entity
+@Table(indexes = @Index(columnList = "log_name, entry_sequence"))
+public class SharedLogEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "log_name", nullable = false)
+    private String logName;
+
+    @Column(name = "entry_sequence")
+    private long sequence;
+
+    @Column(name = "entry_value", columnDefinition = "TEXT")
+    private String value;
+
+    /**
+     * Empty constructor for JPA
+     */
+    public SharedLogEntry() {
+    }
+
+    /**
+     * Creates an entry for a log.
+     * @param logName Name of the log.
+     * @param sequence Sequence of the entry within the log.
+     * @param value Value of the entry.
+     */
+    public SharedLogEntry(String logName, long sequence, String value) {
+        this.logName = logName;
+        this.sequence = sequence;
+        this.value = value;
+    }
+
+    /**
+     * Creates an entry for a log, which is given its sequence once it has been inserted.
+     * @param logName Name of the log.
+     * @param value Value of the entry.
+     */
+    public SharedLogEntry(String logName, String value) {
+        this.logName = logName;
+        this.value = value;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getLogName() {
+        return logName;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public String getValue() {
+        return value;
+    }
+}
@@ -3,14 +3,22 @@ package nz.ac.canterbury.seng302.portfolio.model;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Transient;
 import java.util.Date;
 
 @Entity // this is an entity, assumed to be in a table called Sprint
+@EntityListeners(ProjectChangeListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Sprint {
     @Id
     @GeneratedValue(
@@ -22,6 +30,11 @@ public class Sprint {
     private String sprintDescription;
     private Date sprintStartDate;
     private Date sprintEndDate;
+
+    /**
+     * Colour of the sprint on the details page. Assigned when the page is rendered, not stored.
+     */
+    @Transient
     private String sprintColour;
 
 
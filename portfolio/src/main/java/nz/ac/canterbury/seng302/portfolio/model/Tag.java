@@ -1,5 +1,8 @@
 package nz.ac.canterbury.seng302.portfolio.model;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.util.HashSet;
 import java.util.Objects;
@@ -9,6 +12,8 @@ import java.util.Set;
  * Tags for evidence pieces.
  */
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Tag {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -16,13 +21,7 @@ public class Tag {
 
     private String tagName;
 
-    @ManyToMany(fetch = FetchType.EAGER, cascade = CascadeType.PERSIST)
-    @JoinTable(name = "evidence_to_tag",
-            joinColumns =
-            @JoinColumn(name = "tag_id"),
-            inverseJoinColumns =
-            @JoinColumn(name = "evidence_id")
-    )
+    @ManyToMany(mappedBy = "tags", fetch = FetchType.LAZY)
     private Set<Evidence> evidenceWithTag = new HashSet<>();
 
     /**
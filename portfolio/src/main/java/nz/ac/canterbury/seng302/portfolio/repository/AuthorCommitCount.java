@@ -0,0 +1,10 @@
+package nz.ac.canterbury.seng302.portfolio.repository;
+
+/**
+ * Projection of the number of commits an author made to a group's repository in a date range.
+ */
+public interface AuthorCommitCount {
+    String getAuthorEmail();
+    String getAuthorName();
+    long getCommitCount();
+}
@@ -1,8 +1,10 @@
 package nz.ac.canterbury.seng302.portfolio.repository;
 
 import nz.ac.canterbury.seng302.portfolio.model.Category;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,5 +13,6 @@ import java.util.Optional;
  */
 public interface CategoryRepository extends CrudRepository<Category, Integer> {
     Optional<Category> findById(int id);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Category> findAll();
 }
@@ -0,0 +1,7 @@
+package nz.ac.canterbury.seng302.portfolio.repository;
+
+import nz.ac.canterbury.seng302.portfolio.model.CommitMirrorCursor;
+import org.springframework.data.repository.CrudRepository;
+
+public interface CommitMirrorCursorRepository extends CrudRepository<CommitMirrorCursor, Integer> {
+}
@@ -4,6 +4,7 @@ import nz.ac.canterbury.seng302.portfolio.model.Event;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Date;
 import java.util.List;
 
 @Repository
@@ -15,4 +16,8 @@ public interface EventRepository extends CrudRepository<Event, Integer> {
 
     List<Event> findAllByOrderByEventStartDate();
     List<Event> findAllByOrderByEventEndDate();
+    Event findFirstByOrderByEventStartDate();
+    Event findFirstByOrderByEventEndDateDesc();
+
+    List<Event> findAllByEventStartDateBeforeAndEventEndDateGreaterThanEqualOrderByEventStartDate(Date end, Date start);
 }
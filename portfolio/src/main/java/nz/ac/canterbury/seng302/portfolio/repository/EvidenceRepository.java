@@ -1,7 +1,11 @@
 package nz.ac.canterbury.seng302.portfolio.repository;
 
 import nz.ac.canterbury.seng302.portfolio.model.Evidence;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
@@ -13,7 +17,64 @@ import java.util.Set;
 public interface EvidenceRepository  extends CrudRepository<Evidence, Integer> {
     Optional<Evidence> findById(int id);
     Set<Evidence> findByUserId(Long userId);
+
+    @EntityGraph(Evidence.LISTING_GRAPH)
     List<Evidence> findAllByUserId(int userId);
+
+    @EntityGraph(Evidence.LISTING_GRAPH)
     List<Evidence> findAllByUserIdOrderByDateDescEvidenceIdDesc(int userId);
+
+    @EntityGraph(Evidence.DETAIL_GRAPH)
     Evidence findByEvidenceId(int evidenceId);
+
+    int countByUserId(int userId);
+
+    /**
+     * Adds to the high five count of a piece of evidence in the database. Pending changes are flushed first and the
+     * persistence context is cleared afterwards, so no evidence loaded before the update keeps its old count.
+     * @param evidenceId id of the piece of evidence
+     * @param delta amount to add to the count
+     * @return number of rows updated
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Evidence e set e.highFiveCount = e.highFiveCount + :delta where e.evidenceId = :evidenceId")
+    int adjustHighFiveCount(@Param("evidenceId") int evidenceId, @Param("delta") int delta);
+
+    /**
+     * Counts the evidence of every user that has any, in a single query.
+     * @return one row per user holding the user id and their evidence count
+     */
+    @Query("select e.userId as userId, count(e) as evidenceCount from Evidence e group by e.userId")
+    List<UserEvidenceCount> countAllGroupByUserId();
+
+    // The tag and category filters are sub-selects so the entity graph can fetch the full tag and category sets.
+    @EntityGraph(Evidence.LISTING_GRAPH)
+    @Query("select e from Evidence e where e.evidenceId in " +
+            "(select te.evidenceId from Evidence te join te.tags t where t.tagId = :tagId) " +
+            "order by e.date desc, e.evidenceId desc")
+    List<Evidence> findAllWithTag(@Param("tagId") int tagId);
+
+    @EntityGraph(Evidence.LISTING_GRAPH)
+    @Query("select e from Evidence e where e.userId = :userId and e.evidenceId in " +
+            "(select te.evidenceId from Evidence te join te.tags t where t.tagId = :tagId) " +
+            "order by e.date desc, e.evidenceId desc")
+    List<Evidence> findAllWithTagAndUser(@Param("tagId") int tagId, @Param("userId") int userId);
+
+    @EntityGraph(Evidence.LISTING_GRAPH)
+    @Query("select e from Evidence e where e.evidenceId in " +
+            "(select ce.evidenceId from Evidence ce join ce.categories c where c.categoryId = :categoryId) " +
+            "order by e.date desc, e.evidenceId desc")
+    List<Evidence> findAllWithCategory(@Param("categoryId") int categoryId);
+
+    @EntityGraph(Evidence.LISTING_GRAPH)
+    @Query("select e from Evidence e where e.userId = :userId and e.evidenceId in " +
+            "(select ce.evidenceId from Evidence ce join ce.categories c where c.categoryId = :categoryId) " +
+            "order by e.date desc, e.evidenceId desc")
+    List<Evidence> findAllWithCategoryAndUser(@Param("categoryId") int categoryId, @Param("userId") int userId);
+
+    @EntityGraph(Evidence.LISTING_GRAPH)
+    List<Evidence> findAllByTagsIsEmptyOrderByDateDescEvidenceIdDesc();
+
+    @EntityGraph(Evidence.LISTING_GRAPH)
+    List<Evidence> findAllByUserIdAndTagsIsEmptyOrderByDateDescEvidenceIdDesc(int userId);
 }
@@ -4,13 +4,17 @@ import java.util.List;
 import java.util.Optional;
 
 import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+
 @Repository
 public interface GroupSettingsRepository extends CrudRepository<GroupSettings, Integer> {
 
     Optional<GroupSettings> findById(int id);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     Optional<GroupSettings> findByGroupId(int id);
 
     List<GroupSettings> findAllByOrderByGroupSettingsId();
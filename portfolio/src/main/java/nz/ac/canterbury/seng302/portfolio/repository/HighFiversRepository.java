@@ -1,10 +1,26 @@
 package nz.ac.canterbury.seng302.portfolio.repository;
 
 import nz.ac.canterbury.seng302.portfolio.model.HighFivers;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 
-public interface HighFiversRepository  extends CrudRepository<HighFivers, Integer> {
+public interface HighFiversRepository  extends CrudRepository<HighFivers, Integer>, HighFiversRepositoryCustom {
     List<HighFivers> findByUserId(int userId);
+
+    @Modifying
+    @Query("delete from HighFivers h where h.evidenceId = :evidenceId and h.userId = :userId")
+    int deleteByEvidenceIdAndUserId(@Param("evidenceId") int evidenceId, @Param("userId") int userId);
+
+    @Modifying
+    @Query("delete from HighFivers h where h.evidenceId = :evidenceId")
+    int deleteAllByEvidenceId(@Param("evidenceId") int evidenceId);
+
+    @Query("select h.evidenceId from HighFivers h where h.userId = :userId and h.evidenceId in :evidenceIds")
+    List<Integer> findEvidenceIdsHighFivedByUser(@Param("userId") int userId,
+                                                 @Param("evidenceIds") Collection<Integer> evidenceIds);
 }
@@ -0,0 +1,13 @@
+package nz.ac.canterbury.seng302.portfolio.repository;
+
+/**
+ * High fiver queries that need more than Spring Data can declare on the repository interface.
+ */
+public interface HighFiversRepositoryCustom {
+
+    /**
+     * Records a high five, doing nothing if the user has already high fived the piece of evidence.
+     * @return 1 if the high five was recorded, 0 if it already existed
+     */
+    int insertIgnore(int evidenceId, int userId, String name);
+}
@@ -0,0 +1,31 @@
+package nz.ac.canterbury.seng302.portfolio.repository;
+
+import nz.ac.canterbury.seng302.portfolio.model.HighFivers;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Native high fiver queries. Hibernate cannot tell which tables a native write touches, so unless it is told it
+ * evicts every second-level cache region and cached query on each one.
+ */
+public class HighFiversRepositoryImpl implements HighFiversRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int insertIgnore(int evidenceId, int userId, String name) {
+        return entityManager.createNativeQuery("insert ignore into high_fivers (evidence_id, user_id, name) " +
+                        "values (:evidenceId, :userId, :name)")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(HighFivers.class)
+                .setParameter("evidenceId", evidenceId)
+                .setParameter("userId", userId)
+                .setParameter("name", name)
+                .executeUpdate();
+    }
+}
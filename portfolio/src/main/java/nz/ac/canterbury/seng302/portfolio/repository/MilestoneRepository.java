@@ -3,6 +3,7 @@ package nz.ac.canterbury.seng302.portfolio.repository;
 import nz.ac.canterbury.seng302.portfolio.model.Milestone;
 import org.springframework.data.repository.CrudRepository;
 
+import java.util.Date;
 import java.util.List;
 
 public interface MilestoneRepository extends CrudRepository<Milestone, Integer> {
@@ -10,4 +11,10 @@ public interface MilestoneRepository extends CrudRepository<Milestone, Integer>
 
     List<Milestone> findAllByOrderByMilestoneDate();
 
+    Milestone findFirstByOrderByMilestoneDate();
+
+    Milestone findFirstByOrderByMilestoneDateDesc();
+
+    List<Milestone> findAllByMilestoneDateGreaterThanEqualAndMilestoneDateBeforeOrderByMilestoneDate(Date start, Date end);
+
 }
@@ -0,0 +1,32 @@
+package nz.ac.canterbury.seng302.portfolio.repository;
+
+import nz.ac.canterbury.seng302.portfolio.model.RepositoryCommit;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+public interface RepositoryCommitRepository extends CrudRepository<RepositoryCommit, Long>,
+        RepositoryCommitRepositoryCustom {
+
+    @Transactional
+    @Modifying
+    @Query("delete from RepositoryCommit c where c.groupId = :groupId")
+    int deleteAllByGroupId(@Param("groupId") int groupId);
+
+    /**
+     * Counts a group's commits by author, using the index on group and date.
+     * @param start Earliest committed date counted.
+     * @param end Committed date after the last one counted, which is not counted itself.
+     * @return Number of commits of each author with any in the range.
+     */
+    @Query("select c.authorEmail as authorEmail, max(c.authorName) as authorName, count(c) as commitCount " +
+            "from RepositoryCommit c where c.groupId = :groupId and c.committedDate >= :start " +
+            "and c.committedDate < :end group by c.authorEmail order by count(c) desc")
+    List<AuthorCommitCount> countByAuthorBetween(@Param("groupId") int groupId, @Param("start") Date start,
+                                                 @Param("end") Date end);
+}
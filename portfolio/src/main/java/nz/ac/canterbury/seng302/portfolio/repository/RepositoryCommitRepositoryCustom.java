@@ -0,0 +1,17 @@
+package nz.ac.canterbury.seng302.portfolio.repository;
+
+import nz.ac.canterbury.seng302.portfolio.model.RepositoryCommit;
+
+import java.util.List;
+
+/**
+ * Repository commit queries that need more than Spring Data can declare on the repository interface.
+ */
+public interface RepositoryCommitRepositoryCustom {
+
+    /**
+     * Copies commits in a single statement and transaction, skipping any the group already has.
+     * @return number of commits copied
+     */
+    int insertIgnoreAll(List<RepositoryCommit> commits);
+}
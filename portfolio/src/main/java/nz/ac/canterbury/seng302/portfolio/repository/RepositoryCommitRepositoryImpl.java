@@ -0,0 +1,43 @@
+package nz.ac.canterbury.seng302.portfolio.repository;
+
+import nz.ac.canterbury.seng302.portfolio.model.RepositoryCommit;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.List;
+
+/**
+ * Native repository commit queries. Hibernate cannot tell which tables a native write touches, so unless it is told it
+ * evicts every second-level cache region and cached query on each one.
+ */
+public class RepositoryCommitRepositoryImpl implements RepositoryCommitRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int insertIgnoreAll(List<RepositoryCommit> commits) {
+        if (commits.isEmpty()) {
+            return 0;
+        }
+        StringBuilder sql = new StringBuilder("insert ignore into repository_commit " +
+                "(group_id, commit_id, author_name, author_email, committed_date) values ");
+        for (int i = 0; i < commits.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, ?)");
+        }
+        NativeQuery<?> query = entityManager.createNativeQuery(sql.toString()).unwrap(NativeQuery.class)
+                .addSynchronizedEntityClass(RepositoryCommit.class);
+        int position = 1;
+        for (RepositoryCommit commit : commits) {
+            query.setParameter(position++, commit.getGroupId());
+            query.setParameter(position++, commit.getCommitId());
+            query.setParameter(position++, commit.getAuthorName());
+            query.setParameter(position++, commit.getAuthorEmail());
+            query.setParameter(position++, commit.getCommittedDate());
+        }
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,20 @@
+package nz.ac.canterbury.seng302.portfolio.repository;
+
+import nz.ac.canterbury.seng302.portfolio.model.SharedCounter;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+public interface SharedCounterRepository extends CrudRepository<SharedCounter, String> {
+
+    /**
+     * Gets a counter, locking it until the transaction ends so only one node changes it at a time.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from SharedCounter c where c.name = :name")
+    Optional<SharedCounter> findByNameForUpdate(@Param("name") String name);
+}
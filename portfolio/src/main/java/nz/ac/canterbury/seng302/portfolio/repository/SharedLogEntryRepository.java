@@ -0,0 +1,24 @@
+package nz.ac.canterbury.seng302.portfolio.repository;
+
+import nz.ac.canterbury.seng302.portfolio.model.SharedLogEntry;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SharedLogEntryRepository extends CrudRepository<SharedLogEntry, Long> {
+
+    List<SharedLogEntry> findByLogNameAndSequenceGreaterThanOrderBySequence(String logName, long sequence);
+
+    @Query("select min(e.sequence) from SharedLogEntry e where e.logName = :logName")
+    Long findFirstSequence(@Param("logName") String logName);
+
+    @Query("select max(e.sequence) from SharedLogEntry e where e.logName = :logName")
+    Long findLastSequence(@Param("logName") String logName);
+
+    @Modifying
+    @Query("delete from SharedLogEntry e where e.logName = :logName and e.sequence <= :sequence")
+    int deleteUpToSequence(@Param("logName") String logName, @Param("sequence") long sequence);
+}
@@ -1,10 +1,12 @@
 package nz.ac.canterbury.seng302.portfolio.repository;
 
 import nz.ac.canterbury.seng302.portfolio.model.Sprint;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
 
 
+import javax.persistence.QueryHint;
 import java.util.List;
 
 @Repository
@@ -14,5 +16,6 @@ public interface SprintRepository extends CrudRepository<Sprint, Integer> {
     List<Sprint> findByParentProjectId(int parentProjectId);
     void deleteById(int id);
 
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Sprint> findAllByOrderBySprintStartDate();
 }
@@ -2,8 +2,10 @@ package nz.ac.canterbury.seng302.portfolio.repository;
 
 import java.util.List;
 import nz.ac.canterbury.seng302.portfolio.model.Tag;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.CrudRepository;
 
+import javax.persistence.QueryHint;
 import java.util.Optional;
 
 /**
@@ -12,7 +14,9 @@ import java.util.Optional;
 public interface TagRepository extends CrudRepository<Tag, Integer> {
     Optional<Tag> findById(int id);
     List<Tag> findByTagNameIgnoreCase(String tagName);
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Tag> findAll();
+    List<Tag> findAllByEvidenceWithTagIsEmpty();
     void deleteById(int id);
 
 }
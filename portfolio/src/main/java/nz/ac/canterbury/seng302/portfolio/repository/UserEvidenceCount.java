@@ -0,0 +1,9 @@
+package nz.ac.canterbury.seng302.portfolio.repository;
+
+/**
+ * Projection of the number of evidence pieces a user has, used by the leaderboard so it never loads evidence entities.
+ */
+public interface UserEvidenceCount {
+    int getUserId();
+    long getEvidenceCount();
+}
@@ -0,0 +1,110 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.model.NotificationResponse;
+import io.grpc.StatusRuntimeException;
+import nz.ac.canterbury.seng302.shared.identityprovider.UserResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+
+/**
+ * Tells the details page and the calendar when the project, a sprint, event, milestone or deadline has been added,
+ * saved or deleted. The services making the change publish it once it is committed, naming the user that made it, so
+ * the notification can neither arrive before the change nor be sent by a browser for a change that never happened.
+ */
+@Service
+public class ArtefactNotificationService {
+
+    /**
+     * Destination the details page and calendar subscribe to, to reload when an artefact is added.
+     */
+    public static final String ARTEFACT_ADDED_DESTINATION = "/webSocketGet/artefact-add";
+
+    /**
+     * Destination the details page and calendar subscribe to, to reload when an artefact is saved.
+     */
+    public static final String ARTEFACT_SAVED_DESTINATION = "/webSocketGet/artefact-save";
+
+    /**
+     * Destination the details page and calendar subscribe to, to reload when an artefact is deleted.
+     */
+    public static final String ARTEFACT_DELETED_DESTINATION = "/webSocketGet/artefact-delete";
+
+    private static final Logger logger = LoggerFactory.getLogger(ArtefactNotificationService.class);
+
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private RecentNotificationService recentNotificationService;
+
+    @Autowired
+    private RegisterClientService registerClientService;
+
+    /**
+     * Publishes that an artefact has been added.
+     * @param artefactType Type of the artefact, e.g. Event.
+     * @param artefactId Id of the artefact.
+     * @param artefactName Name of the artefact.
+     * @param editorId Id of the user that added it.
+     */
+    public void publishAdded(String artefactType, int artefactId, String artefactName, int editorId) {
+        publish(ARTEFACT_ADDED_DESTINATION, artefactType, artefactId, artefactName, editorId, "add");
+    }
+
+    /**
+     * Publishes that an edited artefact has been saved.
+     * @param artefactType Type of the artefact, e.g. Event.
+     * @param artefactId Id of the artefact.
+     * @param artefactName Name of the artefact.
+     * @param editorId Id of the user that saved it.
+     */
+    public void publishSaved(String artefactType, int artefactId, String artefactName, int editorId) {
+        publish(ARTEFACT_SAVED_DESTINATION, artefactType, artefactId, artefactName, editorId, "save");
+    }
+
+    /**
+     * Publishes that an artefact has been deleted.
+     * @param artefactType Type of the artefact, e.g. Event.
+     * @param artefactId Id of the artefact.
+     * @param artefactName Name of the artefact.
+     * @param editorId Id of the user that deleted it.
+     */
+    public void publishDeleted(String artefactType, int artefactId, String artefactName, int editorId) {
+        publish(ARTEFACT_DELETED_DESTINATION, artefactType, artefactId, artefactName, editorId, "delete");
+    }
+
+    /**
+     * Publishes a change to an artefact once it is committed, and keeps it as a recent notification of the details
+     * page so pages reloading because of it show its toast. The editor is only looked up once the change is committed.
+     */
+    private void publish(String destination, String artefactType, int artefactId, String artefactName, int editorId,
+                         String action) {
+        long time = Instant.now().getEpochSecond();
+        liveUpdateService.runAfterCommit(() -> {
+            UserResponse editor = getEditor(editorId);
+            NotificationResponse response = new NotificationResponse(artefactName, artefactId, editor.getUsername(),
+                    editor.getFirstName(), editor.getLastName(), time, artefactType, action);
+            recentNotificationService.add(RecentNotificationService.DETAILS_FEED, response);
+            liveUpdateService.publish(destination, artefactType + ":" + artefactId, response);
+        });
+    }
+
+    /**
+     * Gets the user that made a change. The change is already saved, so if the identity provider cannot be reached the
+     * user is named by their id rather than failing the request that saved it.
+     */
+    private UserResponse getEditor(int editorId) {
+        try {
+            return registerClientService.getUserData(editorId);
+        } catch (StatusRuntimeException e) {
+            logger.warn(String.format("Could not look up user %d to name in a notification: %s", editorId,
+                    e.getStatus()));
+            return UserResponse.newBuilder().setId(editorId).setUsername(String.valueOf(editorId))
+                    .setFirstName("User").setLastName(String.valueOf(editorId)).build();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import nz.ac.canterbury.seng302.portfolio.model.Sprint;
+import nz.ac.canterbury.seng302.portfolio.utility.EventDic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Writes the sprints, events, deadlines and milestones within a range of dates as a JSON event feed for FullCalendar.
+ * Sprints are written as coloured all day events. Events, deadlines and milestones are combined into one entry per
+ * type per day, titled with how many there are and described with their names.
+ */
+@Service
+public class CalendarFeedService {
+
+    @Autowired
+    private SprintService sprintService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private DeadlineService deadlineService;
+
+    @Autowired
+    private MilestoneService milestoneService;
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    /**
+     * Writes the calendar entries that fall within the given range to the output stream as a JSON array. The output
+     * is written as it is generated, rather than built up as a string first.
+     * @param start Start of the range.
+     * @param end End of the range, exclusive.
+     * @param outputStream Stream to write the JSON to. It is not closed.
+     * @throws IOException If writing to the stream fails.
+     */
+    public void writeFeed(Date start, Date end, OutputStream outputStream) throws IOException {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate firstDay = toLocalDate(start, zone);
+        LocalDate endDay = toLocalDate(end, zone);
+
+        // All sprints are needed as a sprint's colour depends on its position
+        List<Sprint> sprints = sprintService.getAllSprintsOrderedWithColour();
+        // Events are only added for the days in the range, however long they are
+        EventDic daySummaries = new EventDic(zone, firstDay, endDay);
+        eventService.getEventsInRange(start, end).forEach(daySummaries::add);
+        deadlineService.getDeadlinesInRange(start, end).forEach(daySummaries::add);
+        milestoneService.getMilestonesInRange(start, end).forEach(daySummaries::add);
+
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(outputStream)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.writeStartArray();
+            for (Sprint sprint : sprints) {
+                if (sprint.getStartDate().before(end) && !sprint.getEndDate().before(start)) {
+                    writeSprint(json, sprint, zone);
+                }
+            }
+            daySummaries.writeEntries(json);
+            json.writeEndArray();
+        }
+    }
+
+    private static void writeSprint(JsonGenerator json, Sprint sprint, ZoneId zone) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("id", String.valueOf(sprint.getId()));
+        json.writeStringField("title", sprint.getName());
+        json.writeStringField("start", Instant.ofEpochMilli(sprint.getStartDate().getTime()).toString());
+        // The end is exclusive, so add a day for the sprint's last day to be shown
+        json.writeStringField("end", Instant.ofEpochMilli(sprint.getEndDate().getTime()).atZone(zone).plusDays(1).toInstant().toString());
+        json.writeBooleanField("allDay", true);
+        json.writeStringField("color", sprint.getColour());
+        json.writeStringField("type", "Sprint");
+        json.writeEndObject();
+    }
+
+    private static LocalDate toLocalDate(Date date, ZoneId zone) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(zone).toLocalDate();
+    }
+}
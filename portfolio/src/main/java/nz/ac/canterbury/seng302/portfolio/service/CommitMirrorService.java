@@ -0,0 +1,232 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.model.CommitMirrorCursor;
+import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
+import nz.ac.canterbury.seng302.portfolio.model.RepositoryCommit;
+import nz.ac.canterbury.seng302.portfolio.model.Sprint;
+import nz.ac.canterbury.seng302.portfolio.repository.AuthorCommitCount;
+import nz.ac.canterbury.seng302.portfolio.repository.CommitMirrorCursorRepository;
+import nz.ac.canterbury.seng302.portfolio.repository.RepositoryCommitRepository;
+import nz.ac.canterbury.seng302.portfolio.utility.GitLabCommitPageApi;
+import org.gitlab4j.api.GitLabApiException;
+import org.gitlab4j.api.models.Commit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a local copy of the commits in each group's repository, so teachers can see how many commits each member made
+ * in each sprint without the portfolio asking GitLab for the repository's whole history.
+ * Each group's repository is synced in the background. A sync only asks GitLab for commits since the newest one already
+ * copied, so after the first sync of a repository each sync is a single small request. Commits keep the date they were
+ * first committed when they are pushed later, so each sync looks back a little before the newest commit, and commits
+ * already copied are skipped. Commits pushed even later than that are caught by asking for every commit once a day.
+ */
+@Service
+public class CommitMirrorService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommitMirrorService.class);
+
+    /**
+     * Number of commits asked for in each request to GitLab, which is the most GitLab allows.
+     */
+    static final int COMMITS_PER_PAGE = 100;
+
+    /**
+     * How far before the newest commit copied each sync looks, to catch commits pushed after newer ones.
+     */
+    static final long OVERLAP_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    /**
+     * How often a sync asks for every commit, to catch commits pushed long after they were committed.
+     */
+    static final long FULL_SYNC_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    @Autowired
+    private RepositoryCommitRepository commitRepository;
+
+    @Autowired
+    private CommitMirrorCursorRepository cursorRepository;
+
+    @Autowired
+    private GroupSettingsService groupSettingsService;
+
+    @Autowired
+    private GitLabRequestExecutor gitLabRequestExecutor;
+
+    @Autowired
+    private SprintService sprintService;
+
+    @Autowired
+    private GitLabClientPool gitLabClientPool;
+
+    @Value("${portfolio.gitlab.mirror.interval-seconds:300}")
+    private long intervalSeconds;
+
+    private final ScheduledExecutorService syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "commit-mirror-sync");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Ids of the groups being synced, so a group is never synced twice at once.
+     */
+    private final Set<Integer> syncing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Starts syncing every group's repository at the interval in the application properties. Syncing is turned off
+     * if the interval is not positive.
+     */
+    @PostConstruct
+    public void start() {
+        if (intervalSeconds > 0) {
+            syncer.scheduleWithFixedDelay(this::syncAll, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    /**
+     * Syncs every group that has a repository set up. A group that fails to sync is tried again next time.
+     */
+    void syncAll() {
+        for (GroupSettings groupSettings : groupSettingsService.getAllGroupSettings()) {
+            if (groupSettings.getRepoId() == 0 || groupSettings.getRepoApiKey() == null) {
+                continue;
+            }
+            try {
+                syncGroup(groupSettings);
+            } catch (GitLabApiException | RuntimeException e) {
+                logger.warn("Could not sync commits of group {}: {}", groupSettings.getGroupId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Syncs a group's repository soon, such as after its settings are saved, rather than waiting for the next sync.
+     * @param groupId id of the group
+     */
+    public void requestSync(int groupId) {
+        try {
+            syncer.execute(() -> {
+                try {
+                    GroupSettings groupSettings = groupSettingsService.getGroupSettingsByGroupId(groupId);
+                    if (groupSettings.getRepoId() != 0 && groupSettings.getRepoApiKey() != null) {
+                        syncGroup(groupSettings);
+                    }
+                } catch (GitLabApiException | RuntimeException e) {
+                    logger.warn("Could not sync commits of group {}: {}", groupId, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            logger.warn("Skipped syncing commits of group {}, syncing is shut down", groupId);
+        }
+    }
+
+    /**
+     * Copies the commits made to a group's repository since its last sync. If the group's repository has changed, the
+     * commits of its old repository are thrown away and every commit of the new one is copied. Every commit is also
+     * asked for if the last time that happened was longer ago than the full sync interval.
+     * @param groupSettings current settings of the group
+     * @return number of commits copied
+     * @throws GitLabApiException if any exception occurs communicating with the GitLab API, in which case the commits
+     * copied so far are kept and the next sync starts from the same place
+     */
+    public int syncGroup(GroupSettings groupSettings) throws GitLabApiException {
+        int groupId = groupSettings.getGroupId();
+        if (!syncing.add(groupId)) {
+            return 0;
+        }
+        try {
+            CommitMirrorCursor cursor = cursorRepository.findById(groupId).orElse(null);
+            if (cursor == null || !cursor.isFor(groupSettings)) {
+                commitRepository.deleteAllByGroupId(groupId);
+                cursor = new CommitMirrorCursor(groupSettings);
+            }
+            Date startedAt = new Date();
+            Date newest = cursor.getLastCommittedDate();
+            Date lastFullSync = cursor.getLastFullSyncAt();
+            boolean isFullSync = newest == null || lastFullSync == null
+                    || startedAt.getTime() - lastFullSync.getTime() >= FULL_SYNC_INTERVAL_MILLIS;
+            Date since = isFullSync ? null : new Date(newest.getTime() - OVERLAP_MILLIS);
+
+            int copied = 0;
+            try (GitLabClientPool.Lease lease = gitLabClientPool.lease(groupSettings)) {
+                Integer page = 1;
+                while (page != null) {
+                    int pageNumber = page;
+                    GitLabCommitPageApi.Page commits = gitLabRequestExecutor.call(groupSettings.getRepoUrl(),
+                            () -> lease.getCommitPageApi().getCommitsOnAllBranches(groupSettings.getRepoId(), since,
+                                    pageNumber, COMMITS_PER_PAGE));
+                    List<RepositoryCommit> copies = new ArrayList<>(commits.getCommits().size());
+                    for (Commit commit : commits.getCommits()) {
+                        copies.add(new RepositoryCommit(groupId, commit.getId(), commit.getAuthorName(),
+                                commit.getAuthorEmail(), commit.getCommittedDate()));
+                        if (newest == null || commit.getCommittedDate().after(newest)) {
+                            newest = commit.getCommittedDate();
+                        }
+                    }
+                    copied += commitRepository.insertIgnoreAll(copies);
+                    page = commits.getNextPage();
+                }
+            }
+
+            cursor.setLastCommittedDate(newest);
+            cursor.setLastSyncedAt(new Date());
+            if (isFullSync) {
+                cursor.setLastFullSyncAt(startedAt);
+            }
+            cursorRepository.save(cursor);
+            if (copied > 0) {
+                logger.info("Copied {} new commits of group {}", copied, groupId);
+            }
+            return copied;
+        } finally {
+            syncing.remove(groupId);
+        }
+    }
+
+    /**
+     * Counts the copied commits of a group by author for each sprint. A sprint's end date is the start of its last day,
+     * so commits are counted up to the start of the day after it.
+     * @param groupId id of the group
+     * @return commit counts of each author with commits in the sprint, most commits first, for every sprint in order
+     */
+    public Map<Sprint, List<AuthorCommitCount>> getCommitCountsBySprint(int groupId) {
+        Map<Sprint, List<AuthorCommitCount>> counts = new LinkedHashMap<>();
+        for (Sprint sprint : sprintService.getAllSprintsOrdered()) {
+            Date dayAfterEnd = Date.from(sprint.getEndDate().toInstant().atZone(ZoneId.systemDefault()).plusDays(1)
+                    .toInstant());
+            counts.put(sprint, commitRepository.countByAuthorBetween(groupId, sprint.getStartDate(), dayAfterEnd));
+        }
+        return counts;
+    }
+
+    /**
+     * Gets when a group's commits were last synced.
+     * @param groupId id of the group
+     * @return time of the last sync, or null if the group has never been synced
+     */
+    public Date getLastSyncedAt(int groupId) {
+        return cursorRepository.findById(groupId).map(CommitMirrorCursor::getLastSyncedAt).orElse(null);
+    }
+
+    /**
+     * Stops syncing.
+     */
+    @PreDestroy
+    public void shutdown() {
+        syncer.shutdownNow();
+    }
+}
@@ -0,0 +1,122 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.model.SharedCounter;
+import nz.ac.canterbury.seng302.portfolio.model.SharedLogEntry;
+import nz.ac.canterbury.seng302.portfolio.repository.SharedCounterRepository;
+import nz.ac.canterbury.seng302.portfolio.repository.SharedLogEntryRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Keeps shared state in the portfolio database, which every node already connects to, so several nodes behind a load
+ * balancer agree on it. Used when portfolio.shared-state is database.
+ * Counters are rows locked while they are incremented, so each value is handed out once across all nodes. Counters
+ * are created the first time they are incremented, with plain JPA, so the store runs on any database.
+ * Each log has a counter for its sequence, which is locked from when an entry takes its sequence until the entry is
+ * committed. Entries therefore become readable in sequence order, so a reader that has seen one sequence never
+ * misses an earlier one committed after it. Only additions to the same log wait on each other. Each log is trimmed
+ * to its capacity as it is added to.
+ * Every change runs in its own transaction, so state can be changed after another transaction has committed, and is
+ * kept even if the caller's transaction rolls back.
+ */
+@Service
+@ConditionalOnProperty(name = "portfolio.shared-state", havingValue = "database")
+public class DatabaseSharedStateStore implements SharedStateStore {
+
+    private static final String LOG_COUNTER_PREFIX = "log:";
+
+    @Autowired
+    private SharedCounterRepository counterRepository;
+
+    @Autowired
+    private SharedLogEntryRepository logEntryRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Override
+    public long incrementCounter(String counter) {
+        TransactionTemplate transaction = newTransaction(counter);
+        return Objects.requireNonNull(transaction.execute(status -> lockAndIncrement(counter)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getCounter(String counter) {
+        return counterRepository.findById(counter).map(SharedCounter::getValue).orElse(0L);
+    }
+
+    /**
+     * Appends a value, taking its sequence from the log's counter in the same transaction as the entry is added, so
+     * the counter stays locked until the entry is readable.
+     */
+    @Override
+    public long append(String log, String value, int capacity) {
+        String counter = LOG_COUNTER_PREFIX + log;
+        TransactionTemplate transaction = newTransaction(counter);
+        return Objects.requireNonNull(transaction.execute(status -> {
+            long sequence = lockAndIncrement(counter);
+            logEntryRepository.save(new SharedLogEntry(log, sequence, value));
+            logEntryRepository.deleteUpToSequence(log, sequence - capacity);
+            return sequence;
+        }));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Entry> readAfter(String log, long afterSequence) {
+        return logEntryRepository.findByLogNameAndSequenceGreaterThanOrderBySequence(log, afterSequence).stream()
+                .map(entry -> new Entry(entry.getSequence(), entry.getValue()))
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getFirstSequence(String log) {
+        Long first = logEntryRepository.findFirstSequence(log);
+        return first == null ? getLastSequence(log) + 1 : first;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getLastSequence(String log) {
+        Long last = logEntryRepository.findLastSequence(log);
+        return last == null ? 0 : last;
+    }
+
+    /**
+     * Creates a counter if needed and gets a new transaction to lock it in. The counter is created in a transaction
+     * of its own before it is locked, as locking a missing row can block the insert that would create it.
+     */
+    private TransactionTemplate newTransaction(String counter) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        if (!counterRepository.existsById(counter)) {
+            try {
+                transaction.executeWithoutResult(status -> counterRepository.save(new SharedCounter(counter)));
+            } catch (DataIntegrityViolationException e) {
+                // Another node created it first
+            }
+        }
+        return transaction;
+    }
+
+    /**
+     * Locks a counter until the transaction ends and increments it.
+     */
+    private long lockAndIncrement(String counter) {
+        SharedCounter sharedCounter = counterRepository.findByNameForUpdate(counter).orElseThrow();
+        long value = sharedCounter.increment();
+        counterRepository.save(sharedCounter);
+        return value;
+    }
+}
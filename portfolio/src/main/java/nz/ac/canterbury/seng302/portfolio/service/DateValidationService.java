@@ -1,11 +1,12 @@
 package nz.ac.canterbury.seng302.portfolio.service;
 
+import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import nz.ac.canterbury.seng302.portfolio.model.*;
 import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
+import nz.ac.canterbury.seng302.portfolio.utility.ProjectDateIndex;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -19,20 +20,11 @@ import java.util.Date;
 @Service
 public class DateValidationService {
 
-    @Autowired
-    private SprintService sprintService;
-
     @Autowired
     private ProjectService projectService;
 
     @Autowired
-    private EventService eventService;
-
-    @Autowired
-    private MilestoneService milestoneService;
-
-    @Autowired
-    private DeadlineService deadlineService;
+    private ProjectDateIndexService projectDateIndexService;
 
     private static final Logger logger = LoggerFactory.getLogger(DateValidationService.class);
 
@@ -93,21 +85,26 @@ public class DateValidationService {
     public String validateSprintDateRange(String sprintStartDateString, String sprintEndDateString, int sprintId) {
         String message = "";
         if (!sprintStartDateString.equals("") && !sprintEndDateString.equals("")) {
-            Date sprintStartDate = Project.stringToDate(sprintStartDateString);
-            Date sprintEndDate = Project.stringToDate(sprintEndDateString);
-            for (Sprint sprint : sprintService.getAllSprints()) {
-                // Get date from the string to ignore time
-                Date startDate = Project.stringToDate(sprint.getStartDateString());
-                Date endDate = Project.stringToDate(sprint.getEndDateString());
-                if (sprint.getId() != sprintId && !(
-                        sprintStartDate.before(startDate) && sprintEndDate.before(startDate) ||
-                                sprintStartDate.after(endDate) && sprintEndDate.after(endDate)
-                )) {
-                    message = "Dates must not overlap with " + sprint.getName() + "'s dates (" +
-                            sprint.getStartDateString() + " - " + sprint.getEndDateString() + ").";
-                    break;
-                }
-            }
+            message = validateSprintDateRange(Project.stringToDate(sprintStartDateString),
+                    Project.stringToDate(sprintEndDateString), sprintId);
+        }
+        return message;
+    }
+
+    /**
+     * Validates the given sprint dates, making sure they don't share a day with any other sprint. Only the days of the
+     * dates are compared.
+     * @param sprintStartDate New sprint start date
+     * @param sprintEndDate New sprint end date
+     * @param sprintId Id of the new sprint
+     * @return Message giving an error if there is overlaps with other sprints, empty otherwise
+     */
+    public String validateSprintDateRange(Date sprintStartDate, Date sprintEndDate, int sprintId) {
+        String message = "";
+        Sprint sprint = projectDateIndexService.getIndex().findOverlappingSprint(sprintStartDate, sprintEndDate, sprintId);
+        if (sprint != null) {
+            message = "Dates must not overlap with " + sprint.getName() + "'s dates (" +
+                    sprint.getStartDateString() + " - " + sprint.getEndDateString() + ").";
         }
         return message;
     }
@@ -122,23 +119,35 @@ public class DateValidationService {
     public String validateDatesInProjectDateRange(String sprintStartDateString, String sprintEndDateString) {
         String message = "";
         if (!sprintStartDateString.equals("") && !sprintEndDateString.equals("")) {
-            Date sprintStartDate = Project.stringToDate(sprintStartDateString);
-            Date sprintEndDate = Project.stringToDate(sprintEndDateString);
-            Project project;
-            try {
-                project = projectService.getProjectById(0);
-            } catch (Exception e) {
-                logger.debug("Project doesn't exist during date validation");
-                return message;
-            }
-            // Get date from the string to ignore time
-            Date projectStartDate = Project.stringToDate(project.getStartDateString());
-            Date projectEndDate = Project.stringToDate(project.getEndDateString());
-            if (sprintStartDate.before(projectStartDate) || sprintStartDate.after(projectEndDate) ||
-                    sprintEndDate.before(projectStartDate) || sprintEndDate.after(projectEndDate)) {
-                message = "Sprint dates must be within the project's date range (" +
-                        project.getStartDateString() + " - " + project.getEndDateString() + ").";
-            }
+            message = validateDatesInProjectDateRange(Project.stringToDate(sprintStartDateString),
+                    Project.stringToDate(sprintEndDateString));
+        }
+        return message;
+    }
+
+    /**
+     * Validates the given dates used for sprints and events, making sure they fall on days within the project dates.
+     * @param sprintStartDate Start date being checked
+     * @param sprintEndDate End date being checked
+     * @return Message giving an error if the dates are not within the project dates, empty otherwise
+     */
+    public String validateDatesInProjectDateRange(Date sprintStartDate, Date sprintEndDate) {
+        String message = "";
+        Project project;
+        try {
+            project = projectService.getProjectById(0);
+        } catch (Exception e) {
+            logger.debug("Project doesn't exist during date validation");
+            return message;
+        }
+        LocalDate projectStartDay = DateUtility.toLocalDate(project.getStartDate());
+        LocalDate projectEndDay = DateUtility.toLocalDate(project.getEndDate());
+        LocalDate startDay = DateUtility.toLocalDate(sprintStartDate);
+        LocalDate endDay = DateUtility.toLocalDate(sprintEndDate);
+        if (startDay.isBefore(projectStartDay) || startDay.isAfter(projectEndDay) ||
+                endDay.isBefore(projectStartDay) || endDay.isAfter(projectEndDay)) {
+            message = "Sprint dates must be within the project's date range (" +
+                    project.getStartDateString() + " - " + project.getEndDateString() + ").";
         }
         return message;
     }
@@ -162,50 +171,53 @@ public class DateValidationService {
 
     /**
      * Validates the given project date range based on the dates of the artefacts (sprints, events, milestones, and
-     * deadlines), ensuring that the date range contains all the current artefacts.
+     * deadlines), ensuring that the date range contains all the current artefacts. Only the earliest and latest
+     * artefact of each type are checked, as kept by the date index.
      * @param projectStartDateString start date of the project
      * @param projectEndDateString end date of the project
      * @return Message giving an error if the project date range doesn't contain all artefacts, empty otherwise
      */
     public String validateProjectDatesContainArtefacts(String projectStartDateString, String projectEndDateString) {
-        String message = validateProjectDatesContainSprints(projectStartDateString, projectEndDateString);
+        if (projectStartDateString.equals("") || projectEndDateString.equals("")) {
+            return "";
+        }
+        Date projectStartDate = Project.stringToDate(projectStartDateString);
+        Date projectEndDate = DateUtility.setToEndOfDay(Project.stringToDate(projectEndDateString));
+        ProjectDateIndex index = projectDateIndexService.getIndex();
+
+        String message = validateProjectDatesContainSprints(projectStartDate, projectEndDate, index);
         if (message.length() > 0) {
             return message;
         }
-        message = validateProjectDatesContainEvents(projectStartDateString, projectEndDateString);
+        message = validateProjectDatesContainEvents(projectStartDate, projectEndDate, index);
         if (message.length() > 0) {
             return message;
         }
-        message = validateProjectDatesContainMilestones(projectStartDateString, projectEndDateString);
+        message = validateProjectDatesContainMilestones(projectStartDate, projectEndDate, index);
         if (message.length() > 0) {
             return message;
         }
-        message = validateProjectDatesContainDeadlines(projectStartDateString, projectEndDateString);
+        message = validateProjectDatesContainDeadlines(projectStartDate, projectEndDate, index);
         return message;
     }
 
     /**
      * Validates the given project date range based on the dates of the sprints, ensuring that the date range contains
      * all the current sprints.
-     * @param projectStartDateString start date of the project
-     * @param projectEndDateString end date of the project
+     * @param projectStartDate start date of the project
+     * @param projectEndDate end of the last day of the project
+     * @param index index of the artefact dates
      * @return Message giving an error if the project date range doesn't contain all sprints, empty otherwise
      */
-    private String validateProjectDatesContainSprints(String projectStartDateString, String projectEndDateString) {
+    private String validateProjectDatesContainSprints(Date projectStartDate, Date projectEndDate,
+                                                      ProjectDateIndex index) {
         String message = "";
-        if (!projectStartDateString.equals("") && !projectEndDateString.equals("")) {
-            Date projectStartDate = Project.stringToDate(projectStartDateString);
-            Date projectEndDate = DateUtility.setToEndOfDay(Project.stringToDate(projectEndDateString));
-            List<Sprint> ordered = sprintService.getAllSprintsOrdered();
-            if (!ordered.isEmpty()) {
-                Sprint first = ordered.get(0);
-                Sprint last = ordered.get(ordered.size() - 1);
-                if (projectStartDate.after(first.getStartDate()) || projectEndDate.before(last.getEndDate())) {
-                    message = "Start date must be on or before the start date of the first sprint (" +
-                            first.getStartDateString() + ") and end date must be on or after the end date of " +
-                            "the last sprint (" + last.getEndDateString() + ").";
-                }
-            }
+        Sprint first = index.getFirstSprint();
+        Sprint last = index.getLastSprint();
+        if (first != null && (projectStartDate.after(first.getStartDate()) || projectEndDate.before(last.getEndDate()))) {
+            message = "Start date must be on or before the start date of the first sprint (" +
+                    first.getStartDateString() + ") and end date must be on or after the end date of " +
+                    "the last sprint (" + last.getEndDateString() + ").";
         }
         return message;
     }
@@ -213,26 +225,20 @@ public class DateValidationService {
     /**
      * Validates the given project date range based on the dates of the events, ensuring that the date range contains
      * all the current events.
-     * @param projectStartDateString start date of the project
-     * @param projectEndDateString end date of the project
+     * @param projectStartDate start date of the project
+     * @param projectEndDate end of the last day of the project
+     * @param index index of the artefact dates
      * @return Message giving an error if the project date range doesn't contain all events, empty otherwise
      */
-    private String validateProjectDatesContainEvents(String projectStartDateString, String projectEndDateString) {
+    private String validateProjectDatesContainEvents(Date projectStartDate, Date projectEndDate,
+                                                     ProjectDateIndex index) {
         String message = "";
-        if (!projectStartDateString.equals("") && !projectEndDateString.equals("")) {
-            Date projectStartDate = Project.stringToDate(projectStartDateString);
-            Date projectEndDate = DateUtility.setToEndOfDay(Project.stringToDate(projectEndDateString));
-            List<Event> orderedStartDate = eventService.getAllEventsOrderedStartDate();
-            List<Event> orderedEndDate = eventService.getAllEventsOrderedEndDate();
-            if (!orderedStartDate.isEmpty()) {
-                Event first = orderedStartDate.get(0);
-                Event last = orderedEndDate.get(orderedEndDate.size() - 1);
-                if (projectStartDate.after(first.getEventStartDate()) || projectEndDate.before(last.getEventEndDate())) {
-                    message = "Start date must be on or before the start date of the first event (" +
-                            first.getStartDateString() + ") and end date must be on or after the end date of " +
-                            "the last event (" + last.getEndDateString() + ").";
-                }
-            }
+        Event first = index.getFirstEvent();
+        Event last = index.getLastEvent();
+        if (first != null && (projectStartDate.after(first.getEventStartDate()) || projectEndDate.before(last.getEventEndDate()))) {
+            message = "Start date must be on or before the start date of the first event (" +
+                    first.getStartDateString() + ") and end date must be on or after the end date of " +
+                    "the last event (" + last.getEndDateString() + ").";
         }
         return message;
     }
@@ -240,25 +246,20 @@ public class DateValidationService {
     /**
      * Validates the given project date range based on the dates of the milestones, ensuring that the date range contains
      * all the current milestones.
-     * @param projectStartDateString start date of the project
-     * @param projectEndDateString end date of the project
+     * @param projectStartDate start date of the project
+     * @param projectEndDate end of the last day of the project
+     * @param index index of the artefact dates
      * @return Message giving an error if the project date range doesn't contain all milestones, empty otherwise
      */
-    private String validateProjectDatesContainMilestones(String projectStartDateString, String projectEndDateString) {
+    private String validateProjectDatesContainMilestones(Date projectStartDate, Date projectEndDate,
+                                                         ProjectDateIndex index) {
         String message = "";
-        if (!projectStartDateString.equals("") && !projectEndDateString.equals("")) {
-            Date projectStartDate = Project.stringToDate(projectStartDateString);
-            Date projectEndDate = DateUtility.setToEndOfDay(Project.stringToDate(projectEndDateString));
-            List<Milestone> ordered = milestoneService.getAllMilestonesOrdered();
-            if (!ordered.isEmpty()) {
-                Milestone first = ordered.get(0);
-                Milestone last = ordered.get(ordered.size() - 1);
-                if (projectStartDate.after(first.getMilestoneDate()) || projectEndDate.before(last.getMilestoneDate())) {
-                    message = "Start date must be on or before the date of the first milestone (" +
-                            first.getMilestoneDateString() + ") and end date must be on or after the date of " +
-                            "the last milestone (" + last.getMilestoneDateString() + ").";
-                }
-            }
+        Milestone first = index.getFirstMilestone();
+        Milestone last = index.getLastMilestone();
+        if (first != null && (projectStartDate.after(first.getMilestoneDate()) || projectEndDate.before(last.getMilestoneDate()))) {
+            message = "Start date must be on or before the date of the first milestone (" +
+                    first.getMilestoneDateString() + ") and end date must be on or after the date of " +
+                    "the last milestone (" + last.getMilestoneDateString() + ").";
         }
         return message;
     }
@@ -266,25 +267,20 @@ public class DateValidationService {
     /**
      * Validates the given project date range based on the dates of the deadlines, ensuring that the date range contains
      * all the current deadlines.
-     * @param projectStartDateString start date of the project
-     * @param projectEndDateString end date of the project
+     * @param projectStartDate start date of the project
+     * @param projectEndDate end of the last day of the project
+     * @param index index of the artefact dates
      * @return Message giving an error if the project date range doesn't contain all deadlines, empty otherwise
      */
-    private String validateProjectDatesContainDeadlines(String projectStartDateString, String projectEndDateString) {
+    private String validateProjectDatesContainDeadlines(Date projectStartDate, Date projectEndDate,
+                                                        ProjectDateIndex index) {
         String message = "";
-        if (!projectStartDateString.equals("") && !projectEndDateString.equals("")) {
-            Date projectStartDate = Project.stringToDate(projectStartDateString);
-            Date projectEndDate = DateUtility.setToEndOfDay(Project.stringToDate(projectEndDateString));
-            List<Deadline> ordered = deadlineService.getAllDeadlinesOrdered();
-            if (!ordered.isEmpty()) {
-                Deadline first = ordered.get(0);
-                Deadline last = ordered.get(ordered.size() - 1);
-                if (projectStartDate.after(first.getDeadlineDate()) || projectEndDate.before(last.getDeadlineDate())) {
-                    message = "Start date must be on or before the date of the first deadline (" +
-                            first.getDeadlineDateString() + ") and end date must be on or after the date of " +
-                            "the last deadline (" + last.getDeadlineDateString() + ").";
-                }
-            }
+        Deadline first = index.getFirstDeadline();
+        Deadline last = index.getLastDeadline();
+        if (first != null && (projectStartDate.after(first.getDeadlineDate()) || projectEndDate.before(last.getDeadlineDate()))) {
+            message = "Start date must be on or before the date of the first deadline (" +
+                    first.getDeadlineDateString() + ") and end date must be on or after the date of " +
+                    "the last deadline (" + last.getDeadlineDateString() + ").";
         }
         return message;
     }
@@ -4,12 +4,16 @@ import java.util.ArrayList;
 import nz.ac.canterbury.seng302.portfolio.model.Deadline;
 import nz.ac.canterbury.seng302.portfolio.model.Sprint;
 import nz.ac.canterbury.seng302.portfolio.repository.DeadlinesRepository;
+import nz.ac.canterbury.seng302.portfolio.utility.SprintIntervalIndex;
 import org.hibernate.ObjectNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.ui.Model;
 
 import javax.ws.rs.NotAcceptableException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.regex.Pattern;
 
@@ -22,6 +26,11 @@ public class DeadlineService {
     @Autowired
     private DeadlinesRepository repository;
 
+    @Autowired
+    private ArtefactNotificationService artefactNotificationService;
+
+    private static final String ARTEFACT_TYPE = "Deadline";
+
     private static final String DEADLINE_NAME_ERROR_MESSAGE = "deadlineAlertMessage";
 
     private static final String DEADLINE_DATE_ERROR_MESSAGE = "deadlineDateAlertMessage";
@@ -45,6 +54,18 @@ public class DeadlineService {
         }
     }
 
+    /**
+     * Updates a deadline and tells the pages showing it who saved it.
+     * @param deadline deadline to update it to
+     * @param editorId id of the user saving the deadline
+     * @return Newly edited deadline
+     */
+    public Deadline updateDeadline(Deadline deadline, int editorId) {
+        Deadline saved = updateDeadline(deadline);
+        artefactNotificationService.publishSaved(ARTEFACT_TYPE, saved.getId(), saved.getDeadlineName(), editorId);
+        return saved;
+    }
+
     /**
      * Get deadline by Id
      * @param id id of event
@@ -76,6 +97,16 @@ public class DeadlineService {
         return repository.findAllByOrderByDeadlineDate();
     }
 
+    /**
+     * Get list of deadlines within a range of dates, ordered by date
+     * @param start start of the range
+     * @param end end of the range, exclusive
+     * @return List of deadlines in the range ordered by date
+     */
+    public List<Deadline> getDeadlinesInRange(Date start, Date end) {
+        return repository.findAllByDeadlineDateGreaterThanEqualAndDeadlineDateBeforeOrderByDeadlineDate(start, end);
+    }
+
 
     /**
      * Saves the given deadline to the database after removing whitespace from name
@@ -89,18 +120,43 @@ public class DeadlineService {
         return repository.save(deadline);
     }
 
+    /**
+     * Saves the given deadline to the database and tells the pages showing deadlines who added it.
+     * @param deadline deadline to be saved
+     * @param editorId id of the user adding the deadline
+     * @return saved deadline
+     */
+    public Deadline addDeadline(Deadline deadline, int editorId) {
+        Deadline added = addDeadline(deadline);
+        artefactNotificationService.publishAdded(ARTEFACT_TYPE, added.getId(), added.getDeadlineName(), editorId);
+        return added;
+    }
+
 
     /**
      * Removes the deadline by the given id from the database if it exists
      * @param id of the deadline to remove
+     * @return the removed deadline, or empty if there was no deadline with the id
      */
-    public void removeDeadline(Integer id) {
+    public Optional<Deadline> removeDeadline(Integer id) {
         Optional<Deadline> sOptional = repository.findById(id);
 
         if (sOptional.isPresent()) {
             Deadline deadline = sOptional.get();
             repository.deleteById(deadline.getId());
         }
+        return sOptional;
+    }
+
+    /**
+     * Removes the deadline by the given id from the database if it exists, and tells the pages showing deadlines who
+     * removed it.
+     * @param id of the deadline to remove
+     * @param editorId id of the user removing the deadline
+     */
+    public void removeDeadline(Integer id, int editorId) {
+        removeDeadline(id).ifPresent(deadline -> artefactNotificationService.publishDeleted(ARTEFACT_TYPE,
+                deadline.getId(), deadline.getDeadlineName(), editorId));
     }
 
     /**
@@ -121,60 +177,56 @@ public class DeadlineService {
         return deadlinesOverlapped;
     }
 
+    /**
+     * Gets, for each sprint, the deadlines that are within it. This gives the same result as calling
+     * getAllDeadlinesOverLappingWithSprint for every sprint, but compares each deadline against the sprints it is in
+     * rather than every sprint.
+     * @param sprints Sprints to get the deadlines of.
+     * @param deadlines Deadlines in chronological order.
+     * @return List where each element is the list of deadlines within the sprint with the same index.
+     */
+    public List<List<Deadline>> getDeadlinesForEachSprint(List<Sprint> sprints, List<Deadline> deadlines) {
+        ZoneId zone = ZoneId.systemDefault();
+        // A deadline is in any sprint that covers part of the day it falls on, so search with the whole day
+        return new SprintIntervalIndex(sprints).bucket(deadlines,
+                deadline -> toLocalDate(deadline.getDeadlineDate()).atStartOfDay(zone).toInstant().toEpochMilli(),
+                deadline -> toLocalDate(deadline.getDeadlineDate()).plusDays(1).atStartOfDay(zone).toInstant().toEpochMilli() - 1);
+    }
+
     /**
      * Validate if particular deadline date is in sprint date range
      * @param deadline The update deadline
      * @return True if deadline end date is in sprint date range
      */
     public boolean validateDeadlineDateInDateRange(Deadline deadline, Date startDate, Date endDate) {
-        Date deadlineDate = deadline.getDeadlineDate();
-
-        // Convert deadlineDate to Calendar object
-        Calendar calendar1 = Calendar.getInstance();
-        calendar1.setTime(deadlineDate);
-
-        // Convert sprint Start Date to Calendar object
-        Calendar calendar2 = Calendar.getInstance();
-        calendar2.setTime(startDate);
-
-        // Convert sprint End Date to Calendar object
-        Calendar calendar3 = Calendar.getInstance();
-        calendar3.setTime(endDate);
-
-        // Check if deadline is the sprint start day
-        boolean isStartDay = calendar1.get(Calendar.YEAR) == calendar2.get(Calendar.YEAR)
-                && calendar1.get(Calendar.MONTH) == calendar2.get(Calendar.MONTH)
-                && calendar1.get(Calendar.DAY_OF_MONTH) == calendar2.get(Calendar.DAY_OF_MONTH);
-
-        // Check if deadline is the sprint end day
-        boolean isEndDay = calendar1.get(Calendar.YEAR) == calendar3.get(Calendar.YEAR)
-                && calendar1.get(Calendar.MONTH) == calendar3.get(Calendar.MONTH)
-                && calendar1.get(Calendar.DAY_OF_MONTH) == calendar3.get(Calendar.DAY_OF_MONTH);
+        LocalDate deadlineDay = toLocalDate(deadline.getDeadlineDate());
+        // Deadlines on the start or end day are in the range, whatever their time
+        return !deadlineDay.isBefore(toLocalDate(startDate)) && !deadlineDay.isAfter(toLocalDate(endDate));
+    }
 
-        return (deadlineDate.compareTo(startDate) >= 0 && deadlineDate.compareTo(endDate) <= 0)
-                || isStartDay || isEndDay;
+    /**
+     * Gets the day a date falls on in the server's time zone.
+     * @param date Date to convert, may be a java.sql.Date or Timestamp from the database.
+     * @return Day of the date.
+     */
+    private static LocalDate toLocalDate(Date date) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
     }
 
     /***
      * Function to get all deadlines in chronological order,
-     * add colour for each deadline and save to repository
+     * add colour for each deadline. The colours are only set in memory, nothing is written to the repository
      * @param sprints list of sprints
      * @return deadline in chronological order
      */
     public List<Deadline> getAllDeadlinesOrderedWithColour(List<Sprint> sprints) {
         List<Deadline> deadlinesList = getAllDeadlinesOrdered();
+        SprintIntervalIndex sprintIndex = new SprintIntervalIndex(sprints);
         for (Deadline currentDeadline : deadlinesList) {
-            // Reset Deadline's color
-            currentDeadline.setDeadlineColour(null);
-
-            for (Sprint sprint : sprints) {
-                if ((currentDeadline.getDeadlineDate().compareTo(sprint.getStartDate()) >= 0 && currentDeadline.getDeadlineDate().compareTo(sprint.getEndDate()) < 1)) {
-                    currentDeadline.setDeadlineColour(sprint.getColour());
-                }
-            }
-            repository.save(currentDeadline);
+            int sprint = sprintIndex.lastContaining(currentDeadline.getDeadlineDate().getTime());
+            currentDeadline.setDeadlineColour(sprint < 0 ? null : sprints.get(sprint).getColour());
         }
-        return getAllDeadlinesOrdered();
+        return deadlinesList;
     }
 
     /**
@@ -92,13 +92,22 @@ public class ElementService {
      * @param userId id of the currently signed on user
      */
     public void addHeaderAttributes(Model model, int userId) {
-        UserResponse userData = registerClientService.getUserData(userId);
+        addHeaderAttributes(model, userId, registerClientService.getUserData(userId));
+    }
+
+    /**
+     * Updates the given model with the full name of a user already fetched for display in the header.
+     * @param model model from controller method that attributes will be added to
+     * @param userId id of the currently signed on user
+     * @param userData UserResponse object of the currently signed on user
+     */
+    public void addHeaderAttributes(Model model, int userId, UserResponse userData) {
         String fullNameHeader = userData.getFirstName() + " " + userData.getMiddleName() + " " + userData.getLastName();
         model.addAttribute("headerFullName", fullNameHeader);
         // Gets the dynamic image spring is hosting for that user or the default image.
         model.addAttribute("userHeaderImage", photoService.getPhotoPath(userData.getProfileImagePath(), userId));
         model.addAttribute("userId", userId);
-        ToastUtility.addToastsToModel(model, new ArrayList<>(), DetailsController.NUM_OF_TOASTS);
+        ToastUtility.addToastsToModel(model, DetailsController.NUM_OF_TOASTS);
     }
 
     /**
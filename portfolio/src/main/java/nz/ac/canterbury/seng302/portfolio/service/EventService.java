@@ -4,6 +4,7 @@ package nz.ac.canterbury.seng302.portfolio.service;
 import nz.ac.canterbury.seng302.portfolio.model.Event;
 import nz.ac.canterbury.seng302.portfolio.model.Sprint;
 import nz.ac.canterbury.seng302.portfolio.repository.EventRepository;
+import nz.ac.canterbury.seng302.portfolio.utility.SprintIntervalIndex;
 import org.hibernate.ObjectNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -26,6 +27,11 @@ public class EventService {
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private ArtefactNotificationService artefactNotificationService;
+
+    private static final String ARTEFACT_TYPE = "Event";
+
     private static final String EVENT_NAME_ERROR_MESSAGE = "eventAlertMessage";
 
     private static final String EVENT_DATE_ERROR_MESSAGE = "eventDateTimeAlertMessage";
@@ -76,6 +82,18 @@ public class EventService {
         }
     }
 
+    /**
+     * Updates an event and tells the pages showing it who saved it.
+     * @param event Event to update it to
+     * @param editorId Id of the user saving the event
+     * @return Newly edited event
+     */
+    public Event updateEvent(Event event, int editorId) {
+        Event saved = updateEvent(event);
+        artefactNotificationService.publishSaved(ARTEFACT_TYPE, saved.getId(), saved.getEventName(), editorId);
+        return saved;
+    }
+
 
     /**
      * Add a new event to the database, trim any whitespace from the event name. It gives the new event an ID based on eventIdCount.
@@ -89,17 +107,41 @@ public class EventService {
         return event;
     }
 
+    /**
+     * Adds a new event to the database and tells the pages showing events who added it.
+     * @param event New event to add
+     * @param editorId Id of the user adding the event
+     * @return Event that was added to the database
+     */
+    public Event addEvent(Event event, int editorId) {
+        Event added = addEvent(event);
+        artefactNotificationService.publishAdded(ARTEFACT_TYPE, added.getId(), added.getEventName(), editorId);
+        return added;
+    }
+
     /**
      * Remove an event from the database.
      * @param id ID of the event being removed
+     * @return the removed event, or empty if there was no event with the id
      */
-    public void removeEvent(Integer id) {
+    public Optional<Event> removeEvent(Integer id) {
         Optional<Event> sOptional = eventRepository.findById(id);
 
         if (sOptional.isPresent()) {
             Event eventUpdate = sOptional.get();
             eventRepository.deleteById(eventUpdate.getId());
         }
+        return sOptional;
+    }
+
+    /**
+     * Removes an event from the database and tells the pages showing events who removed it.
+     * @param id ID of the event being removed
+     * @param editorId Id of the user removing the event
+     */
+    public void removeEvent(Integer id, int editorId) {
+        removeEvent(id).ifPresent(event ->
+                artefactNotificationService.publishDeleted(ARTEFACT_TYPE, event.getId(), event.getEventName(), editorId));
     }
 
     /**
@@ -110,6 +152,16 @@ public class EventService {
         return eventRepository.findAllByOrderByEventStartDate();
     }
 
+    /**
+     * Returns the events that overlap a range of dates, ordered by start date
+     * @param start start of the range
+     * @param end end of the range, exclusive
+     * @return events that start before the range ends and end during or after its start
+     */
+    public List<Event> getEventsInRange(Date start, Date end) {
+        return eventRepository.findAllByEventStartDateBeforeAndEventEndDateGreaterThanEqualOrderByEventStartDate(end, start);
+    }
+
     /**
      * Returns a list of all events ordered by end date
      * @return  events ordered by start date
@@ -127,22 +179,28 @@ public class EventService {
      */
     public List<Event> getAllEventsOrderedWithColour(List<Sprint> sprints) {
         List<Event> eventList = getAllEventsOrderedStartDate();
+        SprintIntervalIndex sprintIndex = new SprintIntervalIndex(sprints);
         for (Event currentEvent : eventList) {
-            // Reset Event's color
-            currentEvent.setStartDateColour(null);
-            currentEvent.setEndDateColour(null);
-
-            for (Sprint sprint : sprints) {
-                if (validateEventStartDateInSprintDate(currentEvent, sprint)) {
-                    currentEvent.setStartDateColour(sprint.getColour());
-                }
-                if (validateEventEndDateInSprintDate(currentEvent, sprint)) {
-                    currentEvent.setEndDateColour(sprint.getColour());
-                }
-            }
-            eventRepository.save(currentEvent);
+            int startSprint = sprintIndex.lastContaining(currentEvent.getEventStartDate().getTime());
+            int endSprint = sprintIndex.lastContaining(currentEvent.getEventEndDate().getTime());
+            currentEvent.setStartDateColour(startSprint < 0 ? null : sprints.get(startSprint).getColour());
+            currentEvent.setEndDateColour(endSprint < 0 ? null : sprints.get(endSprint).getColour());
         }
-        return getAllEventsOrderedStartDate();
+        return eventList;
+    }
+
+    /**
+     * Gets, for each sprint, the events that overlap with it. This gives the same result as calling
+     * getAllEventsOverlappingWithSprint for every sprint, but compares each event against the sprints it overlaps
+     * rather than every sprint.
+     * @param sprints Sprints to get the events of.
+     * @param events Events in chronological order.
+     * @return List where each element is the list of events overlapping the sprint with the same index.
+     */
+    public List<List<Event>> getEventsForEachSprint(List<Sprint> sprints, List<Event> events) {
+        return new SprintIntervalIndex(sprints).bucket(events,
+                event -> event.getEventStartDate().getTime(),
+                event -> event.getEventEndDate().getTime());
     }
 
     /**
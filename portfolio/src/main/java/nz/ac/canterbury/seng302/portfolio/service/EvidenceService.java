@@ -9,26 +9,29 @@ import java.util.Set;
 
 import nz.ac.canterbury.seng302.portfolio.model.Evidence;
 import nz.ac.canterbury.seng302.portfolio.model.Tag;
-import nz.ac.canterbury.seng302.portfolio.model.HighFivers;
 import nz.ac.canterbury.seng302.portfolio.model.WebLink;
 import nz.ac.canterbury.seng302.portfolio.repository.CategoryRepository;
 import nz.ac.canterbury.seng302.portfolio.repository.EvidenceRepository;
 import nz.ac.canterbury.seng302.portfolio.repository.HighFiversRepository;
 import nz.ac.canterbury.seng302.portfolio.repository.TagRepository;
+import nz.ac.canterbury.seng302.portfolio.repository.UserEvidenceCount;
+import nz.ac.canterbury.seng302.shared.identityprovider.UserResponse;
+import nz.ac.canterbury.seng302.shared.identityprovider.UserRole;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.ui.Model;
 
 import javax.ws.rs.NotAcceptableException;
+import java.time.Instant;
 import java.util.*;
 import java.util.Date;
 
 import static nz.ac.canterbury.seng302.portfolio.controller.EvidenceController.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.regex.Pattern;
-import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 /**
  * Contains methods for saving, deleting, updating and retrieving evidence objects to the database.
@@ -57,6 +60,27 @@ public class EvidenceService {
     @Autowired
     private RegisterClientService registerClientService;
 
+    @Autowired
+    private LiveUpdateService liveUpdateService;
+
+    @Autowired
+    private PageDataLoader pageDataLoader;
+
+    /**
+     * Destination tag pages subscribe to, to update when anyone's evidence is added.
+     */
+    public static final String EVIDENCE_ADDED_DESTINATION = "/webSocketGet/evidence-added";
+
+    /**
+     * Destination tag pages subscribe to, to update when anyone's evidence is deleted.
+     */
+    public static final String EVIDENCE_DELETED_DESTINATION = "/webSocketGet/evidence-deleted";
+
+    /**
+     * Queue each user's header subscribes to under /user, to show when their evidence is high fived.
+     */
+    public static final String HIGH_FIVE_QUEUE = "/queue/high-fives";
+
     /**
      * This function returns all evidences based on the userId.
      * @param userId the ID of a user who we want to get evidences for.
@@ -83,6 +107,7 @@ public class EvidenceService {
      * Remove an evidence from the database.
      * @param id ID of the evidence being removed
      */
+    @Transactional
     public boolean removeEvidence(Integer id) {
         Optional<Evidence> sOptional = evidenceRepository.findById(id);
         if (sOptional.isPresent()) {
@@ -90,7 +115,6 @@ public class EvidenceService {
             Set<Tag> tags = null;
             Set<Category> categories = null;
             Set<WebLink> webLinks = null;
-            Set<HighFivers> highFivers = null;
 
             if (!evidence.getTags().isEmpty()) {
                 tags = Set.copyOf(evidence.getTags());
@@ -115,11 +139,7 @@ public class EvidenceService {
                 evidence.setWebLinks(new HashSet<>());
             }
 
-            if (!evidence.getHighFivers().isEmpty()) {
-                highFivers = Set.copyOf(evidence.getHighFivers());
-                evidence.setHighFivers(new HashSet<>());
-            }
-
+            highFiversRepository.deleteAllByEvidenceId(id);
             evidenceRepository.delete(evidenceRepository.save(evidence));
 
             // Check to see if the evidence was deleted
@@ -134,11 +154,11 @@ public class EvidenceService {
                     }
                 }
                 emptyEvidence.setWebLinks(webLinks);
-                emptyEvidence.setHighFivers(highFivers);
                 evidenceRepository.save(emptyEvidence);
                 return false;
             }
             removeTagsWithNoEvidence();
+            publishEvidenceChange(evidence, EVIDENCE_DELETED_DESTINATION, "delete");
             return true;
         } else {
             return false;
@@ -154,10 +174,39 @@ public class EvidenceService {
         try {
             processTags(newEvidence);
             evidenceRepository.save(newEvidence);
-            return true;
         } catch (Exception e) {
             return false;
         }
+        publishEvidenceChange(newEvidence, EVIDENCE_ADDED_DESTINATION, "add");
+        return true;
+    }
+
+    /**
+     * Tells the leaderboard and the pages listing the owner's evidence that a piece of evidence has changed, once the
+     * change is committed.
+     * The leaderboard only counts evidence from students, so the notification says whether the owner is one, and
+     * only changes to a student's evidence send the leaderboard their new score.
+     * @param evidence Evidence that was added or deleted.
+     * @param destination Destination to publish to.
+     * @param action Action done to the evidence, "add" or "delete".
+     */
+    private void publishEvidenceChange(Evidence evidence, String destination, String action) {
+        UserResponse owner = registerClientService.getUserData(evidence.getUserId());
+        boolean isStudent = owner.getRolesList().contains(UserRole.STUDENT);
+        String type = isStudent ? "studentEvidence" : "nonStudentEvidence";
+        NotificationResponse response = new NotificationResponse(evidence.getTitle(), evidence.getEvidenceId(),
+                owner.getUsername(), owner.getFirstName(), owner.getLastName(), Instant.now().getEpochSecond(), type,
+                action);
+        liveUpdateService.publish(destination, evidence.getEvidenceId(), response);
+        liveUpdateService.publish(LiveUpdateService.evidenceDestination(evidence.getUserId()),
+                evidence.getEvidenceId(), response);
+        if (isStudent) {
+            // The score is absolute, so a delta applied twice, or after a reload that already has it, is harmless. It is
+            // counted after the delta is given its version, so a later version never carries an older score
+            liveUpdateService.publishVersioned(LeaderboardService.LEADERBOARD_DESTINATION,
+                    version -> new LeaderboardDelta(version, evidence.getUserId(),
+                            evidenceRepository.countByUserId(evidence.getUserId()), response));
+        }
     }
 
     /**
@@ -264,75 +313,66 @@ public class EvidenceService {
     }
 
     /**
-     * Saves a piece of evidence after being high-fived.
+     * Saves a piece of evidence after being high-fived. The high five is inserted only if the user has not
+     * already high fived the evidence, so concurrent clicks cannot record it twice or skew the count.
+     * Once it is committed, the owner of the evidence is sent a high five notification and the pages listing their
+     * evidence are told to reload.
      * @param evidenceId evidence id of the piece of evidence being high-fived
-     * @param userId user id of the owner of the piece of evidence
-     * @param userName userName of the owner of the piece of evidence
+     * @param userId user id of the user high fiving the piece of evidence
+     * @param userName full name of the user high fiving the piece of evidence
      * @return boolean whether the piece of evidence was high-fived correctly
      */
+    @Transactional
     public boolean saveHighFiveEvidence(int evidenceId, int userId, String userName) {
-        Optional<Evidence> evidenceOptional = evidenceRepository.findById(evidenceId);
-        if (evidenceOptional.isPresent()) {
-            Evidence evidence = evidenceOptional.get();
-            if (evidence.getHighFiverIds().contains(userId)) {
-                return false;
-            }
-            HighFivers newHighFiver = highFiversRepository.save(new HighFivers(userName, userId));
-            evidence.addHighFivers(newHighFiver);
-            evidenceRepository.save(evidence);
-            return true;
-        } else {
+        Optional<Evidence> evidence = evidenceRepository.findById(evidenceId);
+        if (evidence.isEmpty()) {
             return false;
         }
+        if (highFiversRepository.insertIgnore(evidenceId, userId, userName) == 0) {
+            return false;
+        }
+        evidenceRepository.adjustHighFiveCount(evidenceId, 1);
+        NotificationHighFive notification = new NotificationHighFive(userId, evidence.get().getUserId(), userName,
+                evidence.get().getTitle(), evidenceId);
+        liveUpdateService.publishToUser(evidence.get().getUserId(), HIGH_FIVE_QUEUE, notification);
+        liveUpdateService.publish(LiveUpdateService.evidenceDestination(evidence.get().getUserId()), evidenceId,
+                notification);
+        return true;
     }
 
     /**
-     * Saves a piece of evidence after being un-high-fived.
+     * Saves a piece of evidence after being un-high-fived. Once it is committed, the pages listing the owner's
+     * evidence are told to reload.
      * @param evidenceId evidence id of the piece of evidence being un-high-fived
-     * @param userId user id of the owner of the piece of evidence
-     * @param userName userName of the owner of the piece of evidence
+     * @param userId user id of the user removing their high five
+     * @param userName full name of the user removing their high five
      * @return boolean whether the piece of evidence was un-high-fived correctly
      */
+    @Transactional
     public boolean removeHighFiveEvidence(int evidenceId, int userId, String userName) {
-        Optional<Evidence> evidenceOptional = evidenceRepository.findById(evidenceId);
-        if (evidenceOptional.isPresent()) {
-            Evidence evidence = evidenceOptional.get();
-            if (!evidence.getHighFiverIds().contains(userId)) {
-                return false;
-            }
-            Set<HighFivers> highFivers = Set.copyOf(evidence.getHighFivers());
-            for (HighFivers highFiver : highFivers) {
-                if (highFiver.getUserId() == userId) {
-                    evidence.removeHighFivers(highFiver);
-                    highFiversRepository.delete(highFiver);
-                    break;
-                }
-            }
-            evidenceRepository.save(evidence);
-            return true;
-        } else {
+        Optional<Evidence> evidence = evidenceRepository.findById(evidenceId);
+        if (evidence.isEmpty() || highFiversRepository.deleteByEvidenceIdAndUserId(evidenceId, userId) == 0) {
             return false;
         }
+        evidenceRepository.adjustHighFiveCount(evidenceId, -1);
+        liveUpdateService.publish(LiveUpdateService.evidenceDestination(evidence.get().getUserId()), evidenceId,
+                new NotificationHighFive(userId, evidence.get().getUserId(), userName, evidence.get().getTitle(),
+                        evidenceId));
+        return true;
     }
 
     /**
-     * Checks to ensure that a piece of evidence has the user with a userId,
-     * matching that passed to the method, attached to it.
-     * @param evidenceId    The evidence being checked.
-     * @param userId        The user that needs to be attached to the evidence.
-     * @return  Boolean on is the user is part of the evidence.
+     * Gets the ids of the given pieces of evidence that a user has high fived, without loading the high fivers.
+     * @param evidences pieces of evidence to check
+     * @param userId id of the user
+     * @return ids of the pieces of evidence the user has high fived
      */
-    private boolean isUserAttached(int evidenceId, int userId){
-        Optional<Evidence> sOptional = evidenceRepository.findById(evidenceId);
-        boolean exists = false;
-
-        if (sOptional.isPresent()) {
-            Evidence evidence = sOptional.get();
-            if (evidence.getUserId() == userId) {
-                exists = true;
-            }
+    public List<Integer> getEvidenceIdsHighFivedByUser(List<Evidence> evidences, int userId) {
+        if (evidences == null || evidences.isEmpty()) {
+            return new ArrayList<>();
         }
-        return exists;
+        List<Integer> evidenceIds = evidences.stream().map(Evidence::getEvidenceId).toList();
+        return highFiversRepository.findEvidenceIdsHighFivedByUser(userId, evidenceIds);
     }
 
     /**
@@ -341,9 +381,10 @@ public class EvidenceService {
      * @return          List of evidence with a given skill.
      */
     public List<Evidence> getEvidencesWithSkill(int skillId) throws NullPointerException{
-        Tag tag = tagService.getTag(skillId);
-        return tag.getEvidence().stream().sorted((o1, o2)->o2.getDate().
-                compareTo(o1.getDate())).toList();
+        if (tagService.getTag(skillId) == null) {
+            throw new NullPointerException("Invalid Skill Id");
+        }
+        return evidenceRepository.findAllWithTag(skillId);
     }
 
     /**
@@ -354,9 +395,10 @@ public class EvidenceService {
      * @return          List of evidence with a given skill and user attached.
      */
     public List<Evidence> getEvidencesWithSkillAndUser(int userId, int skillId) throws NullPointerException{
-        Tag tag = tagService.getTag(skillId);
-        return tag.getEvidence().stream().filter(evidence -> isUserAttached(evidence.getEvidenceId(), userId)).sorted((o1, o2)->o2.getDate().
-                compareTo(o1.getDate())).toList();
+        if (tagService.getTag(skillId) == null) {
+            throw new NullPointerException("Invalid Skill Id");
+        }
+        return evidenceRepository.findAllWithTagAndUser(skillId, userId);
     }
 
     /**
@@ -365,9 +407,10 @@ public class EvidenceService {
      * @return          List of evidence with a given category.
      */
     public List<Evidence> getEvidencesWithCategory(int categoryId) throws NullPointerException{
-        Category category = categoryService.getCategory(categoryId);
-        return category.getEvidence().stream().sorted((o1, o2)->o2.getDate().
-                compareTo(o1.getDate())).toList();
+        if (categoryService.getCategory(categoryId) == null) {
+            throw new NullPointerException("Invalid Category Id");
+        }
+        return evidenceRepository.findAllWithCategory(categoryId);
     }
 
     /**
@@ -378,10 +421,10 @@ public class EvidenceService {
      * @return          List of evidence with a given category and user attached.
      */
     public List<Evidence> getEvidencesWithCategoryAndUser(int userId, int categoryId) throws NullPointerException{
-
-        Category category = categoryService.getCategory(categoryId);
-        return category.getEvidence().stream().filter(evidence -> isUserAttached(evidence.getEvidenceId(), userId)).sorted((o1, o2)->o2.getDate().
-                compareTo(o1.getDate())).toList();
+        if (categoryService.getCategory(categoryId) == null) {
+            throw new NullPointerException("Invalid Category Id");
+        }
+        return evidenceRepository.findAllWithCategoryAndUser(categoryId, userId);
     }
 
     /**
@@ -389,12 +432,7 @@ public class EvidenceService {
      * @return  A list of evidences with no skills attached to them.
      */
     public List<Evidence> getEvidencesWithoutSkills() {
-        // Used to convert an iterable to a stream.
-        Stream<Evidence> targetStream = StreamSupport.stream(
-                Spliterators.spliteratorUnknownSize(evidenceRepository.findAll().iterator(), Spliterator.ORDERED),
-                false);
-        return targetStream.filter(evidence -> hasNoSkills(evidence.getEvidenceId())).sorted((o1, o2)->o2.getDate().
-                compareTo(o1.getDate())).toList();
+        return evidenceRepository.findAllByTagsIsEmptyOrderByDateDescEvidenceIdDesc();
     }
 
     /**
@@ -402,55 +440,42 @@ public class EvidenceService {
      * @return  A list of evidences with no skills attached to them but a given user is attached.
      */
     public List<Evidence> getEvidencesWithUserAndWithoutSkills(int userId) {
-        // Used to convert an iterable to a stream.
-        Stream<Evidence> targetStream = StreamSupport.stream(
-                Spliterators.spliteratorUnknownSize(evidenceRepository.findAll().iterator(), Spliterator.ORDERED),
-                false);
-
-        return targetStream.filter(evidence -> hasNoSkills(evidence.getEvidenceId()))
-                .filter(evidence -> isUserAttached(evidence.getEvidenceId(), userId))
-                .sorted((o1, o2)->o2.getDate().compareTo(o1.getDate())).toList();
+        return evidenceRepository.findAllByUserIdAndTagsIsEmptyOrderByDateDescEvidenceIdDesc(userId);
     }
 
     /**
-     * Checks to see if a skill has any skills attached to them.
-     * @param evidenceId    The id of the evidence being checked.
-     * @return Returns true if the evidence has no skills attached to it.
+     * Gets the number of evidence pieces each user has, without loading any evidence.
+     * Users with no evidence are not in the map.
+     * @return Map of user id to the number of evidence pieces that user has.
      */
-    private boolean hasNoSkills(int evidenceId){
-        Optional<Evidence> sOptional = evidenceRepository.findById(evidenceId);
-        boolean valid = false;
-
-        if (sOptional.isPresent()) {
-            Evidence evidence = sOptional.get();
-            if (evidence.getTags().isEmpty()) {
-                valid = true;
-            }
+    public Map<Integer, Long> getEvidenceCountsByUser() {
+        Map<Integer, Long> counts = new HashMap<>();
+        for (UserEvidenceCount count : evidenceRepository.countAllGroupByUserId()) {
+            counts.put(count.getUserId(), count.getEvidenceCount());
         }
-
-        return valid;
+        return counts;
     }
 
     /**
      * Remove tags from the database that aren't connected to any pieces of evidence.
      */
     public void removeTagsWithNoEvidence() {
-        List<Tag> tags = tagRepository.findAll();
-        for (Tag tag : tags) {
-            int tagId = tag.getTagId();
-            List<Evidence> evidences = getEvidencesWithSkill(tagId);
-            if (evidences.isEmpty()) {
-                tagService.removeTag(tagId);
-            }
+        for (Tag tag : tagRepository.findAllByEvidenceWithTagIsEmpty()) {
+            tagService.removeTag(tag.getTagId());
         }
     }
 
     /**
      * Adds the data of the evidence author to each evidence object so the author can be displayed in the frontend.
+     * Each author is fetched once, and every author is fetched at the same time.
      */
     public void addUserDataToEvidence(List<Evidence> evidences) {
-        for (Evidence eachEvidence:evidences) {
-            eachEvidence.setUser(registerClientService.getUserData(eachEvidence.getUserId()));
+        Map<Integer, CompletableFuture<UserResponse>> authors = new HashMap<>();
+        for (Evidence eachEvidence : evidences) {
+            authors.computeIfAbsent(eachEvidence.getUserId(), registerClientService::getUserDataAsync);
+        }
+        for (Evidence eachEvidence : evidences) {
+            eachEvidence.setUser(pageDataLoader.join(authors.get(eachEvidence.getUserId())));
         }
     }
 
@@ -1,6 +1,7 @@
 package nz.ac.canterbury.seng302.portfolio.service;
 
 import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
+import nz.ac.canterbury.seng302.portfolio.utility.GitLabCommitPageApi;
 import org.gitlab4j.api.GitLabApi;
 import org.gitlab4j.api.GitLabApiException;
 import org.gitlab4j.api.models.Branch;
@@ -12,7 +13,14 @@ import org.springframework.stereotype.Service;
 import org.springframework.ui.Model;
 
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Date;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -24,8 +32,69 @@ public class GitLabApiService {
     @Autowired
     private GroupSettingsService groupSettingsService;
 
+    @Autowired
+    private GitLabRequestExecutor gitLabRequestExecutor;
+
+    @Autowired
+    private GitLabClientPool gitLabClientPool;
+
     private static final String GROUP_SETTING_ALERT_MESSAGE = "groupSettingsAlertMessage";
 
+    /**
+     * Number of commits on each page of the commit list.
+     */
+    static final int COMMITS_PER_PAGE = 20;
+
+    /**
+     * How long a page of commits is reused before GitLab is asked for it again.
+     */
+    static final long COMMIT_PAGE_TTL_MILLIS = 60_000;
+
+    /**
+     * Most pages of commits kept, the least recently used are dropped first.
+     */
+    static final int MAX_CACHED_COMMIT_PAGES = 200;
+
+    /**
+     * Recently fetched pages of commits, by repository, filter and page. Guarded by itself.
+     */
+    private final Map<String, CommitPage> commitPageCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CommitPage> eldest) {
+            return size() > MAX_CACHED_COMMIT_PAGES;
+        }
+    };
+
+    /**
+     * One page of a repository's commits, with the token to get the next page with.
+     */
+    public static class CommitPage {
+
+        private final List<Commit> commits;
+
+        private final String nextPageToken;
+
+        private final long fetchedAt;
+
+        public CommitPage(List<Commit> commits, String nextPageToken, long fetchedAt) {
+            this.commits = commits;
+            this.nextPageToken = nextPageToken;
+            this.fetchedAt = fetchedAt;
+        }
+
+        public List<Commit> getCommits() {
+            return commits;
+        }
+
+        /**
+         * Gets the token to pass to get the next page.
+         * @return the token, or null if this is the last page
+         */
+        public String getNextPageToken() {
+            return nextPageToken;
+        }
+    }
+
 
     /**
      * Returns a list of branch names for the repository linked to the group.
@@ -34,10 +103,20 @@ public class GitLabApiService {
      * @throws GitLabApiException if any exception occurs communicating with the GitLab API
      */
     public List<String> getBranchNames(Integer groupId) throws GitLabApiException {
-        GroupSettings groupSettings = groupSettingsService.getGroupSettingsByGroupId(groupId);
-        GitLabApi gitLabApi = groupSettings.getGitLabApi();
-        return gitLabApi.getRepositoryApi().getBranches(groupSettings.getRepoId())
-                .stream().map(Branch::getName).toList();
+        return getBranchNames(groupSettingsService.getGroupSettingsByGroupId(groupId));
+    }
+
+    /**
+     * Returns a list of branch names for the repository in the given group settings.
+     * @param groupSettings settings of the repository
+     * @return list of branch names for the repository
+     * @throws GitLabApiException if any exception occurs communicating with the GitLab API
+     */
+    public List<String> getBranchNames(GroupSettings groupSettings) throws GitLabApiException {
+        try (GitLabClientPool.Lease lease = gitLabClientPool.lease(groupSettings)) {
+            return lease.getGitLabApi().getRepositoryApi().getBranches(groupSettings.getRepoId())
+                    .stream().map(Branch::getName).toList();
+        }
     }
 
     /**
@@ -47,53 +126,145 @@ public class GitLabApiService {
      * @throws GitLabApiException if any exception occurs communicating with the GitLab API
      */
     public List<Contributor> getContributors(Integer groupId) throws GitLabApiException {
-        GroupSettings groupSettings = groupSettingsService.getGroupSettingsByGroupId(groupId);
-        GitLabApi gitLabApi = groupSettings.getGitLabApi();
-        return gitLabApi.getRepositoryApi().getContributors(groupSettings.getRepoId());
+        return getContributors(groupSettingsService.getGroupSettingsByGroupId(groupId));
     }
 
     /**
-     * Returns a list of commits in the repository linked to the group.
-     * Commits can be filtered by branch and user if provided, otherwise pass in null for either or all of them.
+     * Returns a list of members of the repository in the given group settings.
+     * @param groupSettings settings of the repository
+     * @return list of users in the repository
+     * @throws GitLabApiException if any exception occurs communicating with the GitLab API
+     */
+    public List<Contributor> getContributors(GroupSettings groupSettings) throws GitLabApiException {
+        try (GitLabClientPool.Lease lease = gitLabClientPool.lease(groupSettings)) {
+            return lease.getGitLabApi().getRepositoryApi().getContributors(groupSettings.getRepoId());
+        }
+    }
+
+    /**
+     * Returns one page of the commits in the repository linked to the group, newest first.
+     * Commits are filtered by the GitLab server, pass in null for any filter that should not be applied. Pages are
+     * cached for a short time by repository, filter and page, so paging back and forth through the same commits only
+     * asks GitLab for each page once.
      * @param groupId the id of the group
-     * @param branchName the name of the branch
-     * @param userEmail the email of the user
-     * @return list of commits from the given branch in the repository linked to the group
+     * @param branchName the name of the branch, or null for the default branch
+     * @param userEmail the email of the author
+     * @param since only commits after this date
+     * @param until only commits before this date
+     * @param pageToken token of the page to get from the previous page, or null for the first page
+     * @return the page of commits, with the token of the next page
      * @throws GitLabApiException if any exception occurs communicating with the GitLab API
      */
-    public List<Commit> getCommits(Integer groupId, String branchName, String userEmail) throws GitLabApiException,ObjectNotFoundException {
+    public CommitPage getCommitPage(Integer groupId, String branchName, String userEmail, Date since, Date until,
+                                    String pageToken) throws GitLabApiException, ObjectNotFoundException {
         GroupSettings groupSettings = groupSettingsService.getGroupSettingsByGroupId(groupId);
-        GitLabApi gitLabApi = groupSettings.getGitLabApi();
+        int page = parsePageToken(pageToken);
+        String cacheKey = String.join("|", groupSettings.getRepoUrl(), Long.toString(groupSettings.getRepoId()),
+                digestApiKey(groupSettings.getRepoApiKey()), String.valueOf(branchName),
+                String.valueOf(userEmail), since == null ? "" : Long.toString(since.getTime()),
+                until == null ? "" : Long.toString(until.getTime()), Integer.toString(page));
+        long now = System.currentTimeMillis();
+        synchronized (commitPageCache) {
+            CommitPage cached = commitPageCache.get(cacheKey);
+            if (cached != null && now - cached.fetchedAt < COMMIT_PAGE_TTL_MILLIS) {
+                return cached;
+            }
+        }
 
-        // Gets API to filter by branch if one is given
-        List<Commit> commits = branchName == null ? gitLabApi.getCommitsApi().getCommits(groupSettings.getRepoId())
-                : gitLabApi.getCommitsApi().getCommits(groupSettings.getRepoId(), branchName, null, null);
+        GitLabCommitPageApi.Page result;
+        try (GitLabClientPool.Lease lease = gitLabClientPool.lease(groupSettings)) {
+            result = gitLabRequestExecutor.call(groupSettings.getRepoUrl(),
+                    () -> lease.getCommitPageApi().getCommits(groupSettings.getRepoId(), branchName, userEmail,
+                            since, until, page, COMMITS_PER_PAGE));
+        }
+        // GitLab matches authors containing the email, so only keep the commits with exactly that email
+        List<Commit> commits = result.getCommits().stream()
+                .filter(commit -> userEmail == null || Objects.equals(commit.getAuthorEmail(), userEmail))
+                .sorted((o1, o2) -> o2.getCommittedDate().compareTo(o1.getCommittedDate()))
+                .toList();
+        CommitPage commitPage = new CommitPage(commits,
+                result.getNextPage() == null ? null : Integer.toString(result.getNextPage()), now);
+        synchronized (commitPageCache) {
+            commitPageCache.put(cacheKey, commitPage);
+        }
+        return commitPage;
+    }
 
-        // Filter results by user email if one is given
-        return userEmail == null ? commits.stream().sorted((o1, o2)->o2.getCommittedDate().
-                compareTo(o1.getCommittedDate())).toList() :
-                commits.stream().filter(commit -> Objects.equals(commit.getAuthorEmail(), userEmail)).sorted((o1, o2)->o2.getCommittedDate().
-                        compareTo(o1.getCommittedDate())).toList();
+    /**
+     * Gets the SHA-256 digest of an API key, so pages are only shared by requests made with the same key without the
+     * key itself being kept in the cache.
+     */
+    private static String digestApiKey(String repoApiKey) {
+        if (repoApiKey == null) {
+            return "";
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(repoApiKey.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
 
+    /**
+     * Gets the page number in a page token, treating a missing or malformed token as the first page.
+     */
+    private static int parsePageToken(String pageToken) {
+        if (pageToken == null) {
+            return 1;
+        }
+        try {
+            return Math.max(1, Integer.parseInt(pageToken));
+        } catch (NumberFormatException e) {
+            return 1;
+        }
     }
 
     /**
      * Checks if a repository is accessible using the given API key and the repoId.
+     * Adds an alert message to the model if it is not.
+     * @param model model to add the alert message to
      * @param repoId the id of the repository
      * @param repoApiKey the API key to use
-     * @return true if the repository is accessible, false otherwise
+     * @param repoUrl the URL of the repository server
      */
     public void checkGitLabToken(Model model, long repoId, String repoApiKey, String repoUrl) {
+        String alertMessage = getTokenAlertMessage(repoId, repoApiKey, repoUrl);
+        if (alertMessage != null) {
+            model.addAttribute(GROUP_SETTING_ALERT_MESSAGE, alertMessage);
+        }
+    }
+
+    /**
+     * Checks if a repository is accessible using the given API key and the repoId.
+     * The check uses a client of its own, closed straight after, as the key may not be one any group uses.
+     * @param repoId the id of the repository
+     * @param repoApiKey the API key to use
+     * @param repoUrl the URL of the repository server
+     * @return null if the repository is accessible, otherwise a message saying why it is not
+     */
+    public String getTokenAlertMessage(long repoId, String repoApiKey, String repoUrl) {
         try (GitLabApi gitLabApi = new GitLabApi(repoUrl, repoApiKey)) {
+            gitLabApi.setRequestTimeout(GitLabClientPool.CONNECT_TIMEOUT_MILLIS, GitLabClientPool.READ_TIMEOUT_MILLIS);
             gitLabApi.getRepositoryApi().getBranches(Long.toString(repoId));
+            return null;
         } catch (GitLabApiException e) {
-            switch (e.getHttpStatus()) {
-                case 401 -> model.addAttribute(GROUP_SETTING_ALERT_MESSAGE, "Invalid API key");
-                case 404 -> model.addAttribute(GROUP_SETTING_ALERT_MESSAGE, "Repository not found");
-                default -> model.addAttribute(GROUP_SETTING_ALERT_MESSAGE, "Invalid Repository Server URL");
-            }
+            return getAlertMessage(e);
         }
     }
 
-
+    /**
+     * Gets the message shown to the user when the GitLab API could not be reached.
+     * @param exception exception thrown communicating with the GitLab API
+     * @return message saying why the repository is not accessible
+     */
+    public static String getAlertMessage(GitLabApiException exception) {
+        return switch (exception.getHttpStatus()) {
+            case 401 -> "Invalid API key";
+            case 404 -> "Repository not found";
+            case GitLabRequestExecutor.UNAVAILABLE_STATUS -> "Repository server is not responding";
+            default -> "Invalid Repository Server URL";
+        };
+    }
 }
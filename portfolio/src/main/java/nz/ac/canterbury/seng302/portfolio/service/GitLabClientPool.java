@@ -0,0 +1,197 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
+import nz.ac.canterbury.seng302.portfolio.utility.GitLabCommitPageApi;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.gitlab4j.api.GitLabApi;
+import org.glassfish.jersey.apache.connector.ApacheClientProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shares one GitLab client between every group using the same repository server and API key.
+ * Each client has its own HTTP client, so making a client for each use would open new connections to the server every
+ * time. Clients here keep a pool of connections to their server open between calls, sized to the most calls the
+ * {@link GitLabRequestExecutor} makes at once. A client is closed once no group's settings use its server and key.
+ * Clients are handed out as leases, which callers close once their calls are done, so a client whose group's settings
+ * change while a call is using it is only closed when the call has finished.
+ */
+@Service
+public class GitLabClientPool {
+
+    /**
+     * Longest time to wait for a connection to the repository server, in milliseconds.
+     */
+    public static final int CONNECT_TIMEOUT_MILLIS = 3000;
+
+    /**
+     * Longest time to wait for the repository server to respond once connected, in milliseconds.
+     */
+    public static final int READ_TIMEOUT_MILLIS = 8000;
+
+    /**
+     * A shared client, with the API for getting pages of commits made with it.
+     */
+    private static class Client {
+
+        private final GitLabApi gitLabApi;
+
+        private final GitLabCommitPageApi commitPageApi;
+
+        /**
+         * Number of leases of the client not closed yet. Guarded by the pool.
+         */
+        private int leases = 0;
+
+        /**
+         * True once no group uses the client, so it is closed when its last lease is. Guarded by the pool.
+         */
+        private boolean retired = false;
+
+        private Client(GitLabApi gitLabApi) {
+            this.gitLabApi = gitLabApi;
+            this.commitPageApi = new GitLabCommitPageApi(gitLabApi);
+        }
+    }
+
+    /**
+     * Use of a shared client, which must be closed once the calls made with it are done.
+     */
+    public static class Lease implements AutoCloseable {
+
+        private final GitLabClientPool pool;
+
+        private final Client client;
+
+        private boolean closed = false;
+
+        private Lease(GitLabClientPool pool, Client client) {
+            this.pool = pool;
+            this.client = client;
+        }
+
+        public GitLabApi getGitLabApi() {
+            return client.gitLabApi;
+        }
+
+        public GitLabCommitPageApi getCommitPageApi() {
+            return client.commitPageApi;
+        }
+
+        /**
+         * Gives the client back to the pool, closing it if no group uses it any more. Closing a lease twice does
+         * nothing.
+         */
+        @Override
+        public void close() {
+            synchronized (pool) {
+                if (!closed) {
+                    closed = true;
+                    pool.release(client);
+                }
+            }
+        }
+    }
+
+    private final int maxConnectionsPerServer;
+
+    /**
+     * Clients by server URL and API key. Guarded by this.
+     */
+    private final Map<String, Client> clients = new HashMap<>();
+
+    /**
+     * Server URL and API key each group last used, by group id. Guarded by this.
+     */
+    private final Map<Integer, String> keysByGroup = new HashMap<>();
+
+    @Autowired
+    public GitLabClientPool(@Value("${portfolio.gitlab.max-connections-per-server:8}") int maxConnectionsPerServer) {
+        this.maxConnectionsPerServer = maxConnectionsPerServer;
+    }
+
+    /**
+     * Leases the shared client for the repository server and API key in a group's settings, making one if there is
+     * none. If the group used a different server or key before, the client for those is closed unless another group
+     * uses it or a lease of it is still open.
+     * @param groupSettings settings of the group
+     * @return a lease of the shared client, to be closed once the calls made with it are done
+     */
+    public synchronized Lease lease(GroupSettings groupSettings) {
+        Client client = getClient(groupSettings);
+        client.leases++;
+        return new Lease(this, client);
+    }
+
+    /**
+     * Records that a group's settings have been saved or deleted, closing the client for its old server and API key
+     * straight away unless another group uses it.
+     * @param groupId id of the group
+     */
+    public synchronized void settingsChanged(int groupId) {
+        String oldKey = keysByGroup.remove(groupId);
+        if (oldKey != null) {
+            closeIfUnused(oldKey);
+        }
+    }
+
+    private synchronized Client getClient(GroupSettings groupSettings) {
+        String key = groupSettings.getRepoUrl() + "\n" + groupSettings.getRepoApiKey();
+        String oldKey = keysByGroup.put(groupSettings.getGroupId(), key);
+        Client client = clients.computeIfAbsent(key,
+                unused -> new Client(createGitLabApi(groupSettings.getRepoUrl(), groupSettings.getRepoApiKey())));
+        if (oldKey != null && !oldKey.equals(key)) {
+            closeIfUnused(oldKey);
+        }
+        return client;
+    }
+
+    private void closeIfUnused(String key) {
+        if (!keysByGroup.containsValue(key)) {
+            Client client = clients.remove(key);
+            if (client != null) {
+                client.retired = true;
+                if (client.leases == 0) {
+                    client.gitLabApi.close();
+                }
+            }
+        }
+    }
+
+    private synchronized void release(Client client) {
+        client.leases--;
+        if (client.retired && client.leases == 0) {
+            client.gitLabApi.close();
+        }
+    }
+
+    /**
+     * Makes a client with a pool of connections to the server.
+     */
+    private GitLabApi createGitLabApi(String repoUrl, String repoApiKey) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxConnectionsPerServer);
+        connectionManager.setDefaultMaxPerRoute(maxConnectionsPerServer);
+        // Closing the client closes its connections
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(ApacheClientProperties.CONNECTION_MANAGER, connectionManager);
+        GitLabApi gitLabApi = new GitLabApi(repoUrl, repoApiKey, properties);
+        gitLabApi.setRequestTimeout(CONNECT_TIMEOUT_MILLIS, READ_TIMEOUT_MILLIS);
+        return gitLabApi;
+    }
+
+    /**
+     * Closes every client.
+     */
+    @PreDestroy
+    public synchronized void shutdown() {
+        clients.values().forEach(client -> client.gitLabApi.close());
+        clients.clear();
+        keysByGroup.clear();
+    }
+}
@@ -0,0 +1,286 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
+import org.gitlab4j.api.GitLabApiException;
+import org.gitlab4j.api.models.Contributor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Caches what the group settings page shows about each group's repository: its branches, its contributors, and
+ * whether its API key works. Loading these takes several calls to the GitLab server, so without the cache every view
+ * and refresh of the page waits on GitLab.
+ * Information younger than the fresh time is shown as it is. Older information is still shown while it is within the
+ * stale window, and is refreshed in the background so the next view sees the new information. Only information older
+ * than both is loaded while the page waits. A group's information is dropped when its settings are saved, and is never
+ * used for settings other than the ones it was loaded with. Finding the GitLab server down is shown but never kept, so
+ * the first view after it is back loads the repository again.
+ */
+@Service
+public class GitLabRepositoryCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitLabRepositoryCache.class);
+
+    /**
+     * Most background refreshes waiting to run. Refreshes asked for when this many are waiting are skipped, and
+     * happen on a later view instead.
+     */
+    static final int MAX_QUEUED_REFRESHES = 50;
+
+    @Autowired
+    GitLabApiService gitLabApiService;
+
+    @Autowired
+    GitLabRequestExecutor gitLabRequestExecutor;
+
+    private final long freshMillis;
+
+    private final long staleMillis;
+
+    private final LongSupplier clock;
+
+    private final ExecutorService refresher;
+
+    /**
+     * Information by group id.
+     */
+    private final Map<Integer, RepositoryInfo> entries = new ConcurrentHashMap<>();
+
+    /**
+     * Loads in progress by group id, so each group is only loaded by one thread at a time.
+     */
+    private final Map<Integer, CompletableFuture<RepositoryInfo>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * Groups with a background refresh waiting or running, so repeated views of stale information queue one refresh.
+     */
+    private final Set<Integer> refreshing = ConcurrentHashMap.newKeySet();
+
+    /**
+     * What the group settings page shows about a repository, as it was when it was loaded.
+     */
+    public static class RepositoryInfo {
+
+        private final long repoId;
+
+        private final String repoApiKey;
+
+        private final String repoUrl;
+
+        private final String alertMessage;
+
+        private final boolean isConnectionSuccessful;
+
+        private final List<String> branchNames;
+
+        private final List<Contributor> contributors;
+
+        private final long loadedAt;
+
+        public RepositoryInfo(GroupSettings groupSettings, String alertMessage, boolean isConnectionSuccessful,
+                              List<String> branchNames, List<Contributor> contributors, long loadedAt) {
+            this.repoId = groupSettings.getRepoId();
+            this.repoApiKey = groupSettings.getRepoApiKey();
+            this.repoUrl = groupSettings.getRepoUrl();
+            this.alertMessage = alertMessage;
+            this.isConnectionSuccessful = isConnectionSuccessful;
+            this.branchNames = branchNames;
+            this.contributors = contributors;
+            this.loadedAt = loadedAt;
+        }
+
+        /**
+         * Gets the message saying why the repository could not be reached with its API key.
+         * @return the message, or null if the repository was reached
+         */
+        public String getAlertMessage() {
+            return alertMessage;
+        }
+
+        public boolean isConnectionSuccessful() {
+            return isConnectionSuccessful;
+        }
+
+        public List<String> getBranchNames() {
+            return branchNames;
+        }
+
+        public List<Contributor> getContributors() {
+            return contributors;
+        }
+
+        public long getLoadedAt() {
+            return loadedAt;
+        }
+
+        /**
+         * Checks if this information was loaded with the given settings.
+         * @param groupSettings settings to check
+         * @return true if the repository, API key and server are the same
+         */
+        boolean isFor(GroupSettings groupSettings) {
+            return repoId == groupSettings.getRepoId() && Objects.equals(repoApiKey, groupSettings.getRepoApiKey())
+                    && Objects.equals(repoUrl, groupSettings.getRepoUrl());
+        }
+    }
+
+    /**
+     * Creates the cache with the fresh time and stale window from the application properties.
+     * @param freshSeconds how long information is shown without being refreshed
+     * @param staleSeconds how long after that information is still shown while it is refreshed
+     */
+    @Autowired
+    public GitLabRepositoryCache(@Value("${portfolio.gitlab.cache.fresh-seconds:60}") long freshSeconds,
+                                 @Value("${portfolio.gitlab.cache.stale-seconds:600}") long staleSeconds) {
+        this(TimeUnit.SECONDS.toMillis(freshSeconds), TimeUnit.SECONDS.toMillis(staleSeconds),
+                System::currentTimeMillis, new ThreadPoolExecutor(1, 2, 30, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<>(MAX_QUEUED_REFRESHES), runnable -> {
+                    Thread thread = new Thread(runnable, "gitlab-cache-refresher");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    GitLabRepositoryCache(long freshMillis, long staleMillis, LongSupplier clock, ExecutorService refresher) {
+        this.freshMillis = freshMillis;
+        this.staleMillis = staleMillis;
+        this.clock = clock;
+        this.refresher = refresher;
+    }
+
+    /**
+     * Gets the information about a group's repository, loading it only if there is none recent enough to show.
+     * @param groupSettings current settings of the group
+     * @return information about the repository in the settings
+     */
+    public RepositoryInfo get(GroupSettings groupSettings) {
+        int groupId = groupSettings.getGroupId();
+        RepositoryInfo cached = entries.get(groupId);
+        if (cached != null && cached.isFor(groupSettings)) {
+            long age = clock.getAsLong() - cached.getLoadedAt();
+            if (age < freshMillis) {
+                return cached;
+            }
+            if (age < freshMillis + staleMillis) {
+                refreshInBackground(groupSettings);
+                return cached;
+            }
+        }
+        return load(groupSettings).join();
+    }
+
+    /**
+     * Drops the information about a group's repository, so the next view loads it again.
+     * @param groupId id of the group whose settings changed
+     */
+    public void invalidate(int groupId) {
+        entries.remove(groupId);
+    }
+
+    private void refreshInBackground(GroupSettings groupSettings) {
+        int groupId = groupSettings.getGroupId();
+        if (loading.containsKey(groupId) || !refreshing.add(groupId)) {
+            return;
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    load(groupSettings).join();
+                } catch (CompletionException e) {
+                    logger.error(String.format("Error refreshing repository of group %d: %s", groupId,
+                            e.getCause().getMessage()));
+                } finally {
+                    refreshing.remove(groupId);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(groupId);
+            logger.debug("Skipped refreshing repository of group {}, too many refreshes waiting", groupId);
+        }
+    }
+
+    /**
+     * Loads a group's information, or joins the load already in progress for it. Nothing is asked of GitLab if the
+     * information became fresh while this load waited, such as a refresh queued behind a load made while a page waited.
+     */
+    private CompletableFuture<RepositoryInfo> load(GroupSettings groupSettings) {
+        int groupId = groupSettings.getGroupId();
+        CompletableFuture<RepositoryInfo> future = new CompletableFuture<>();
+        CompletableFuture<RepositoryInfo> existing = loading.putIfAbsent(groupId, future);
+        if (existing != null) {
+            return existing;
+        }
+        try {
+            RepositoryInfo info = entries.get(groupId);
+            if (info != null && info.isFor(groupSettings) && clock.getAsLong() - info.getLoadedAt() < freshMillis) {
+                future.complete(info);
+                return future;
+            }
+            try {
+                info = fetch(groupSettings);
+                // Kept even if the settings were saved meanwhile, as get only uses it for the settings it was loaded with
+                entries.put(groupId, info);
+            } catch (GitLabApiException e) {
+                info = new RepositoryInfo(groupSettings, GitLabApiService.getAlertMessage(e), false, List.of(),
+                        List.of(), clock.getAsLong());
+                // A server that is down, not responding or behind an open breaker may be back by the next view, so
+                // only a wrong key or repository is kept, and any older information is still shown meanwhile
+                if (!GitLabRequestExecutor.isServerFailure(e)) {
+                    entries.put(groupId, info);
+                }
+            }
+            future.complete(info);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        } finally {
+            loading.remove(groupId, future);
+        }
+        return future;
+    }
+
+    /**
+     * Asks GitLab for the repository's branches and contributors, both at once unless the server's breaker is only
+     * letting a single trial call through. A group with no repository set up only has its API key checked.
+     */
+    private RepositoryInfo fetch(GroupSettings groupSettings) throws GitLabApiException {
+        String serverUrl = groupSettings.getRepoUrl();
+        if (groupSettings.getRepoId() == 0 || groupSettings.getRepoApiKey() == null) {
+            String alertMessage = gitLabRequestExecutor.call(serverUrl, () -> gitLabApiService.getTokenAlertMessage(
+                    groupSettings.getRepoId(), groupSettings.getRepoApiKey(), serverUrl));
+            return new RepositoryInfo(groupSettings, alertMessage, true, List.of(), List.of(), clock.getAsLong());
+        }
+        if (gitLabRequestExecutor.isHalfOpen(serverUrl)) {
+            // A second call made while the trial call runs would be turned away even if the server is back
+            List<String> branchNames = gitLabRequestExecutor.call(serverUrl,
+                    () -> gitLabApiService.getBranchNames(groupSettings));
+            List<Contributor> contributors = gitLabRequestExecutor.call(serverUrl,
+                    () -> gitLabApiService.getContributors(groupSettings));
+            return new RepositoryInfo(groupSettings, null, true, branchNames, contributors, clock.getAsLong());
+        }
+        CompletableFuture<List<String>> branchNames = gitLabRequestExecutor.submit(serverUrl,
+                () -> gitLabApiService.getBranchNames(groupSettings));
+        CompletableFuture<List<Contributor>> contributors = gitLabRequestExecutor.submit(serverUrl,
+                () -> gitLabApiService.getContributors(groupSettings));
+        return new RepositoryInfo(groupSettings, null, true, gitLabRequestExecutor.await(branchNames),
+                gitLabRequestExecutor.await(contributors), clock.getAsLong());
+    }
+
+    /**
+     * Stops the background refreshes.
+     */
+    @PreDestroy
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+}
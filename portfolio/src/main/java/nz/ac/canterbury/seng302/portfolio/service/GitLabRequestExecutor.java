@@ -0,0 +1,292 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import org.gitlab4j.api.GitLabApiException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.LongSupplier;
+
+/**
+ * Runs calls to GitLab servers on a bounded pool, so calls needed for the same page are made at the same time instead
+ * of one after another, and no call can hold a page for longer than the deadline.
+ * Each GitLab server has a circuit breaker. After several calls to a server in a row fail because it is down or not
+ * responding, calls to it fail straight away for a while, rather than every page waiting for the server to time out.
+ * Once that time has passed a single call is let through to see if the server is back.
+ */
+@Service
+public class GitLabRequestExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(GitLabRequestExecutor.class);
+
+    /**
+     * Most calls waiting for a thread. Calls made when this many are waiting fail straight away.
+     */
+    static final int MAX_QUEUED_CALLS = 100;
+
+    /**
+     * Status given to calls that fail because the server is not responding or its circuit breaker is open.
+     */
+    public static final int UNAVAILABLE_STATUS = 503;
+
+    private final long deadlineMillis;
+
+    private final int failureThreshold;
+
+    private final long openMillis;
+
+    private final LongSupplier clock;
+
+    private final ExecutorService executor;
+
+    private final ScheduledExecutorService deadlines = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "gitlab-call-deadlines");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Circuit breakers by server URL.
+     */
+    private final Map<String, CircuitBreaker> breakers = new ConcurrentHashMap<>();
+
+    /**
+     * A call to the GitLab API.
+     * @param <T> type of the result
+     */
+    @FunctionalInterface
+    public interface GitLabCall<T> {
+        T call() throws GitLabApiException;
+    }
+
+    /**
+     * Tracks whether calls to one server are failing. Guarded by itself.
+     */
+    static class CircuitBreaker {
+
+        private int consecutiveFailures = 0;
+
+        private long openUntil = 0;
+
+        private boolean isTrialCallRunning = false;
+
+        /**
+         * Checks if a call may be made, letting a single trial call through once the breaker has been open long enough.
+         */
+        synchronized boolean tryAcquire(long now, int failureThreshold) {
+            if (consecutiveFailures < failureThreshold) {
+                return true;
+            }
+            if (now < openUntil || isTrialCallRunning) {
+                return false;
+            }
+            isTrialCallRunning = true;
+            return true;
+        }
+
+        /**
+         * Lets another trial call through after one that was never made.
+         */
+        synchronized void release() {
+            isTrialCallRunning = false;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            isTrialCallRunning = false;
+        }
+
+        /**
+         * Counts a failed call, opening the breaker once enough have failed in a row.
+         * @return true if this failure opened the breaker
+         */
+        synchronized boolean onFailure(long now, int failureThreshold, long openMillis) {
+            consecutiveFailures++;
+            isTrialCallRunning = false;
+            if (consecutiveFailures >= failureThreshold) {
+                boolean wasOpen = now < openUntil;
+                openUntil = now + openMillis;
+                return !wasOpen;
+            }
+            return false;
+        }
+
+        synchronized boolean isOpen(long now, int failureThreshold) {
+            return consecutiveFailures >= failureThreshold && now < openUntil;
+        }
+
+        synchronized boolean isHalfOpen(long now, int failureThreshold) {
+            return consecutiveFailures >= failureThreshold && now >= openUntil;
+        }
+    }
+
+    /**
+     * Creates the executor with the deadline and circuit breaker settings from the application properties.
+     * @param deadlineMillis longest a call may take before it fails
+     * @param failureThreshold number of calls to a server that must fail in a row to open its breaker
+     * @param openSeconds how long a server's breaker stays open before a trial call is let through
+     */
+    @Autowired
+    public GitLabRequestExecutor(@Value("${portfolio.gitlab.deadline-millis:8000}") long deadlineMillis,
+                                 @Value("${portfolio.gitlab.breaker.failure-threshold:3}") int failureThreshold,
+                                 @Value("${portfolio.gitlab.breaker.open-seconds:30}") long openSeconds) {
+        this(deadlineMillis, failureThreshold, TimeUnit.SECONDS.toMillis(openSeconds), System::currentTimeMillis,
+                new ThreadPoolExecutor(4, 8, 30, TimeUnit.SECONDS, new LinkedBlockingQueue<>(MAX_QUEUED_CALLS),
+                        runnable -> {
+                            Thread thread = new Thread(runnable, "gitlab-call");
+                            thread.setDaemon(true);
+                            return thread;
+                        }));
+    }
+
+    GitLabRequestExecutor(long deadlineMillis, int failureThreshold, long openMillis, LongSupplier clock,
+                          ExecutorService executor) {
+        this.deadlineMillis = deadlineMillis;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+        this.clock = clock;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a call to a GitLab server. The call fails straight away if the server's circuit breaker is open, and fails
+     * with the unavailable status if it does not finish within the deadline.
+     * @param serverUrl URL of the GitLab server being called
+     * @param call call to make
+     * @param <T> type of the result
+     * @return the result of the call, completed with a GitLabApiException if it fails
+     */
+    public <T> CompletableFuture<T> submit(String serverUrl, GitLabCall<T> call) {
+        CircuitBreaker breaker = breakers.computeIfAbsent(serverUrl, ignored -> new CircuitBreaker());
+        if (!breaker.tryAcquire(clock.getAsLong(), failureThreshold)) {
+            return CompletableFuture.failedFuture(new GitLabApiException(
+                    "GitLab server " + serverUrl + " is unavailable", UNAVAILABLE_STATUS));
+        }
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                // The breaker is updated before the result is completed, so callers see the breaker the call left
+                try {
+                    T value = call.call();
+                    if (!result.isDone()) {
+                        breaker.onSuccess();
+                        result.complete(value);
+                    }
+                } catch (GitLabApiException e) {
+                    if (!result.isDone()) {
+                        if (isServerFailure(e)) {
+                            recordFailure(serverUrl, breaker);
+                        } else {
+                            // The server answered, so it is up even though the call failed
+                            breaker.onSuccess();
+                        }
+                        result.completeExceptionally(e);
+                    }
+                } catch (RuntimeException e) {
+                    if (!result.isDone()) {
+                        recordFailure(serverUrl, breaker);
+                        result.completeExceptionally(e);
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            breaker.release();
+            return CompletableFuture.failedFuture(new GitLabApiException("Too many GitLab calls waiting",
+                    UNAVAILABLE_STATUS));
+        }
+        ScheduledFuture<?> deadline = deadlines.schedule(() -> {
+            if (result.completeExceptionally(new GitLabApiException(
+                    "GitLab server " + serverUrl + " did not respond in time", UNAVAILABLE_STATUS))) {
+                task.cancel(true);
+                recordFailure(serverUrl, breaker);
+            }
+        }, deadlineMillis, TimeUnit.MILLISECONDS);
+        result.whenComplete((value, exception) -> deadline.cancel(false));
+        return result;
+    }
+
+    /**
+     * Waits for a call started with submit.
+     * @param future result of the call
+     * @param <T> type of the result
+     * @return the result of the call
+     * @throws GitLabApiException if the call failed, timed out, or was not made because the server is unavailable
+     */
+    public <T> T await(CompletableFuture<T> future) throws GitLabApiException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GitLabApiException gitLabApiException) {
+                throw gitLabApiException;
+            }
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new GitLabApiException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GitLabApiException(e);
+        }
+    }
+
+    /**
+     * Makes a call to a GitLab server and waits for it.
+     * @param serverUrl URL of the GitLab server being called
+     * @param call call to make
+     * @param <T> type of the result
+     * @return the result of the call
+     * @throws GitLabApiException if the call failed, timed out, or was not made because the server is unavailable
+     */
+    public <T> T call(String serverUrl, GitLabCall<T> call) throws GitLabApiException {
+        return await(submit(serverUrl, call));
+    }
+
+    /**
+     * Checks if calls to a server are currently failing straight away.
+     * @param serverUrl URL of the GitLab server
+     * @return true if the server's circuit breaker is open
+     */
+    public boolean isOpen(String serverUrl) {
+        CircuitBreaker breaker = breakers.get(serverUrl);
+        return breaker != null && breaker.isOpen(clock.getAsLong(), failureThreshold);
+    }
+
+    /**
+     * Checks if calls to a server are only being let through one at a time, to see if it is back.
+     * @param serverUrl URL of the GitLab server
+     * @return true if the server's circuit breaker lets a single trial call through
+     */
+    public boolean isHalfOpen(String serverUrl) {
+        CircuitBreaker breaker = breakers.get(serverUrl);
+        return breaker != null && breaker.isHalfOpen(clock.getAsLong(), failureThreshold);
+    }
+
+    private void recordFailure(String serverUrl, CircuitBreaker breaker) {
+        if (breaker.onFailure(clock.getAsLong(), failureThreshold, openMillis)) {
+            logger.warn("GitLab server {} is failing, calls to it will fail fast for {} ms", serverUrl, openMillis);
+        }
+    }
+
+    /**
+     * Checks if a call failed because the server is down or not responding, rather than because of what was asked,
+     * such as a wrong API key or repository.
+     */
+    static boolean isServerFailure(GitLabApiException exception) {
+        return exception.getHttpStatus() == 0 || exception.getHttpStatus() >= 500;
+    }
+
+    /**
+     * Stops running calls.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+        deadlines.shutdownNow();
+    }
+}
@@ -1,15 +1,25 @@
 package nz.ac.canterbury.seng302.portfolio.service;
 
+import io.grpc.StatusRuntimeException;
 import net.devh.boot.grpc.client.inject.GrpcClient;
+import nz.ac.canterbury.seng302.portfolio.model.GroupMembersDelta;
+import nz.ac.canterbury.seng302.portfolio.model.NotificationGroup;
 import nz.ac.canterbury.seng302.portfolio.model.NotificationResponse;
 import nz.ac.canterbury.seng302.portfolio.utility.ToastUtility;
 import nz.ac.canterbury.seng302.shared.identityprovider.*;
 import nz.ac.canterbury.seng302.shared.util.ValidationError;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.ui.Model;
 
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Contains methods for performing operations on Group objects, such as adding and removing group members, and storing
@@ -24,7 +34,43 @@ public class GroupService {
     @GrpcClient(value = "identity-provider-grpc-server")
     GroupsServiceGrpc.GroupsServiceBlockingStub groupsServiceBlockingStub;
 
-    private final List<NotificationResponse> groupsToDisplay = new ArrayList<>();
+    @GrpcClient(value = "identity-provider-grpc-server")
+    GroupsServiceGrpc.GroupsServiceFutureStub groupsServiceFutureStub;
+
+    @Autowired
+    LiveUpdateService liveUpdateService;
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupService.class);
+
+    /**
+     * Versioned destination the group page subscribes to, to update groups whose members have changed.
+     */
+    public static final String GROUP_MEMBERS_CHANGED_DESTINATION = "/webSocketGet/group-change-users";
+
+    /**
+     * Topic of a group's destination that its settings page subscribes to, to reload its members.
+     */
+    public static final String GROUP_MEMBERS_TOPIC = "members";
+
+    /**
+     * Topic of a group's destination that its settings page subscribes to, to reload its settings.
+     */
+    public static final String GROUP_SETTINGS_TOPIC = "settings";
+
+    /**
+     * Topic of a group's destination that its settings page subscribes to, to leave the page once it is deleted.
+     */
+    public static final String GROUP_DELETED_TOPIC = "deleted";
+
+    private static final int MEMBERS_WITHOUT_GROUP_ID = 1;
+
+    /**
+     * Number of toasts the group page shows.
+     */
+    public static final int NUM_OF_TOASTS = 3;
+
+    @Autowired
+    RecentNotificationService recentNotificationService;
 
     /**
      * Method to create group by sending request using GRPC to the idp
@@ -54,6 +100,59 @@ public class GroupService {
         return groupsServiceBlockingStub.addGroupMembers(request);
     }
 
+    /**
+     * Adds user(s) to a group as they are moved or copied from another group, and tells every page showing either
+     * group once the change has been made.
+     * @param groupId (Integer) id of the group the users are added to
+     * @param userIds (List<Integer>) ids of the users being added
+     * @param currentGroupId (Integer) id of the group the users were selected from
+     * @return (AddGroupMembersResponse) contains the response of addition of user(s) to a group
+     */
+    public AddGroupMembersResponse addMemberToGroup(Integer groupId, List<Integer> userIds, Integer currentGroupId) {
+        AddGroupMembersResponse response = addMemberToGroup(groupId, userIds);
+        if (response.getIsSuccess()) {
+            publishMembersChanged(new NotificationGroup(currentGroupId, groupId));
+        }
+        return response;
+    }
+
+    /**
+     * Tells the group page, and the settings pages of both groups, that members have moved between the groups.
+     * The group page is sent the new members of the changed groups, fetched once rather than by every page. They are
+     * fetched after the delta is given its version, so a later version never carries older members.
+     * @param notification Ids of the two groups.
+     */
+    private void publishMembersChanged(NotificationGroup notification) {
+        liveUpdateService.publishVersioned(GROUP_MEMBERS_CHANGED_DESTINATION,
+                version -> new GroupMembersDelta(version, notification.getSendingGroupId(),
+                        notification.getReceivingGroupId(), getMembersOfChangedGroups(notification)));
+        liveUpdateService.publish(LiveUpdateService.groupDestination(notification.getSendingGroupId(),
+                GROUP_MEMBERS_TOPIC), notification);
+        liveUpdateService.publish(LiveUpdateService.groupDestination(notification.getReceivingGroupId(),
+                GROUP_MEMBERS_TOPIC), notification);
+    }
+
+    /**
+     * Gets the members of the groups that may have changed when members moved between two groups. Members without a
+     * group is included, as users leave it when joining a group and return to it when removed from their last one.
+     * @param notification Ids of the two groups.
+     * @return Members of each group, or null if any could not be fetched.
+     */
+    private List<GroupMembersDelta.GroupMembers> getMembersOfChangedGroups(NotificationGroup notification) {
+        Set<Integer> groupIds = new LinkedHashSet<>(List.of(notification.getSendingGroupId(),
+                notification.getReceivingGroupId(), MEMBERS_WITHOUT_GROUP_ID));
+        List<GroupMembersDelta.GroupMembers> groups = new ArrayList<>();
+        try {
+            for (int groupId : groupIds) {
+                groups.add(new GroupMembersDelta.GroupMembers(getGroupDetails(groupId)));
+            }
+        } catch (StatusRuntimeException e) {
+            logger.error(String.format("Could not get changed group members: %s", e.getMessage()));
+            return null;
+        }
+        return groups;
+    }
+
     /**
      * Method to remove user(s) from an existing group by sending request using GRPC to the idp
      * @param groupId (Integer) id of the group
@@ -65,7 +164,12 @@ public class GroupService {
                 .setGroupId(groupId)
                 .addAllUserIds(userIds)
                 .build();
-        return groupsServiceBlockingStub.removeGroupMembers(request);
+        RemoveGroupMembersResponse response = groupsServiceBlockingStub.removeGroupMembers(request);
+        if (response.getIsSuccess()) {
+            // Users removed from their last group move to members without a group
+            publishMembersChanged(new NotificationGroup(groupId, MEMBERS_WITHOUT_GROUP_ID));
+        }
+        return response;
     }
 
     /**
@@ -108,6 +212,18 @@ public class GroupService {
         return groupsServiceBlockingStub.getGroupDetails(request);
     }
 
+    /**
+     * Starts getting the detail information of a group from the idp, so other data can be loaded while it is fetched.
+     * @param groupId (Integer) id of the group
+     * @return (CompletableFuture) completed with the details of the group requested
+     */
+    public CompletableFuture<GroupDetailsResponse> getGroupDetailsAsync(Integer groupId) {
+        GetGroupDetailsRequest request = GetGroupDetailsRequest.newBuilder()
+                .setGroupId(groupId)
+                .build();
+        return PageDataLoader.fromGrpc(groupsServiceFutureStub.getGroupDetails(request));
+    }
+
     /**
      * Method to delete an existing group from database by sending request using GRPC to the idp
      * @param offset (Integer) number used to identify the starting point to return rows from a result set
@@ -131,6 +247,8 @@ public class GroupService {
      * @param model Parameters sent to thymeleaf template to be rendered into HTML
      */
     public void addGroupListToModel(Model model) {
+        // Read before the groups, so any change after it is sent to the page as a delta
+        model.addAttribute("groupMembersVersion", liveUpdateService.getVersion(GROUP_MEMBERS_CHANGED_DESTINATION));
         PaginatedGroupsResponse groupList = getPaginatedGroups(1, 1, "null", false);
         List<GroupDetailsResponse> groupDetailsResponseList = groupList.getGroupsList();
         model.addAttribute("groupList", groupDetailsResponseList);
@@ -143,7 +261,15 @@ public class GroupService {
      * @param groupId Current selected group ID
      */
     public void addGroupDetailToModel(Model model, Integer groupId) {
-        GroupDetailsResponse groupDetailsResponse = getGroupDetails(groupId);
+        addGroupDetailToModel(model, getGroupDetails(groupId));
+    }
+
+    /**
+     * Adds the details of a group already fetched to the model.
+     * @param model model to add the group details to
+     * @param groupDetailsResponse details of the group
+     */
+    public void addGroupDetailToModel(Model model, GroupDetailsResponse groupDetailsResponse) {
         List<UserResponse> userResponseList = groupDetailsResponse.getMembersList();
 
         model.addAttribute("groupLongName", groupDetailsResponse.getLongName());
@@ -175,19 +301,16 @@ public class GroupService {
      * @param numOfToasts the number of toasts that will be displayed
      */
     public void addToastsToModel(Model model, Integer numOfToasts) {
-        ToastUtility.addToastsToModel(model, groupsToDisplay, numOfToasts);
+        ToastUtility.addToastsToModel(model, recentNotificationService.getRecent(RecentNotificationService.GROUPS_FEED,
+                Instant.now().getEpochSecond()), numOfToasts);
     }
 
     /**
      * Adds the notification so that the toast can be displayed
      * @param response sends the message that something is being edited
-     * @param numOfToasts the number of toasts that will be displayed
      */
-    public void addNotification(NotificationResponse response, Integer numOfToasts) {
-        groupsToDisplay.add(response);
-        while (groupsToDisplay.size() > numOfToasts) {
-            groupsToDisplay.remove(0);
-        }
+    public void addNotification(NotificationResponse response) {
+        recentNotificationService.add(RecentNotificationService.GROUPS_FEED, response);
     }
 
 
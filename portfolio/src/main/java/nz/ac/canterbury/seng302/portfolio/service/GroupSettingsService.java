@@ -2,7 +2,6 @@ package nz.ac.canterbury.seng302.portfolio.service;
 
 import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
 import nz.ac.canterbury.seng302.portfolio.repository.GroupSettingsRepository;
-import org.hibernate.ObjectNotFoundException;
 import org.jvnet.hk2.annotations.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -10,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.ui.Model;
 
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -22,25 +22,34 @@ public class GroupSettingsService {
     @Autowired
     private GroupSettingsRepository repository;
 
+    @Autowired
+    private GitLabClientPool gitLabClientPool;
+
     private static final Logger logger = LoggerFactory.getLogger(GroupSettingsService.class);
 
     /**
      * Returns the group settings object in the database with the group id.
+     * Settings are read through the second-level cache, and a group without settings gets default settings that are
+     * not saved, so looking up settings never writes to the database.
      * @param groupId group id of the group settings object
-     * @return group settings object object in the database with the group id
-     * @throws ObjectNotFoundException thrown if no group settings object was found
+     * @return group settings object in the database with the group id, or unsaved default settings if there is none
      */
-    public GroupSettings getGroupSettingsByGroupId(int groupId) throws ObjectNotFoundException {
+    public GroupSettings getGroupSettingsByGroupId(int groupId) {
         Optional<GroupSettings> groupSettings = repository.findByGroupId(groupId);
         if (groupSettings.isPresent()) {
             return groupSettings.get();
-        } else {
-            // Generate a new group setting model
-            GroupSettings newGroupSetting = new GroupSettings();
-            newGroupSetting.setGroupId(groupId);
-            repository.save(newGroupSetting);
-            return newGroupSetting;
         }
+        GroupSettings defaultGroupSettings = new GroupSettings();
+        defaultGroupSettings.setGroupId(groupId);
+        return defaultGroupSettings;
+    }
+
+    /**
+     * Returns every group settings object in the database.
+     * @return list of all group settings
+     */
+    public List<GroupSettings> getAllGroupSettings() {
+        return repository.findAllByOrderByGroupSettingsId();
     }
 
     /**
@@ -50,7 +59,9 @@ public class GroupSettingsService {
      * @return the saved object
      */
     public GroupSettings saveGroupSettings(GroupSettings groupSettings) {
-        return repository.save(groupSettings);
+        GroupSettings saved = repository.save(groupSettings);
+        gitLabClientPool.settingsChanged(groupSettings.getGroupId());
+        return saved;
     }
 
     /**
@@ -65,6 +76,7 @@ public class GroupSettingsService {
             logger.info("Deleting group settings {} ({}) for group {}",
                     groupSettingsId, groupSettings.get().getRepoName(), groupSettings.get().getGroupId());
             repository.deleteById(groupSettingsId);
+            gitLabClientPool.settingsChanged(groupSettings.get().getGroupId());
             return true;
         }
         return false;
@@ -76,7 +88,15 @@ public class GroupSettingsService {
      * @return True if repoId is not 0 and repoApiKey is not null, Otherwise False.
      */
     public boolean doesGroupHaveRepo(int groupId) {
-        GroupSettings groupSettings = getGroupSettingsByGroupId(groupId);
+        return doesGroupHaveRepo(getGroupSettingsByGroupId(groupId));
+    }
+
+    /**
+     * Check if a repository has been set up or not in the given group settings.
+     * @param groupSettings settings of the group in interest
+     * @return True if repoId is not 0 and repoApiKey is not null, Otherwise False.
+     */
+    public boolean doesGroupHaveRepo(GroupSettings groupSettings) {
         return groupSettings.getRepoId() != 0 && groupSettings.getRepoApiKey() != null;
     }
 
@@ -101,6 +121,8 @@ public class GroupSettingsService {
 
     /**
      * Method to check if current group setting has been saved to the database successfully.
+     * Groups whose settings have never been saved are shown unsaved defaults with an id of 0, so the group's saved
+     * settings are updated if it has any by then, rather than saving a second set.
      * @param groupSettingId current group setting id
      * @param repoId current group setting repo id
      * @param repoName current group setting repo name
@@ -111,6 +133,9 @@ public class GroupSettingsService {
     public boolean isGroupSettingSaved(int groupSettingId, long repoId, String repoName, String repoToken, int groupId, String repoServerUrl) {
         try {
             GroupSettings targetGroupSetting = new GroupSettings(repoId, repoName, repoToken, groupId, repoServerUrl);
+            if (groupSettingId == 0) {
+                groupSettingId = repository.findByGroupId(groupId).map(GroupSettings::getGroupSettingsId).orElse(0);
+            }
             targetGroupSetting.setGroupSettingsId(groupSettingId);
             saveGroupSettings(targetGroupSetting);
         } catch (Exception e) {
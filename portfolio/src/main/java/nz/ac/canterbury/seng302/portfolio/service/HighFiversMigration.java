@@ -0,0 +1,45 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Moves high fives recorded before each high five held its own evidence id onto the new column. They used to be linked
+ * to their evidence through the evidence_to_highfivers join table, which Hibernate's schema update neither copies from
+ * nor drops, so without this every old high five would drop off its evidence and every count would read 0.
+ * <p>
+ * Each step can be run again, so a migration stopped part way through is finished on the next start. The join table is
+ * only dropped once its rows are copied and the counts recomputed.
+ */
+@Component
+public class HighFiversMigration implements ApplicationRunner {
+
+    static final String OLD_JOIN_TABLE = "evidence_to_highfivers";
+
+    private static final Logger logger = LoggerFactory.getLogger(HighFiversMigration.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        Integer tables = jdbcTemplate.queryForObject("select count(*) from information_schema.tables " +
+                "where table_schema = database() and table_name = ?", Integer.class, OLD_JOIN_TABLE);
+        if (tables == null || tables == 0) {
+            return;
+        }
+        // Ignore skips a user's second high five of the same evidence, which the unique constraint now refuses
+        int copied = jdbcTemplate.update("update ignore high_fivers h join " + OLD_JOIN_TABLE + " j " +
+                "on j.high_fivers_id = h.high_fiver_id set h.evidence_id = j.evidence_id where h.evidence_id is null");
+        jdbcTemplate.update("update evidence e set e.high_five_count = " +
+                "(select count(*) from high_fivers h where h.evidence_id = e.evidence_id)");
+        jdbcTemplate.execute("drop table " + OLD_JOIN_TABLE);
+        int duplicates = jdbcTemplate.update("delete from high_fivers where evidence_id is null");
+        logger.info("Moved {} high fives off {}, dropping {} duplicates", copied, OLD_JOIN_TABLE, duplicates);
+    }
+}
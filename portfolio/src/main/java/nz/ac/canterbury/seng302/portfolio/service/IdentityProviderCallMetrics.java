@@ -0,0 +1,73 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import io.grpc.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.devh.boot.grpc.client.interceptor.GrpcGlobalClientInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Counts each attempt made for calls to the identity provider, so retries and hedges can be seen alongside the
+ * gRPC client's own metrics for whole calls, which include the calls that went past their deadline.
+ * Attempts are counted as portfolio.idp.attempts, tagged with the service and method called, the status the attempt
+ * ended with, and whether it was the first attempt, a retry, a hedge, or a transparent retry made by gRPC itself
+ * because the first attempt never reached the identity provider. Hedges that lose to another attempt end as CANCELLED.
+ */
+@GrpcGlobalClientInterceptor
+public class IdentityProviderCallMetrics implements ClientInterceptor {
+
+    /**
+     * Name of the attempt counter.
+     */
+    public static final String ATTEMPTS_METRIC = "portfolio.idp.attempts";
+
+    private final MeterRegistry meterRegistry;
+
+    private final IdentityProviderCallPolicy callPolicy;
+
+    /**
+     * Creates the interceptor, counting into the given registry.
+     * @param meterRegistry registry to count attempts in
+     * @param callPolicy policy deciding which methods are hedged
+     */
+    @Autowired
+    public IdentityProviderCallMetrics(MeterRegistry meterRegistry, IdentityProviderCallPolicy callPolicy) {
+        this.meterRegistry = meterRegistry;
+        this.callPolicy = callPolicy;
+    }
+
+    /**
+     * Adds a tracer to the call that counts each of its attempts as the attempt ends.
+     */
+    @Override
+    public <ReqT, RespT> ClientCall<ReqT, RespT> interceptCall(MethodDescriptor<ReqT, RespT> method,
+                                                               CallOptions callOptions, Channel next) {
+        boolean isHedged = callPolicy.isHedged(method.getFullMethodName());
+        return next.newCall(method, callOptions.withStreamTracerFactory(new ClientStreamTracer.Factory() {
+            @Override
+            public ClientStreamTracer newClientStreamTracer(ClientStreamTracer.StreamInfo info, Metadata headers) {
+                String attempt;
+                if (info.isTransparentRetry()) {
+                    attempt = "transparent-retry";
+                } else if (info.getPreviousAttempts() == 0) {
+                    attempt = "first";
+                } else {
+                    attempt = isHedged ? "hedge" : "retry";
+                }
+                return new ClientStreamTracer() {
+                    @Override
+                    public void streamClosed(Status status) {
+                        Counter.builder(ATTEMPTS_METRIC)
+                                .description("Attempts made for calls to the identity provider")
+                                .tag("service", String.valueOf(method.getServiceName()))
+                                .tag("method", String.valueOf(method.getBareMethodName()))
+                                .tag("attempt", attempt)
+                                .tag("status", status.getCode().name())
+                                .register(meterRegistry)
+                                .increment();
+                    }
+                };
+            }
+        }));
+    }
+}
@@ -0,0 +1,190 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import io.grpc.ManagedChannelBuilder;
+import net.devh.boot.grpc.client.channelfactory.GrpcChannelConfigurer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Sets how long each call to the identity provider may take, and which calls are tried again when the identity
+ * provider is unavailable.
+ * Without a deadline a call to an identity provider that has stopped responding waits forever, holding the thread of
+ * the page that made it, until the portfolio runs out of threads. Every method gets a deadline, which can be changed
+ * for single methods. Reads that change nothing, such as getting a user or group or checking a session, are retried
+ * with backoff. Hedging can be used for them instead, which sends another copy of a read that has not been answered
+ * after a short delay and uses whichever answer comes first.
+ * This is given to the identity provider's channel as its default gRPC service config, so it applies to the blocking
+ * and future stubs alike.
+ */
+@Component
+public class IdentityProviderCallPolicy implements GrpcChannelConfigurer {
+
+    /**
+     * Name of the channel to the identity provider.
+     */
+    public static final String CHANNEL_NAME = "identity-provider-grpc-server";
+
+    /**
+     * Package of the identity provider's services.
+     */
+    static final String SERVICE_PACKAGE = "nz.ac.canterbury.seng302";
+
+    /**
+     * Services of the identity provider the portfolio calls.
+     */
+    static final List<String> SERVICES = List.of("AuthenticationService", "UserAccountService", "GroupsService");
+
+    /**
+     * How much longer the wait before each retry is than the wait before the last.
+     */
+    static final double BACKOFF_MULTIPLIER = 2;
+
+    /**
+     * Retries and hedges that can be saved up. Each failed call spends one, and each successful call earns back a
+     * tenth of one, so while the identity provider is down calls stop being retried rather than adding to its load.
+     */
+    static final int RETRY_TOKENS = 10;
+
+    private final long deadlineMillis;
+
+    /**
+     * Deadlines of methods that do not use the default, by service and method name.
+     */
+    private final Map<String, Long> methodDeadlineMillis = new LinkedHashMap<>();
+
+    /**
+     * Methods that change nothing, by service and method name, so are safe to send more than once.
+     */
+    private final Set<String> reads;
+
+    private final int maxAttempts;
+
+    private final long initialBackoffMillis;
+
+    private final long maxBackoffMillis;
+
+    private final boolean isHedgingEnabled;
+
+    private final long hedgingDelayMillis;
+
+    /**
+     * Creates the policy from the application properties.
+     * @param deadlineMillis deadline of every method without a deadline of its own
+     * @param methodDeadlines deadlines of single methods, each as Service/Method=millis
+     * @param reads methods safe to send more than once, each as Service/Method
+     * @param maxAttempts most times a read is sent, including the first
+     * @param initialBackoffMillis longest wait before the first retry, the actual wait being random up to this
+     * @param maxBackoffMillis longest wait before any retry
+     * @param isHedgingEnabled whether reads are hedged instead of retried
+     * @param hedgingDelayMillis how long to wait for an answer before sending another copy of a read
+     */
+    @Autowired
+    public IdentityProviderCallPolicy(@Value("${portfolio.idp.deadline-millis:5000}") long deadlineMillis,
+                                      @Value("${portfolio.idp.method-deadline-millis:}") List<String> methodDeadlines,
+                                      @Value("${portfolio.idp.reads:}") List<String> reads,
+                                      @Value("${portfolio.idp.retry.max-attempts:3}") int maxAttempts,
+                                      @Value("${portfolio.idp.retry.initial-backoff-millis:100}") long initialBackoffMillis,
+                                      @Value("${portfolio.idp.retry.max-backoff-millis:1000}") long maxBackoffMillis,
+                                      @Value("${portfolio.idp.hedging.enabled:false}") boolean isHedgingEnabled,
+                                      @Value("${portfolio.idp.hedging.delay-millis:200}") long hedgingDelayMillis) {
+        this.deadlineMillis = deadlineMillis;
+        for (String methodDeadline : methodDeadlines) {
+            String[] pair = methodDeadline.trim().split("=", 2);
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("Method deadline " + methodDeadline + " is not Service/Method=millis");
+            }
+            methodDeadlineMillis.put(checkMethodName(pair[0].trim()), Long.parseLong(pair[1].trim()));
+        }
+        this.reads = new LinkedHashSet<>();
+        for (String read : reads) {
+            if (!read.isBlank()) {
+                this.reads.add(checkMethodName(read.trim()));
+            }
+        }
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.isHedgingEnabled = isHedgingEnabled;
+        this.hedgingDelayMillis = hedgingDelayMillis;
+    }
+
+    private static String checkMethodName(String methodName) {
+        String[] parts = methodName.split("/");
+        if (parts.length != 2 || !SERVICES.contains(parts[0])) {
+            throw new IllegalArgumentException("Method " + methodName + " is not Service/Method for a service in "
+                    + SERVICES);
+        }
+        return methodName;
+    }
+
+    /**
+     * Gives the identity provider's channel this policy, leaving other channels as they are.
+     * @param builder builder of the channel
+     * @param name name of the channel
+     */
+    @Override
+    public void accept(ManagedChannelBuilder<?> builder, String name) {
+        if (CHANNEL_NAME.equals(name)) {
+            builder.defaultServiceConfig(getServiceConfig()).enableRetry();
+        }
+    }
+
+    /**
+     * Checks whether calls to a method are hedged, rather than retried or sent once.
+     * @param fullMethodName full name of the method, as given by its method descriptor
+     * @return true if the method's calls are hedged
+     */
+    public boolean isHedged(String fullMethodName) {
+        return isHedgingEnabled && maxAttempts > 1 && fullMethodName.startsWith(SERVICE_PACKAGE + ".")
+                && reads.contains(fullMethodName.substring(SERVICE_PACKAGE.length() + 1));
+    }
+
+    /**
+     * Makes the gRPC service config for this policy. Numbers are doubles, and durations are strings of seconds, as
+     * gRPC expects of a service config parsed from JSON.
+     * @return the service config
+     */
+    Map<String, Object> getServiceConfig() {
+        List<Map<String, Object>> methodConfigs = new ArrayList<>();
+        for (String service : SERVICES) {
+            methodConfigs.add(Map.of(
+                    "name", List.of(Map.of("service", SERVICE_PACKAGE + "." + service)),
+                    "timeout", toDuration(deadlineMillis)));
+        }
+        Set<String> methods = new LinkedHashSet<>(methodDeadlineMillis.keySet());
+        methods.addAll(reads);
+        for (String method : methods) {
+            String[] parts = method.split("/");
+            Map<String, Object> methodConfig = new LinkedHashMap<>();
+            methodConfig.put("name", List.of(Map.of("service", SERVICE_PACKAGE + "." + parts[0], "method", parts[1])));
+            methodConfig.put("timeout", toDuration(methodDeadlineMillis.getOrDefault(method, deadlineMillis)));
+            if (reads.contains(method) && maxAttempts > 1) {
+                if (isHedgingEnabled) {
+                    methodConfig.put("hedgingPolicy", Map.of(
+                            "maxAttempts", (double) maxAttempts,
+                            "hedgingDelay", toDuration(hedgingDelayMillis),
+                            "nonFatalStatusCodes", List.of("UNAVAILABLE")));
+                } else {
+                    methodConfig.put("retryPolicy", Map.of(
+                            "maxAttempts", (double) maxAttempts,
+                            "initialBackoff", toDuration(initialBackoffMillis),
+                            "maxBackoff", toDuration(maxBackoffMillis),
+                            "backoffMultiplier", BACKOFF_MULTIPLIER,
+                            "retryableStatusCodes", List.of("UNAVAILABLE")));
+                }
+            }
+            methodConfigs.add(methodConfig);
+        }
+        return Map.of(
+                "methodConfig", methodConfigs,
+                "retryThrottling", Map.of("maxTokens", (double) RETRY_TOKENS, "tokenRatio", 0.1));
+    }
+
+    private static String toDuration(long millis) {
+        return BigDecimal.valueOf(millis, 3).toPlainString() + "s";
+    }
+}
@@ -0,0 +1,130 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Keeps shared state in this node's memory, for running a single node. This is the default, and stands in for a
+ * networked store in tests.
+ * Counters and logs start from the time the store was created, so values from before a restart are never repeated.
+ * Logs are lock-free ring buffers: adding claims the next sequence with an atomic counter and overwrites the oldest
+ * value. A read that overlaps an add stops before a value still being written, so values are never read out of order.
+ */
+@Service
+@ConditionalOnProperty(name = "portfolio.shared-state", havingValue = "memory", matchIfMissing = true)
+public class InMemorySharedStateStore implements SharedStateStore {
+
+    private final long start;
+
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    private final Map<String, Ring> logs = new ConcurrentHashMap<>();
+
+    /**
+     * Fixed size log, where the value with each sequence is written to the sequence modulo the capacity.
+     */
+    private static class Ring {
+
+        private final AtomicReferenceArray<Entry> slots;
+
+        private final long firstSequence;
+
+        private final AtomicLong lastSequence;
+
+        private Ring(int capacity, long start) {
+            slots = new AtomicReferenceArray<>(capacity);
+            firstSequence = start + 1;
+            lastSequence = new AtomicLong(start);
+        }
+
+        private int slotOf(long sequence) {
+            return (int) Math.floorMod(sequence, (long) slots.length());
+        }
+
+        private long append(String value) {
+            long sequence = lastSequence.incrementAndGet();
+            slots.set(slotOf(sequence), new Entry(sequence, value));
+            return sequence;
+        }
+
+        private long firstKept() {
+            return Math.max(firstSequence, lastSequence.get() - slots.length() + 1);
+        }
+
+        private List<Entry> readAfter(long afterSequence) {
+            long last = lastSequence.get();
+            List<Entry> entries = new ArrayList<>();
+            long from = Math.max(firstSequence, Math.max(afterSequence + 1, last - slots.length() + 1));
+            for (long sequence = from; sequence <= last; sequence++) {
+                Entry entry = slots.get(slotOf(sequence));
+                if (entry == null || entry.getSequence() < sequence) {
+                    // Still being written, so neither it nor anything after it can be read yet
+                    break;
+                }
+                if (entry.getSequence() == sequence) {
+                    entries.add(entry);
+                }
+            }
+            return entries;
+        }
+    }
+
+    /**
+     * Creates a store starting from the current time.
+     */
+    public InMemorySharedStateStore() {
+        this(System.currentTimeMillis());
+    }
+
+    /**
+     * Creates a store where counters and logs start from the given value.
+     * @param start Starting value of every counter and log.
+     */
+    public InMemorySharedStateStore(long start) {
+        this.start = start;
+    }
+
+    @Override
+    public long incrementCounter(String counter) {
+        return counters.computeIfAbsent(counter, name -> new AtomicLong(start)).incrementAndGet();
+    }
+
+    @Override
+    public long getCounter(String counter) {
+        AtomicLong value = counters.get(counter);
+        return value == null ? start : value.get();
+    }
+
+    /**
+     * Adds a value to a log. A log's capacity is fixed by the first value added to it.
+     */
+    @Override
+    public long append(String log, String value, int capacity) {
+        return logs.computeIfAbsent(log, name -> new Ring(capacity, start)).append(value);
+    }
+
+    @Override
+    public List<Entry> readAfter(String log, long afterSequence) {
+        Ring ring = logs.get(log);
+        return ring == null ? List.of() : ring.readAfter(afterSequence);
+    }
+
+    @Override
+    public long getFirstSequence(String log) {
+        Ring ring = logs.get(log);
+        return ring == null ? start + 1 : ring.firstKept();
+    }
+
+    @Override
+    public long getLastSequence(String log) {
+        Ring ring = logs.get(log);
+        return ring == null ? start : ring.lastSequence.get();
+    }
+}
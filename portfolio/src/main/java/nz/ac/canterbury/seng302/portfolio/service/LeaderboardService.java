@@ -7,6 +7,7 @@ import org.springframework.stereotype.Service;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service for the leaderboard
@@ -14,6 +15,11 @@ import java.util.List;
 @Service
 public class LeaderboardService {
 
+    /**
+     * Versioned destination the leaderboard page subscribes to, to update a student's score when it changes.
+     */
+    public static final String LEADERBOARD_DESTINATION = "/webSocketGet/leaderboard";
+
     @Autowired
     private EvidenceService evidenceService;
 
@@ -24,8 +30,9 @@ public class LeaderboardService {
      */
     public List<LeaderboardEntry> getLeaderboardEntries(List<UserResponse> userList) {
         List<LeaderboardEntry> leaderboardEntries = new ArrayList<>();
+        Map<Integer, Long> evidenceCounts = evidenceService.getEvidenceCountsByUser();
         for (UserResponse user : userList) {
-            int numEvidence =  evidenceService.getEvidences(user.getId()).size();
+            int numEvidence = evidenceCounts.getOrDefault(user.getId(), 0L).intValue();
             leaderboardEntries.add(new LeaderboardEntry(user.getUsername(), user.getFirstName(), user.getLastName(), numEvidence, 1, user.getId()));
         }
         setRanks(leaderboardEntries);
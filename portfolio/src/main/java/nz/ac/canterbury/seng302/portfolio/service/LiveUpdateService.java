@@ -0,0 +1,218 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongFunction;
+
+/**
+ * Pushes live updates to the pages subscribed over WebSockets when data is changed on the server, so pages no longer
+ * rely on the browser that made a change to tell everyone else about it.
+ * Updates published inside a transaction are only sent once it commits, so a page reloading because of an update
+ * always sees the change. Updates are held for a short window and those with the same key are coalesced, so a burst
+ * of changes, such as moving many users between the same groups, reaches each page as one update.
+ * Destinations carrying deltas are versioned, so a page can patch itself from each update and only reload its data
+ * when it sees it has missed one. Versions are kept in the {@link SharedStateStore}, so they agree across nodes.
+ */
+@Service
+public class LiveUpdateService {
+
+    /**
+     * How long an update is held so others published after it can be coalesced with it.
+     */
+    static final long COALESCE_MILLIS = 200;
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveUpdateService.class);
+
+    private static final String VERSION_COUNTER_PREFIX = "version:";
+
+    /**
+     * Whether this thread is running actions after its transaction has committed.
+     */
+    private static final ThreadLocal<Boolean> runningAfterCommit = ThreadLocal.withInitial(() -> false);
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private SharedStateStore sharedStateStore;
+
+    private final ScheduledExecutorService flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "live-update-flusher");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Updates waiting to be sent, by destination then key. Guarded by this service's lock.
+     */
+    private final Map<String, Map<Object, Object>> pending = new LinkedHashMap<>();
+
+    private boolean flushScheduled = false;
+
+    /**
+     * Gets the destination for updates to one group, which only the pages showing that group subscribe to.
+     * @param groupId Id of the group.
+     * @param topic What changed, e.g. settings or members.
+     * @return Destination such as /webSocketGet/group/3/members.
+     */
+    public static String groupDestination(int groupId, String topic) {
+        return "/webSocketGet/group/" + groupId + "/" + topic;
+    }
+
+    /**
+     * Gets the destination for changes to one user's evidence, which only pages listing that user's evidence
+     * subscribe to.
+     * @param userId Id of the user that owns the evidence.
+     * @return Destination such as /webSocketGet/evidence/5.
+     */
+    public static String evidenceDestination(int userId) {
+        return "/webSocketGet/evidence/" + userId;
+    }
+
+    /**
+     * Publishes an update to one user. It reaches every session of that user subscribed to the queue, and no one else.
+     * @param userId Id of the user to send to.
+     * @param queue Queue the user's sessions subscribe to under /user, e.g. /queue/high-fives.
+     * @param payload Update to send.
+     */
+    public void publishToUser(int userId, String queue, Object payload) {
+        publish("/user/" + userId + queue, payload);
+    }
+
+    /**
+     * Publishes an update to a destination, coalescing it with any equal update published in the same window.
+     * @param destination Destination the pages subscribe to, e.g. /webSocketGet/group-change-users.
+     * @param payload Update to send, which must implement equals and hashCode.
+     */
+    public void publish(String destination, Object payload) {
+        publish(destination, payload, payload);
+    }
+
+    /**
+     * Publishes an update to a destination. Within a window only the latest update for each key is sent.
+     * @param destination Destination the pages subscribe to, e.g. /webSocketGet/evidence-added.
+     * @param key Identifies updates that replace each other, such as the id of the thing that changed.
+     * @param payload Update to send.
+     */
+    public void publish(String destination, Object key, Object payload) {
+        runAfterCommit(() -> enqueue(destination, key, payload));
+    }
+
+    /**
+     * Publishes a delta to a versioned destination. The delta is given the next version of the destination when it is
+     * sent, so versions are sent in order and a page that sees a gap in them knows it has missed a delta.
+     * Versioned deltas are never coalesced with each other.
+     * @param destination Destination the pages subscribe to, e.g. /webSocketGet/leaderboard.
+     * @param deltaForVersion Creates the delta to send, given its version. It is called on the flushing thread once the
+     *                        version is taken, one delta at a time, so any state it reads is read in version order.
+     */
+    public void publishVersioned(String destination, LongFunction<Object> deltaForVersion) {
+        runAfterCommit(() -> enqueueVersioned(destination, deltaForVersion));
+    }
+
+    /**
+     * Gets the version of the last delta sent to a destination. Pages read this before loading their data, so any
+     * delta after it is either already in the data, and can be applied again, or is still to come.
+     * @param destination Versioned destination.
+     * @return Version of the last delta, or the destination's starting version if none have been published.
+     */
+    public long getVersion(String destination) {
+        return sharedStateStore.getCounter(VERSION_COUNTER_PREFIX + destination);
+    }
+
+    /**
+     * Runs an action once the current transaction commits, or straight away if there is no transaction, so anything
+     * recorded alongside an update only appears once the change it describes does. An action that is already running
+     * after a commit may publish too, which runs straight away, as a transaction that has committed would never run an
+     * action registered with it then.
+     * @param action Action to run.
+     */
+    public void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive() && !runningAfterCommit.get()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    runningAfterCommit.set(true);
+                    try {
+                        action.run();
+                    } finally {
+                        runningAfterCommit.remove();
+                    }
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Enqueues a versioned delta under a key of its own, so it is never coalesced. Its version is only taken from the
+     * store when it is flushed, as taking it here would hold this service's lock while waiting on the store.
+     */
+    private void enqueueVersioned(String destination, LongFunction<Object> deltaForVersion) {
+        enqueue(destination, new Object(), new VersionedDelta(deltaForVersion));
+    }
+
+    private synchronized void enqueue(String destination, Object key, Object payload) {
+        pending.computeIfAbsent(destination, ignored -> new LinkedHashMap<>()).put(key, payload);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            flusher.schedule(this::flush, COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Sends every waiting update, in the order they were first published. Versioned deltas are given their versions
+     * here, on the single flushing thread, so they are numbered in the order they are sent.
+     */
+    void flush() {
+        Map<String, Map<Object, Object>> toSend;
+        synchronized (this) {
+            toSend = new LinkedHashMap<>(pending);
+            pending.clear();
+            flushScheduled = false;
+        }
+        for (Map.Entry<String, Map<Object, Object>> destination : toSend.entrySet()) {
+            for (Object payload : destination.getValue().values()) {
+                try {
+                    if (payload instanceof VersionedDelta versionedDelta) {
+                        long version = sharedStateStore.incrementCounter(VERSION_COUNTER_PREFIX + destination.getKey());
+                        payload = versionedDelta.deltaForVersion().apply(version);
+                    }
+                    messagingTemplate.convertAndSend(destination.getKey(), payload);
+                } catch (Exception e) {
+                    logger.error(String.format("Error sending live update to %s: %s", destination.getKey(),
+                            e.getMessage()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Sends anything still waiting and stops the flushing thread.
+     */
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdownNow();
+        flush();
+    }
+
+    /**
+     * A versioned delta waiting to be given its version.
+     * @param deltaForVersion Creates the delta to send, given its version.
+     */
+    private record VersionedDelta(LongFunction<Object> deltaForVersion) {
+    }
+}
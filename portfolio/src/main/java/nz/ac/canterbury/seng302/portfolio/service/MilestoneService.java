@@ -3,6 +3,7 @@ package nz.ac.canterbury.seng302.portfolio.service;
 import nz.ac.canterbury.seng302.portfolio.model.Milestone;
 import nz.ac.canterbury.seng302.portfolio.model.Sprint;
 import nz.ac.canterbury.seng302.portfolio.repository.MilestoneRepository;
+import nz.ac.canterbury.seng302.portfolio.utility.SprintIntervalIndex;
 import org.hibernate.ObjectNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -25,6 +26,11 @@ public class MilestoneService {
     @Autowired
     private MilestoneRepository repository;
 
+    @Autowired
+    private ArtefactNotificationService artefactNotificationService;
+
+    private static final String ARTEFACT_TYPE = "Milestone";
+
     private static final String MILESTONE_NAME_ERROR_MESSAGE = "milestoneAlertMessage";
 
     private static final String MILESTONE_DATE_ERROR_MESSAGE = "milestoneDateAlertMessage";
@@ -46,6 +52,16 @@ public class MilestoneService {
         return repository.findAllByOrderByMilestoneDate();
     }
 
+    /**
+     * Get list of milestones within a range of dates, ordered by date
+     * @param start start of the range
+     * @param end end of the range, exclusive
+     * @return List of milestones in the range ordered by date
+     */
+    public List<Milestone> getMilestonesInRange(Date start, Date end) {
+        return repository.findAllByMilestoneDateGreaterThanEqualAndMilestoneDateBeforeOrderByMilestoneDate(start, end);
+    }
+
     /**
      * Saves the given milestone to the database after removing whitespace from name
      * and returns it.
@@ -58,17 +74,42 @@ public class MilestoneService {
         return repository.save(milestone);
     }
 
+    /**
+     * Saves the given milestone to the database and tells the pages showing milestones who added it.
+     * @param milestone milestone to be saved
+     * @param editorId id of the user adding the milestone
+     * @return saved milestone
+     */
+    public Milestone addMilestone(Milestone milestone, int editorId) {
+        Milestone added = addMilestone(milestone);
+        artefactNotificationService.publishAdded(ARTEFACT_TYPE, added.getId(), added.getMilestoneName(), editorId);
+        return added;
+    }
+
     /**
      * Removes the milestone identified by the given id from the database if it exists.
      * @param id id of the milestone to remove
+     * @return the removed milestone, or empty if there was no milestone with the id
      */
-    public void removeMilestone(Integer id) {
+    public Optional<Milestone> removeMilestone(Integer id) {
         Optional<Milestone> sOptional = repository.findById(id);
 
         if (sOptional.isPresent()) {
             Milestone milestone = sOptional.get();
             repository.deleteById(milestone.getId());
         }
+        return sOptional;
+    }
+
+    /**
+     * Removes the milestone identified by the given id from the database if it exists, and tells the pages showing
+     * milestones who removed it.
+     * @param id id of the milestone to remove
+     * @param editorId id of the user removing the milestone
+     */
+    public void removeMilestone(Integer id, int editorId) {
+        removeMilestone(id).ifPresent(milestone -> artefactNotificationService.publishDeleted(ARTEFACT_TYPE,
+                milestone.getId(), milestone.getMilestoneName(), editorId));
     }
 
     /**
@@ -108,6 +149,18 @@ public class MilestoneService {
         }
     }
 
+    /**
+     * Updates a milestone in the repository and tells the pages showing it who saved it.
+     * @param milestone Edited milestone to save.
+     * @param editorId Id of the user saving the milestone.
+     * @return Saved milestone as it appears in the repository.
+     */
+    public Milestone updateMilestone(Milestone milestone, int editorId) {
+        Milestone saved = updateMilestone(milestone);
+        artefactNotificationService.publishSaved(ARTEFACT_TYPE, saved.getId(), saved.getMilestoneName(), editorId);
+        return saved;
+    }
+
     /***
      * For any events existing, get the sprints colour for its start date if it is within the sprint time slot,
      * and the same is done with the events end date
@@ -117,19 +170,26 @@ public class MilestoneService {
      */
     public List<Milestone> getAllEventsOrderedWithColour(List<Sprint> sprints) {
         List<Milestone> milestoneList = getAllMilestonesOrdered();
+        SprintIntervalIndex sprintIndex = new SprintIntervalIndex(sprints);
         for (Milestone currentMilestone : milestoneList) {
-            // Reset Event's color
-            currentMilestone.setColour(null);
-
-            for (Sprint sprint : sprints) {
-                if (validateMilestoneDateInSprintDateRange(currentMilestone, sprint)) {
-                    currentMilestone.setColour(sprint.getColour());
-                    break;
-                }
-            }
-            repository.save(currentMilestone);
+            int sprint = sprintIndex.firstContaining(currentMilestone.getMilestoneDate().getTime());
+            currentMilestone.setColour(sprint < 0 ? null : sprints.get(sprint).getColour());
         }
-        return getAllMilestonesOrdered();
+        return milestoneList;
+    }
+
+    /**
+     * Gets, for each sprint, the milestones that are within it. This gives the same result as calling
+     * getAllMilestonesOverlappingWithSprint for every sprint, but compares each milestone against the sprints it
+     * is in rather than every sprint.
+     * @param sprints Sprints to get the milestones of.
+     * @param milestones Milestones in chronological order.
+     * @return List where each element is the list of milestones within the sprint with the same index.
+     */
+    public List<List<Milestone>> getMilestonesForEachSprint(List<Sprint> sprints, List<Milestone> milestones) {
+        return new SprintIntervalIndex(sprints).bucket(milestones,
+                milestone -> milestone.getMilestoneDate().getTime(),
+                milestone -> milestone.getMilestoneDate().getTime());
     }
 
     /**
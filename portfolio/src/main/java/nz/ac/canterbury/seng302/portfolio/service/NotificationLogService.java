@@ -0,0 +1,208 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps a bounded log of the live updates sent to pages, so a page that loses its websocket connection can be sent
+ * just the updates it missed when it reconnects, instead of reloading.
+ * Every update passing through the broker to a page destination is given a sequence number, sent to pages in the
+ * "sequence" header. Pages remember the last sequence they saw and ask for everything after it when they reconnect.
+ * The log is kept in the {@link SharedStateStore}, so a page can catch up from any node. With the in-memory store,
+ * sequences start from the time the application started, so a page connected before a restart always sees a gap too
+ * large to fill, and reloads.
+ */
+@Service
+public class NotificationLogService implements ChannelInterceptor {
+
+    /**
+     * Header holding the sequence number of an update.
+     */
+    public static final String SEQUENCE_HEADER = "sequence";
+
+    /**
+     * Number of the most recent updates kept.
+     */
+    static final int CAPACITY = 500;
+
+    private static final String LOG = "live-updates";
+
+    private static final Logger logger = LoggerFactory.getLogger(NotificationLogService.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    SharedStateStore sharedStateStore;
+
+    private static final String LOGGED_PREFIX = "/webSocketGet/";
+
+    /**
+     * Updates about someone editing right now, which are stale by the time a page reconnects.
+     */
+    private static final Set<String> TRANSIENT_DESTINATIONS = Set.of("/webSocketGet/being-edited",
+            "/webSocketGet/stop-being-edited", "/webSocketGet/group-being-edited",
+            "/webSocketGet/group-stop-being-edited");
+
+    /**
+     * An update that was sent to a page destination.
+     */
+    public static class Entry {
+
+        private final long sequence;
+
+        private final String destination;
+
+        private final String body;
+
+        private Entry(long sequence, String destination, String body) {
+            this.sequence = sequence;
+            this.destination = destination;
+            this.body = body;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getDestination() {
+            return destination;
+        }
+
+        public String getBody() {
+            return body;
+        }
+    }
+
+    /**
+     * The updates a reconnecting page missed.
+     */
+    public static class CatchUp {
+
+        private final boolean reloadRequired;
+
+        private final List<Entry> messages;
+
+        private final long latestSequence;
+
+        private CatchUp(boolean reloadRequired, List<Entry> messages, long latestSequence) {
+            this.reloadRequired = reloadRequired;
+            this.messages = messages;
+            this.latestSequence = latestSequence;
+        }
+
+        /**
+         * @return True if the page missed updates no longer in the log, so must reload.
+         */
+        public boolean isReloadRequired() {
+            return reloadRequired;
+        }
+
+        public List<Entry> getMessages() {
+            return messages;
+        }
+
+        /**
+         * @return Sequence of the last update logged, to any destination.
+         */
+        public long getLatestSequence() {
+            return latestSequence;
+        }
+    }
+
+    /**
+     * Logs each update sent to a page destination, and adds its sequence number to it.
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        if (destination == null || !destination.startsWith(LOGGED_PREFIX)
+                || TRANSIENT_DESTINATIONS.contains(destination) || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+        long sequence = append(destination, new String(payload, StandardCharsets.UTF_8));
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        accessor.setNativeHeader(SEQUENCE_HEADER, Long.toString(sequence));
+        return MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+    }
+
+    /**
+     * Adds an update to the log, dropping the oldest if it is full.
+     * @param destination Destination the update was sent to.
+     * @param body JSON body of the update.
+     * @return Sequence number of the update.
+     */
+    long append(String destination, String body) {
+        try {
+            String update = objectMapper.writeValueAsString(Map.of("destination", destination, "body", body));
+            return sharedStateStore.append(LOG, update, CAPACITY);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Live update could not be logged", e);
+        }
+    }
+
+    /**
+     * Gets the sequence of the last update logged, for a page that has not seen any updates yet to start from.
+     * @return Nothing to catch up on, with the latest sequence.
+     */
+    public CatchUp getLatest() {
+        return new CatchUp(false, List.of(), sharedStateStore.getLastSequence(LOG));
+    }
+
+    /**
+     * Gets the updates sent to some destinations after a sequence number.
+     * @param afterSequence Sequence of the last update the page saw.
+     * @param destinations Destinations the page subscribes to.
+     * @return The missed updates, oldest first, or that the page must reload if some are no longer in the log.
+     * Updates are only taken to be missing when the page saw nothing since before the oldest update kept, as an
+     * update may still be being written while the updates before it can already be read.
+     */
+    public CatchUp getSince(long afterSequence, Collection<String> destinations) {
+        long lastSequence = sharedStateStore.getLastSequence(LOG);
+        List<SharedStateStore.Entry> kept = sharedStateStore.readAfter(LOG, afterSequence);
+        // Read after the updates, so any dropped while they were read count as missed
+        boolean isMissingUpdates = afterSequence + 1 < sharedStateStore.getFirstSequence(LOG);
+        if (afterSequence > lastSequence || isMissingUpdates) {
+            return new CatchUp(true, List.of(), lastSequence);
+        }
+        Set<String> wanted = Set.copyOf(destinations);
+        List<Entry> missed = new ArrayList<>();
+        for (SharedStateStore.Entry entry : kept) {
+            Entry update = readUpdate(entry);
+            if (update == null) {
+                return new CatchUp(true, List.of(), lastSequence);
+            }
+            if (wanted.contains(update.getDestination())) {
+                missed.add(update);
+            }
+        }
+        return new CatchUp(false, missed, lastSequence);
+    }
+
+    private Entry readUpdate(SharedStateStore.Entry entry) {
+        try {
+            Map<String, String> update = objectMapper.readValue(entry.getValue(), new TypeReference<>() {});
+            return new Entry(entry.getSequence(), update.get("destination"), update.get("body"));
+        } catch (JsonProcessingException e) {
+            logger.error(String.format("Logged live update %d could not be read: %s", entry.getSequence(),
+                    e.getMessage()));
+            return null;
+        }
+    }
+}
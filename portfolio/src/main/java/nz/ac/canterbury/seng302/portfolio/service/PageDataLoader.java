@@ -0,0 +1,156 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import io.grpc.Status;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Loads the independent pieces of data a page needs at the same time, so a page takes as long as its slowest piece of
+ * data rather than all of them added together.
+ * Calls to the identity provider are started with the gRPC future stubs and adapted with {@link #fromGrpc}. Other
+ * blocking loads, such as calls to GitLab, run on a bounded pool with {@link #load}. A page starts every load it needs
+ * and then joins each one before it is rendered.
+ */
+@Service
+public class PageDataLoader {
+
+    /**
+     * Most loads waiting for a thread. Loads started when this many are waiting run on the thread that started them.
+     */
+    static final int MAX_QUEUED_LOADS = 100;
+
+    private final long timeoutMillis;
+
+    private final ExecutorService executor;
+
+    /**
+     * Creates the loader with the pool size and timeout from the application properties.
+     * @param threads number of threads running loads
+     * @param timeoutMillis longest a page waits for any one load
+     */
+    @Autowired
+    public PageDataLoader(@Value("${portfolio.page-load.threads:8}") int threads,
+                          @Value("${portfolio.page-load.timeout-millis:10000}") long timeoutMillis) {
+        this(timeoutMillis, new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(MAX_QUEUED_LOADS), runnable -> {
+                    Thread thread = new Thread(runnable, "page-load");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    PageDataLoader(long timeoutMillis, ExecutorService executor) {
+        this.timeoutMillis = timeoutMillis;
+        this.executor = executor;
+    }
+
+    /**
+     * Starts a blocking load on the pool. The load sees the same request and signed in user as the thread starting it,
+     * so calls it makes to the identity provider are authenticated as they would be on the request thread. If the pool
+     * is full the load runs straight away on the thread starting it instead.
+     * @param loader load to run
+     * @param <T> type of the data loaded
+     * @return the data loaded, completed with the exception the load threw if it fails
+     */
+    public <T> CompletableFuture<T> load(Supplier<T> loader) {
+        RequestAttributes requestAttributes = RequestContextHolder.getRequestAttributes();
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                RequestContextHolder.setRequestAttributes(requestAttributes);
+                SecurityContextHolder.setContext(securityContext);
+                try {
+                    return loader.get();
+                } finally {
+                    RequestContextHolder.resetRequestAttributes();
+                    SecurityContextHolder.clearContext();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            try {
+                return CompletableFuture.completedFuture(loader.get());
+            } catch (RuntimeException loadException) {
+                return CompletableFuture.failedFuture(loadException);
+            }
+        }
+    }
+
+    /**
+     * Adapts the result of a call made with a gRPC future stub.
+     * @param future result of the call
+     * @param <T> type of the response
+     * @return the response, completed with the StatusRuntimeException the call failed with if it fails
+     */
+    public static <T> CompletableFuture<T> fromGrpc(ListenableFuture<T> future) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Futures.addCallback(future, new FutureCallback<>() {
+            @Override
+            public void onSuccess(T value) {
+                result.complete(value);
+            }
+
+            @Override
+            public void onFailure(Throwable throwable) {
+                result.completeExceptionally(throwable);
+            }
+        }, MoreExecutors.directExecutor());
+        // Cancelling the result, such as when a page gives up on it, cancels the call
+        result.whenComplete((value, throwable) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Waits for a load. A load that fails throws the same exception it would have thrown if it had been called
+     * directly, so pages handle failures as they did before.
+     * @param future result of the load
+     * @param <T> type of the data loaded
+     * @return the data loaded
+     * @throws io.grpc.StatusRuntimeException with the deadline exceeded status if the load takes longer than the timeout
+     */
+    public <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw Status.DEADLINE_EXCEEDED.withDescription("Page data took longer than " + timeoutMillis + " ms")
+                    .asRuntimeException();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Status.CANCELLED.withDescription("Interrupted waiting for page data").withCause(e)
+                    .asRuntimeException();
+        }
+    }
+
+    /**
+     * Stops running loads.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,40 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.shared.util.BoundedPasswordHasher;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Hashes the passwords of new accounts and changed passwords off the request threads, with the same hashing the
+ * identity provider checks them with. See {@link BoundedPasswordHasher}.
+ */
+@Service
+public class PasswordHasher extends BoundedPasswordHasher {
+
+    /**
+     * Creates the hasher with the pool size, queue limit and timeout from the application properties.
+     * @param threads number of threads hashing passwords
+     * @param queueLimit most hashes that may wait for a thread
+     * @param timeoutMillis longest a caller waits for its hash, including the time spent waiting for a thread
+     */
+    @Autowired
+    public PasswordHasher(@Value("${portfolio.password-hashing.threads:2}") int threads,
+                          @Value("${portfolio.password-hashing.queue-limit:16}") int queueLimit,
+                          @Value("${portfolio.password-hashing.timeout-millis:10000}") long timeoutMillis) {
+        super(threads, queueLimit, timeoutMillis);
+    }
+
+    PasswordHasher(long timeoutMillis, ExecutorService executor) {
+        super(timeoutMillis, executor);
+    }
+
+    @Override
+    @PreDestroy
+    public void shutdown() {
+        super.shutdown();
+    }
+}
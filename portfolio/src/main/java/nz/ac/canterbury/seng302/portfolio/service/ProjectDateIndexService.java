@@ -0,0 +1,92 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.repository.DeadlinesRepository;
+import nz.ac.canterbury.seng302.portfolio.repository.EventRepository;
+import nz.ac.canterbury.seng302.portfolio.repository.MilestoneRepository;
+import nz.ac.canterbury.seng302.portfolio.repository.SprintRepository;
+import nz.ac.canterbury.seng302.portfolio.utility.ProjectDateIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Provides the date index of the project's artefacts used for date validation. The index is rebuilt the first time
+ * it is needed after any sprint, event, deadline or milestone is written, which is tracked by the project version.
+ */
+@Service
+public class ProjectDateIndexService {
+
+    @Autowired
+    private SprintRepository sprintRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private MilestoneRepository milestoneRepository;
+
+    @Autowired
+    private DeadlinesRepository deadlinesRepository;
+
+    @Autowired
+    private ProjectVersionService projectVersionService;
+
+    /**
+     * An index along with the project version it was built from.
+     */
+    private static class VersionedIndex {
+        private final long version;
+        private final ProjectDateIndex index;
+
+        private VersionedIndex(long version, ProjectDateIndex index) {
+            this.version = version;
+            this.index = index;
+        }
+    }
+
+    private volatile VersionedIndex current;
+
+    /**
+     * Gets the index of the current artefact dates, building it if anything has changed since it was last built.
+     * @return Index of the artefact dates.
+     */
+    public ProjectDateIndex getIndex() {
+        // The version is read before building, so a change made while building causes another rebuild next time
+        long version = projectVersionService.getVersion();
+        VersionedIndex versionedIndex = current;
+        if (versionedIndex == null || versionedIndex.version != version) {
+            versionedIndex = new VersionedIndex(version, buildIndex());
+            current = versionedIndex;
+        }
+        return versionedIndex.index;
+    }
+
+    /**
+     * Builds the index from all sprints and, for the other types of artefact, only the earliest and latest.
+     * @return The new index.
+     */
+    private ProjectDateIndex buildIndex() {
+        return new ProjectDateIndex(
+                sprintRepository.findAllByOrderBySprintStartDate(),
+                firstAndLast(eventRepository.findFirstByOrderByEventStartDate(),
+                        eventRepository.findFirstByOrderByEventEndDateDesc()),
+                firstAndLast(milestoneRepository.findFirstByOrderByMilestoneDate(),
+                        milestoneRepository.findFirstByOrderByMilestoneDateDesc()),
+                firstAndLast(deadlinesRepository.findFirstByOrderByDeadlineDate(),
+                        deadlinesRepository.findFirstByOrderByDeadlineDateDesc())
+        );
+    }
+
+    private static <T> List<T> firstAndLast(T first, T last) {
+        List<T> artefacts = new ArrayList<>(2);
+        if (first != null) {
+            artefacts.add(first);
+        }
+        if (last != null) {
+            artefacts.add(last);
+        }
+        return artefacts;
+    }
+}
@@ -6,6 +6,8 @@ import org.hibernate.ObjectNotFoundException;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.LoggerFactory;
 
 import java.util.List;
@@ -22,6 +24,9 @@ public class ProjectService {
     @Autowired
     private ProjectRepository repository;
 
+    @Autowired
+    private ArtefactNotificationService artefactNotificationService;
+
     private static final Logger logger = LoggerFactory.getLogger(ProjectService.class);
 
 
@@ -89,11 +94,26 @@ public class ProjectService {
         }
     }
 
+    /**
+     * Updates a project in the Database and tells the pages showing it who saved it.
+     * @param project Project with new data
+     * @param editorId Id of the user saving the project
+     * @return New Project that is saved in the database
+     */
+    public Project updateProject(Project project, int editorId) {
+        Project saved = updateProject(project);
+        artefactNotificationService.publishSaved("Project", saved.getId(), saved.getName(), editorId);
+        return saved;
+    }
+
     /**
      * Saves a project in the Database and returns the saved project.
+     * Runs in its own transaction, so the default project can be created while the read-only details page is
+     * rendering.
      * @param project New project
      * @return New Project that is saved in the database
      */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public Project saveProject(Project project) {
         Project newProject;
         try {
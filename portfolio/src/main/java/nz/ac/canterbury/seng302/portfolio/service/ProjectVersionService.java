@@ -0,0 +1,54 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps a version number for the project's dated data, which goes up whenever the project or any of its sprints,
+ * events, deadlines or milestones is saved or deleted. The version is used as an ETag, so clients can skip
+ * downloading calendar data that has not changed. The version is kept in the {@link SharedStateStore}, so every node
+ * gives the same ETag for the same data.
+ */
+@Service
+public class ProjectVersionService {
+
+    private static final String COUNTER = "project-version";
+
+    @Autowired
+    private SharedStateStore sharedStateStore;
+
+    /**
+     * Records that project data has changed. Inside a transaction the version goes up once it commits, so a request
+     * that reads the version before the change is visible can never pair the new version with the old data.
+     */
+    public void markChanged() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sharedStateStore.incrementCounter(COUNTER);
+                }
+            });
+        } else {
+            sharedStateStore.incrementCounter(COUNTER);
+        }
+    }
+
+    /**
+     * Gets the current version of the project data.
+     * @return Version number, which never repeats a version from before a restart.
+     */
+    public long getVersion() {
+        return sharedStateStore.getCounter(COUNTER);
+    }
+
+    /**
+     * Gets a strong ETag for the current version of the project data.
+     * @return Quoted ETag value.
+     */
+    public String getETag() {
+        return "\"" + getVersion() + "\"";
+    }
+}
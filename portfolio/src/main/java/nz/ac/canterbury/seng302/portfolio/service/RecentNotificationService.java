@@ -0,0 +1,89 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nz.ac.canterbury.seng302.portfolio.model.NotificationResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the most recent notifications of each page, so a page reloaded because of a change can show toasts for it.
+ * Notifications are kept in the {@link SharedStateStore}, so the toasts are the same whichever node the page is
+ * reloaded from. Notifications are never removed, they are skipped once they are too old to show.
+ */
+@Service
+public class RecentNotificationService {
+
+    /**
+     * Notifications shown on the project details page.
+     */
+    public static final String DETAILS_FEED = "details";
+
+    /**
+     * Notifications shown on the group page.
+     */
+    public static final String GROUPS_FEED = "groups";
+
+    /**
+     * How long after it is created a notification is still shown, in seconds.
+     */
+    public static final long SECONDS_TO_DISPLAY = 5;
+
+    /**
+     * Number of the most recent notifications kept for each page, which is the most toasts a page shows.
+     */
+    static final int CAPACITY = 3;
+
+    private static final String LOG_PREFIX = "notifications:";
+
+    private static final Logger logger = LoggerFactory.getLogger(RecentNotificationService.class);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Autowired
+    private SharedStateStore sharedStateStore;
+
+    /**
+     * Adds a notification, replacing the oldest if the page already has the most it keeps.
+     * @param feed Page the notification is shown on, e.g. DETAILS_FEED.
+     * @param notification Notification to add.
+     */
+    public void add(String feed, NotificationResponse notification) {
+        try {
+            sharedStateStore.append(LOG_PREFIX + feed, objectMapper.writeValueAsString(notification), CAPACITY);
+        } catch (JsonProcessingException e) {
+            logger.error(String.format("Notification could not be saved: %s", e.getMessage()));
+        }
+    }
+
+    /**
+     * Gets a page's notifications recent enough to show, oldest first.
+     * @param feed Page the notifications are shown on.
+     * @param nowEpochSecond Current time, in seconds since the epoch.
+     * @return Notifications created at most SECONDS_TO_DISPLAY seconds ago.
+     */
+    public List<NotificationResponse> getRecent(String feed, long nowEpochSecond) {
+        String log = LOG_PREFIX + feed;
+        List<SharedStateStore.Entry> kept = sharedStateStore.readAfter(log,
+                sharedStateStore.getFirstSequence(log) - 1);
+        List<NotificationResponse> recent = new ArrayList<>(CAPACITY);
+        // Notifications added while reading are skipped if they push older ones out of the newest few
+        for (SharedStateStore.Entry entry : kept.subList(Math.max(0, kept.size() - CAPACITY), kept.size())) {
+            try {
+                NotificationResponse notification = objectMapper.readValue(entry.getValue(),
+                        NotificationResponse.class);
+                if (nowEpochSecond - notification.getDateOfCreation() <= SECONDS_TO_DISPLAY) {
+                    recent.add(notification);
+                }
+            } catch (JsonProcessingException e) {
+                logger.error(String.format("Notification could not be read: %s", e.getMessage()));
+            }
+        }
+        return recent;
+    }
+}
@@ -0,0 +1,75 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.model.Category;
+import nz.ac.canterbury.seng302.portfolio.model.Project;
+import nz.ac.canterbury.seng302.portfolio.model.Sprint;
+import nz.ac.canterbury.seng302.portfolio.model.Tag;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reports on and invalidates the second-level cache holding the project, sprints, categories and tags.
+ * Writes made through JPA update the cache themselves, eviction is only needed when the tables are changed
+ * outside the portfolio (e.g. directly in the database).
+ */
+@Service
+public class ReferenceDataCacheService {
+
+    /**
+     * Entities that are held in the second-level cache.
+     */
+    static final List<Class<?>> CACHED_ENTITIES = List.of(Project.class, Sprint.class, Category.class, Tag.class);
+
+    private static final Logger logger = LoggerFactory.getLogger(ReferenceDataCacheService.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Evicts every cached project, sprint, category and tag, along with all cached query results.
+     */
+    public void evictAll() {
+        javax.persistence.Cache cache = entityManagerFactory.getCache();
+        for (Class<?> entity : CACHED_ENTITIES) {
+            cache.evict(entity);
+        }
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegions();
+        logger.info("Evicted reference data from the second-level cache");
+    }
+
+    /**
+     * Gets the hit, miss and put counts of each second-level cache region, and of the query cache as a whole.
+     * @return Map of region name to a map of statistic name to count.
+     */
+    public Map<String, Map<String, Long>> getStatistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Map<String, Map<String, Long>> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getCacheRegionStatistics(regionName);
+            if (region != null) {
+                regions.put(regionName, toCounts(region.getHitCount(), region.getMissCount(), region.getPutCount()));
+            }
+        }
+        regions.put("queries", toCounts(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(),
+                statistics.getQueryCachePutCount()));
+        return regions;
+    }
+
+    private static Map<String, Long> toCounts(long hits, long misses, long puts) {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("hits", hits);
+        counts.put("misses", misses);
+        counts.put("puts", puts);
+        return counts;
+    }
+}
@@ -7,8 +7,8 @@ import nz.ac.canterbury.seng302.shared.identityprovider.*;
 import nz.ac.canterbury.seng302.shared.util.FileUploadStatusResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
-import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
 import javax.imageio.stream.ImageInputStream;
@@ -18,6 +18,7 @@ import java.io.File;
 import java.io.IOException;
 import java.text.MessageFormat;
 import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
 
 /***
  * Contains methods to communicate with Idp(identity provider)
@@ -31,7 +32,11 @@ public class RegisterClientService {
     @GrpcClient(value = "identity-provider-grpc-server")
     private UserAccountServiceGrpc.UserAccountServiceStub userAccountNonBlockingStub;
 
-    Pbkdf2PasswordEncoder pbkdf2PasswordEncoder = new Pbkdf2PasswordEncoder();
+    @GrpcClient(value = "identity-provider-grpc-server")
+    private UserAccountServiceGrpc.UserAccountServiceFutureStub userAccountFutureStub;
+
+    @Autowired
+    private PasswordHasher passwordHasher;
 
     private static final Logger logger = LoggerFactory.getLogger(RegisterClientService.class);
 
@@ -80,6 +85,17 @@ public class RegisterClientService {
         return userAccountStub.getUserAccountById(response);
     }
 
+    /**
+     * Starts getting the users' data from the IDP based on the given userId, so other data can be loaded while it is
+     * fetched.
+     * @param userId Id of the user wanted
+     * @return CompletableFuture completed with the UserResponse that has the users' information saved in it
+     */
+    public CompletableFuture<UserResponse> getUserDataAsync(final int userId) {
+        GetUserByIdRequest request = GetUserByIdRequest.newBuilder().setId(userId).build();
+        return PageDataLoader.fromGrpc(userAccountFutureStub.getUserAccountById(request));
+    }
+
     /**
      * Edits a users' data in the IDP based on the given userId.
      * @param userId Id of the user
@@ -114,7 +130,7 @@ public class RegisterClientService {
      * @return ChangePasswordResponse that holds a conformation of whether the new password was saved.
      */
     public ChangePasswordResponse changePassword(final int userId, final String currentPassword, final String newPassword) {
-        String encodedNewPassword = pbkdf2PasswordEncoder.encode(newPassword);
+        String encodedNewPassword = passwordHasher.encode(newPassword);
         ChangePasswordRequest response = ChangePasswordRequest.newBuilder()
                 .setUserId(userId)
                 .setCurrentPassword(currentPassword)
@@ -129,7 +145,7 @@ public class RegisterClientService {
      * @return encrypted password
      */
     public String encryptPassword(String password) {
-        return pbkdf2PasswordEncoder.encode(password);
+        return passwordHasher.encode(password);
     }
 
 
@@ -0,0 +1,81 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import java.util.List;
+
+/**
+ * Holds the state every portfolio node must agree on, such as the notifications recent enough to show as toasts and
+ * the versions of live update destinations, so a user sees the same whichever node serves them.
+ * Counters and log sequences only ever go up, but do not start from 0, so they should only be compared with values
+ * from the same store. Log sequences may skip values, so only their order means anything. Values become readable in
+ * sequence order, so a reader that has seen a sequence never later finds an earlier one.
+ */
+public interface SharedStateStore {
+
+    /**
+     * A value added to a log.
+     */
+    class Entry {
+
+        private final long sequence;
+
+        private final String value;
+
+        public Entry(long sequence, String value) {
+            this.sequence = sequence;
+            this.value = value;
+        }
+
+        public long getSequence() {
+            return sequence;
+        }
+
+        public String getValue() {
+            return value;
+        }
+    }
+
+    /**
+     * Adds one to a counter.
+     * @param counter Name of the counter.
+     * @return The counter's new value.
+     */
+    long incrementCounter(String counter);
+
+    /**
+     * Gets the value of a counter.
+     * @param counter Name of the counter.
+     * @return The counter's value, which is its starting value if it has never been incremented.
+     */
+    long getCounter(String counter);
+
+    /**
+     * Adds a value to the end of a log, dropping the oldest values once it holds more than its capacity.
+     * @param log Name of the log.
+     * @param value Value to add.
+     * @param capacity Number of the most recent values kept.
+     * @return Sequence of the value, greater than the sequence of the value before it.
+     */
+    long append(String log, String value, int capacity);
+
+    /**
+     * Gets the values still kept in a log that were added after a sequence.
+     * @param log Name of the log.
+     * @param afterSequence Sequence to read after.
+     * @return The values, oldest first.
+     */
+    List<Entry> readAfter(String log, long afterSequence);
+
+    /**
+     * Gets the sequence of the oldest value still kept in a log.
+     * @param log Name of the log.
+     * @return The sequence, which is one more than the log's last sequence if it holds nothing.
+     */
+    long getFirstSequence(String log);
+
+    /**
+     * Gets the sequence of the last value added to a log.
+     * @param log Name of the log.
+     * @return The sequence, which is the log's starting sequence if nothing has been added.
+     */
+    long getLastSequence(String log);
+}
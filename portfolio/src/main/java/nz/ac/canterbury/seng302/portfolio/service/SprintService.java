@@ -3,17 +3,14 @@ package nz.ac.canterbury.seng302.portfolio.service;
 import nz.ac.canterbury.seng302.portfolio.model.Project;
 import nz.ac.canterbury.seng302.portfolio.model.Sprint;
 import nz.ac.canterbury.seng302.portfolio.repository.SprintRepository;
+import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
 import org.hibernate.ObjectNotFoundException;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.text.SimpleDateFormat;
 import java.util.*;
-import java.time.Instant;
 import java.time.LocalDate;
-import java.util.Calendar;
+import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.List;
 import java.util.Optional;
@@ -35,7 +32,15 @@ public class SprintService {
     @Autowired
     private ProjectService projectService;
 
-    private static final Logger logger = LoggerFactory.getLogger(SprintService.class);
+    @Autowired
+    private ArtefactNotificationService artefactNotificationService;
+
+    private static final String ARTEFACT_TYPE = "Sprint";
+
+    /**
+     * Colours given to sprints in chronological order, repeating once they run out.
+     */
+    public static final List<String> SPRINT_COLOURS = List.of("#5897fc", "#a758fc", "#fc58c3", "#9e1212", "#c65102", "#d5b60a", "#004400", " #11887b");
 
     /**
      * Get list of all sprints
@@ -84,6 +89,18 @@ public class SprintService {
         }
     }
 
+    /**
+     * Updates a sprint and tells the pages showing sprints who saved it.
+     * @param sprint Sprint to update it to
+     * @param editorId Id of the user saving the sprint
+     * @return Newly edited sprint
+     */
+    public Sprint updateSprint(Sprint sprint, int editorId) {
+        Sprint saved = updateSprint(sprint);
+        artefactNotificationService.publishSaved(ARTEFACT_TYPE, saved.getId(), saved.getName(), editorId);
+        return saved;
+    }
+
     /**
      * Add a new sprint to the database. It gives the new sprint an ID based on sprintIdCount.
      * @param sprint New sprint to add
@@ -94,17 +111,41 @@ public class SprintService {
         return sprint;
     }
 
+    /**
+     * Adds a new sprint to the database and tells the pages showing sprints who added it.
+     * @param sprint New sprint to add
+     * @param editorId Id of the user adding the sprint
+     * @return Sprint that was added to the database
+     */
+    public Sprint addSprint(Sprint sprint, int editorId) {
+        Sprint added = addSprint(sprint);
+        artefactNotificationService.publishAdded(ARTEFACT_TYPE, added.getId(), added.getName(), editorId);
+        return added;
+    }
+
     /**
      * Remove a sprint from the database.
      * @param id Id of the sprint being removed
+     * @return the removed sprint, or empty if there was no sprint with the id
      */
-    public void removeSprint(Integer id) {
+    public Optional<Sprint> removeSprint(Integer id) {
         Optional<Sprint> sOptional = repository.findById(id);
 
         if (sOptional.isPresent()) {
             Sprint sprintUpdate = sOptional.get();
             repository.deleteById(sprintUpdate.getId());
         }
+        return sOptional;
+    }
+
+    /**
+     * Removes a sprint from the database and tells the pages showing sprints who removed it.
+     * @param id Id of the sprint being removed
+     * @param editorId Id of the user removing the sprint
+     */
+    public void removeSprint(Integer id, int editorId) {
+        removeSprint(id).ifPresent(sprint ->
+                artefactNotificationService.publishDeleted(ARTEFACT_TYPE, sprint.getId(), sprint.getName(), editorId));
     }
 
     /**
@@ -125,6 +166,26 @@ public class SprintService {
      * @return true if update is successful, otherwise false
      */
     public boolean updateSprintDates(Integer id, String sprintStartDate, String sprintEndDate) {
+        return saveSprintDates(id, sprintStartDate, sprintEndDate).isPresent();
+    }
+
+    /**
+     * Updates the sprint identified by the given id with the given dates, and tells the pages showing sprints who
+     * saved it.
+     * @param id id of sprint to update
+     * @param sprintStartDate new start date
+     * @param sprintEndDate new end date
+     * @param editorId Id of the user saving the sprint
+     * @return true if update is successful, otherwise false
+     */
+    public boolean updateSprintDates(Integer id, String sprintStartDate, String sprintEndDate, int editorId) {
+        Optional<Sprint> saved = saveSprintDates(id, sprintStartDate, sprintEndDate);
+        saved.ifPresent(sprint ->
+                artefactNotificationService.publishSaved(ARTEFACT_TYPE, sprint.getId(), sprint.getName(), editorId));
+        return saved.isPresent();
+    }
+
+    private Optional<Sprint> saveSprintDates(Integer id, String sprintStartDate, String sprintEndDate) {
         Optional<Sprint> sOptional = repository.findById(id);
 
         if (sOptional.isPresent()) {
@@ -132,9 +193,8 @@ public class SprintService {
             sprintUpdate.setStartDate(calendarDateStringToDate(sprintStartDate, false));
             sprintUpdate.setEndDate(calendarDateStringToDate(sprintEndDate, true));
             repository.save(sprintUpdate);
-            return true;
         }
-        return false;
+        return sOptional;
     }
 
     /**
@@ -144,19 +204,12 @@ public class SprintService {
      * @return the given date, as a date object
      */
     public Date calendarDateStringToDate(String dateString, boolean isEndDate) {
-        Date date = null;
-        try {
-            date = new SimpleDateFormat("yyyy-MM-dd").parse(dateString);
-            if (isEndDate) {
-                Calendar calendar = Calendar.getInstance();
-                calendar.setTime(date);
-                calendar.add(Calendar.MINUTE, -1);
-                date = calendar.getTime();
-            }
-        } catch (Exception e) {
-            logger.error(String.format("Error parsing date: %s", e.getMessage()));
+        LocalDate day = DateUtility.calendarStringToLocalDate(dateString);
+        if (day == null) {
+            return null;
         }
-        return date;
+        LocalDateTime startOfDay = day.atStartOfDay();
+        return DateUtility.toDate(isEndDate ? startOfDay.minusMinutes(1) : startOfDay);
     }
 
     /**
@@ -173,7 +226,7 @@ public class SprintService {
                 blankSprint.setStartDate(project.getStartDate());
                 blankSprint.setEndDate(getUpdatedDate(project.getStartDate(), 0, 3));
             } catch (Exception e) {
-                Date now = Date.from(Instant.from(LocalDate.now()));
+                Date now = DateUtility.toDate(LocalDate.now());
                 blankSprint.setStartDate(now);
                 blankSprint.setEndDate(getUpdatedDate(now, 0, 3));
             }
@@ -209,18 +262,17 @@ public class SprintService {
 
     /***
      * Function to get all sprints in chronological order,
-     * add colour for each sprint and save to repository
+     * add colour for each sprint. The colours are only set in memory, nothing is written to the repository
      *
      * @return sprints in chronological order
      */
     public List<Sprint> getAllSprintsOrderedWithColour() {
         List<Sprint> sprints = getAllSprintsOrdered();
-        ArrayList<String> colours = new ArrayList<>(Arrays.asList("#5897fc", "#a758fc", "#fc58c3", "#9e1212", "#c65102", "#d5b60a", "#004400", " #11887b"));
+        List<String> colours = SPRINT_COLOURS;
         int colIndex = 0;
 
         for (Sprint sprint : sprints) {
             sprint.setColour(colours.get(colIndex));
-            repository.save(sprint);
 
             if (colIndex == (colours.size() - 1)) { // List max
                 colIndex = 0;
@@ -228,6 +280,6 @@ public class SprintService {
                 colIndex++;
             }
         }
-        return getAllSprintsOrdered();
+        return sprints;
     }
 }
@@ -2,11 +2,19 @@ package nz.ac.canterbury.seng302.portfolio.utility;
 
 import com.google.protobuf.Timestamp;
 
-import java.util.Calendar;
+import java.text.ParsePosition;
 import java.util.Date;
-import java.text.SimpleDateFormat;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeFormatterBuilder;
+import java.time.format.DateTimeParseException;
 import java.time.Period;
+import java.time.temporal.TemporalAccessor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -17,6 +25,52 @@ public class DateUtility {
 
     private static final Logger logger = LoggerFactory.getLogger(DateUtility.class);
 
+    /*
+     * Formatters are immutable and thread safe, so they are shared rather than created for each date formatted.
+     */
+
+    /**
+     * Date as shown on forms and pages, e.g. 01/Jan/2022.
+     */
+    public static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd/MMM/yyyy");
+
+    /**
+     * Date with the full month name, e.g. 01 January 2022.
+     */
+    public static final DateTimeFormatter LONG_DATE_FORMAT = DateTimeFormatter.ofPattern("dd MMMM yyyy");
+
+    /**
+     * Three letter month, e.g. Jan.
+     */
+    public static final DateTimeFormatter MONTH_FORMAT = DateTimeFormatter.ofPattern("MMM");
+
+    /**
+     * Time in 12-hour format, e.g. 3:45 PM.
+     */
+    public static final DateTimeFormatter TIME_12_HOUR_FORMAT = DateTimeFormatter.ofPattern("h:mm a");
+
+    /**
+     * Time in 24-hour format, with hours from 1 to 24, e.g. 15:45.
+     */
+    public static final DateTimeFormatter TIME_24_HOUR_FORMAT = DateTimeFormatter.ofPattern("kk:mm");
+
+    /**
+     * Reads dates entered as DATE_FORMAT, ignoring case and allowing a single digit day.
+     */
+    private static final DateTimeFormatter DATE_INPUT_FORMAT = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive().appendPattern("d/MMM/yyyy").toFormatter();
+
+    /**
+     * Reads dates and times entered as DATE_FORMAT followed by TIME_12_HOUR_FORMAT, e.g. 12/Jul/2022 3:45 pm.
+     */
+    private static final DateTimeFormatter DATE_TIME_INPUT_FORMAT = new DateTimeFormatterBuilder()
+            .parseCaseInsensitive().appendPattern("d/MMM/yyyy h:mm a").toFormatter();
+
+    /**
+     * Reads days sent by the calendar as year-month-day, allowing single digit months and days, e.g. 2022-07-12.
+     */
+    private static final DateTimeFormatter CALENDAR_DATE_INPUT_FORMAT = DateTimeFormatter.ofPattern("yyyy-M-d");
+
     private DateUtility() {
         // Empty initializer
     }
@@ -28,9 +82,7 @@ public class DateUtility {
      */
     public static String getDateAddedString(Timestamp dateAdded) {
         if (dateAdded != null) {
-            Date date = new Date(dateAdded.getSeconds() * 1000);
-            SimpleDateFormat dateFormat = new SimpleDateFormat("dd MMMM yyyy");
-            return dateFormat.format(date);
+            return LONG_DATE_FORMAT.format(Instant.ofEpochSecond(dateAdded.getSeconds()).atZone(ZoneId.systemDefault()));
         } else {
             return null;
         }
@@ -111,25 +163,156 @@ public class DateUtility {
     public static Date stringToDateTime(String dateTimeString) {
         Date date = null;
         try {
-            date = new SimpleDateFormat("dd/MMM/yyyy h:mm a").parse(dateTimeString);
+            date = toDate(LocalDateTime.from(parseStart(dateTimeString, DATE_TIME_INPUT_FORMAT)));
+        } catch (Exception e) {
+            logger.error(String.format("Error parsing date: %s", e.getMessage()));
+        }
+        return date;
+    }
+
+    /**
+     * Returns the given string converted to a day. If the string is not correctly formatted, returns null.
+     * Anything after the date, such as a time, is ignored.
+     * Accepted format example: 12/Jul/2022
+     * @param dateString string to convert
+     * @return day of the string if it's formatted correctly, otherwise null
+     */
+    public static LocalDate stringToLocalDate(String dateString) {
+        LocalDate date = null;
+        try {
+            date = LocalDate.from(parseStart(dateString, DATE_INPUT_FORMAT));
         } catch (Exception e) {
             logger.error(String.format("Error parsing date: %s", e.getMessage()));
         }
         return date;
     }
 
+    /**
+     * Returns the given calendar day string converted to a day. If the string is not correctly formatted, returns
+     * null. Anything after the date, such as a time, is ignored.
+     * Accepted format example: 2022-07-12
+     * @param dateString string to convert
+     * @return day of the string if it's formatted correctly, otherwise null
+     */
+    public static LocalDate calendarStringToLocalDate(String dateString) {
+        LocalDate date = null;
+        try {
+            date = LocalDate.from(parseStart(dateString, CALENDAR_DATE_INPUT_FORMAT));
+        } catch (Exception e) {
+            logger.error(String.format("Error parsing date: %s", e.getMessage()));
+        }
+        return date;
+    }
+
+    /**
+     * Parses the start of the text, allowing anything after it.
+     */
+    private static TemporalAccessor parseStart(String text, DateTimeFormatter formatter) {
+        return formatter.parse(text, new ParsePosition(0));
+    }
+
+    /**
+     * Returns the given ISO-8601 string converted to a date object, as sent by FullCalendar when it requests events.
+     * The string may be a date, a local date and time, or a date and time with an offset. Dates and local times are
+     * taken to be in the server's time zone. If the string is not correctly formatted, returns null.
+     * Accepted format examples: 2022-07-12, 2022-07-12T00:00:00, 2022-07-12T00:00:00+12:00
+     * @param isoString string to convert
+     * @return string converted to a date if it's formatted correctly, otherwise null
+     */
+    public static Date isoStringToDate(String isoString) {
+        try {
+            return Date.from(OffsetDateTime.parse(isoString).toInstant());
+        } catch (DateTimeParseException ignored) {
+            // Not a date and time with an offset, try without one
+        }
+        try {
+            return Date.from(LocalDateTime.parse(isoString).atZone(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException ignored) {
+            // Not a date and time, try a date
+        }
+        try {
+            return Date.from(LocalDate.parse(isoString).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        } catch (DateTimeParseException e) {
+            logger.error(String.format("Error parsing date: %s", e.getMessage()));
+            return null;
+        }
+    }
+
     /**
      * Returns the given date but with the time set to 23:59:59.
      * @param date date to be converted
      * @return date with time set to 23:59:59
      */
     public static Date setToEndOfDay(Date date) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
-        calendar.set(Calendar.HOUR_OF_DAY, 23);
-        calendar.set(Calendar.MINUTE, 59);
-        calendar.set(Calendar.SECOND, 59);
-        return calendar.getTime();
+        return toDate(toLocalDateTime(date).withHour(23).withMinute(59).withSecond(59));
+    }
+
+    /**
+     * Returns the day the given date falls on in the server's time zone. Works for java.sql dates too, which do not
+     * support toInstant().
+     * @param date date to be converted
+     * @return day of the date
+     */
+    public static LocalDate toLocalDate(Date date) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate();
+    }
+
+    /**
+     * Returns the date and time of the given date in the server's time zone.
+     * @param date date to be converted
+     * @return date and time of the date
+     */
+    public static LocalDateTime toLocalDateTime(Date date) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    /**
+     * Returns the start of the given day in the server's time zone as a date object.
+     * @param date day to be converted
+     * @return date at midnight at the start of the day
+     */
+    public static Date toDate(LocalDate date) {
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Returns the given date and time in the server's time zone as a date object.
+     * @param dateTime date and time to be converted
+     * @return date of the date and time
+     */
+    public static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    /**
+     * Returns the given day at the hour and minute of another date, or at the start of the day if there is no other
+     * date. Used to change the day of an artefact without changing its time.
+     * @param day day of the new date, may be null
+     * @param time date to take the hour and minute from, may be null
+     * @return the day at the time, or null if there is no day
+     */
+    public static Date atTimeOf(LocalDate day, Date time) {
+        if (day == null) {
+            return null;
+        }
+        if (time == null) {
+            return toDate(day);
+        }
+        LocalDateTime dateTime = toLocalDateTime(time);
+        return toDate(day.atTime(LocalTime.of(dateTime.getHour(), dateTime.getMinute())));
+    }
+
+    /**
+     * Formats the given date in the server's time zone.
+     * @param date date to be formatted
+     * @param formatter one of the shared formats
+     * @return formatted date, or null if there is no date
+     */
+    public static String format(Date date, DateTimeFormatter formatter) {
+        if (date == null) {
+            return null;
+        }
+        return formatter.format(toLocalDateTime(date));
     }
 
 }
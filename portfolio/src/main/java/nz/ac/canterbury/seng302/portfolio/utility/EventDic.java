@@ -1,171 +1,150 @@
 package nz.ac.canterbury.seng302.portfolio.utility;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import nz.ac.canterbury.seng302.portfolio.model.Deadline;
 import nz.ac.canterbury.seng302.portfolio.model.Event;
 import nz.ac.canterbury.seng302.portfolio.model.Milestone;
-import nz.ac.canterbury.seng302.portfolio.model.Project;
 import org.springframework.web.util.HtmlUtils;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.io.IOException;
 import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
 
 /**
  * This Dictionary is used for adding events together that have matching types and dates.
- * It also has a method to generate the combined values which are the individual JSON lists of the events.
+ * Each type on each day has a bucket holding how many artefacts fall on it and their escaped names, keyed by the
+ * type and the epoch day packed into a single long. Nothing is formatted until the buckets are written out as a
+ * JSON list, so adding is constant time per artefact-day.
  */
 public class EventDic {
-    // Creating a HashTable Dictionary
-    // Because we want to separate the types of events we store the JSON objects as the values rather than just the amounts.
-
-    HashMap<EventTypes, String> datesToEvents = new HashMap<>();
-    private static final String MESSAGE_TITLE = "{title: '";
-    private static final String MESSAGE_START = "', start: '";
-    private static final String MESSAGE_DESCRIPTION = "', description: '";
-    private static final String MESSAGE_BR = "<br>- ";
 
     /**
-     * Method used to combine the JSON lists together for the events.
-     *
-     * @return  Combine JSON list.
+     * The kinds of artefact that are combined per day, in the order they are listed within a day.
      */
-    public String makeJSON() {
-        StringBuilder jsonList = new StringBuilder();
-        Collection<String> values = datesToEvents.values();
+    public enum Type {
+        EVENT("Event", "Events"),
+        DEADLINE("Deadline", "Deadlines"),
+        MILESTONE("Milestone", "Milestones");
 
-        // Iterate the values
-        for (String val : values) {
-            jsonList.append(val);
+        private final String label;
+        private final String heading;
+
+        Type(String label, String heading) {
+            this.label = label;
+            this.heading = heading;
         }
 
-        return jsonList.toString();
+        /**
+         * Gets the type name used by the calendar.
+         * @return The type name, e.g. "Deadline".
+         */
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * The artefacts of one type on one day.
+     */
+    private static class Bucket {
+        private final List<String> lines = new ArrayList<>();
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final String DESCRIPTION_BR = "<br>- ";
+
+    private final ZoneId zone;
+    private final long firstDay;
+    private final long endDay;
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+
+    /**
+     * Creates a dictionary that only keeps days within a range, so a long event only adds the days being shown.
+     * @param zone Time zone that decides which day an artefact falls on.
+     * @param firstDay First day to keep.
+     * @param endDay Day after the last day to keep.
+     */
+    public EventDic(ZoneId zone, LocalDate firstDay, LocalDate endDay) {
+        this.zone = zone;
+        this.firstDay = firstDay.toEpochDay();
+        this.endDay = endDay.toEpochDay();
     }
 
     /**
-     * This method adds a deadline to the hashTable the hash is based on the day and type of event-JSON in this case a deadline event-JSON.
+     * Adds a deadline to the bucket for deadlines on its day.
      *
-     * @param deadline The Deadline object to convert to JSON.
+     * @param deadline The Deadline to add.
      */
     public void add(Deadline deadline) {
-        int amount = 1;
-
-        // Uses EventTypes costume hashCode() to hash based on type and date.
-        String eventData = datesToEvents.get(new EventTypes("Deadline", deadline.getDeadlineDateString()));
-        String description = "<strong>Deadlines:</strong><br>- " + HtmlUtils.htmlEscape(deadline.getDeadlineName()) + "<br>" + HtmlUtils.htmlEscape(deadline.getDeadlineTimeString12Hour());
-        StringBuilder eventObject = new StringBuilder();
-
-        String date = updateDateString(deadline.getDeadlineDate());
-
-        if (eventData == null) {
-            eventObject.append(MESSAGE_TITLE).append(amount).append(MESSAGE_START).append(date).append("', type: 'Deadline").append(MESSAGE_DESCRIPTION).append(description).append("'},");
-        } else {
-            try {
-                amount += Integer.parseInt(eventData.split("'")[1]);
-                description = eventData.split("'")[7] + MESSAGE_BR + HtmlUtils.htmlEscape(deadline.getDeadlineName()) + "<br>" + HtmlUtils.htmlEscape(deadline.getDeadlineTimeString12Hour());
-            } catch (Exception ignore) {
-                // Current uses -1 to represent error. May want to change this to a thrown error.
-                amount = -1;
-            }
-            eventObject.append(MESSAGE_TITLE).append(amount).append(MESSAGE_START).append(date).append("', type: 'Deadline").append(MESSAGE_DESCRIPTION).append(description).append("'},");
-        }
-        datesToEvents.put(new EventTypes("Deadline", deadline.getDeadlineDateString()), eventObject.toString());
+        String line = HtmlUtils.htmlEscape(deadline.getDeadlineName()) + "<br>"
+                + HtmlUtils.htmlEscape(deadline.getDeadlineTimeString12Hour());
+        addToDay(Type.DEADLINE, toEpochDay(deadline.getDeadlineDate()), line);
     }
 
-
     /**
-     * This method adds an event to the hashTable the hash is based on the day and type of event-JSON in this case an event event-JSON.
-     * This method also makes a unique event-JSON for each day the event spans.
+     * Adds an event to the bucket for events on every day it spans.
      *
-     * @param event The Event object to convert to JSON.
+     * @param event The Event to add.
      */
-    public void add(Event event) { // By removing the while loop system you can have events over multiple days rather than signal days.
-        Calendar current = Calendar.getInstance();
-        current.setTime(event.getEventStartDate());
-        current.set(Calendar.HOUR_OF_DAY, 0);
-        current.set(Calendar.MINUTE,0);
-        current.set(Calendar.SECOND,0);
-        current.set(Calendar.MILLISECOND, 0);
-
-        Calendar end = Calendar.getInstance();
-        end.setTime(event.getEventEndDate());
-        // The time is set to the end of the day so that event that overlap on days but not time can still match.
-        end.set(Calendar.HOUR_OF_DAY, 23);
-        end.set(Calendar.MINUTE, 59);
-        end.set(Calendar.SECOND, 59);
-
-        while (current.compareTo(end) <= 0) {
-            int amount = 1;
-            Instant date = current.getTime().toInstant();
-            // Uses EventTypes costume hashCode() to hash based on type and date.
-            String eventData = datesToEvents.get(new EventTypes("Event", Project.dateToString(Date.from(date))));
-            String description = "<strong>Events:</strong><br>- " + HtmlUtils.htmlEscape(event.getEventName()) + "<br>" + HtmlUtils.htmlEscape(event.getEndDateString()) + " " +HtmlUtils.htmlEscape(event.getEventEndTime());
-            StringBuilder eventObject = new StringBuilder();
-            if (eventData == null) {
-                eventObject.append(MESSAGE_TITLE).append(amount).append(MESSAGE_START).append(date).append("', type: 'Event").append(MESSAGE_DESCRIPTION).append(description).append("'},");
-            } else {
-                try {
-                    amount += Integer.parseInt(eventData.split("'")[1]);
-                    description = eventData.split("'")[7] + MESSAGE_BR + HtmlUtils.htmlEscape(event.getEventName()) + "<br>" + HtmlUtils.htmlEscape(event.getEndDateString()) + " " +HtmlUtils.htmlEscape(event.getEventEndTime());
-                } catch (Exception ignore) {
-                    // Current uses -1 to represent error. May want to change this to a thrown error.
-                    amount = -1;
-                }
-                eventObject.append(MESSAGE_TITLE).append(amount).append(MESSAGE_START).append(date).append("', type: 'Event").append(MESSAGE_DESCRIPTION).append(description).append("'},");
-            }
-            datesToEvents.put(new EventTypes("Event", Project.dateToString(Date.from(date))), eventObject.toString());
-            current.add(Calendar.DATE, 1);
+    public void add(Event event) {
+        String line = HtmlUtils.htmlEscape(event.getEventName()) + "<br>"
+                + HtmlUtils.htmlEscape(event.getEndDateString()) + " " + HtmlUtils.htmlEscape(event.getEventEndTime());
+        long first = Math.max(toEpochDay(event.getEventStartDate()), firstDay);
+        long last = Math.min(toEpochDay(event.getEventEndDate()), endDay - 1);
+        for (long day = first; day <= last; day++) {
+            addToDay(Type.EVENT, day, line);
         }
     }
 
     /**
-     * This method adds a milestone to the hashTable the hash is based on the day and type of event-JSON in this case a milestone event-JSON.
+     * Adds a milestone to the bucket for milestones on its day.
      *
-     * @param milestone The Milestone object to convert to JSON.
+     * @param milestone The Milestone to add.
      */
     public void add(Milestone milestone) {
-        int amount = 1;
-        // Uses EventTypes costume hashCode() to hash based on type and date.
-        String eventData = datesToEvents.get(new EventTypes("Milestone", milestone.getMilestoneDateString()));
-        String description = "<strong>Milestones:</strong><br>- " + HtmlUtils.htmlEscape(milestone.getMilestoneName());
-        StringBuilder eventObject = new StringBuilder();
-        String date = updateDateString(milestone.getMilestoneDate());
-        if (eventData == null) {
-            eventObject.append(MESSAGE_TITLE).append(amount).append(MESSAGE_START).append(date).append("', type: 'Milestone").append(MESSAGE_DESCRIPTION).append(description).append("'},");
-        } else {
-            try {
-                amount += Integer.parseInt(eventData.split("'")[1]);
-                description = eventData.split("'")[7] + MESSAGE_BR + HtmlUtils.htmlEscape(milestone.getMilestoneName());
-            } catch (Exception ignore) {
-                // Current uses -1 to represent error. May want to change this to a thrown error.
-                amount = -1;
-            }
-            eventObject.append(MESSAGE_TITLE).append(amount).append("' , start: '").append(date).append("', type: 'Milestone").append(MESSAGE_DESCRIPTION).append(description).append("'},");
+        addToDay(Type.MILESTONE, toEpochDay(milestone.getMilestoneDate()),
+                HtmlUtils.htmlEscape(milestone.getMilestoneName()));
+    }
+
+    private void addToDay(Type type, long epochDay, String line) {
+        if (epochDay < firstDay || epochDay >= endDay) {
+            return;
         }
-        datesToEvents.put(new EventTypes("Milestone", milestone.getMilestoneDateString()), eventObject.toString());
+        buckets.computeIfAbsent(epochDay * TYPES.length + type.ordinal(), key -> new Bucket()).lines.add(line);
     }
 
     /**
-     * Quickly reset the Dictionary by making a new HashMap.
+     * Writes an object for each type on each day, ordered by day and then by type. Each is titled with how many
+     * artefacts there are, starts at the beginning of its day and is described with their names.
+     *
+     * @param json Generator to write the objects to, inside an array that the caller has started.
+     * @throws IOException If writing fails.
      */
-    public void reset() {
-        datesToEvents = new HashMap<>();
+    public void writeEntries(JsonGenerator json) throws IOException {
+        Long[] keys = buckets.keySet().toArray(new Long[0]);
+        // Keys are the day times the number of types plus the type, so sorting them orders by day and then type
+        Arrays.sort(keys);
+        for (Long key : keys) {
+            long epochDay = Math.floorDiv(key, TYPES.length);
+            Type type = TYPES[(int) Math.floorMod(key, TYPES.length)];
+            Bucket bucket = buckets.get(key);
+
+            StringBuilder description = new StringBuilder("<strong>").append(type.heading).append(":</strong>");
+            for (String line : bucket.lines) {
+                description.append(DESCRIPTION_BR).append(line);
+            }
+            json.writeStartObject();
+            json.writeStringField("title", String.valueOf(bucket.lines.size()));
+            json.writeStringField("start", LocalDate.ofEpochDay(epochDay).atStartOfDay(zone).toInstant().toString());
+            json.writeStringField("type", type.getLabel());
+            json.writeStringField("description", description.toString());
+            json.writeEndObject();
+        }
     }
 
-    /**
-     * Updates the strings of events as events at midnight don't seem to display correctly on the calendar.
-     * @param date The date object.
-     * @return The updated date string.
-     */
-    public String updateDateString(Date date) {
-        // Changes the date to the start of the day so that it is added to the correct date.
-        DateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE,0);
-        cal.set(Calendar.SECOND,0);
-        cal.set(Calendar.MILLISECOND, 0);
-        return df.format(cal.getTime());
+    private long toEpochDay(Date date) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(zone).toLocalDate().toEpochDay();
     }
 }
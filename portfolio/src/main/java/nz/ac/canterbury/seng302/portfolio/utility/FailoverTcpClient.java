@@ -0,0 +1,173 @@
+package nz.ac.canterbury.seng302.portfolio.utility;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompReactorNettyCodec;
+import org.springframework.messaging.tcp.ReconnectStrategy;
+import org.springframework.messaging.tcp.TcpConnection;
+import org.springframework.messaging.tcp.TcpConnectionHandler;
+import org.springframework.messaging.tcp.TcpOperations;
+import org.springframework.messaging.tcp.reactor.ReactorNettyTcpClient;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Connects the STOMP broker relay to one of several brokers. Connections go to the current broker until connecting to
+ * it fails, then move on to the next, so the relay fails over when a broker goes down and comes back when it returns.
+ * The relay's own connection to the broker is reconnected with exponential backoff and jitter, so nodes that all lose
+ * the broker at once do not all reconnect to it at once.
+ */
+public class FailoverTcpClient implements TcpOperations<byte[]> {
+
+    private final List<InetSocketAddress> addresses;
+
+    /**
+     * Index of the broker new connections are made to.
+     */
+    private final AtomicInteger current = new AtomicInteger();
+
+    private final long initialReconnectMillis;
+
+    private final long maxReconnectMillis;
+
+    private final TcpOperations<byte[]> delegate;
+
+    /**
+     * Creates a client for STOMP brokers.
+     * @param addresses Brokers to connect to, in the order they are tried.
+     * @param initialReconnectMillis Wait before the first attempt to reconnect, which doubles with each failure.
+     * @param maxReconnectMillis Longest wait between attempts to reconnect.
+     * @return Client for the broker relay.
+     */
+    public static FailoverTcpClient forStomp(List<InetSocketAddress> addresses, long initialReconnectMillis,
+                                             long maxReconnectMillis) {
+        return new FailoverTcpClient(addresses, initialReconnectMillis, maxReconnectMillis, null);
+    }
+
+    /**
+     * Creates a client, connecting through the given client if there is one, else through Reactor Netty.
+     */
+    FailoverTcpClient(List<InetSocketAddress> addresses, long initialReconnectMillis, long maxReconnectMillis,
+                      TcpOperations<byte[]> delegate) {
+        if (addresses.isEmpty()) {
+            throw new IllegalArgumentException("At least one broker address is needed");
+        }
+        this.addresses = List.copyOf(addresses);
+        this.initialReconnectMillis = initialReconnectMillis;
+        this.maxReconnectMillis = maxReconnectMillis;
+        this.delegate = delegate != null ? delegate : new ReactorNettyTcpClient<>(
+                client -> client.remoteAddress(this::getCurrentAddress), new StompReactorNettyCodec());
+    }
+
+    /**
+     * Reads broker addresses written as host:port.
+     * @param hosts Addresses such as broker1:61613.
+     * @return The addresses, unresolved so they are looked up again on each connection.
+     * @throws IllegalArgumentException if an address is not host:port.
+     */
+    public static List<InetSocketAddress> parseAddresses(List<String> hosts) {
+        List<InetSocketAddress> addresses = new ArrayList<>();
+        for (String host : hosts) {
+            int separator = host.trim().lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Broker address must be host:port, was " + host);
+            }
+            try {
+                addresses.add(InetSocketAddress.createUnresolved(host.trim().substring(0, separator),
+                        Integer.parseInt(host.trim().substring(separator + 1))));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Broker address must be host:port, was " + host);
+            }
+        }
+        return addresses;
+    }
+
+    /**
+     * @return Address of the broker new connections are made to.
+     */
+    public InetSocketAddress getCurrentAddress() {
+        return addresses.get(Math.floorMod(current.get(), addresses.size()));
+    }
+
+    /**
+     * Gets how long to wait before reconnecting, doubling with each attempt up to the maximum, then taking a random
+     * wait between half of that and all of it.
+     * @param attempt Number of attempts made so far, from 1.
+     * @return Milliseconds to wait.
+     */
+    long getTimeToNextAttempt(int attempt) {
+        long delay = initialReconnectMillis << Math.min(Math.max(attempt - 1, 0), 30);
+        delay = Math.min(maxReconnectMillis, delay);
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    @Override
+    public ListenableFuture<Void> connect(TcpConnectionHandler<byte[]> connectionHandler) {
+        return delegate.connect(new FailoverHandler(connectionHandler));
+    }
+
+    /**
+     * Connects and keeps reconnecting with this client's backoff, in place of the relay's fixed interval.
+     */
+    @Override
+    public ListenableFuture<Void> connect(TcpConnectionHandler<byte[]> connectionHandler,
+                                          ReconnectStrategy reconnectStrategy) {
+        ReconnectStrategy backoff = attempt -> getTimeToNextAttempt(attempt);
+        return delegate.connect(new FailoverHandler(connectionHandler), backoff);
+    }
+
+    @Override
+    public ListenableFuture<Void> shutdown() {
+        return delegate.shutdown();
+    }
+
+    /**
+     * Moves on to the next broker when connecting to the current one fails. Only the first failure to connect to a
+     * broker moves on from it, so many connections failing together do not skip over the brokers after it.
+     */
+    private class FailoverHandler implements TcpConnectionHandler<byte[]> {
+
+        private final TcpConnectionHandler<byte[]> handler;
+
+        /**
+         * Index of the broker the next connection attempt is made to.
+         */
+        private volatile int attempted;
+
+        private FailoverHandler(TcpConnectionHandler<byte[]> handler) {
+            this.handler = handler;
+            this.attempted = current.get();
+        }
+
+        @Override
+        public void afterConnected(TcpConnection<byte[]> connection) {
+            handler.afterConnected(connection);
+        }
+
+        @Override
+        public void afterConnectFailure(Throwable ex) {
+            current.compareAndSet(attempted, attempted + 1);
+            attempted = current.get();
+            handler.afterConnectFailure(ex);
+        }
+
+        @Override
+        public void handleMessage(Message<byte[]> message) {
+            handler.handleMessage(message);
+        }
+
+        @Override
+        public void handleFailure(Throwable ex) {
+            handler.handleFailure(ex);
+        }
+
+        @Override
+        public void afterConnectionClosed() {
+            handler.afterConnectionClosed();
+        }
+    }
+}
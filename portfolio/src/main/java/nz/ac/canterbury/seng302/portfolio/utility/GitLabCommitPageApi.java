@@ -0,0 +1,103 @@
+package nz.ac.canterbury.seng302.portfolio.utility;
+
+import org.gitlab4j.api.AbstractApi;
+import org.gitlab4j.api.Constants;
+import org.gitlab4j.api.GitLabApi;
+import org.gitlab4j.api.GitLabApiException;
+import org.gitlab4j.api.GitLabApiForm;
+import org.gitlab4j.api.models.Commit;
+
+import javax.ws.rs.core.GenericType;
+import javax.ws.rs.core.Response;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Gets one page of a repository's commits at a time, with the filters applied by the GitLab server.
+ * The commits API of gitlab4j cannot filter by author, and its pagers always fetch the first page, so listing a
+ * filtered page through it means fetching every commit.
+ */
+public class GitLabCommitPageApi extends AbstractApi {
+
+    /**
+     * One page of commits, with the number of the page after it.
+     */
+    public static class Page {
+
+        private final List<Commit> commits;
+
+        private final Integer nextPage;
+
+        public Page(List<Commit> commits, Integer nextPage) {
+            this.commits = commits;
+            this.nextPage = nextPage;
+        }
+
+        public List<Commit> getCommits() {
+            return commits;
+        }
+
+        /**
+         * Gets the number of the next page.
+         * @return the number of the next page, or null if this is the last page
+         */
+        public Integer getNextPage() {
+            return nextPage;
+        }
+    }
+
+    public GitLabCommitPageApi(GitLabApi gitLabApi) {
+        super(gitLabApi);
+    }
+
+    /**
+     * Gets a page of commits from a repository. Pass null for any filter that should not be applied.
+     * @param projectIdOrPath id or path of the repository
+     * @param ref branch or tag to list the commits of, or null for the default branch
+     * @param author name or email of the author, GitLab matches any author containing it
+     * @param since only commits after this date
+     * @param until only commits before this date
+     * @param page number of the page, starting at 1
+     * @param perPage number of commits on each page
+     * @return the page of commits, newest first
+     * @throws GitLabApiException if any exception occurs communicating with the GitLab API
+     */
+    public Page getCommits(Object projectIdOrPath, String ref, String author, Date since, Date until, int page,
+                           int perPage) throws GitLabApiException {
+        GitLabApiForm form = new GitLabApiForm(page, perPage)
+                .withParam("ref_name", ref)
+                .withParam("author", author)
+                .withParam("since", since)
+                .withParam("until", until);
+        return getPage(projectIdOrPath, form, page, perPage);
+    }
+
+    /**
+     * Gets a page of the commits on every branch of a repository, committed on or after a date.
+     * @param projectIdOrPath id or path of the repository
+     * @param since only commits on or after this date, or null for every commit
+     * @param page number of the page, starting at 1
+     * @param perPage number of commits on each page
+     * @return the page of commits, newest first
+     * @throws GitLabApiException if any exception occurs communicating with the GitLab API
+     */
+    public Page getCommitsOnAllBranches(Object projectIdOrPath, Date since, int page, int perPage)
+            throws GitLabApiException {
+        GitLabApiForm form = new GitLabApiForm(page, perPage)
+                .withParam("all", true)
+                .withParam("since", since);
+        return getPage(projectIdOrPath, form, page, perPage);
+    }
+
+    private Page getPage(Object projectIdOrPath, GitLabApiForm form, int page, int perPage) throws GitLabApiException {
+        Response response = get(Response.Status.OK, form.asMap(),
+                "projects", getProjectIdOrPath(projectIdOrPath), "repository", "commits");
+        List<Commit> commits = response.readEntity(new GenericType<List<Commit>>() {});
+        String nextPage = response.getHeaderString(Constants.NEXT_PAGE_HEADER);
+        if (nextPage == null) {
+            // Headers can be dropped by proxies, a full page means there may be more
+            return new Page(commits, commits.size() == perPage ? page + 1 : null);
+        }
+        return new Page(commits, nextPage.isBlank() ? null : Integer.valueOf(nextPage.trim()));
+    }
+}
@@ -0,0 +1,191 @@
+package nz.ac.canterbury.seng302.portfolio.utility;
+
+import nz.ac.canterbury.seng302.portfolio.model.Deadline;
+import nz.ac.canterbury.seng302.portfolio.model.Event;
+import nz.ac.canterbury.seng302.portfolio.model.Milestone;
+import nz.ac.canterbury.seng302.portfolio.model.Sprint;
+
+import java.util.*;
+
+/**
+ * Snapshot of the dates of the project's artefacts, used to validate new dates without loading and comparing every
+ * artefact. Sprints are kept in a tree ordered by the day they start, so finding a sprint that overlaps some days is
+ * a logarithmic lookup followed by a scan of the sprints that overlap. For each type of artefact the earliest and
+ * latest are kept, so checking the project contains them all takes constant time.
+ * Sprints are compared by day, ignoring their times.
+ */
+public class ProjectDateIndex {
+
+    /**
+     * The sprints starting on one day.
+     */
+    private static class SprintGroup {
+        private final List<Sprint> sprints = new ArrayList<>();
+        private final List<Long> endDays = new ArrayList<>();
+
+        /**
+         * Latest end day of the sprints in this group and every group starting before it. Never decreases along the
+         * tree, so a scan back through the tree can stop once it is before the days being checked.
+         */
+        private long latestEndDay;
+    }
+
+    private final TreeMap<Long, SprintGroup> sprintsByStartDay = new TreeMap<>();
+
+    private Sprint firstSprint;
+    private Sprint lastSprint;
+    private Event firstEvent;
+    private Event lastEvent;
+    private Milestone firstMilestone;
+    private Milestone lastMilestone;
+    private Deadline firstDeadline;
+    private Deadline lastDeadline;
+
+    /**
+     * Builds the index from the given artefacts. Only the sprints need to be complete; for the other types it is
+     * enough to give the earliest and latest.
+     * @param sprints All sprints.
+     * @param events Events including the one starting first and the one ending last.
+     * @param milestones Milestones including the first and last.
+     * @param deadlines Deadlines including the first and last.
+     */
+    public ProjectDateIndex(List<Sprint> sprints, List<Event> events, List<Milestone> milestones,
+                            List<Deadline> deadlines) {
+        for (Sprint sprint : sprints) {
+            SprintGroup group = sprintsByStartDay.computeIfAbsent(toEpochDay(sprint.getStartDate()),
+                    day -> new SprintGroup());
+            group.sprints.add(sprint);
+            group.endDays.add(toEpochDay(sprint.getEndDate()));
+            if (firstSprint == null || sprint.getStartDate().before(firstSprint.getStartDate())) {
+                firstSprint = sprint;
+            }
+            if (lastSprint == null || sprint.getEndDate().after(lastSprint.getEndDate())) {
+                lastSprint = sprint;
+            }
+        }
+        long latestEndDay = Long.MIN_VALUE;
+        for (SprintGroup group : sprintsByStartDay.values()) {
+            for (long endDay : group.endDays) {
+                latestEndDay = Math.max(latestEndDay, endDay);
+            }
+            group.latestEndDay = latestEndDay;
+        }
+
+        for (Event event : events) {
+            if (firstEvent == null || event.getEventStartDate().before(firstEvent.getEventStartDate())) {
+                firstEvent = event;
+            }
+            if (lastEvent == null || event.getEventEndDate().after(lastEvent.getEventEndDate())) {
+                lastEvent = event;
+            }
+        }
+        for (Milestone milestone : milestones) {
+            if (firstMilestone == null || milestone.getMilestoneDate().before(firstMilestone.getMilestoneDate())) {
+                firstMilestone = milestone;
+            }
+            if (lastMilestone == null || milestone.getMilestoneDate().after(lastMilestone.getMilestoneDate())) {
+                lastMilestone = milestone;
+            }
+        }
+        for (Deadline deadline : deadlines) {
+            if (firstDeadline == null || deadline.getDeadlineDate().before(firstDeadline.getDeadlineDate())) {
+                firstDeadline = deadline;
+            }
+            if (lastDeadline == null || deadline.getDeadlineDate().after(lastDeadline.getDeadlineDate())) {
+                lastDeadline = deadline;
+            }
+        }
+    }
+
+    /**
+     * Finds a sprint, other than the one with the given id, that shares at least one day with the given dates.
+     * @param startDate Start of the dates to check, only the day is used.
+     * @param endDate End of the dates to check, only the day is used.
+     * @param sprintId Id of the sprint being checked, which is ignored.
+     * @return An overlapping sprint, or null if there is none.
+     */
+    public Sprint findOverlappingSprint(Date startDate, Date endDate, int sprintId) {
+        long startDay = toEpochDay(startDate);
+        long endDay = toEpochDay(endDate);
+        // Only sprints starting on or before the end day can overlap, and they are scanned latest first
+        for (SprintGroup group : sprintsByStartDay.headMap(endDay, true).descendingMap().values()) {
+            if (group.latestEndDay < startDay) {
+                break;
+            }
+            for (int i = 0; i < group.sprints.size(); i++) {
+                if (group.endDays.get(i) >= startDay && group.sprints.get(i).getId() != sprintId) {
+                    return group.sprints.get(i);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the sprint that starts first.
+     * @return The first sprint, or null if there are no sprints.
+     */
+    public Sprint getFirstSprint() {
+        return firstSprint;
+    }
+
+    /**
+     * Gets the sprint that ends last.
+     * @return The last sprint, or null if there are no sprints.
+     */
+    public Sprint getLastSprint() {
+        return lastSprint;
+    }
+
+    /**
+     * Gets the event that starts first.
+     * @return The first event, or null if there are no events.
+     */
+    public Event getFirstEvent() {
+        return firstEvent;
+    }
+
+    /**
+     * Gets the event that ends last.
+     * @return The last event, or null if there are no events.
+     */
+    public Event getLastEvent() {
+        return lastEvent;
+    }
+
+    /**
+     * Gets the earliest milestone.
+     * @return The first milestone, or null if there are no milestones.
+     */
+    public Milestone getFirstMilestone() {
+        return firstMilestone;
+    }
+
+    /**
+     * Gets the latest milestone.
+     * @return The last milestone, or null if there are no milestones.
+     */
+    public Milestone getLastMilestone() {
+        return lastMilestone;
+    }
+
+    /**
+     * Gets the earliest deadline.
+     * @return The first deadline, or null if there are no deadlines.
+     */
+    public Deadline getFirstDeadline() {
+        return firstDeadline;
+    }
+
+    /**
+     * Gets the latest deadline.
+     * @return The last deadline, or null if there are no deadlines.
+     */
+    public Deadline getLastDeadline() {
+        return lastDeadline;
+    }
+
+    private static long toEpochDay(Date date) {
+        return DateUtility.toLocalDate(date).toEpochDay();
+    }
+}
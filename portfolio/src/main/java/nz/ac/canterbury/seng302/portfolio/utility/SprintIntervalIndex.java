@@ -0,0 +1,150 @@
+package nz.ac.canterbury.seng302.portfolio.utility;
+
+import nz.ac.canterbury.seng302.portfolio.model.Sprint;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntConsumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * Index of sprints by their date range, used to find the sprints an artefact falls in without comparing it against
+ * every sprint. Built once from the sprints being rendered, each lookup is a binary search over the sprint start
+ * times followed by a scan of the sprints that overlap.
+ * Sprints are referred to by their position in the list the index was built from, so results line up with that list.
+ */
+public class SprintIntervalIndex {
+
+    /**
+     * Positions of the sprints in the original list, sorted by start time.
+     */
+    private final int[] positions;
+
+    private final long[] startTimes;
+
+    private final long[] endTimes;
+
+    /**
+     * Latest end time of the sprints up to and including each sorted index. Never decreases, so it can be binary
+     * searched even when sprints overlap.
+     */
+    private final long[] latestEndTimes;
+
+    private final int sprintCount;
+
+    /**
+     * Builds the index from the given sprints.
+     * @param sprints Sprints to index, usually in chronological order.
+     */
+    public SprintIntervalIndex(List<Sprint> sprints) {
+        sprintCount = sprints.size();
+        List<Integer> sorted = new ArrayList<>(sprintCount);
+        for (int i = 0; i < sprintCount; i++) {
+            sorted.add(i);
+        }
+        sorted.sort(Comparator.comparingLong(i -> sprints.get(i).getStartDate().getTime()));
+
+        positions = new int[sprintCount];
+        startTimes = new long[sprintCount];
+        endTimes = new long[sprintCount];
+        latestEndTimes = new long[sprintCount];
+        long latestEnd = Long.MIN_VALUE;
+        for (int i = 0; i < sprintCount; i++) {
+            Sprint sprint = sprints.get(sorted.get(i));
+            positions[i] = sorted.get(i);
+            startTimes[i] = sprint.getStartDate().getTime();
+            endTimes[i] = sprint.getEndDate().getTime();
+            latestEnd = Math.max(latestEnd, endTimes[i]);
+            latestEndTimes[i] = latestEnd;
+        }
+    }
+
+    /**
+     * Calls the action with the position of every sprint that overlaps the given time range. Both ends of the range
+     * and of each sprint are inclusive.
+     * @param from Start of the range in epoch milliseconds.
+     * @param to End of the range in epoch milliseconds.
+     * @param action Called with the position of each overlapping sprint, in order of sprint start time.
+     */
+    public void forEachOverlapping(long from, long to, IntConsumer action) {
+        // Sprints after this index start after the range ends
+        int last = lastStartingAtOrBefore(to);
+        // Sprints before this index all end before the range starts
+        for (int i = firstEndingAtOrAfter(from); i <= last; i++) {
+            if (endTimes[i] >= from) {
+                action.accept(positions[i]);
+            }
+        }
+    }
+
+    /**
+     * Gets the position of the last sprint in the original list that contains the given time.
+     * @param time Time in epoch milliseconds.
+     * @return Position of the sprint, or -1 if no sprint contains the time.
+     */
+    public int lastContaining(long time) {
+        int[] last = {-1};
+        forEachOverlapping(time, time, position -> last[0] = Math.max(last[0], position));
+        return last[0];
+    }
+
+    /**
+     * Gets the position of the first sprint in the original list that contains the given time.
+     * @param time Time in epoch milliseconds.
+     * @return Position of the sprint, or -1 if no sprint contains the time.
+     */
+    public int firstContaining(long time) {
+        int[] first = {Integer.MAX_VALUE};
+        forEachOverlapping(time, time, position -> first[0] = Math.min(first[0], position));
+        return first[0] == Integer.MAX_VALUE ? -1 : first[0];
+    }
+
+    /**
+     * Puts each artefact into a list for every sprint its time range overlaps, in one pass over the artefacts.
+     * @param artefacts Artefacts to sort into sprints, their order is kept within each list.
+     * @param from Gets the start of an artefact's time range in epoch milliseconds.
+     * @param to Gets the end of an artefact's time range in epoch milliseconds.
+     * @param <T> Type of artefact.
+     * @return List where each element holds the artefacts of the sprint at the same position in the original list.
+     */
+    public <T> List<List<T>> bucket(List<T> artefacts, ToLongFunction<T> from, ToLongFunction<T> to) {
+        List<List<T>> buckets = new ArrayList<>(sprintCount);
+        for (int i = 0; i < sprintCount; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        for (T artefact : artefacts) {
+            forEachOverlapping(from.applyAsLong(artefact), to.applyAsLong(artefact),
+                    position -> buckets.get(position).add(artefact));
+        }
+        return buckets;
+    }
+
+    private int lastStartingAtOrBefore(long time) {
+        int low = 0;
+        int high = sprintCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (startTimes[mid] <= time) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return high;
+    }
+
+    private int firstEndingAtOrAfter(long time) {
+        int low = 0;
+        int high = sprintCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (latestEndTimes[mid] >= time) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+}
@@ -3,9 +3,7 @@ package nz.ac.canterbury.seng302.portfolio.utility;
 import nz.ac.canterbury.seng302.portfolio.model.NotificationResponse;
 import org.springframework.ui.Model;
 
-import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -20,39 +18,46 @@ public class ToastUtility {
      * milestone or deadline.
      *
      * @param model  Model parameter.
-     * @param artefactsToDisplay List of messages to display.
+     * @param recentNotifications Notifications from the last few seconds, oldest first.
      * @param numberOfToasts Integer representing the number of toasts.
      */
-    public static void addToastsToModel(Model model, List<NotificationResponse> artefactsToDisplay, Integer numberOfToasts) {
-        List<Toast> toastsToGenerate = new ArrayList<>();
-        for (int i = 0; i < numberOfToasts; i++) {
-            Toast toast = new Toast();
-            toastsToGenerate.add(toast);
-        }
+    public static void addToastsToModel(Model model, List<NotificationResponse> recentNotifications, Integer numberOfToasts) {
+        List<Toast> toastsToGenerate = createToasts(numberOfToasts);
 
-        // Runs if the reload was triggered by saving an event. Checks the notifications' creation time to see if 5 seconds has passed yet.
+        // Runs if the reload was triggered by saving an event
         int count = 0;
-        ArrayList<NotificationResponse> eventsToDelete = new ArrayList<>();
-        for (NotificationResponse artefact : artefactsToDisplay) {
-            long timeDifference = Date.from(Instant.now()).toInstant().getEpochSecond() - artefact.getDateOfCreation();
-            if (timeDifference <= 5) {
-                toastsToGenerate.get(count).setArtefactInformation(artefact.getArtefactType());
-                toastsToGenerate.get(count).setArtefactName(artefact.getArtefactName());
-                toastsToGenerate.get(count).setArtefactId(artefact.getArtefactId());
-                toastsToGenerate.get(count).setUsername(artefact.getUsername());
-                toastsToGenerate.get(count).setUserFirstName(artefact.getUserFirstName());
-                toastsToGenerate.get(count).setUserLastName(artefact.getUserLastName());
-                toastsToGenerate.get(count).setAction(artefact.getAction());
-            } else {
-                eventsToDelete.add(artefact);
-                toastsToGenerate.get(count).setArtefactInformation("");
+        for (NotificationResponse artefact : recentNotifications) {
+            if (count == numberOfToasts) {
+                break;
             }
+            toastsToGenerate.get(count).setArtefactInformation(artefact.getArtefactType());
+            toastsToGenerate.get(count).setArtefactName(artefact.getArtefactName());
+            toastsToGenerate.get(count).setArtefactId(artefact.getArtefactId());
+            toastsToGenerate.get(count).setUsername(artefact.getUsername());
+            toastsToGenerate.get(count).setUserFirstName(artefact.getUserFirstName());
+            toastsToGenerate.get(count).setUserLastName(artefact.getUserLastName());
+            toastsToGenerate.get(count).setAction(artefact.getAction());
             count++;
         }
-        for (NotificationResponse event : eventsToDelete) {
-            artefactsToDisplay.remove(event);
-        }
 
         model.addAttribute("toastsToGenerate", toastsToGenerate);
     }
+
+    /**
+     * Adds empty toasts to the model, for pages that only show toasts for live updates.
+     *
+     * @param model  Model parameter.
+     * @param numberOfToasts Integer representing the number of toasts.
+     */
+    public static void addToastsToModel(Model model, Integer numberOfToasts) {
+        model.addAttribute("toastsToGenerate", createToasts(numberOfToasts));
+    }
+
+    private static List<Toast> createToasts(Integer numberOfToasts) {
+        List<Toast> toasts = new ArrayList<>();
+        for (int i = 0; i < numberOfToasts; i++) {
+            toasts.add(new Toast());
+        }
+        return toasts;
+    }
 }
@@ -57,7 +57,6 @@ function deleteEvidenceModalListener(id) {
         success: function() {
             $('#deleteModal').modal('toggle')
             showAlertToast("Evidence deleted successfully!");
-            sendDeleteEvidenceNotification();
             setTimeout(function() {
                 $("#evidenceList").load(url +" #evidenceList>*","", function (data) {
 
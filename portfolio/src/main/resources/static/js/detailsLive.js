@@ -32,44 +32,35 @@ let listOfNotifications = [];
 let listOfHTMLToasts = [];
 
 /**
- * Connects the stomp client to the setup websocket endpoint.
- * Then subscribes methods to the required endpoints.
+ * Connects the stomp client to the setup websocket endpoint, subscribing methods to the required endpoints.
+ * Updates missed while disconnected are caught up on when it reconnects.
  */
 function connect() {
-    let socket = new SockJS('mywebsockets');
-    stompClient = Stomp.over(socket);
-    stompClient.debug = null;
-    stompClient.connect({}, function () {
-        stompClient.subscribe('/webSocketGet/being-edited', function (eventResponseArg) {
+    connectLiveUpdates({
+        '/webSocketGet/being-edited': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body);
             showToast(eventResponse.artefactName, eventResponse.artefactId, eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, false, eventResponse.artefactType);
-        });
-        stompClient.subscribe('/webSocketGet/stop-being-edited', function (eventResponseArg) {
+        },
+        '/webSocketGet/stop-being-edited': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body);
             showToast(eventResponse.artefactName, eventResponse.artefactId, eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, true, eventResponse.artefactType);
-        });
-        stompClient.subscribe('/webSocketGet/artefact-save', function (eventResponseArg) {
+        },
+        '/webSocketGet/artefact-save': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body);
             refreshEvents();
             showToastSave(eventResponse.artefactName, eventResponse.artefactId, eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, eventResponse.artefactType, SAVEACTION);
-        });
-        stompClient.subscribe('/webSocketGet/artefact-add', function (eventResponseArg) {
+        },
+        '/webSocketGet/artefact-add': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body);
             refreshEvents();
             showToastSave(eventResponse.artefactName, eventResponse.artefactId, eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, eventResponse.artefactType, ADDACTION);
-        });
-        stompClient.subscribe('/webSocketGet/artefact-delete', function (eventResponseArg) {
+        },
+        '/webSocketGet/artefact-delete': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body);
             refreshEvents();
             showToastSave(eventResponse.artefactName, eventResponse.artefactId, eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, eventResponse.artefactType, DELETEACTION);
-        });
-        stompClient.subscribe('/webSocketGet/sprint-project-calendar-save', function (eventResponseArg) {
-            const eventResponse = JSON.parse(eventResponseArg.body);
-            refreshEvents();
-            showToastSave(eventResponse.artefactName, eventResponse.artefactId, eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, eventResponse.artefactType, SAVEACTION);
-        });
-
-    });
+        }
+    }, (client) => stompClient = client);
 }
 
 /**
@@ -52,7 +52,6 @@ function addEvidence() {
         clearEvidenceModalFields();
         $("#webLinkList").html(""); // clear web links
         $("#skillTagList").html(""); // clear skill tags
-        sendAddEvidenceNotification();
     }).fail((response) => {
         replaceEvidenceModalBody(response.responseText);
     })
@@ -1,9 +1,3 @@
-/**
- * Id of the non members group.
- * @type {number}
- */
-const NON_MEMBER_GROUP_ID = 1
-
 /**
  * Add an 'active' class to the selected group, highlight current selected group for better user experience
  */
@@ -222,7 +216,6 @@ function copyUsers() {
                 updateTable(originGroupId)
             }
         }
-        changeMembersReload(originGroupId, data.groupId);
         groupButtonSetup() // Allow group cards to be highlighted when selected
         showAlertToast("Group " + groupName + " Updated")
     }).fail(() => {
@@ -250,14 +243,6 @@ function updateMembersWithoutAGroupCard() {
     })
 }
 
-/**
- * Sends a websocket message to reload users pages when members are removed from groups.
- */
-function reloadRemovedUsers() {
-    const currentGroupId = parseInt($("#table_refresh").attr("data-groupid"), 10);
-    changeMembersReload(currentGroupId, NON_MEMBER_GROUP_ID);
-}
-
 /**
  * Requests an up-to-date version of the group card list and updates the current list with it.
  * Also updates the members table if the current group selected was changed.
@@ -299,6 +284,49 @@ function updateGroupList(groupId, action) {
     }
 }
 
+/**
+ * Applies the members of groups sent by the server after members moved between them, updating the group cards and the
+ * members table in place. If the page has missed a change, or the server could not get the members, the groups are
+ * fetched instead.
+ * @param delta the version, ids of the two groups, and the members of each changed group
+ */
+function applyGroupMembersDelta(delta) {
+    const groupList = $('#groupList');
+    const version = parseInt(groupList.attr('data-version'), 10);
+    if (delta.version <= version) {
+        return; // Already on the page
+    }
+    if (delta.version !== version + 1 || delta.groups === null) {
+        updateGroupList(delta.sendingGroupId, "change-users-send");
+        updateGroupList(delta.receivingGroupId, "change-users-receive");
+        return;
+    }
+    const currentGroupId = parseInt($("#table_refresh").attr("data-groupid"), 10);
+    for (const group of delta.groups) {
+        const groupCard = $('#groupCard' + group.groupId);
+        groupCard.find('button').children('i').last().text(group.membersCount);
+        groupCard.find('#deleteGroupButton').attr('data-bs-member', group.membersCount);
+        if (group.groupId === currentGroupId) {
+            replaceMembersTableRows(group.members);
+        }
+    }
+    groupList.attr('data-version', delta.version);
+}
+
+/**
+ * Replaces the rows of the members table, staying on the same page where it still exists.
+ * @param members the id, first name, last name and username of each member of the selected group
+ */
+function replaceMembersTableRows(members) {
+    const table = $("#table").DataTable();
+    const page = table.page();
+    const rows = members.map((member) => $('<tr>').attr('id', member.id).append(
+        $('<td>').text(member.firstName), $('<td>').text(member.lastName), $('<td>').text(member.username))[0]);
+    table.clear().rows.add(rows);
+    const lastPage = Math.max(Math.ceil(rows.length / table.page.len()) - 1, 0);
+    table.page(Math.min(page, lastPage)).draw('page');
+}
+
 /**
  * Sets up the modal for removing a user from a group.
  */
@@ -340,7 +368,6 @@ function removeUserModalButtonFunction() {
             updateMembersWithoutAGroupCard()
             $('#removeUserModal').modal('toggle')
             showAlertToast("Group " + groupName + " Updated")
-            reloadRemovedUsers()
         }).fail(() => {
         document.getElementById('removeUserModalButton').onclick = buttonFunction;
         showAlertErrorToast("Group " + groupName + " failed to be updated")
@@ -26,48 +26,42 @@ let listOfNotifications = [];
 let listOfHTMLToasts = [];
 
 /**
- * Connects the stomp client to the setup websocket endpoint.
- * Then subscribes methods to the required endpoints.
+ * Connects the stomp client to the setup websocket endpoint, subscribing methods to the required endpoints.
+ * Updates missed while disconnected are caught up on when it reconnects.
  */
 function connect() {
-    let socket = new SockJS('mywebsockets');
-    stompClient = Stomp.over(socket);
-    stompClient.debug = null;
-    stompClient.connect({}, function (frame) {
-        stompClient.subscribe('/webSocketGet/group-being-edited', function (eventResponseArg) {
+    connectLiveUpdates({
+        '/webSocketGet/group-being-edited': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body);
             showToast(eventResponse.artefactName, eventResponse.artefactId, eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, false, eventResponse.artefactType);
-        });
-        stompClient.subscribe('/webSocketGet/group-stop-being-edited', function (eventResponseArg) {
+        },
+        '/webSocketGet/group-stop-being-edited': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body);
             showToast(eventResponse.artefactName, eventResponse.artefactId, eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, true, eventResponse.artefactType);
-        })
-        stompClient.subscribe('/webSocketGet/group-save-edit', function (eventResponseArg) {
+        },
+        '/webSocketGet/group-save-edit': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body);
             updateGroupList(eventResponse.artefactId, "save");
             showToastSave(eventResponse.artefactName, eventResponse.artefactId, eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, eventResponse.artefactType, eventResponse.action);
-        });
-        stompClient.subscribe('/webSocketGet/group-delete', function (eventResponseArg) {
+        },
+        '/webSocketGet/group-delete': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body);
             updateGroupList(eventResponse.artefactId, "delete");
             showToastSave(eventResponse.artefactName, eventResponse.artefactId, eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, eventResponse.artefactType, eventResponse.action);
-        });
-        stompClient.subscribe('/webSocketGet/group-add', function (eventResponseArg) {
+        },
+        '/webSocketGet/group-add': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body);
             updateGroupList(eventResponse.artefactId, "add");
             showToastSave(eventResponse.artefactName, eventResponse.artefactId, eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, eventResponse.artefactType, eventResponse.action);
-        });
-        stompClient.subscribe('/webSocketGet/group-change-users', function (twoGroupResponseArg) {
-            const twoGroupResponse = JSON.parse(twoGroupResponseArg.body);
-            updateGroupList(twoGroupResponse.sendingGroupId, "change-users-send");
-            updateGroupList(twoGroupResponse.receivingGroupId, "change-users-receive");
-        });
-        stompClient.subscribe('/webSocketGet/saved-group-settings-outside', function (eventResponseArg) {
+        },
+        '/webSocketGet/group-change-users': function (groupMembersDeltaArg) {
+            applyGroupMembersDelta(JSON.parse(groupMembersDeltaArg.body));
+        },
+        '/webSocketGet/saved-group-settings-outside': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body);
             updateGroupList(eventResponse.sendingGroupId, "save");
-        });
-
-    });
+        }
+    }, (client) => stompClient = client);
 }
 
 /**
@@ -24,31 +24,25 @@ let listOfHTMLToasts = [];
 
 
 /**
- * Connects the stomp client to the setup websocket endpoint.
- * Then subscribes methods to the required endpoints.
+ * Connects the stomp client to the setup websocket endpoint, subscribing methods to the required endpoints.
+ * Updates missed while disconnected are caught up on when it reconnects.
  */
 function connect() {
-    let socket = new SockJS('mywebsockets');
-    stompClient = Stomp.over(socket);
-    stompClient.debug = null;
-    stompClient.connect({}, function (frame) {
-        stompClient.subscribe('/webSocketGet/group-settings-saved', function (GroupSettingsResponseArg) {
+    // Only this group's destinations are subscribed to, so updates for other groups never reach the page
+    connectLiveUpdates({
+        [`/webSocketGet/group/${ID}/settings`]: function (GroupSettingsResponseArg) {
             const GroupNotificationResponse = JSON.parse(GroupSettingsResponseArg.body);
             updateSettingsDisplayed(GroupNotificationResponse.sendingGroupId);
-        });
-        stompClient.subscribe('/webSocketGet/outside-group-settings-saved', function (GroupSettingsResponseArg) {
-            const GroupNotificationResponse = JSON.parse(GroupSettingsResponseArg.body);
-            updateSettingsDisplayed(GroupNotificationResponse.sendingGroupId);
-        });
-        stompClient.subscribe('/webSocketGet/group-delete', function (EventResponseArg) {
+        },
+        [`/webSocketGet/group/${ID}/deleted`]: function (EventResponseArg) {
             const eventResponse = JSON.parse(EventResponseArg.body);
             redirectToGroupPage(eventResponse.artefactId);
-        });
-        stompClient.subscribe('/webSocketGet/group-change-users', function (twoGroupResponseArg) {
+        },
+        [`/webSocketGet/group/${ID}/members`]: function (twoGroupResponseArg) {
             const twoGroupResponse = JSON.parse(twoGroupResponseArg.body);
             updateUserTables(twoGroupResponse.sendingGroupId, twoGroupResponse.receivingGroupId)
-        });
-    });
+        }
+    }, (client) => stompClient = client);
 }
 
 function updateSettingsDisplayed(groupId) {
@@ -94,10 +88,6 @@ function sendIdRefresh(sendingGroupId) {
         'sendingGroupId': sendingGroupId,
         'receivingGroupId' : sendingGroupId
     }));
-    stompClient.send("/webSocketPost/save-group-settings-outside", {}, JSON.stringify({
-        'sendingGroupId': sendingGroupId,
-        'receivingGroupId' : sendingGroupId
-    }));
 }
 
 /**
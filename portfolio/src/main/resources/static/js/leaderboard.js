@@ -5,6 +5,7 @@ function configureLeaderboardTable() {
     $('table').DataTable({destroy:true, searching: false, paging: true, info: false, select: false, sort: false,
         'rowCallback': function(row, data) {
             const rankToColour = {'1': 'gold', '2': 'silver', '3': 'bronze'}
+            $(row).removeClass(Object.values(rankToColour))
             if (data[0] in rankToColour) {
                 $(row).addClass(rankToColour[data[0]])
             }
@@ -25,25 +26,78 @@ function configureLeaderboardTable() {
  * @param operation The type of operation, such as 'add' or 'delete'.
  */
 function updateLeaderboard(notification, operation) {
-    const leaderboardTable = $('table').DataTable();
     const url = "leaderboard/leaderboard-table";
     $("#leaderboardTable").load(url + " #leaderboardTable>*", "", function () {
         configureLeaderboardTable();
-        if (operation === ADDEVIDENCEACTION) {
-            notification.action = UPDATELEADERBOARDACTION;
-        } else if (operation === DELETEROLEACTION) {
-            notification.action = DELETEROLEUPDATEACTION;
-        } else if (operation === ADDROLEACTION) {
-            notification.action = ADDROLEUPDATEACTION;
-        } else if (operation === DELETEACTION) {
-            notification.action = DELETEEVIDENCEACTION
-        }
-        else {
-            notification.action = UPDATELEADERBOARDDELETEACTION;
-        }
+        showLeaderboardUpdated(notification, operation);
+    });
+}
+
+/**
+ * Gets the version of the leaderboard the table is showing.
+ * @returns {number} version of the last score change in the table
+ */
+function getLeaderboardVersion() {
+    return parseInt($('#table').attr('data-version'), 10);
+}
+
+/**
+ * Applies a change to a user's score sent by the server, re-ranking the table in place. If the table has missed a
+ * change, or does not have a row for the user, the table is reloaded instead.
+ * @param delta the version, user id and new score of the change
+ * @param notification the notification to update
+ * @param operation The type of operation, such as 'add' or 'delete'.
+ */
+function applyLeaderboardDelta(delta, notification, operation) {
+    const version = getLeaderboardVersion();
+    if (delta.version <= version) {
+        return; // Already in the table
+    }
+    const leaderboardTable = $('table').DataTable();
+    const row = leaderboardTable.row('#' + delta.userId);
+    if (delta.version !== version + 1 || !row.any()) {
+        updateLeaderboard(notification, operation);
+        return;
+    }
+    $(row.node()).children('td').eq(4).text(delta.score);
 
-        notification.show();
-        notification.hideTimed(SECONDS_TILL_HIDE);
+    // Sort by score keeping the current order for ties, then rank as the server does, with ties sharing a rank
+    const scoreOf = (node) => parseInt($(node).children('td').eq(4).text(), 10);
+    const nodes = leaderboardTable.rows().nodes().toArray();
+    nodes.sort((first, second) => scoreOf(second) - scoreOf(first));
+    let rank = 0;
+    nodes.forEach((node, i) => {
+        if (i === 0 || scoreOf(node) !== scoreOf(nodes[i - 1])) {
+            rank = i + 1;
+        }
+        $(node).children('td').first().text(rank);
     });
+    const page = leaderboardTable.page();
+    leaderboardTable.clear().rows.add(nodes).page(page).draw('page');
+    $('#table').attr('data-version', delta.version);
+    showLeaderboardUpdated(notification, operation);
+}
+
+/**
+ * Updates the notification to inform the user the table has updated.
+ * @param notification the notification to update
+ * @param operation The type of operation, such as 'add' or 'delete'.
+ */
+function showLeaderboardUpdated(notification, operation) {
+    if (operation === ADDEVIDENCEACTION) {
+        notification.action = UPDATELEADERBOARDACTION;
+    } else if (operation === DELETEROLEACTION) {
+        notification.action = DELETEROLEUPDATEACTION;
+    } else if (operation === ADDROLEACTION) {
+        notification.action = ADDROLEUPDATEACTION;
+    } else if (operation === DELETEACTION) {
+        notification.action = DELETEEVIDENCEACTION
+    }
+    else {
+        notification.action = UPDATELEADERBOARDDELETEACTION;
+    }
+
+    notification.show();
+    notification.hideTimed(SECONDS_TILL_HIDE);
 }
 
@@ -24,43 +24,33 @@ let listOfHTMLToasts = [];
 
 
 /**
- * Connects the stomp client to the setup websocket endpoint.
- * Then subscribes methods to the required endpoints.
+ * Connects the stomp client to the setup websocket endpoint, subscribing methods to the required endpoints.
+ * Updates missed while disconnected are caught up on when it reconnects.
  */
 function connect() {
-    let socket = new SockJS('mywebsockets');
-    stompClient = Stomp.over(socket);
-    stompClient.debug = null;
-    stompClient.connect({}, function () {
-        stompClient.subscribe('/webSocketGet/evidence-added', function (eventResponseArg) {
-            const eventResponse = JSON.parse(eventResponseArg.body)
-            if (eventResponse.artefactType === "studentEvidence") {
-                const notification = showLeaderboardUpdateToast("Evidence", eventResponse.artefactName, eventResponse.artefactId,
-                    eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, ADDEVIDENCEACTION);
-                updateLeaderboard(notification, ADDEVIDENCEACTION);
-            }
-        });
-        stompClient.subscribe('/webSocketGet/evidence-deleted', function (eventResponseArg) {
-            const eventResponse = JSON.parse(eventResponseArg.body)
-            if (eventResponse.artefactType === "studentEvidence") {
-                const notification = showLeaderboardUpdateToast("Evidence", eventResponse.artefactName, eventResponse.artefactId,
-                    eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, DELETEEVIDENCEACTION);
-                updateLeaderboard(notification, DELETEEVIDENCEACTION);
-            }
-        });
-        stompClient.subscribe('/webSocketGet/delete-student-role', function (eventResponseArg) {
+    connectLiveUpdates({
+        // Students' score changes, which are applied to the table without reloading it
+        '/webSocketGet/leaderboard': function (leaderboardDeltaArg) {
+            const leaderboardDelta = JSON.parse(leaderboardDeltaArg.body)
+            const eventResponse = leaderboardDelta.notification;
+            const operation = eventResponse.action === "delete" ? DELETEEVIDENCEACTION : ADDEVIDENCEACTION;
+            const notification = showLeaderboardUpdateToast("Evidence", eventResponse.artefactName, eventResponse.artefactId,
+                eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, operation);
+            applyLeaderboardDelta(leaderboardDelta, notification, operation);
+        },
+        '/webSocketGet/delete-student-role': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body)
             const notification = showLeaderboardUpdateToast(eventResponse.artefactType, eventResponse.artefactName, eventResponse.artefactId,
                 eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, DELETEROLEACTION);
             updateLeaderboard(notification, DELETEROLEACTION);
-        });
-        stompClient.subscribe('/webSocketGet/add-student-role', function (eventResponseArg) {
+        },
+        '/webSocketGet/add-student-role': function (eventResponseArg) {
             const eventResponse = JSON.parse(eventResponseArg.body)
             const notification = showLeaderboardUpdateToast(eventResponse.artefactType, eventResponse.artefactName, eventResponse.artefactId,
                 eventResponse.username, eventResponse.userFirstName, eventResponse.userLastName, ADDROLEACTION);
             updateLeaderboard(notification, ADDROLEACTION);
-        });
-    });
+        }
+    }, (client) => stompClient = client);
 }
 
 $(function() {
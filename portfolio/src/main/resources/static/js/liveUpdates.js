@@ -0,0 +1,96 @@
+/**
+ * Shared websocket connection for pages with live updates. Reconnects after the connection drops, and when it does,
+ * asks the server for the updates the page missed while disconnected, so the page only reloads when it has missed
+ * more than the server keeps.
+ */
+
+/**
+ * Longest wait, in milliseconds, between attempts to reconnect.
+ * @type {number}
+ */
+const MAX_RECONNECT_DELAY = 30000;
+
+/**
+ * First wait, in milliseconds, before reconnecting, which doubles with each failed attempt.
+ * @type {number}
+ */
+const FIRST_RECONNECT_DELAY = 1000;
+
+/**
+ * Number of handled update sequences remembered, so updates received both live and in a catch-up are handled once.
+ * @type {number}
+ */
+const HANDLED_SEQUENCES_KEPT = 200;
+
+/**
+ * Connects to the websocket endpoint and subscribes to each destination, reconnecting and catching up on missed
+ * updates whenever the connection drops.
+ * @param subscriptions Object mapping each destination to the function handling its messages.
+ * @param onConnect Optional function called with the stomp client each time it connects, for pages that send.
+ */
+function connectLiveUpdates(subscriptions, onConnect) {
+    const destinations = Object.keys(subscriptions);
+    const handledSequences = new Set();
+    let lastSequence = null;
+    let failedAttempts = 0;
+
+    function handle(destination, message) {
+        const sequence = message.headers.sequence === undefined ? null : Number(message.headers.sequence);
+        if (sequence !== null) {
+            if (handledSequences.has(sequence)) {
+                return;
+            }
+            handledSequences.add(sequence);
+            if (handledSequences.size > HANDLED_SEQUENCES_KEPT) {
+                handledSequences.delete(handledSequences.values().next().value);
+            }
+            lastSequence = lastSequence === null ? sequence : Math.max(lastSequence, sequence);
+        }
+        subscriptions[destination](message);
+    }
+
+    function connect() {
+        const client = Stomp.over(new SockJS('mywebsockets'));
+        client.debug = null;
+        client.connect({}, function () {
+            failedAttempts = 0;
+            // Live updates are held until the catch-up is handled, so the page sees updates in order
+            let held = [];
+            client.subscribe('/user/queue/catch-up', function (catchUpArg) {
+                const catchUp = JSON.parse(catchUpArg.body);
+                if (catchUp.reloadRequired) {
+                    document.location.reload();
+                    return;
+                }
+                if (lastSequence === null) {
+                    lastSequence = catchUp.latestSequence;
+                }
+                catchUp.messages.forEach((missed) =>
+                    handle(missed.destination, {body: missed.body, headers: {sequence: missed.sequence}}));
+                held.forEach((live) => handle(live.destination, live.message));
+                held = null;
+            });
+            destinations.forEach((destination) => client.subscribe(destination, function (message) {
+                if (held !== null) {
+                    held.push({destination: destination, message: message});
+                } else {
+                    handle(destination, message);
+                }
+            }));
+            client.send('/webSocketPost/catch-up', {}, JSON.stringify({
+                'lastSequence': lastSequence,
+                'destinations': destinations
+            }));
+            if (onConnect) {
+                onConnect(client);
+            }
+        }, function () {
+            // Waits longer after each failed attempt, with jitter so pages do not all reconnect at once
+            const delay = Math.min(MAX_RECONNECT_DELAY, FIRST_RECONNECT_DELAY * Math.pow(2, failedAttempts));
+            failedAttempts++;
+            setTimeout(connect, delay / 2 + Math.random() * delay / 2);
+        });
+    }
+
+    connect();
+}
@@ -0,0 +1,92 @@
+package nz.ac.canterbury.seng302.portfolio.authentication;
+
+import nz.ac.canterbury.seng302.portfolio.controller.rest.CacheStatisticsRestController;
+import nz.ac.canterbury.seng302.portfolio.service.AuthenticateClientService;
+import nz.ac.canterbury.seng302.portfolio.service.PermissionService;
+import nz.ac.canterbury.seng302.portfolio.service.ReferenceDataCacheService;
+import nz.ac.canterbury.seng302.portfolio.service.UserAccountClientService;
+import nz.ac.canterbury.seng302.shared.identityprovider.AuthState;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.servlet.http.Cookie;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Tests that the actuator endpoints showing metrics are only open to teachers and course administrators. Actuator
+ * itself is not part of this test slice, so a request the security config lets through finds nothing there.
+ */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = CacheStatisticsRestController.class)
+class ActuatorSecurityTest {
+
+    private static final Cookie SESSION_COOKIE = new Cookie("lens-session-token", "token");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private AuthenticateClientService authenticateClientService;
+
+    // Named as the security config refers to them by name
+    @MockBean(name = "permissionService")
+    private PermissionService permissionService;
+
+    @MockBean(name = "userAccountClientService")
+    private UserAccountClientService userAccountClientService;
+
+    @MockBean
+    private ReferenceDataCacheService referenceDataCacheService;
+
+    @BeforeEach
+    void setUp() {
+        when(authenticateClientService.checkAuthState())
+                .thenReturn(AuthState.newBuilder().setIsAuthenticated(true).build());
+        when(userAccountClientService.getUserIDFromAuthState(any(AuthState.class))).thenReturn(1);
+    }
+
+    /**
+     * Tests that a student is refused the metrics, but can still check the application's health.
+     */
+    @Test
+    void testMetricsForbiddenForStudent() throws Exception {
+        when(permissionService.isValidToModify(1)).thenReturn(false);
+
+        mockMvc.perform(get("/actuator/metrics").cookie(SESSION_COOKIE))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health").cookie(SESSION_COOKIE))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests that a teacher or course administrator is let through to the metrics.
+     */
+    @Test
+    void testMetricsAllowedForTeacher() throws Exception {
+        when(permissionService.isValidToModify(1)).thenReturn(true);
+
+        mockMvc.perform(get("/actuator/metrics").cookie(SESSION_COOKIE))
+                .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Tests that users who are not signed in are refused every actuator endpoint.
+     */
+    @Test
+    void testActuatorForbiddenWhenSignedOut() throws Exception {
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/health"))
+                .andExpect(status().isForbidden());
+    }
+}
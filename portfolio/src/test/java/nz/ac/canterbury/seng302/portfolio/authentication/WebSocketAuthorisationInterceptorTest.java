@@ -0,0 +1,79 @@
+package nz.ac.canterbury.seng302.portfolio.authentication;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessagingException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link WebSocketAuthorisationInterceptor} class.
+ */
+class WebSocketAuthorisationInterceptorTest {
+
+    private final WebSocketAuthorisationInterceptor interceptor = new WebSocketAuthorisationInterceptor();
+
+    private Message<byte[]> frame(StompCommand command, String destination, boolean isLoggedIn) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        if (isLoggedIn) {
+            accessor.setUser(new WebSocketHandshakeHandler.UserPrincipal(5));
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    /**
+     * Tests that logged in sessions can subscribe to page, group, evidence and their own user destinations.
+     */
+    @Test
+    void testSubscribeToPublishedDestinationsIsAllowed() {
+        for (String destination : new String[]{"/webSocketGet/group-add", "/webSocketGet/group/3/members",
+                "/webSocketGet/evidence/12", "/user/queue/high-fives"}) {
+            Message<byte[]> message = frame(StompCommand.SUBSCRIBE, destination, true);
+            assertSame(message, interceptor.preSend(message, null), destination);
+        }
+    }
+
+    /**
+     * Tests that subscriptions to malformed group destinations, or straight to another user's queue, are rejected.
+     */
+    @Test
+    void testSubscribeToOtherDestinationsIsRejected() {
+        for (String destination : new String[]{"/webSocketGet/group/abc/members", "/webSocketGet/group/3/members/x",
+                "/queue/high-fives-user7", "/user/7/queue/high-fives", "/webSocketPost/save-group-settings"}) {
+            Message<byte[]> message = frame(StompCommand.SUBSCRIBE, destination, true);
+            assertThrows(MessagingException.class, () -> interceptor.preSend(message, null), destination);
+        }
+    }
+
+    /**
+     * Tests that sessions can only send to the message controllers, not straight to subscribers.
+     */
+    @Test
+    void testSendOnlyToApplicationDestinations() {
+        Message<byte[]> allowed = frame(StompCommand.SEND, "/webSocketPost/editing-group", true);
+        assertSame(allowed, interceptor.preSend(allowed, null));
+
+        Message<byte[]> rejected = frame(StompCommand.SEND, "/webSocketGet/group/3/members", true);
+        assertThrows(MessagingException.class, () -> interceptor.preSend(rejected, null));
+    }
+
+    /**
+     * Tests that sessions which were not logged in when they connected cannot subscribe or send.
+     */
+    @Test
+    void testNotLoggedInIsRejected() {
+        Message<byte[]> subscribe = frame(StompCommand.SUBSCRIBE, "/webSocketGet/group-add", false);
+        assertThrows(MessagingException.class, () -> interceptor.preSend(subscribe, null));
+
+        Message<byte[]> send = frame(StompCommand.SEND, "/webSocketPost/editing-group", false);
+        assertThrows(MessagingException.class, () -> interceptor.preSend(send, null));
+
+        Message<byte[]> connect = frame(StompCommand.CONNECT, null, false);
+        assertSame(connect, interceptor.preSend(connect, null));
+    }
+}
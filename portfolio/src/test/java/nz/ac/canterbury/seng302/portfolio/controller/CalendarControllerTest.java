@@ -3,7 +3,6 @@ package nz.ac.canterbury.seng302.portfolio.controller;
 import com.google.protobuf.Timestamp;
 import nz.ac.canterbury.seng302.portfolio.model.Milestone;
 import nz.ac.canterbury.seng302.portfolio.model.Project;
-import nz.ac.canterbury.seng302.portfolio.model.Sprint;
 import nz.ac.canterbury.seng302.portfolio.service.*;
 import nz.ac.canterbury.seng302.shared.identityprovider.AuthState;
 import nz.ac.canterbury.seng302.shared.identityprovider.ClaimDTO;
@@ -27,9 +26,7 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
 import java.text.SimpleDateFormat;
-import java.util.Arrays;
 import java.util.Date;
-import java.util.List;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.when;
@@ -110,24 +107,6 @@ class CalendarControllerTest {
 
         SimpleDateFormat formatter = new SimpleDateFormat("dd-MM-yyyy");
 
-        String date_string = "16-09-2021";
-        Date firstStartDate = formatter.parse(date_string);
-
-        String second_date_string = "18-09-2021";
-        Date firstFinishDate = formatter.parse(second_date_string);
-
-        String third_date_string = "23-09-2021";
-        Date secondStartDate = formatter.parse(third_date_string);
-
-        String fourth_date_string = "26-09-2021";
-        Date secondFinishDate = formatter.parse(fourth_date_string);
-
-        Sprint firstSprint = new Sprint(1,"firstSprint", "Label 1", "test1", firstStartDate,firstFinishDate);
-        Sprint secondSprint = new Sprint(2,"secondSprint", "Label 2", "test1", secondStartDate, secondFinishDate);
-
-        List<Sprint> sprints = Arrays.asList(firstSprint, secondSprint);
-
-
         String fifth_date_string = "26-08-2021";
         Date projectStartDate = formatter.parse(fifth_date_string);
 
@@ -136,15 +115,12 @@ class CalendarControllerTest {
 
         Project project = new Project("testProject", "test", projectStartDate, projectFinishDate);
 
-        String expected = "{id: '0', title: 'firstSprint', start: 'Thu Sep 16 00:00:00 NZST 2021', end: '2021-09-18T12:00:00Z', allDay: true, color: '#5897fc', type: 'Sprint'},{id: '0', title: 'secondSprint', start: 'Thu Sep 23 00:00:00 NZST 2021', end: '2021-09-26T11:00:00Z', allDay: true, color: '#a758fc', type: 'Sprint'},";
-
         SecurityContext mockedSecurityContext = Mockito.mock(SecurityContext.class);
         when(mockedSecurityContext.getAuthentication()).thenReturn(new PreAuthenticatedAuthenticationToken(validAuthState, ""));
 
         SecurityContextHolder.setContext(mockedSecurityContext);
 
         when(userAccountClientService.getUserIDFromAuthState(any(AuthState.class))).thenReturn(1);
-        when(sprintService.getAllSprintsOrdered()).thenReturn(sprints);
         when(projectService.getProjectById(any(Integer.class))).thenReturn(project);
         when(registerClientService.getUserData(any(Integer.class))).thenReturn(mockUser);
 
@@ -152,7 +128,7 @@ class CalendarControllerTest {
         mockMvc.perform(get("/calendar"))
                 .andExpect(status().isOk()) // Whether to return the status "200 OK"
                 .andExpect(view().name("calendar")) // Whether to return the template "account"
-                .andExpect(model().attribute("events", expected))
+                .andExpect(model().attributeDoesNotExist("events"))
                 .andExpect(model().attribute("userId", 1))
                 .andExpect(model().attribute("projectName", "testProject"))
                 .andExpect(model().attribute("currentUserRole", "ADMIN"));
@@ -169,24 +145,6 @@ class CalendarControllerTest {
 
         SimpleDateFormat formatter = new SimpleDateFormat("dd-MM-yyyy");
 
-        String date_string = "16-09-2021";
-        Date firstStartDate = formatter.parse(date_string);
-
-        String second_date_string = "18-09-2021";
-        Date firstFinishDate = formatter.parse(second_date_string);
-
-        String third_date_string = "23-09-2021";
-        Date secondStartDate = formatter.parse(third_date_string);
-
-        String fourth_date_string = "26-09-2021";
-        Date secondFinishDate = formatter.parse(fourth_date_string);
-
-        Sprint firstSprint = new Sprint(1,"firstSprint", "Label 1", "test1", firstStartDate,firstFinishDate);
-        Sprint secondSprint = new Sprint(2,"secondSprint", "Label 2", "test1", secondStartDate, secondFinishDate);
-
-        List<Sprint> sprints = Arrays.asList(firstSprint, secondSprint);
-
-
         String fifth_date_string = "26-08-2021";
         Date projectStartDate = formatter.parse(fifth_date_string);
 
@@ -195,15 +153,12 @@ class CalendarControllerTest {
 
         Project project = new Project("testProject", "test", projectStartDate, projectFinishDate);
 
-        String expected = "{id: '0', title: 'firstSprint', start: 'Thu Sep 16 00:00:00 NZST 2021', end: '2021-09-18T12:00:00Z', allDay: true, color: '#5897fc', type: 'Sprint'},{id: '0', title: 'secondSprint', start: 'Thu Sep 23 00:00:00 NZST 2021', end: '2021-09-26T11:00:00Z', allDay: true, color: '#a758fc', type: 'Sprint'},";
-
         SecurityContext mockedSecurityContext = Mockito.mock(SecurityContext.class);
         when(mockedSecurityContext.getAuthentication()).thenReturn(new PreAuthenticatedAuthenticationToken(validAuthState, ""));
 
         SecurityContextHolder.setContext(mockedSecurityContext);
 
         when(userAccountClientService.getUserIDFromAuthState(any(AuthState.class))).thenReturn(1);
-        when(sprintService.getAllSprintsOrdered()).thenReturn(sprints);
         when(projectService.getProjectById(any(Integer.class))).thenReturn(project);
         when(registerClientService.getUserData(any(Integer.class))).thenReturn(mockUser);
 
@@ -211,7 +166,7 @@ class CalendarControllerTest {
         mockMvc.perform(get("/update-calendar"))
                 .andExpect(status().isOk()) // Whether to return the status "200 OK"
                 .andExpect(view().name("calendar::calendar_body")) // Whether to return the template "account"
-                .andExpect(model().attribute("events", expected))
+                .andExpect(model().attributeDoesNotExist("events"))
                 .andExpect(model().attribute("projectName", "testProject"))
                 .andExpect(model().attribute("currentUserRole", "ADMIN"));
     }
@@ -77,12 +77,12 @@ class DeadlineLifetimeControllerTest {
         SecurityContextHolder.setContext(mockedSecurityContext);
 
         Deadline expectedDeadline = new Deadline(0,"Test Deadline", new Date());
-        when(deadlineService.addDeadline(any(Deadline.class))).then(returnsFirstArg());
+        when(deadlineService.addDeadline(any(Deadline.class), anyInt())).then(returnsFirstArg());
         when(permissionService.isValidToModify(any(Integer.class))).thenReturn(true);
 
         mockMvc.perform(post("/add-deadline").flashAttr("deadline", expectedDeadline))
                 .andExpect(status().isOk());
 
-        verify(deadlineService, times(1)).addDeadline(expectedDeadline);
+        verify(deadlineService, times(1)).addDeadline(eq(expectedDeadline), anyInt());
     }
 }
\ No newline at end of file
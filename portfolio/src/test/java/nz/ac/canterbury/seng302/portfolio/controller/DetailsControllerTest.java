@@ -10,6 +10,7 @@ import nz.ac.canterbury.seng302.shared.identityprovider.UserAccountServiceGrpc;
 import nz.ac.canterbury.seng302.shared.identityprovider.UserResponse;
 import org.junit.Before;
 import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -18,6 +19,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
@@ -30,8 +32,10 @@ import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Date;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
@@ -85,6 +89,12 @@ class DetailsControllerTest {
     @MockBean
     private ElementService elementService;
 
+    @MockBean
+    private RecentNotificationService recentNotificationService;
+
+    @SpyBean
+    private PageDataLoader pageDataLoader;
+
     public Project mockedProject;
 
     private UserResponse userResponse;
@@ -92,6 +102,15 @@ class DetailsControllerTest {
     private final int USER_ID = 1;
     private final String USERNAME = "Username";
 
+    /**
+     * The page loads the user with the future stub, so answer it as the blocking call is stubbed.
+     */
+    @BeforeEach
+    void setUpUserDataAsync() {
+        when(registerClientService.getUserDataAsync(anyInt())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(registerClientService.getUserData(invocation.getArgument(0))));
+    }
+
     /***
      * Test to check if project page return 200 status code when send GET method
      */
@@ -87,13 +87,13 @@ class EditDeadlineControllerTest {
         Deadline newDeadline = new Deadline(0, expectedDeadlineName, expectedDeadlineDate);
         when(permissionService.isValidToModify(any(Integer.class))).thenReturn(true);
         when(deadlineService.getDeadlineById(any(Integer.class))).thenReturn(newDeadline);
-        when(deadlineService.updateDeadline(any(Deadline.class))).then(returnsFirstArg());
+        when(deadlineService.updateDeadline(any(Deadline.class), anyInt())).then(returnsFirstArg());
 
         ArgumentCaptor<Deadline> deadlinesArgumentCaptor = ArgumentCaptor.forClass(Deadline.class);
         mockMvc.perform(post("/edit-deadline/{id}", newDeadline.getId()).flashAttr("deadline", newDeadline))
                 .andExpect(status().isOk());
 
-        Mockito.verify(deadlineService).updateDeadline(deadlinesArgumentCaptor.capture());
+        Mockito.verify(deadlineService).updateDeadline(deadlinesArgumentCaptor.capture(), anyInt());
         Deadline addedDeadline = deadlinesArgumentCaptor.getValue();
         assertEquals(expectedDeadlineName, addedDeadline.getDeadlineName());
         assertEquals(expectedDeadlineDate, addedDeadline.getDeadlineDate());
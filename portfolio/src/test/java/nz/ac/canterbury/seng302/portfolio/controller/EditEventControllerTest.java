@@ -26,6 +26,7 @@ import java.util.Date;
 import static nz.ac.canterbury.seng302.portfolio.controller.SprintLifetimeController.getUpdatedDate;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -95,11 +96,11 @@ class EditEventControllerTest {
 
         when(eventService.getEventById(any(Integer.class))).thenReturn(mockEvent);
         ArgumentCaptor<Event> eventArgumentCaptor = ArgumentCaptor.forClass(Event.class);
-        when(eventService.updateEvent(any(Event.class))).thenReturn(mockEvent);
+        when(eventService.updateEvent(any(Event.class), anyInt())).thenReturn(mockEvent);
         when(permissionService.isValidToModify(any(Integer.class))).thenReturn(true);
 
         mockMvc.perform(post("/edit-event/1").flashAttr("event",mockEvent))
                 .andExpect(status().isOk());
-        Mockito.verify(eventService).updateEvent(eventArgumentCaptor.capture());
+        Mockito.verify(eventService).updateEvent(eventArgumentCaptor.capture(), anyInt());
     }
 }
\ No newline at end of file
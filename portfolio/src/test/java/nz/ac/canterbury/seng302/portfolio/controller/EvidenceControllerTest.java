@@ -27,6 +27,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
@@ -39,9 +40,11 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static nz.ac.canterbury.seng302.portfolio.controller.EvidenceController.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -79,6 +82,12 @@ class EvidenceControllerTest {
     @MockBean
     private RegisterClientService registerClientService; // needed to load application context
 
+    @MockBean
+    private LiveUpdateService liveUpdateService;
+
+    @SpyBean
+    private PageDataLoader pageDataLoader;
+
     /**
      * Mocked user response which contains the data of the user
      */
@@ -124,6 +133,9 @@ class EvidenceControllerTest {
 
         when(userAccountClientService.getUserIDFromAuthState(any(AuthState.class))).thenReturn(1);
         when(registerClientService.getUserData(1)).thenReturn(mockUser);
+        // The page loads users with the future stub, so answer it as the blocking call is stubbed
+        when(registerClientService.getUserDataAsync(anyInt())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(registerClientService.getUserData(invocation.getArgument(0))));
     }
 
     /**
@@ -429,7 +441,7 @@ class EvidenceControllerTest {
 
         verify(evidenceService, times(1)).getEvidencesWithSkill(any(Integer.class));
         verify(tagService, times(1)).getTag(any(Integer.class));
-        verify(registerClientService, times(3)).getUserData(any(Integer.class));
+        verify(registerClientService, times(2)).getUserDataAsync(any(Integer.class));
     }
 
     /**
@@ -459,7 +471,7 @@ class EvidenceControllerTest {
                 .andExpect(model().attribute("validViewedUser", true));
 
         verify(evidenceService, times(1)).getEvidencesWithoutSkills();
-        verify(registerClientService, times(3)).getUserData(any(Integer.class));
+        verify(registerClientService, times(2)).getUserDataAsync(any(Integer.class));
     }
 
     /**
@@ -493,7 +505,7 @@ class EvidenceControllerTest {
 
         verify(evidenceService, times(1)).getEvidencesWithSkill(any(Integer.class));
         verify(tagService, times(1)).getTag(any(Integer.class));
-        verify(registerClientService, times(3)).getUserData(any(Integer.class));
+        verify(registerClientService, times(2)).getUserDataAsync(any(Integer.class));
     }
 
     /**
@@ -518,7 +530,7 @@ class EvidenceControllerTest {
 
         verify(evidenceService, times(1)).getEvidencesWithSkill(any(Integer.class));
         verify(tagService, times(1)).getTag(any(Integer.class));
-        verify(registerClientService, times(1)).getUserData(any(Integer.class));
+        verify(registerClientService, times(2)).getUserDataAsync(any(Integer.class));
     }
 
     /**
@@ -544,7 +556,7 @@ class EvidenceControllerTest {
 
         verify(evidenceService, times(1)).getEvidencesWithSkill(any(Integer.class));
         verify(tagService, times(1)).getTag(any(Integer.class));
-        verify(registerClientService, times(1)).getUserData(any(Integer.class));
+        verify(registerClientService, times(2)).getUserDataAsync(any(Integer.class));
     }
 
     /**
@@ -758,7 +770,7 @@ class EvidenceControllerTest {
 
         verify(evidenceService, times(1)).getEvidencesWithCategory(any(Integer.class));
         verify(categoryService, times(1)).getCategory(any(Integer.class));
-        verify(registerClientService, times(3)).getUserData(any(Integer.class));
+        verify(registerClientService, times(2)).getUserDataAsync(any(Integer.class));
     }
 
     /**
@@ -792,7 +804,7 @@ class EvidenceControllerTest {
 
         verify(evidenceService, times(1)).getEvidencesWithCategory(any(Integer.class));
         verify(categoryService, times(1)).getCategory(any(Integer.class));
-        verify(registerClientService, times(3)).getUserData(any(Integer.class));
+        verify(registerClientService, times(2)).getUserDataAsync(any(Integer.class));
     }
 
     /**
@@ -817,7 +829,7 @@ class EvidenceControllerTest {
 
         verify(evidenceService, times(1)).getEvidencesWithCategory(any(Integer.class));
         verify(categoryService, times(1)).getCategory(any(Integer.class));
-        verify(registerClientService, times(1)).getUserData(any(Integer.class));
+        verify(registerClientService, times(2)).getUserDataAsync(any(Integer.class));
     }
 
     /**
@@ -843,7 +855,7 @@ class EvidenceControllerTest {
 
         verify(evidenceService, times(1)).getEvidencesWithCategory(any(Integer.class));
         verify(categoryService, times(1)).getCategory(any(Integer.class));
-        verify(registerClientService, times(1)).getUserData(any(Integer.class));
+        verify(registerClientService, times(2)).getUserDataAsync(any(Integer.class));
     }
 
 
@@ -941,4 +953,19 @@ class EvidenceControllerTest {
         verify(registerClientService, times(1)).getUserData(any(Integer.class));
     }
 
+    /**
+     * Tests that a user cannot high five evidence in someone else's name.
+     * @throws Exception If mocking the MVC fails.
+     */
+    @Test
+    void testHighFiveEvidenceAsOtherUser403() throws Exception {
+        mockMvc.perform(post("/saveHighFiveEvidence")
+                        .param("evidenceId", "1")
+                        .param("userId", "2")
+                        .param("userName", "Other User"))
+                .andExpect(status().isForbidden());
+
+        verify(evidenceService, never()).saveHighFiveEvidence(anyInt(), anyInt(), any());
+    }
+
 }
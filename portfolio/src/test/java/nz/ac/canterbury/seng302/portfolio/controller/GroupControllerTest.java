@@ -78,6 +78,12 @@ class GroupControllerTest {
     @SpyBean
     private GroupService groupService;
 
+    @MockBean
+    private LiveUpdateService liveUpdateService;
+
+    @MockBean
+    private RecentNotificationService recentNotificationService;
+
     @MockBean
     private ElementService elementService; // needed to load application context
 
@@ -5,6 +5,7 @@ import nz.ac.canterbury.seng302.portfolio.model.Group;
 import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
 import nz.ac.canterbury.seng302.portfolio.repository.GroupSettingsRepository;
 import nz.ac.canterbury.seng302.portfolio.service.*;
+import nz.ac.canterbury.seng302.portfolio.utility.DateUtility;
 import nz.ac.canterbury.seng302.shared.identityprovider.*;
 import org.gitlab4j.api.GitLabApiException;
 import org.gitlab4j.api.RepositoryApi;
@@ -27,10 +28,14 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.ui.Model;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.times;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -67,6 +72,12 @@ class GroupSettingsControllerTest {
     @SpyBean
     private GroupService groupService;
 
+    @MockBean
+    private LiveUpdateService liveUpdateService;
+
+    @MockBean
+    private RecentNotificationService recentNotificationService;
+
     @SpyBean
     private GroupSettingsService groupSettingsServiceSpy;
 
@@ -97,6 +108,18 @@ class GroupSettingsControllerTest {
     @MockBean
     private GitLabApiService gitLabApiService; // needed to load application context
 
+    @MockBean
+    private GitLabRepositoryCache gitLabRepositoryCache;
+
+    @MockBean
+    private CommitMirrorService commitMirrorService;
+
+    @MockBean
+    private GitLabClientPool gitLabClientPool;
+
+    @SpyBean
+    private PageDataLoader pageDataLoader;
+
     /**
      * Mocked user response which contains the data of the user
      */
@@ -129,6 +152,13 @@ class GroupSettingsControllerTest {
         SecurityContext mockedSecurityContext = Mockito.mock(SecurityContext.class);
         when(mockedSecurityContext.getAuthentication()).thenReturn(new PreAuthenticatedAuthenticationToken(validAuthState, ""));
         SecurityContextHolder.setContext(mockedSecurityContext);
+        when(gitLabRepositoryCache.get(any(GroupSettings.class))).thenReturn(new GitLabRepositoryCache.RepositoryInfo(
+                testGroupSettings, null, true, List.of(), List.of(), 0));
+        // The page loads users and groups with the future stubs, so answer them as the blocking calls are stubbed
+        when(registerClientService.getUserDataAsync(anyInt())).thenAnswer(invocation ->
+                CompletableFuture.completedFuture(registerClientService.getUserData(invocation.getArgument(0))));
+        doAnswer(invocation -> CompletableFuture.completedFuture(groupService.getGroupDetails(invocation.getArgument(0))))
+                .when(groupService).getGroupDetailsAsync(any());
     }
 
     /**
@@ -172,6 +202,32 @@ class GroupSettingsControllerTest {
                 .andExpect(model().attribute("groupLongName", testGroup.getLongName()));
     }
 
+    /**
+     * Test that the group settings page shows the alert message and connection error of the cached repository
+     * information when the repository that has been set up could not be reached.
+     * @throws Exception when an exception is thrown while performing the get request
+     */
+    @Test
+    void groupSettingsShowsCachedRepositoryError() throws Exception {
+        doReturn(GroupDetailsResponse.newBuilder()
+                .setGroupId(testGroup.getGroupId()).setShortName(testGroup.getShortName())
+                .setLongName(testGroup.getLongName()).build())
+                .when(groupService).getGroupDetails(testGroup.getGroupId());
+        when(groupSettingsService.getGroupSettingsByGroupId(any(Integer.class))).thenReturn(testGroupSettings);
+        when(groupSettingsService.doesGroupHaveRepo(any(GroupSettings.class))).thenReturn(true);
+        when(registerClientService.getUserData(any(Integer.class))).thenReturn(mockUser);
+        when(gitLabRepositoryCache.get(testGroupSettings)).thenReturn(new GitLabRepositoryCache.RepositoryInfo(
+                testGroupSettings, "Invalid API key", false, List.of(), List.of(), 0));
+
+        mockMvc.perform(get("/groupSettings").param("groupId", Integer.toString(testGroup.getGroupId())))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("groupSettingsAlertMessage", "Invalid API key"))
+                .andExpect(model().attribute("isConnectionSuccessful", false))
+                .andExpect(model().attribute("isRepoExist", false));
+
+        verify(gitLabApiService, never()).getBranchNames(any(Integer.class));
+    }
+
     /**
      * Test that the group settings page is loaded with the correct short and long name when given a valid id
      * Also test if the user has write access to the current page if user is in current group.
@@ -324,12 +380,16 @@ class GroupSettingsControllerTest {
         ArgumentCaptor<String> branchNameCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<String> userCaptor = ArgumentCaptor.forClass(String.class);
 
-        when(gitLabApiService.getCommits(eq(testGroup.getGroupId()), any(),any())).thenReturn(testCommits);
+        when(gitLabApiService.getCommitPage(eq(testGroup.getGroupId()), any(), any(), any(), any(), any()))
+                .thenReturn(new GitLabApiService.CommitPage(testCommits, "2", 0));
 
         mockMvc.perform(get("/repository-commits").param("groupId", Integer.toString(testGroup.getGroupId())).param("branchName", "All Branches").param("userEmail", "All Users"))
                 .andExpect(status().isOk())
-                .andExpect(model().attribute("commitList", testCommits));
-        verify(gitLabApiService, times(1)).getCommits(eq(testGroup.getGroupId()),branchNameCaptor.capture(), userCaptor.capture());
+                .andExpect(model().attribute("commitList", testCommits))
+                .andExpect(model().attribute("nextPageToken", "2"))
+                .andExpect(view().name("groupSettings::commitsListRefresh"));
+        verify(gitLabApiService, times(1)).getCommitPage(eq(testGroup.getGroupId()),branchNameCaptor.capture(),
+                userCaptor.capture(), isNull(), isNull(), isNull());
         assertNull(branchNameCaptor.getValue());
         assertNull(userCaptor.getValue());
 
@@ -364,17 +424,69 @@ class GroupSettingsControllerTest {
         ArgumentCaptor<String> branchNameCaptor = ArgumentCaptor.forClass(String.class);
         ArgumentCaptor<String> userCaptor = ArgumentCaptor.forClass(String.class);
 
-        when(gitLabApiService.getCommits(eq(testGroup.getGroupId()), any(String.class),any(String.class))).thenThrow(exception);
+        when(gitLabApiService.getCommitPage(eq(testGroup.getGroupId()), any(String.class), any(String.class), any(),
+                any(), any())).thenThrow(exception);
 
         mockMvc.perform(get("/repository-commits").param("groupId", Integer.toString(testGroup.getGroupId())).param("branchName", branchName).param("userEmail", userEmail))
                 .andExpect(status().isOk());
 
-        verify(gitLabApiService, times(1)).getCommits(eq(testGroup.getGroupId()),branchNameCaptor.capture(), userCaptor.capture());
+        verify(gitLabApiService, times(1)).getCommitPage(eq(testGroup.getGroupId()),branchNameCaptor.capture(),
+                userCaptor.capture(), any(), any(), any());
         assertEquals(branchName, branchNameCaptor.getValue());
         assertEquals(userEmail, userCaptor.getValue());
 
     }
 
+    /**
+     * Test that asking for a later page of commits passes the page token and the selected days on to the GitLab API
+     * service, with the end day included, and returns only the fragment holding the next page.
+     * @throws Exception when an exception is thrown while performing the get request
+     */
+    @Test
+    void getNextPageOfCommitsInDateRange() throws Exception {
+        when(gitLabApiService.getCommitPage(any(), any(), any(), any(), any(), any()))
+                .thenReturn(new GitLabApiService.CommitPage(testCommits, null, 0));
+
+        mockMvc.perform(get("/repository-commits").param("groupId", Integer.toString(testGroup.getGroupId()))
+                        .param("branchName", "All Branches").param("userEmail", "All Users")
+                        .param("since", "2022-03-01").param("until", "2022-03-31").param("pageToken", "3"))
+                .andExpect(status().isOk())
+                .andExpect(model().attribute("commitList", testCommits))
+                .andExpect(view().name("groupSettings::commitsPage"));
+
+        verify(gitLabApiService).getCommitPage(testGroup.getGroupId(), null, null,
+                DateUtility.toDate(LocalDate.of(2022, 3, 1)), DateUtility.toDate(LocalDate.of(2022, 4, 1)), "3");
+    }
+
+    /**
+     * Test that teachers are shown the commit counts of each sprint from the local copy of the group's commits.
+     * @throws Exception when an exception is thrown while performing the get request
+     */
+    @Test
+    void getContributionsAsTeacher() throws Exception {
+        when(elementService.getUserHighestRole(any())).thenReturn("teacher");
+        when(commitMirrorService.getCommitCountsBySprint(testGroup.getGroupId())).thenReturn(new LinkedHashMap<>());
+
+        mockMvc.perform(get("/groupSettings/contributions").param("groupId", Integer.toString(testGroup.getGroupId())))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeExists("commitCountsBySprint"))
+                .andExpect(view().name("groupSettings::contributions"));
+    }
+
+    /**
+     * Test that students are not shown the commit counts of each sprint.
+     * @throws Exception when an exception is thrown while performing the get request
+     */
+    @Test
+    void getContributionsAsStudent() throws Exception {
+        when(elementService.getUserHighestRole(any())).thenReturn("student");
+
+        mockMvc.perform(get("/groupSettings/contributions").param("groupId", Integer.toString(testGroup.getGroupId())))
+                .andExpect(status().isOk())
+                .andExpect(model().attributeDoesNotExist("commitCountsBySprint"));
+        verify(commitMirrorService, never()).getCommitCountsBySprint(any(Integer.class));
+    }
+
     /**
      * Test that a post request is sent to update the group's Long name but the system fails to update the long name.
      * This test expect that the system will return a model with the error message. it also expects that the system will return 400 status code and return groupLongNameAlertBanner fragment.
@@ -416,7 +528,7 @@ class GroupSettingsControllerTest {
         doReturn(true).when(groupSettingsService).isGroupSettingSaved(any(Integer.class),any(Long.class),any(String.class),any(String.class),any(Integer.class), any(String.class));
         doNothing().when(groupService).addGroupDetailToModel(any(Model.class),any(Integer.class));
         doNothing().when(groupSettingsService).addSettingAttributesToModel(any(Model.class), any(GroupSettings.class));
-        doNothing().when(groupSettingsController).addGroupSettingAttributeToModel(any(Model.class),any(Integer.class));
+        doNothing().when(groupSettingsController).addGroupSettingAttributeToModel(any(Model.class),any());
         when(permissionService.isValidToModifyGroupSettingPage(any(Integer.class), any(Integer.class))).thenReturn(true);
 
         doReturn(true).when(groupSettingsService).isValidGroupSettings((int)testGroupSettings.getRepoId(),
@@ -449,7 +561,7 @@ class GroupSettingsControllerTest {
         doReturn(false).when(groupSettingsService).isGroupSettingSaved(any(Integer.class),any(Integer.class),any(String.class),any(String.class),any(Integer.class),any(String.class));
         doNothing().when(groupService).addGroupDetailToModel(any(Model.class),any(Integer.class));
         doNothing().when(groupSettingsService).addSettingAttributesToModel(any(Model.class), any(GroupSettings.class));
-        doNothing().when(groupSettingsController).addGroupSettingAttributeToModel(any(Model.class),any(Integer.class));
+        doNothing().when(groupSettingsController).addGroupSettingAttributeToModel(any(Model.class),any());
         when(permissionService.isValidToModifyGroupSettingPage(any(Integer.class), any(Integer.class))).thenReturn(true);
         doReturn(true).when(groupSettingsService).isValidGroupSettings((int)testGroupSettings.getRepoId(),
                 testGroupSettings.getRepoName(), testGroupSettings.getRepoApiKey());
@@ -485,7 +597,7 @@ class GroupSettingsControllerTest {
                 testGroupSettings.getRepoName(), testGroupSettings.getRepoApiKey());
         doNothing().when(groupService).addGroupDetailToModel(any(Model.class),any(Integer.class));
         doNothing().when(groupSettingsService).addSettingAttributesToModel(any(Model.class), any(GroupSettings.class));
-        doNothing().when(groupSettingsController).addGroupSettingAttributeToModel(any(Model.class),any(Integer.class));
+        doNothing().when(groupSettingsController).addGroupSettingAttributeToModel(any(Model.class),any());
         when(registerClientService.getUserData(any(Integer.class))).thenReturn(mockUser);
 
         mockMvc.perform(post("/saveGroupSettings")
@@ -60,6 +60,9 @@ class LeaderboardControllerTest {
     @MockBean
     private ElementService elementService;
 
+    @MockBean
+    private LiveUpdateService liveUpdateService;
+
     private static List<UserResponse> usersList;
 
     private static List<LeaderboardEntry> leaderboardEntries;
@@ -1,7 +1,9 @@
 package nz.ac.canterbury.seng302.portfolio.controller;
 
+import io.grpc.Status;
 import nz.ac.canterbury.seng302.portfolio.service.AuthenticateClientService;
 import nz.ac.canterbury.seng302.portfolio.service.UserAccountClientService;
+import nz.ac.canterbury.seng302.shared.identityprovider.AuthenticateResponse;
 import org.junit.Before;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,7 +14,10 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 
@@ -56,5 +61,33 @@ class LoginControllerTest {
                 .andExpect(redirectedUrl("login"));
     }
 
+    /**
+     * Test post method of login controller
+     * When the identity provider turns the attempt away because there have been too many
+     * Expect to redirect to the login page with the too many attempts error
+     */
+    @Test
+    void login_whenTooManyAttempts_redirectsWithTooManyAttemptsError() throws Exception {
+        when(authenticateClientService.authenticate(any(), any())).thenReturn(AuthenticateResponse.newBuilder()
+                .setSuccess(false).setMessage(LoginController.TOO_MANY_ATTEMPTS_MESSAGE).build());
+
+        mockMvc.perform(post("/login").param("usernameLogin", "user").param("passwordLogin", "password"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("login?tooManyAttemptsError"));
+    }
 
-}
\ No newline at end of file
+    /**
+     * Test post method of login controller
+     * When the identity provider is checking too many passwords to take the attempt
+     * Expect to redirect to the login page with the too many attempts error
+     */
+    @Test
+    void login_whenIdentityProviderIsBusy_redirectsWithTooManyAttemptsError() throws Exception {
+        when(authenticateClientService.authenticate(any(), any()))
+                .thenThrow(Status.RESOURCE_EXHAUSTED.asRuntimeException());
+
+        mockMvc.perform(post("/login").param("usernameLogin", "user").param("passwordLogin", "password"))
+                .andExpect(status().is3xxRedirection())
+                .andExpect(redirectedUrl("login?tooManyAttemptsError"));
+    }
+}
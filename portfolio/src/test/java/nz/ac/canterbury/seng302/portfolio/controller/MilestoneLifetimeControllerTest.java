@@ -76,12 +76,12 @@ class MilestoneLifetimeControllerTest {
         SecurityContextHolder.setContext(mockedSecurityContext);
 
         Milestone expectedMilestone = new Milestone(0,"Test Milestone", new Date());
-        when(milestoneService.addMilestone(any(Milestone.class))).then(returnsFirstArg());
+        when(milestoneService.addMilestone(any(Milestone.class), anyInt())).then(returnsFirstArg());
         when(permissionService.isValidToModify(any(Integer.class))).thenReturn(true);
         mockMvc.perform(post("/add-milestone").flashAttr("milestone", expectedMilestone))
                 .andExpect(status().isOk());
 
-        verify(milestoneService, times(1)).addMilestone(expectedMilestone);
+        verify(milestoneService, times(1)).addMilestone(eq(expectedMilestone), anyInt());
     }
 
     /**
@@ -101,6 +101,6 @@ class MilestoneLifetimeControllerTest {
                 .andExpect(status().is3xxRedirection())
                 .andExpect(redirectedUrl("/details"));
 
-        verify(milestoneService, times(1)).removeMilestone(expectedMilestone.getId());
+        verify(milestoneService, times(1)).removeMilestone(eq(expectedMilestone.getId()), anyInt());
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package nz.ac.canterbury.seng302.portfolio.controller.rest;
+
+import nz.ac.canterbury.seng302.portfolio.service.PermissionService;
+import nz.ac.canterbury.seng302.portfolio.service.ReferenceDataCacheService;
+import nz.ac.canterbury.seng302.portfolio.service.UserAccountClientService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Junit testing to test the cache statistics rest controller
+ */
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(controllers = CacheStatisticsRestController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class CacheStatisticsRestControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReferenceDataCacheService referenceDataCacheService;
+
+    @MockBean
+    private PermissionService permissionService;
+
+    @MockBean
+    private UserAccountClientService userAccountClientService;
+
+    /**
+     * Tests that a teacher or admin receives the statistics of each cache region.
+     */
+    @Test
+    void testGetCacheStatisticsAsTeacher() throws Exception {
+        when(userAccountClientService.getUserIDFromAuthState(any())).thenReturn(1);
+        when(permissionService.isValidToModify(1)).thenReturn(true);
+        when(referenceDataCacheService.getStatistics())
+                .thenReturn(Map.of("queries", Map.of("hits", 4L, "misses", 1L, "puts", 1L)));
+
+        mockMvc.perform(get("/cache-statistics"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.queries.hits").value(4));
+    }
+
+    /**
+     * Tests that a student can neither view the statistics nor evict the cache.
+     */
+    @Test
+    void testCacheEndpointsForbiddenForStudent() throws Exception {
+        when(userAccountClientService.getUserIDFromAuthState(any())).thenReturn(1);
+        when(permissionService.isValidToModify(1)).thenReturn(false);
+
+        mockMvc.perform(get("/cache-statistics"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(post("/cache-statistics/evict"))
+                .andExpect(status().isForbidden());
+        verify(referenceDataCacheService, never()).evictAll();
+    }
+
+    /**
+     * Tests that a teacher or admin can evict the cache.
+     */
+    @Test
+    void testEvictCacheAsTeacher() throws Exception {
+        when(userAccountClientService.getUserIDFromAuthState(any())).thenReturn(1);
+        when(permissionService.isValidToModify(1)).thenReturn(true);
+
+        mockMvc.perform(post("/cache-statistics/evict"))
+                .andExpect(status().isOk());
+        verify(referenceDataCacheService, times(1)).evictAll();
+    }
+}
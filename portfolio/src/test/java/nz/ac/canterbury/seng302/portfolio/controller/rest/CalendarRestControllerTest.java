@@ -1,6 +1,9 @@
 package nz.ac.canterbury.seng302.portfolio.controller.rest;
 
 import nz.ac.canterbury.seng302.portfolio.controller.CalendarController;
+import nz.ac.canterbury.seng302.portfolio.service.CalendarFeedService;
+import nz.ac.canterbury.seng302.portfolio.service.DateValidationService;
+import nz.ac.canterbury.seng302.portfolio.service.ProjectVersionService;
 import nz.ac.canterbury.seng302.portfolio.service.SprintService;
 import nz.ac.canterbury.seng302.portfolio.service.UserAccountClientService;
 import org.junit.jupiter.api.Test;
@@ -13,11 +16,19 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 /**
  * Unit tests for CalendarRestController.
@@ -33,6 +44,15 @@ class CalendarRestControllerTest {
     @MockBean
     private SprintService sprintService;
 
+    @MockBean
+    private DateValidationService dateValidationService;
+
+    @MockBean
+    private CalendarFeedService calendarFeedService;
+
+    @MockBean
+    private ProjectVersionService projectVersionService;
+
     /**
      * Needed so tests can load application context.
      */
@@ -46,7 +66,8 @@ class CalendarRestControllerTest {
      */
     @Test
     void updateSprintDatesValid() throws Exception {
-        when(sprintService.updateSprintDates(anyInt(), anyString(), anyString())).thenReturn(true);
+        mockValidSprintDates();
+        when(sprintService.updateSprintDates(anyInt(), anyString(), anyString(), anyInt())).thenReturn(true);
         mockMvc.perform(post("/update-sprint")
                 .param("id", "1")
                 .param("sprintStartDate", "2001-10-20")
@@ -61,11 +82,91 @@ class CalendarRestControllerTest {
      */
     @Test
     void updateSprintDatesInvalid() throws Exception {
-        when(sprintService.updateSprintDates(anyInt(), anyString(), anyString())).thenReturn(false);
+        mockValidSprintDates();
+        when(sprintService.updateSprintDates(anyInt(), anyString(), anyString(), anyInt())).thenReturn(false);
         mockMvc.perform(post("/update-sprint")
                         .param("id", "1")
                         .param("sprintStartDate", "2001-10-20")
                         .param("sprintEndDate", "2001-10-21"))
                 .andExpect(content().string("false"));
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that the rest controller responds with false and does not update the sprint if the new dates overlap
+     * another sprint.
+     * @throws Exception when an exception is thrown while performing the post request
+     */
+    @Test
+    void updateSprintDatesOverlappingAnotherSprint() throws Exception {
+        mockValidSprintDates();
+        when(dateValidationService.validateSprintDateRange(any(Date.class), any(Date.class), anyInt()))
+                .thenReturn("Dates must not overlap with Sprint 2's dates");
+        mockMvc.perform(post("/update-sprint")
+                        .param("id", "1")
+                        .param("sprintStartDate", "2001-10-20")
+                        .param("sprintEndDate", "2001-10-21"))
+                .andExpect(content().string("false"));
+        verify(sprintService, never()).updateSprintDates(anyInt(), anyString(), anyString(), anyInt());
+    }
+
+    private void mockValidSprintDates() {
+        when(sprintService.calendarDateStringToDate("2001-10-20", false)).thenReturn(new Date(1000));
+        when(sprintService.calendarDateStringToDate("2001-10-21", true)).thenReturn(new Date(2000));
+        when(dateValidationService.validateSprintDateRange(any(Date.class), any(Date.class), anyInt())).thenReturn("");
+        when(dateValidationService.validateDatesInProjectDateRange(any(Date.class), any(Date.class))).thenReturn("");
+    }
+
+    /**
+     * Tests that the calendar feed is written for the requested range and tagged with the project's version.
+     * @throws Exception when an exception is thrown while performing the get request
+     */
+    @Test
+    void getCalendarFeedReturnsFeedWithETag() throws Exception {
+        when(projectVersionService.getETag()).thenReturn("\"v-1\"");
+        doAnswer(invocation -> {
+            invocation.getArgument(2, OutputStream.class).write("[]".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(calendarFeedService).writeFeed(any(Date.class), any(Date.class), any(OutputStream.class));
+
+        mockMvc.perform(get("/calendar-feed")
+                        .param("start", "2022-02-27T00:00:00+13:00")
+                        .param("end", "2022-04-10T00:00:00+12:00"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v-1\""))
+                .andExpect(content().json("[]"));
+        verify(calendarFeedService, times(1)).writeFeed(any(Date.class), any(Date.class), any(OutputStream.class));
+    }
+
+    /**
+     * Tests that a client which already has the current version of the feed is sent 304 without it being generated.
+     * @throws Exception when an exception is thrown while performing the get request
+     */
+    @Test
+    void getCalendarFeedNotModifiedWhenETagMatches() throws Exception {
+        when(projectVersionService.getETag()).thenReturn("\"v-1\"");
+
+        mockMvc.perform(get("/calendar-feed")
+                        .header("If-None-Match", "\"v-1\"")
+                        .param("start", "2022-02-27")
+                        .param("end", "2022-04-10"))
+                .andExpect(status().isNotModified());
+        verify(calendarFeedService, never()).writeFeed(any(), any(), any());
+    }
+
+    /**
+     * Tests that a range which cannot be parsed, or ends before it starts, is rejected.
+     * @throws Exception when an exception is thrown while performing the get request
+     */
+    @Test
+    void getCalendarFeedInvalidRange() throws Exception {
+        mockMvc.perform(get("/calendar-feed")
+                        .param("start", "not a date")
+                        .param("end", "2022-04-10"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/calendar-feed")
+                        .param("start", "2022-04-10")
+                        .param("end", "2022-02-27"))
+                .andExpect(status().isBadRequest());
+        verify(calendarFeedService, never()).writeFeed(any(), any(), any());
+    }
+}
@@ -0,0 +1,86 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import io.grpc.Status;
+import nz.ac.canterbury.seng302.portfolio.model.NotificationResponse;
+import nz.ac.canterbury.seng302.shared.identityprovider.UserResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link ArtefactNotificationService} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class ArtefactNotificationServiceTest {
+
+    @Mock
+    private LiveUpdateService liveUpdateService;
+
+    @Mock
+    private RecentNotificationService recentNotificationService;
+
+    @Mock
+    private RegisterClientService registerClientService;
+
+    @InjectMocks
+    private ArtefactNotificationService artefactNotificationService;
+
+    /**
+     * Tests that a deleted artefact is published with the name of the user that deleted it, looked up on the server
+     * only once the change is committed, and kept as a recent notification of the details page.
+     */
+    @Test
+    void testPublishDeletedNamesEditorAndKeepsNotification() {
+        when(registerClientService.getUserData(7)).thenReturn(UserResponse.newBuilder().setUsername("editor")
+                .setFirstName("First").setLastName("Last").build());
+        ArgumentCaptor<Runnable> afterCommit = ArgumentCaptor.forClass(Runnable.class);
+
+        artefactNotificationService.publishDeleted("Event", 3, "Demo", 7);
+        verify(liveUpdateService).runAfterCommit(afterCommit.capture());
+        verifyNoInteractions(registerClientService, recentNotificationService);
+        afterCommit.getValue().run();
+
+        ArgumentCaptor<NotificationResponse> published = ArgumentCaptor.forClass(NotificationResponse.class);
+        verify(liveUpdateService).publish(eq(ArtefactNotificationService.ARTEFACT_DELETED_DESTINATION), eq("Event:3"),
+                published.capture());
+        NotificationResponse response = published.getValue();
+        assertEquals("Demo", response.getArtefactName());
+        assertEquals(3, response.getArtefactId());
+        assertEquals("Event", response.getArtefactType());
+        assertEquals("delete", response.getAction());
+        assertEquals("editor", response.getUsername());
+        assertEquals("First", response.getUserFirstName());
+        assertEquals("Last", response.getUserLastName());
+        verify(recentNotificationService).add(RecentNotificationService.DETAILS_FEED, response);
+    }
+
+    /**
+     * Tests that a saved artefact is still published, naming the user by their id, when the identity provider cannot
+     * be reached, as the change has already been saved.
+     */
+    @Test
+    void testPublishSavedNamesEditorByIdWhenLookupFails() {
+        when(registerClientService.getUserData(7)).thenThrow(Status.UNAVAILABLE.asRuntimeException());
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(liveUpdateService).runAfterCommit(any());
+
+        artefactNotificationService.publishSaved("Sprint", 3, "Sprint 1", 7);
+
+        ArgumentCaptor<NotificationResponse> published = ArgumentCaptor.forClass(NotificationResponse.class);
+        verify(liveUpdateService).publish(eq(ArtefactNotificationService.ARTEFACT_SAVED_DESTINATION), eq("Sprint:3"),
+                published.capture());
+        assertEquals("save", published.getValue().getAction());
+        assertEquals("7", published.getValue().getUsername());
+        verify(recentNotificationService).add(RecentNotificationService.DETAILS_FEED, published.getValue());
+    }
+}
@@ -0,0 +1,116 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import nz.ac.canterbury.seng302.portfolio.model.Deadline;
+import nz.ac.canterbury.seng302.portfolio.model.Event;
+import nz.ac.canterbury.seng302.portfolio.model.Milestone;
+import nz.ac.canterbury.seng302.portfolio.model.Sprint;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the CalendarFeedService class.
+ */
+@ExtendWith(MockitoExtension.class)
+class CalendarFeedServiceTest {
+
+    @Mock
+    private SprintService sprintService;
+
+    @Mock
+    private EventService eventService;
+
+    @Mock
+    private DeadlineService deadlineService;
+
+    @Mock
+    private MilestoneService milestoneService;
+
+    @InjectMocks
+    private CalendarFeedService calendarFeedService;
+
+    private static Date date(int month, int day, int hour) {
+        return Date.from(LocalDateTime.of(2022, month, day, hour, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static String startOfDay(int month, int day) {
+        return LocalDate.of(2022, month, day).atStartOfDay(ZoneId.systemDefault()).toInstant().toString();
+    }
+
+    private JsonNode writeFeed(Date start, Date end) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        calendarFeedService.writeFeed(start, end, output);
+        return new ObjectMapper().readTree(output.toByteArray());
+    }
+
+    /**
+     * Tests that only the sprints overlapping the range are written, with their colours and an exclusive end.
+     */
+    @Test
+    void testWriteFeed_onlySprintsInRange() throws Exception {
+        Sprint before = new Sprint(1, "Before", "Sprint 1", "", date(1, 1, 0), date(1, 20, 0));
+        Sprint during = new Sprint(2, "During", "Sprint 2", "", date(3, 1, 0), date(3, 14, 0));
+        before.setId(1);
+        during.setId(2);
+        before.setColour("#5897fc");
+        during.setColour("#a758fc");
+        when(sprintService.getAllSprintsOrderedWithColour()).thenReturn(List.of(before, during));
+
+        JsonNode feed = writeFeed(date(2, 27, 0), date(4, 10, 0));
+
+        assertEquals(1, feed.size());
+        assertEquals("2", feed.get(0).get("id").asText());
+        assertEquals("During", feed.get(0).get("title").asText());
+        assertEquals("#a758fc", feed.get(0).get("color").asText());
+        assertEquals("Sprint", feed.get(0).get("type").asText());
+        assertTrue(feed.get(0).get("allDay").asBoolean());
+        assertEquals(date(3, 15, 0).toInstant().toString(), feed.get(0).get("end").asText());
+    }
+
+    /**
+     * Tests that artefacts of the same type on the same day are combined into one entry, that events are shown on
+     * each day they span within the range, and that names are escaped.
+     */
+    @Test
+    void testWriteFeed_combinesArtefactsByTypeAndDay() throws Exception {
+        Event event = new Event(0, "Retro & Planning", date(3, 31, 9), date(4, 2, 17));
+        Deadline first = new Deadline(0, "Report", date(4, 1, 9));
+        Deadline second = new Deadline(0, "Demo", date(4, 1, 15));
+        Milestone milestone = new Milestone(0, "Release", date(4, 1, 0));
+        Date start = date(4, 1, 0);
+        Date end = date(4, 2, 0);
+        when(sprintService.getAllSprintsOrderedWithColour()).thenReturn(new ArrayList<>());
+        when(eventService.getEventsInRange(start, end)).thenReturn(List.of(event));
+        when(deadlineService.getDeadlinesInRange(start, end)).thenReturn(List.of(first, second));
+        when(milestoneService.getMilestonesInRange(start, end)).thenReturn(List.of(milestone));
+
+        JsonNode feed = writeFeed(start, end);
+
+        assertEquals(3, feed.size());
+        assertEquals("Event", feed.get(0).get("type").asText());
+        assertEquals("1", feed.get(0).get("title").asText());
+        assertEquals(startOfDay(4, 1), feed.get(0).get("start").asText());
+        assertTrue(feed.get(0).get("description").asText().contains("Retro &amp; Planning"));
+        assertEquals("Deadline", feed.get(1).get("type").asText());
+        assertEquals("2", feed.get(1).get("title").asText());
+        assertTrue(feed.get(1).get("description").asText().startsWith("<strong>Deadlines:</strong><br>- Report"));
+        assertTrue(feed.get(1).get("description").asText().contains("<br>- Demo"));
+        assertEquals("Milestone", feed.get(2).get("type").asText());
+        assertEquals("<strong>Milestones:</strong><br>- Release", feed.get(2).get("description").asText());
+    }
+}
@@ -0,0 +1,237 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import nz.ac.canterbury.seng302.portfolio.model.CommitMirrorCursor;
+import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
+import nz.ac.canterbury.seng302.portfolio.model.RepositoryCommit;
+import nz.ac.canterbury.seng302.portfolio.model.Sprint;
+import nz.ac.canterbury.seng302.portfolio.repository.AuthorCommitCount;
+import nz.ac.canterbury.seng302.portfolio.repository.CommitMirrorCursorRepository;
+import nz.ac.canterbury.seng302.portfolio.repository.RepositoryCommitRepository;
+import org.gitlab4j.api.GitLabApiException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.*;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link CommitMirrorService} class. Commits are fetched with a real GitLab client from a local HTTP
+ * server standing in for GitLab, which has two pages of commits.
+ */
+@ExtendWith(MockitoExtension.class)
+class CommitMirrorServiceTest {
+
+    private static final String FIRST_PAGE = "[{\"id\":\"c3\",\"author_name\":\"Ann\",\"author_email\":\"ann@test.com\"," +
+            "\"committed_date\":\"2022-05-03T10:00:00.000Z\"},{\"id\":\"c2\",\"author_name\":\"Bob\"," +
+            "\"author_email\":\"bob@test.com\",\"committed_date\":\"2022-05-02T10:00:00.000Z\"}]";
+
+    private static final String SECOND_PAGE = "[{\"id\":\"c1\",\"author_name\":\"Ann\",\"author_email\":\"ann@test.com\"," +
+            "\"committed_date\":\"2022-05-01T10:00:00.000Z\"}]";
+
+    private static final Date NEWEST_COMMIT_DATE = Date.from(java.time.Instant.parse("2022-05-03T10:00:00Z"));
+
+    @Mock
+    private RepositoryCommitRepository commitRepository;
+
+    @Mock
+    private CommitMirrorCursorRepository cursorRepository;
+
+    @Mock
+    private GroupSettingsService groupSettingsService;
+
+    @Mock
+    private SprintService sprintService;
+
+    @Spy
+    private GitLabRequestExecutor gitLabRequestExecutor = new GitLabRequestExecutor(5000, 3, 30000,
+            System::currentTimeMillis, Executors.newFixedThreadPool(2));
+
+    @Spy
+    private GitLabClientPool gitLabClientPool = new GitLabClientPool(2);
+
+    @InjectMocks
+    private CommitMirrorService commitMirrorService;
+
+    @Captor
+    private ArgumentCaptor<CommitMirrorCursor> cursorCaptor;
+
+    @Captor
+    private ArgumentCaptor<List<RepositoryCommit>> pageCaptor;
+
+    /**
+     * Query parameters of each request made to the stand-in.
+     */
+    private final List<Map<String, String>> requests = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+
+    private GroupSettings groupSettings;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", this::respond);
+        server.start();
+        groupSettings = new GroupSettings(7, "test repo", "token", 5, "http://localhost:" + server.getAddress().getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+        commitMirrorService.shutdown();
+        gitLabClientPool.shutdown();
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        Map<String, String> query = new HashMap<>();
+        for (String param : exchange.getRequestURI().getRawQuery().split("&")) {
+            String[] pair = param.split("=", 2);
+            query.put(pair[0], URLDecoder.decode(pair[1], StandardCharsets.UTF_8));
+        }
+        requests.add(query);
+        boolean isFirstPage = "1".equals(query.get("page"));
+        byte[] body = (isFirstPage ? FIRST_PAGE : SECOND_PAGE).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.getResponseHeaders().add("X-Next-Page", isFirstPage ? "2" : "");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    /**
+     * Tests that the first sync of a repository copies every commit on every branch, following the pages, and saves
+     * the date of the newest commit as where the next sync starts.
+     */
+    @Test
+    void testFirstSyncCopiesEveryCommit() throws GitLabApiException {
+        when(cursorRepository.findById(groupSettings.getGroupId())).thenReturn(Optional.empty());
+        when(commitRepository.insertIgnoreAll(any())).thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+
+        assertEquals(3, commitMirrorService.syncGroup(groupSettings));
+
+        assertEquals(2, requests.size());
+        assertEquals("true", requests.get(0).get("all"));
+        assertFalse(requests.get(0).containsKey("since"));
+        assertEquals("100", requests.get(0).get("per_page"));
+        verify(commitRepository).deleteAllByGroupId(groupSettings.getGroupId());
+        verify(commitRepository, times(2)).insertIgnoreAll(pageCaptor.capture());
+        List<RepositoryCommit> firstPage = pageCaptor.getAllValues().get(0);
+        assertEquals(2, firstPage.size());
+        assertEquals(groupSettings.getGroupId(), firstPage.get(0).getGroupId());
+        assertEquals("c3", firstPage.get(0).getCommitId());
+        assertEquals("Ann", firstPage.get(0).getAuthorName());
+        assertEquals("ann@test.com", firstPage.get(0).getAuthorEmail());
+        assertEquals(NEWEST_COMMIT_DATE, firstPage.get(0).getCommittedDate());
+        assertEquals("c1", pageCaptor.getAllValues().get(1).get(0).getCommitId());
+        verify(cursorRepository).save(cursorCaptor.capture());
+        assertEquals(NEWEST_COMMIT_DATE, cursorCaptor.getValue().getLastCommittedDate());
+        assertNotNull(cursorCaptor.getValue().getLastSyncedAt());
+        assertNotNull(cursorCaptor.getValue().getLastFullSyncAt());
+    }
+
+    /**
+     * Tests that a later sync only asks for commits since shortly before the newest commit copied, keeps the commits
+     * already copied, and only counts the commits that were new.
+     */
+    @Test
+    void testLaterSyncOnlyAsksForNewCommits() throws GitLabApiException {
+        CommitMirrorCursor cursor = new CommitMirrorCursor(groupSettings);
+        Date lastCommittedDate = Date.from(java.time.Instant.parse("2022-05-02T10:00:00Z"));
+        cursor.setLastCommittedDate(lastCommittedDate);
+        Date lastFullSyncAt = new Date();
+        cursor.setLastFullSyncAt(lastFullSyncAt);
+        when(cursorRepository.findById(groupSettings.getGroupId())).thenReturn(Optional.of(cursor));
+        when(commitRepository.insertIgnoreAll(any())).thenReturn(1, 0);
+
+        assertEquals(1, commitMirrorService.syncGroup(groupSettings));
+
+        assertEquals("2022-05-01T10:00:00Z", requests.get(0).get("since"));
+        verify(commitRepository, never()).deleteAllByGroupId(any(Integer.class));
+        assertEquals(NEWEST_COMMIT_DATE, cursor.getLastCommittedDate());
+        assertEquals(lastFullSyncAt, cursor.getLastFullSyncAt());
+    }
+
+    /**
+     * Tests that a sync asks for every commit again once the full sync interval has passed, so commits pushed long
+     * after they were committed are still copied, without throwing away the commits already copied.
+     */
+    @Test
+    void testSyncAsksForEveryCommitOnceFullSyncIsDue() throws GitLabApiException {
+        CommitMirrorCursor cursor = new CommitMirrorCursor(groupSettings);
+        cursor.setLastCommittedDate(NEWEST_COMMIT_DATE);
+        Date lastFullSyncAt = new Date(System.currentTimeMillis() - CommitMirrorService.FULL_SYNC_INTERVAL_MILLIS);
+        cursor.setLastFullSyncAt(lastFullSyncAt);
+        when(cursorRepository.findById(groupSettings.getGroupId())).thenReturn(Optional.of(cursor));
+        when(commitRepository.insertIgnoreAll(any())).thenReturn(0, 1);
+
+        assertEquals(1, commitMirrorService.syncGroup(groupSettings));
+
+        assertFalse(requests.get(0).containsKey("since"));
+        verify(commitRepository, never()).deleteAllByGroupId(any(Integer.class));
+        assertTrue(cursor.getLastFullSyncAt().after(lastFullSyncAt));
+    }
+
+    /**
+     * Tests that the commits of a group's old repository are thrown away when the group changes repository.
+     */
+    @Test
+    void testChangedRepositoryIsCopiedAgain() throws GitLabApiException {
+        GroupSettings oldSettings = new GroupSettings(8, "old repo", "token", 5, groupSettings.getRepoUrl());
+        CommitMirrorCursor cursor = new CommitMirrorCursor(oldSettings);
+        cursor.setLastCommittedDate(new Date());
+        when(cursorRepository.findById(groupSettings.getGroupId())).thenReturn(Optional.of(cursor));
+
+        commitMirrorService.syncGroup(groupSettings);
+
+        assertFalse(requests.get(0).containsKey("since"));
+        verify(commitRepository).deleteAllByGroupId(groupSettings.getGroupId());
+        verify(cursorRepository).save(cursorCaptor.capture());
+        assertTrue(cursorCaptor.getValue().isFor(groupSettings));
+    }
+
+    /**
+     * Tests that commits are counted by author for each sprint, in sprint order, from the start of each sprint up to
+     * the start of the day after its last day.
+     */
+    @Test
+    void testCommitCountsBySprint() {
+        Date firstEnd = Date.from(LocalDate.of(2022, 5, 6).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date secondStart = Date.from(LocalDate.of(2022, 5, 9).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Date secondEnd = Date.from(LocalDate.of(2022, 5, 13).atStartOfDay(ZoneId.systemDefault()).toInstant());
+        Sprint first = new Sprint(0, "Sprint 1", "Sprint 1", "", new Date(0), firstEnd);
+        Sprint second = new Sprint(0, "Sprint 2", "Sprint 2", "", secondStart, secondEnd);
+        List<AuthorCommitCount> firstCounts = List.of(mock(AuthorCommitCount.class));
+        when(sprintService.getAllSprintsOrdered()).thenReturn(List.of(first, second));
+        when(commitRepository.countByAuthorBetween(5, first.getStartDate(),
+                Date.from(LocalDate.of(2022, 5, 7).atStartOfDay(ZoneId.systemDefault()).toInstant())))
+                .thenReturn(firstCounts);
+        when(commitRepository.countByAuthorBetween(5, secondStart,
+                Date.from(LocalDate.of(2022, 5, 14).atStartOfDay(ZoneId.systemDefault()).toInstant())))
+                .thenReturn(List.of());
+
+        Map<Sprint, List<AuthorCommitCount>> counts = commitMirrorService.getCommitCountsBySprint(5);
+
+        assertEquals(List.of(first, second), new ArrayList<>(counts.keySet()));
+        assertEquals(firstCounts, counts.get(first));
+        assertTrue(counts.get(second).isEmpty());
+    }
+}
@@ -0,0 +1,148 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.model.SharedCounter;
+import nz.ac.canterbury.seng302.portfolio.model.SharedLogEntry;
+import nz.ac.canterbury.seng302.portfolio.repository.SharedCounterRepository;
+import nz.ac.canterbury.seng302.portfolio.repository.SharedLogEntryRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link DatabaseSharedStateStore} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class DatabaseSharedStateStoreTest {
+
+    @Mock
+    private SharedCounterRepository counterRepository;
+
+    @Mock
+    private SharedLogEntryRepository logEntryRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    private DatabaseSharedStateStore store;
+
+    /**
+     * Tests that a missing counter is created in a transaction of its own, then locked before it is incremented.
+     */
+    @Test
+    void testIncrementCounterCreatesThenLocksCounter() {
+        SharedCounter counter = new SharedCounter("version");
+        when(counterRepository.existsById("version")).thenReturn(false, true);
+        when(counterRepository.findByNameForUpdate("version")).thenReturn(Optional.of(counter));
+
+        assertEquals(1, store.incrementCounter("version"));
+        assertEquals(2, store.incrementCounter("version"));
+
+        InOrder inOrder = inOrder(counterRepository, transactionManager);
+        inOrder.verify(counterRepository).save(argThat(created -> created != counter
+                && "version".equals(created.getName()) && created.getValue() == 0));
+        inOrder.verify(transactionManager).commit(any());
+        inOrder.verify(counterRepository).findByNameForUpdate("version");
+        inOrder.verify(counterRepository).save(counter);
+        verify(counterRepository, times(3)).save(any(SharedCounter.class));
+    }
+
+    /**
+     * Tests that a counter another node creates at the same time is still incremented.
+     */
+    @Test
+    void testIncrementCounterCreatedByAnotherNode() {
+        SharedCounter counter = new SharedCounter("version");
+        when(counterRepository.existsById("version")).thenReturn(false);
+        when(counterRepository.save(any(SharedCounter.class)))
+                .thenThrow(new DataIntegrityViolationException("Duplicate entry"))
+                .thenReturn(counter);
+        when(counterRepository.findByNameForUpdate("version")).thenReturn(Optional.of(counter));
+
+        assertEquals(1, store.incrementCounter("version"));
+    }
+
+    /**
+     * Tests that an appended value takes its sequence from the log's counter, locked in the same transaction as the
+     * entry is saved, and entries beyond the capacity are deleted.
+     */
+    @Test
+    void testAppendTakesSequenceFromLockedCounter() {
+        SharedCounter counter = new SharedCounter("log:notifications");
+        ReflectionTestUtils.setField(counter, "value", 9L);
+        when(counterRepository.existsById("log:notifications")).thenReturn(true);
+        when(counterRepository.findByNameForUpdate("log:notifications")).thenReturn(Optional.of(counter));
+
+        assertEquals(10, store.append("notifications", "value", 3));
+
+        ArgumentCaptor<SharedLogEntry> entry = ArgumentCaptor.forClass(SharedLogEntry.class);
+        InOrder inOrder = inOrder(counterRepository, logEntryRepository, transactionManager);
+        inOrder.verify(transactionManager).getTransaction(any());
+        inOrder.verify(counterRepository).findByNameForUpdate("log:notifications");
+        inOrder.verify(logEntryRepository).save(entry.capture());
+        inOrder.verify(logEntryRepository).deleteUpToSequence("notifications", 7);
+        inOrder.verify(transactionManager).commit(any());
+        assertEquals(10, entry.getValue().getSequence());
+        assertEquals("value", entry.getValue().getValue());
+    }
+
+    /**
+     * Tests that the counter of a log never added to is created before it is locked.
+     */
+    @Test
+    void testAppendCreatesLogCounter() {
+        SharedCounter counter = new SharedCounter("log:notifications");
+        when(counterRepository.existsById("log:notifications")).thenReturn(false);
+        when(counterRepository.findByNameForUpdate("log:notifications")).thenReturn(Optional.of(counter));
+
+        assertEquals(1, store.append("notifications", "value", 3));
+
+        InOrder inOrder = inOrder(counterRepository);
+        inOrder.verify(counterRepository).save(argThat(created -> created != counter));
+        inOrder.verify(counterRepository).findByNameForUpdate("log:notifications");
+    }
+
+    /**
+     * Tests that reading a log returns its entries after the sequence, and a log never added to starts at 0.
+     */
+    @Test
+    void testReadAfter() {
+        when(logEntryRepository.findByLogNameAndSequenceGreaterThanOrderBySequence("notifications", 4))
+                .thenReturn(List.of(new SharedLogEntry("notifications", 5, "five")));
+        when(logEntryRepository.findLastSequence("notifications")).thenReturn(null);
+
+        List<SharedStateStore.Entry> entries = store.readAfter("notifications", 4);
+        assertEquals(1, entries.size());
+        assertEquals(5, entries.get(0).getSequence());
+        assertEquals("five", entries.get(0).getValue());
+        assertEquals(0, store.getLastSequence("notifications"));
+    }
+
+    /**
+     * Tests that the first sequence of a log is its oldest entry, or one after its last sequence once it is empty.
+     */
+    @Test
+    void testGetFirstSequence() {
+        when(logEntryRepository.findFirstSequence("notifications")).thenReturn(5L);
+        assertEquals(5, store.getFirstSequence("notifications"));
+
+        when(logEntryRepository.findFirstSequence("empty")).thenReturn(null);
+        when(logEntryRepository.findLastSequence("empty")).thenReturn(null);
+        assertEquals(1, store.getFirstSequence("empty"));
+    }
+}
@@ -4,6 +4,7 @@ import nz.ac.canterbury.seng302.portfolio.model.*;
 import nz.ac.canterbury.seng302.portfolio.model.Deadline;
 import nz.ac.canterbury.seng302.portfolio.model.Project;
 import nz.ac.canterbury.seng302.portfolio.model.Sprint;
+import nz.ac.canterbury.seng302.portfolio.utility.ProjectDateIndex;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -37,28 +38,10 @@ class DateValidationServiceTest {
     private ProjectService projectService = new ProjectService();
 
     /**
-     * Mocked SprintService object.
+     * Mocked ProjectDateIndexService object.
      */
     @Mock
-    private SprintService sprintService = new SprintService();
-
-    /**
-     * Mocked EventService object.
-     */
-    @Mock
-    private EventService eventService = new EventService();
-
-    /**
-     * Mocked MilestoneService object.
-     */
-    @Mock
-    private MilestoneService milestoneService = new MilestoneService();
-
-    /**
-     * Mocked DeadlineService object.
-     */
-    @Mock
-    private DeadlineService deadlineService = new DeadlineService();
+    private ProjectDateIndexService projectDateIndexService;
 
     /**
      * DateValidationService object.
@@ -256,7 +239,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenOverlappingWithStartDate_whenValidateSprintDateRange_thenOutputWithMessage() {
-        when(sprintService.getAllSprints()).thenReturn(testSprints);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(testSprints, List.of(), List.of(), List.of()));
         Sprint testSprint = testSprints.get(0);
         String output = dateValidationService.validateSprintDateRange(
                 addToDateString(testSprint.getStartDateString(), Calendar.DAY_OF_YEAR, -1),
@@ -270,7 +253,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenOverlappingWithEndDate_whenValidateSprintDateRange_thenOutputWithMessage() {
-        when(sprintService.getAllSprints()).thenReturn(testSprints);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(testSprints, List.of(), List.of(), List.of()));
         Sprint testSprint = testSprints.get(1);
         String output = dateValidationService.validateSprintDateRange(testSprint.getEndDateString(),
                 addToDateString(testSprint.getEndDateString(), Calendar.DAY_OF_YEAR, 1), -1);
@@ -283,7 +266,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenValidDates_whenValidateSprintDateRange_thenBlankOutput() {
-        when(sprintService.getAllSprints()).thenReturn(testSprints);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(testSprints, List.of(), List.of(), List.of()));
         Sprint testSprint = testSprints.get(0);
         String output = dateValidationService.validateSprintDateRange(
                 addToDateString(testSprint.getEndDateString(), Calendar.DAY_OF_YEAR, 1),
@@ -297,7 +280,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenOverlappingDatesWithCurrentSprint_whenValidateSprintDateRange_thenBlankOutput() {
-        when(sprintService.getAllSprints()).thenReturn(testSprints);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(testSprints, List.of(), List.of(), List.of()));
         Sprint testSprint = testSprints.get(1);
         String output = dateValidationService.validateSprintDateRange(testSprint.getStartDateString(),
                 testSprint.getEndDateString(), testSprint.getId());
@@ -310,7 +293,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenValidBoundaryDatesSprint_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(sprintService.getAllSprintsOrdered()).thenReturn(testSprints);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(testSprints, List.of(), List.of(), List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 testProject.getStartDateString(), testProject.getEndDateString());
         assertEquals(0, output.length());
@@ -322,7 +305,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidStartDateSprint_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(sprintService.getAllSprintsOrdered()).thenReturn(testSprints);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(testSprints, List.of(), List.of(), List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 addToDateString(testSprints.get(0).getStartDateString(), Calendar.DAY_OF_YEAR, 1),
                 testProject.getEndDateString());
@@ -335,7 +318,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidEndDateSprint_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(sprintService.getAllSprintsOrdered()).thenReturn(testSprints);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(testSprints, List.of(), List.of(), List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 testProject.getStartDateString(),
                 addToDateString(testSprints.get(1).getEndDateString(), Calendar.DAY_OF_YEAR, -1));
@@ -348,7 +331,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidDatesSprint_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(sprintService.getAllSprintsOrdered()).thenReturn(testSprints);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(testSprints, List.of(), List.of(), List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 addToDateString(testSprints.get(0).getEndDateString(), Calendar.DAY_OF_YEAR, 1),
                 addToDateString(testSprints.get(1).getStartDateString(), Calendar.DAY_OF_YEAR, -1));
@@ -361,8 +344,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenValidBoundaryDatesEvent_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(eventService.getAllEventsOrderedStartDate()).thenReturn(testEvents);
-        when(eventService.getAllEventsOrderedEndDate()).thenReturn(testEvents);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), testEvents, List.of(), List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 testProject.getStartDateString(), testProject.getEndDateString());
         assertEquals(0, output.length());
@@ -374,8 +356,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidStartDateEvent_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(eventService.getAllEventsOrderedStartDate()).thenReturn(testEvents);
-        when(eventService.getAllEventsOrderedEndDate()).thenReturn(testEvents);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), testEvents, List.of(), List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 addToDateString(testEvents.get(0).getStartDateString(), Calendar.DAY_OF_YEAR, 1),
                 testProject.getEndDateString());
@@ -388,8 +369,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidEndDateEvent_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(eventService.getAllEventsOrderedStartDate()).thenReturn(testEvents);
-        when(eventService.getAllEventsOrderedEndDate()).thenReturn(testEvents);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), testEvents, List.of(), List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 testProject.getStartDateString(),
                 addToDateString(testEvents.get(1).getEndDateString(), Calendar.DAY_OF_YEAR, -1));
@@ -402,8 +382,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidDatesEvent_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(eventService.getAllEventsOrderedStartDate()).thenReturn(testEvents);
-        when(eventService.getAllEventsOrderedEndDate()).thenReturn(testEvents);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), testEvents, List.of(), List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 addToDateString(testEvents.get(0).getEndDateString(), Calendar.DAY_OF_YEAR, 1),
                 addToDateString(testEvents.get(1).getStartDateString(), Calendar.DAY_OF_YEAR, -1));
@@ -416,7 +395,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenValidBoundaryDatesMilestone_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(milestoneService.getAllMilestonesOrdered()).thenReturn(testMilestones);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), List.of(), testMilestones, List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 testProject.getStartDateString(), testProject.getEndDateString());
         assertEquals(0, output.length());
@@ -428,7 +407,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidStartDateMilestone_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(milestoneService.getAllMilestonesOrdered()).thenReturn(testMilestones);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), List.of(), testMilestones, List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 addToDateString(testMilestones.get(0).getMilestoneDateString(), Calendar.DAY_OF_YEAR, 1),
                 testProject.getEndDateString());
@@ -441,7 +420,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidEndDateMilestone_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(milestoneService.getAllMilestonesOrdered()).thenReturn(testMilestones);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), List.of(), testMilestones, List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 testProject.getStartDateString(),
                 addToDateString(testMilestones.get(1).getMilestoneDateString(), Calendar.DAY_OF_YEAR, -1));
@@ -454,7 +433,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidDatesMilestone_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(milestoneService.getAllMilestonesOrdered()).thenReturn(testMilestones);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), List.of(), testMilestones, List.of()));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 addToDateString(testMilestones.get(0).getMilestoneDateString(), Calendar.DAY_OF_YEAR, 1),
                 addToDateString(testMilestones.get(1).getMilestoneDateString(), Calendar.DAY_OF_YEAR, -1));
@@ -467,7 +446,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenValidBoundaryDatesDeadline_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(deadlineService.getAllDeadlinesOrdered()).thenReturn(testDeadlines);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), List.of(), List.of(), testDeadlines));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 testProject.getStartDateString(), testProject.getEndDateString());
         assertEquals(0, output.length());
@@ -479,7 +458,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidStartDateDeadline_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(deadlineService.getAllDeadlinesOrdered()).thenReturn(testDeadlines);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), List.of(), List.of(), testDeadlines));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 addToDateString(testDeadlines.get(0).getDeadlineDateString(), Calendar.DAY_OF_YEAR, 1),
                 testProject.getEndDateString());
@@ -492,7 +471,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidEndDateDeadline_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(deadlineService.getAllDeadlinesOrdered()).thenReturn(testDeadlines);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), List.of(), List.of(), testDeadlines));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 testProject.getStartDateString(),
                 addToDateString(testDeadlines.get(1).getDeadlineDateString(), Calendar.DAY_OF_YEAR, -1));
@@ -505,7 +484,7 @@ class DateValidationServiceTest {
      */
     @Test
     void givenInvalidDatesDeadline_whenValidateProjectDatesContainArtefacts_thenBlankOutput() {
-        when(deadlineService.getAllDeadlinesOrdered()).thenReturn(testDeadlines);
+        when(projectDateIndexService.getIndex()).thenReturn(new ProjectDateIndex(List.of(), List.of(), List.of(), testDeadlines));
         String output = dateValidationService.validateProjectDatesContainArtefacts(
                 addToDateString(testDeadlines.get(0).getDeadlineDateString(), Calendar.DAY_OF_YEAR, 1),
                 addToDateString(testDeadlines.get(1).getDeadlineDateString(), Calendar.DAY_OF_YEAR, -1));
@@ -169,6 +169,43 @@ class DeadlineServiceTest {
         verify(deadlinesRepository, times(0)).deleteById(any(Integer.class));
     }
 
+    /**
+     * Tests that sorting deadlines into every sprint at once gives the same result as checking each sprint in turn,
+     * including deadlines on a sprint's start day before it starts and on its end day after it ends.
+     */
+    @Test
+    void testGetDeadlinesForEachSprint_matchesCheckingEachSprint() {
+        Sprint sprint1 = new Sprint();
+        sprint1.setStartDate(sprintService.calendarDateStringToDate("2001-12-20", false));
+        sprint1.setEndDate(sprintService.calendarDateStringToDate("2001-12-24", false));
+        Sprint sprint2 = new Sprint();
+        sprint2.setStartDate(sprintService.calendarDateStringToDate("2001-12-25", false));
+        sprint2.setEndDate(sprintService.calendarDateStringToDate("2001-12-30", true));
+        List<Sprint> sprintList = List.of(sprint1, sprint2);
+
+        // Deadlines at 11:59pm on the day before each date
+        List<Deadline> deadlineList = new ArrayList<>();
+        for (String date : List.of("2001-12-20", "2001-12-21", "2001-12-25", "2001-12-28", "2001-12-30", "2001-12-31")) {
+            Deadline deadline = new Deadline();
+            deadline.setDeadlineDate(sprintService.calendarDateStringToDate(date, true));
+            deadlineList.add(deadline);
+        }
+
+        List<List<Deadline>> deadlinesForSprints = deadlineService.getDeadlinesForEachSprint(sprintList, deadlineList);
+
+        for (int i = 0; i < sprintList.size(); i++) {
+            List<Deadline> expected = new ArrayList<>();
+            for (Deadline deadline : deadlineList) {
+                if (deadlineService.validateDeadlineDateInDateRange(deadline, sprintList.get(i).getStartDate(), sprintList.get(i).getEndDate())) {
+                    expected.add(deadline);
+                }
+            }
+            assertEquals(expected, deadlinesForSprints.get(i));
+        }
+        assertEquals(List.of(deadlineList.get(1), deadlineList.get(2)), deadlinesForSprints.get(0));
+        assertEquals(List.of(deadlineList.get(3), deadlineList.get(4)), deadlinesForSprints.get(1));
+    }
+
     @Test
     void testValidateDeadlineDateInSprintDateRange_givenDeadlineInSprintDateRange_returnTrue() {
         Sprint sprint = new Sprint();
@@ -3,22 +3,34 @@ package nz.ac.canterbury.seng302.portfolio.service;
 import nz.ac.canterbury.seng302.portfolio.model.Category;
 import nz.ac.canterbury.seng302.portfolio.model.Evidence;
 import nz.ac.canterbury.seng302.portfolio.model.HighFivers;
+import nz.ac.canterbury.seng302.portfolio.model.LeaderboardDelta;
+import nz.ac.canterbury.seng302.portfolio.model.NotificationHighFive;
+import nz.ac.canterbury.seng302.portfolio.model.NotificationResponse;
 import nz.ac.canterbury.seng302.portfolio.model.Tag;
 import nz.ac.canterbury.seng302.portfolio.repository.EvidenceRepository;
+import nz.ac.canterbury.seng302.portfolio.repository.HighFiversRepository;
 import nz.ac.canterbury.seng302.portfolio.repository.TagRepository;
+import nz.ac.canterbury.seng302.shared.identityprovider.UserResponse;
+import nz.ac.canterbury.seng302.shared.identityprovider.UserRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.exceptions.base.MockitoException;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.function.LongFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.*;
 
 /**
@@ -33,6 +45,9 @@ class EvidenceServiceTest {
     @Mock
     private TagRepository tagRepository;
 
+    @Mock
+    private HighFiversRepository highFiversRepository;
+
     @Mock
     private TagService tagService;
 
@@ -42,12 +57,20 @@ class EvidenceServiceTest {
     @Mock
     private RegisterClientService registerClientService;
 
+    @Mock
+    private LiveUpdateService liveUpdateService;
+
+    @Spy
+    private PageDataLoader pageDataLoader = new PageDataLoader(5000, Executors.newFixedThreadPool(2));
+
     @InjectMocks
     private EvidenceService evidenceService;
 
     private static final List<Evidence> testEvidences = new ArrayList<>();
     private static final List<Tag> testTags = new ArrayList<>();
 
+    private final Evidence highFivedEvidence = new Evidence(0, 5, "High fived evidence", "description", new Date());
+
     /**
      * setUp list of Evidences for testing which will returned when mocking the repository's method which return list of Evidences.
      */
@@ -86,15 +109,84 @@ class EvidenceServiceTest {
         verify(evidenceRepository, times(1)).findAllByUserIdOrderByDateDescEvidenceIdDesc(1);
     }
 
+    /**
+     * Tests that each piece of evidence gets its author, and that each author is only asked for once.
+     */
+    @Test
+    void testAddUserDataToEvidenceAsksForEachAuthorOnce() {
+        Evidence otherAuthorsEvidence = new Evidence(0, 2, "testEvidence5", "testEvidence5", new Date(400));
+        List<Evidence> evidences = new ArrayList<>(testEvidences.subList(0, 2));
+        evidences.add(otherAuthorsEvidence);
+        UserResponse author = UserResponse.newBuilder().setId(1).build();
+        UserResponse otherAuthor = UserResponse.newBuilder().setId(2).build();
+        when(registerClientService.getUserDataAsync(1)).thenReturn(CompletableFuture.completedFuture(author));
+        when(registerClientService.getUserDataAsync(2)).thenReturn(CompletableFuture.completedFuture(otherAuthor));
+
+        evidenceService.addUserDataToEvidence(evidences);
+
+        assertEquals(author, evidences.get(0).getUser());
+        assertEquals(author, evidences.get(1).getUser());
+        assertEquals(otherAuthor, otherAuthorsEvidence.getUser());
+        verify(registerClientService, times(1)).getUserDataAsync(1);
+        verify(registerClientService, never()).getUserData(anyInt());
+    }
+
     /**
      * Test that the evidence service can successfully save a new evidence piece to the database.
      */
     @Test
     void testAddEvidence() {
         when(evidenceRepository.save(any(Evidence.class))).thenReturn(testEvidences.get(0));
+        when(registerClientService.getUserData(anyInt())).thenReturn(UserResponse.getDefaultInstance());
         assertTrue(evidenceService.addEvidence(testEvidences.get(0)));
     }
 
+    /**
+     * Tests that adding evidence tells the pages showing evidence, saying whether it belongs to a student.
+     */
+    @Test
+    void testAddEvidencePublishesLiveUpdate() {
+        Evidence evidence = testEvidences.get(0);
+        when(registerClientService.getUserData(evidence.getUserId())).thenReturn(UserResponse.newBuilder()
+                .setUsername("student").addRoles(UserRole.STUDENT).build());
+        assertTrue(evidenceService.addEvidence(evidence));
+
+        ArgumentCaptor<Object> captor = ArgumentCaptor.forClass(Object.class);
+        verify(liveUpdateService).publish(eq(EvidenceService.EVIDENCE_ADDED_DESTINATION), eq(evidence.getEvidenceId()),
+                captor.capture());
+        NotificationResponse response = (NotificationResponse) captor.getValue();
+        assertEquals("studentEvidence", response.getArtefactType());
+        assertEquals("student", response.getUsername());
+        assertEquals(evidence.getTitle(), response.getArtefactName());
+        assertEquals("add", response.getAction());
+    }
+
+    /**
+     * Tests that changing a student's evidence sends the leaderboard their new score, and that changing anyone else's
+     * does not.
+     */
+    @Test
+    void testAddEvidencePublishesStudentScore() {
+        Evidence evidence = testEvidences.get(0);
+        when(registerClientService.getUserData(evidence.getUserId()))
+                .thenReturn(UserResponse.newBuilder().addRoles(UserRole.STUDENT).build())
+                .thenReturn(UserResponse.newBuilder().addRoles(UserRole.TEACHER).build());
+        when(evidenceRepository.countByUserId(evidence.getUserId())).thenReturn(4);
+        assertTrue(evidenceService.addEvidence(evidence));
+        assertTrue(evidenceService.addEvidence(evidence));
+
+        ArgumentCaptor<LongFunction<Object>> captor = ArgumentCaptor.forClass(LongFunction.class);
+        verify(liveUpdateService, times(1)).publishVersioned(eq(LeaderboardService.LEADERBOARD_DESTINATION),
+                captor.capture());
+        // The score is only counted once the delta has its version
+        verify(evidenceRepository, never()).countByUserId(anyInt());
+        LeaderboardDelta delta = (LeaderboardDelta) captor.getValue().apply(7);
+        assertEquals(7, delta.getVersion());
+        assertEquals(evidence.getUserId(), delta.getUserId());
+        assertEquals(4, delta.getScore());
+        assertEquals("add", delta.getNotification().getAction());
+    }
+
     /**
      * Test that the evidence service returns false when an evidence piece is not saved correctly to the database.
      */
@@ -102,6 +194,7 @@ class EvidenceServiceTest {
     void testFailAddEvidence() {
         when(evidenceRepository.save(any(Evidence.class))).thenThrow(new MockitoException("Mockito exception"));
         assertFalse(evidenceService.addEvidence(testEvidences.get(0)));
+        verifyNoInteractions(liveUpdateService);
     }
 
     /**
@@ -114,6 +207,79 @@ class EvidenceServiceTest {
         assertEquals(0, actualUsers.size());
     }
 
+    /**
+     * Tests that a high five is recorded and the evidence's high five count is incremented.
+     */
+    @Test
+    void testSaveHighFiveEvidence() {
+        when(evidenceRepository.findById(1)).thenReturn(Optional.of(highFivedEvidence));
+        when(highFiversRepository.insertIgnore(1, 2, "name")).thenReturn(1);
+        assertTrue(evidenceService.saveHighFiveEvidence(1, 2, "name"));
+        verify(evidenceRepository, times(1)).adjustHighFiveCount(1, 1);
+    }
+
+    /**
+     * Tests that the owner of a high fived piece of evidence, as saved in the database, is sent the high five.
+     */
+    @Test
+    void testSaveHighFiveEvidenceNotifiesOwner() {
+        when(evidenceRepository.findById(1)).thenReturn(Optional.of(highFivedEvidence));
+        when(highFiversRepository.insertIgnore(1, 2, "name")).thenReturn(1);
+
+        evidenceService.saveHighFiveEvidence(1, 2, "name");
+
+        ArgumentCaptor<NotificationHighFive> notification = ArgumentCaptor.forClass(NotificationHighFive.class);
+        verify(liveUpdateService).publishToUser(eq(5), eq(EvidenceService.HIGH_FIVE_QUEUE), notification.capture());
+        assertEquals(2, notification.getValue().getSendingUserId());
+        assertEquals(5, notification.getValue().getReceivingUserId());
+        assertEquals("High fived evidence", notification.getValue().getSendingEvidenceTitle());
+        verify(liveUpdateService).publish(LiveUpdateService.evidenceDestination(5), 1, notification.getValue());
+    }
+
+    /**
+     * Tests that high fiving a piece of evidence twice does not record a second high five or change the count.
+     */
+    @Test
+    void testSaveHighFiveEvidenceWhenAlreadyHighFived() {
+        when(evidenceRepository.findById(1)).thenReturn(Optional.of(highFivedEvidence));
+        when(highFiversRepository.insertIgnore(1, 2, "name")).thenReturn(0);
+        assertFalse(evidenceService.saveHighFiveEvidence(1, 2, "name"));
+        verify(evidenceRepository, never()).adjustHighFiveCount(anyInt(), anyInt());
+        verifyNoInteractions(liveUpdateService);
+    }
+
+    /**
+     * Tests that high fiving a piece of evidence that does not exist records nothing.
+     */
+    @Test
+    void testSaveHighFiveEvidenceWhenEvidenceDoesNotExist() {
+        when(evidenceRepository.findById(1)).thenReturn(Optional.empty());
+        assertFalse(evidenceService.saveHighFiveEvidence(1, 2, "name"));
+        verify(highFiversRepository, never()).insertIgnore(anyInt(), anyInt(), any());
+    }
+
+    /**
+     * Tests that removing a high five decrements the evidence's high five count.
+     */
+    @Test
+    void testRemoveHighFiveEvidence() {
+        when(evidenceRepository.findById(1)).thenReturn(Optional.of(highFivedEvidence));
+        when(highFiversRepository.deleteByEvidenceIdAndUserId(1, 2)).thenReturn(1);
+        assertTrue(evidenceService.removeHighFiveEvidence(1, 2, "name"));
+        verify(evidenceRepository, times(1)).adjustHighFiveCount(1, -1);
+    }
+
+    /**
+     * Tests that removing a high five that does not exist leaves the count alone.
+     */
+    @Test
+    void testRemoveHighFiveEvidenceWhenNotHighFived() {
+        when(evidenceRepository.findById(1)).thenReturn(Optional.of(highFivedEvidence));
+        when(highFiversRepository.deleteByEvidenceIdAndUserId(1, 2)).thenReturn(0);
+        assertFalse(evidenceService.removeHighFiveEvidence(1, 2, "name"));
+        verify(evidenceRepository, never()).adjustHighFiveCount(anyInt(), anyInt());
+    }
+
     /**
      * Tests that the removeEvidence(int evidenceId) method removes specific evidence.
      */
@@ -121,8 +287,11 @@ class EvidenceServiceTest {
     void testRemoveEvidence() {
         Evidence evidence = testEvidences.get(0);
         when(evidenceRepository.findById(any(Integer.class))).thenReturn(Optional.of(evidence)).thenReturn(Optional.empty());
+        when(registerClientService.getUserData(anyInt())).thenReturn(UserResponse.getDefaultInstance());
         boolean success = evidenceService.removeEvidence(evidence.getEvidenceId());
         assertTrue(success);
+        verify(liveUpdateService).publish(eq(EvidenceService.EVIDENCE_DELETED_DESTINATION),
+                eq(evidence.getEvidenceId()), any(NotificationResponse.class));
     }
     /**
      * Tests that when the method is passed both a valid skill with a valid user attached to the evidence within tag class that
@@ -140,14 +309,11 @@ class EvidenceServiceTest {
 
         Tag validTag = new Tag("Valid_Tag");
         validTag.setTagId(tagId);
-        validTag.addEvidence(testEvidence);
         when(tagService.getTag(tagId)).thenReturn(validTag);
-
-        Optional<Evidence> optionalEvidence = Optional.of(testEvidence);
-        when(evidenceRepository.findById(evidenceId)).thenReturn(optionalEvidence);
+        when(evidenceRepository.findAllWithTagAndUser(tagId, userId)).thenReturn(List.of(testEvidence));
 
         try {
-            List<Evidence> actualEvidences = evidenceService.getEvidencesWithSkillAndUser(tagId, userId);
+            List<Evidence> actualEvidences = evidenceService.getEvidencesWithSkillAndUser(userId, tagId);
             ArrayList<Evidence> expectedEvidences = new ArrayList<>();
             expectedEvidences.add(testEvidence);
             assertEquals(expectedEvidences, actualEvidences);
@@ -194,12 +360,11 @@ class EvidenceServiceTest {
 
         Tag validTag = new Tag("Valid_Tag");
         validTag.setTagId(tagId);
-        validTag.addEvidence(testEvidence);
         when(tagService.getTag(tagId)).thenReturn(validTag);
+        when(evidenceRepository.findAllWithTagAndUser(tagId, userId)).thenReturn(new ArrayList<>());
 
         try {
-            evidenceService.getEvidencesWithSkillAndUser(evidenceId, userId);
-            List<Evidence> actualEvidences = evidenceService.getEvidencesWithSkillAndUser(tagId, userId);
+            List<Evidence> actualEvidences = evidenceService.getEvidencesWithSkillAndUser(userId, tagId);
             ArrayList<Evidence> expectedEvidences = new ArrayList<>();
             assertEquals(expectedEvidences, actualEvidences);
         } catch (NullPointerException e) {
@@ -220,8 +385,8 @@ class EvidenceServiceTest {
 
         Tag validTag = new Tag("Valid_Tag");
         validTag.setTagId(tagId);
-        validTag.addEvidence(testEvidence);
         when(tagService.getTag(tagId)).thenReturn(validTag);
+        when(evidenceRepository.findAllWithTag(tagId)).thenReturn(List.of(testEvidence));
 
         try {
             List<Evidence> actualEvidences = evidenceService.getEvidencesWithSkill(tagId);
@@ -268,14 +433,11 @@ class EvidenceServiceTest {
 
         Category validTag = new Category("Valid_Tag");
         validTag.setCategoryId(tagId);
-        validTag.addEvidence(testEvidence);
         when(categoryService.getCategory(tagId)).thenReturn(validTag);
-
-        Optional<Evidence> optionalEvidence = Optional.of(testEvidence);
-        when(evidenceRepository.findById(evidenceId)).thenReturn(optionalEvidence);
+        when(evidenceRepository.findAllWithCategoryAndUser(tagId, userId)).thenReturn(List.of(testEvidence));
 
         try {
-            List<Evidence> actualEvidences = evidenceService.getEvidencesWithCategoryAndUser(tagId, userId);
+            List<Evidence> actualEvidences = evidenceService.getEvidencesWithCategoryAndUser(userId, tagId);
             ArrayList<Evidence> expectedEvidences = new ArrayList<>();
             expectedEvidences.add(testEvidence);
             assertEquals(expectedEvidences, actualEvidences);
@@ -322,12 +484,11 @@ class EvidenceServiceTest {
 
         Category validTag = new Category("Valid_Tag");
         validTag.setCategoryId(tagId);
-        validTag.addEvidence(testEvidence);
         when(categoryService.getCategory(tagId)).thenReturn(validTag);
+        when(evidenceRepository.findAllWithCategoryAndUser(tagId, userId)).thenReturn(new ArrayList<>());
 
         try {
-            evidenceService.getEvidencesWithCategoryAndUser(evidenceId, userId);
-            List<Evidence> actualEvidences = evidenceService.getEvidencesWithCategoryAndUser(tagId, userId);
+            List<Evidence> actualEvidences = evidenceService.getEvidencesWithCategoryAndUser(userId, tagId);
             ArrayList<Evidence> expectedEvidences = new ArrayList<>();
             assertEquals(expectedEvidences, actualEvidences);
         } catch (NullPointerException e) {
@@ -348,8 +509,8 @@ class EvidenceServiceTest {
 
         Category validTag = new Category("Valid_Tag");
         validTag.setCategoryId(tagId);
-        validTag.addEvidence(testEvidence);
         when(categoryService.getCategory(tagId)).thenReturn(validTag);
+        when(evidenceRepository.findAllWithCategory(tagId)).thenReturn(List.of(testEvidence));
 
         try {
             List<Evidence> actualEvidences = evidenceService.getEvidencesWithCategory(tagId);
@@ -391,8 +552,7 @@ class EvidenceServiceTest {
         testEvidence.setEvidenceId(1);
         expectedEvidences.add(testEvidence);
 
-        when(evidenceRepository.findAll()).thenReturn(expectedEvidences);
-        when(evidenceRepository.findById(testEvidence.getEvidenceId())).thenReturn(Optional.of(testEvidence));
+        when(evidenceRepository.findAllByTagsIsEmptyOrderByDateDescEvidenceIdDesc()).thenReturn(expectedEvidences);
 
         List<Evidence> actualEvidences = evidenceService.getEvidencesWithoutSkills();
         assertEquals(expectedEvidences, actualEvidences);
@@ -411,8 +571,7 @@ class EvidenceServiceTest {
         testEvidence.setUserId(userId);
         expectedEvidences.add(testEvidence);
 
-        when(evidenceRepository.findAll()).thenReturn(expectedEvidences);
-        when(evidenceRepository.findById(testEvidence.getEvidenceId())).thenReturn(Optional.of(testEvidence));
+        when(evidenceRepository.findAllByUserIdAndTagsIsEmptyOrderByDateDescEvidenceIdDesc(userId)).thenReturn(expectedEvidences);
 
         List<Evidence> actualEvidences = evidenceService.getEvidencesWithUserAndWithoutSkills(userId);
         assertEquals(expectedEvidences, actualEvidences);
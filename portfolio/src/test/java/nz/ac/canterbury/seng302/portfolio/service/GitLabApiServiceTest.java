@@ -1,6 +1,7 @@
 package nz.ac.canterbury.seng302.portfolio.service;
 
 import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
+import nz.ac.canterbury.seng302.portfolio.utility.GitLabCommitPageApi;
 import org.gitlab4j.api.*;
 import org.gitlab4j.api.models.Branch;
 import org.gitlab4j.api.models.Commit;
@@ -18,6 +19,7 @@ import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Executors;
 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -33,6 +35,13 @@ class GitLabApiServiceTest {
     @Mock
     private GroupSettingsService groupSettingsService;
 
+    @Spy
+    private GitLabRequestExecutor gitLabRequestExecutor = new GitLabRequestExecutor(5000, 3, 30000,
+            System::currentTimeMillis, Executors.newFixedThreadPool(2));
+
+    @Mock
+    private GitLabClientPool gitLabClientPool;
+
     @InjectMocks
     private GitLabApiService gitLabApiService;
 
@@ -46,7 +55,10 @@ class GitLabApiServiceTest {
     private RepositoryApi repositoryApi;
 
     @Mock
-    private CommitsApi commitsApi;
+    private GitLabCommitPageApi commitPageApi;
+
+    @Mock
+    private GitLabClientPool.Lease lease;
 
     private static final List<Branch> testBranches = new ArrayList<>();
 
@@ -84,7 +96,8 @@ class GitLabApiServiceTest {
     @Test
     void testGetBranchNames() throws GitLabApiException {
         when(groupSettingsService.getGroupSettingsByGroupId(testGroupSettings.getGroupId())).thenReturn(testGroupSettings);
-        when(testGroupSettings.getGitLabApi()).thenReturn(gitLabApi);
+        when(gitLabClientPool.lease(testGroupSettings)).thenReturn(lease);
+        when(lease.getGitLabApi()).thenReturn(gitLabApi);
         when(gitLabApi.getRepositoryApi()).thenReturn(repositoryApi);
         when(repositoryApi.getBranches(testGroupSettings.getRepoId())).thenReturn(testBranches);
 
@@ -101,7 +114,8 @@ class GitLabApiServiceTest {
     @Test
     void testGetContributors() throws GitLabApiException {
         when(groupSettingsService.getGroupSettingsByGroupId(testGroupSettings.getGroupId())).thenReturn(testGroupSettings);
-        when(testGroupSettings.getGitLabApi()).thenReturn(gitLabApi);
+        when(gitLabClientPool.lease(testGroupSettings)).thenReturn(lease);
+        when(lease.getGitLabApi()).thenReturn(gitLabApi);
         when(gitLabApi.getRepositoryApi()).thenReturn(repositoryApi);
         when(repositoryApi.getContributors(testGroupSettings.getRepoId())).thenReturn(testContributors);
 
@@ -110,78 +124,119 @@ class GitLabApiServiceTest {
     }
 
     /**
-     * Test that the getCommits method returns all the commits returned from the GitLab API when not filtering by branch
-     * or user.
-     * The function is expected to return all commits regardless of user and branch name,
-     * in this test we expect all commits in the testCommits list to be returned.
+     * Test that the getCommitPage method returns the first page of commits from the GitLab API, newest first, with the
+     * token of the next page, when not filtering by branch or user.
      * @throws GitLabApiException if an error occurs when calling the GitLab API
      */
     @Test
-    void testGetCommitsNoBranchNameNoAuthor() throws GitLabApiException {
+    void testGetCommitPageNoFilters() throws GitLabApiException {
         when(groupSettingsService.getGroupSettingsByGroupId(testGroupSettings.getGroupId())).thenReturn(testGroupSettings);
-        when(testGroupSettings.getGitLabApi()).thenReturn(gitLabApi);
-        when(gitLabApi.getCommitsApi()).thenReturn(commitsApi);
-        when(gitLabApi.getCommitsApi().getCommits(testGroupSettings.getRepoId())).thenReturn(testCommits);
-
-        List<Commit> commits = gitLabApiService.getCommits(testGroupSettings.getGroupId(), null, null);
-        assertEquals(testCommits, commits);
+        when(gitLabClientPool.lease(testGroupSettings)).thenReturn(lease);
+        when(lease.getCommitPageApi()).thenReturn(commitPageApi);
+        when(commitPageApi.getCommits(testGroupSettings.getRepoId(), null, null, null, null, 1,
+                GitLabApiService.COMMITS_PER_PAGE)).thenReturn(new GitLabCommitPageApi.Page(testCommits, 2));
+
+        GitLabApiService.CommitPage page = gitLabApiService.getCommitPage(testGroupSettings.getGroupId(), null, null,
+                null, null, null);
+        assertEquals(testCommits, page.getCommits());
+        assertEquals("2", page.getNextPageToken());
     }
 
     /**
-     * Test that the getCommits method returns all the commits returned from the GitLab API when filtering by branch
-     * but not by user.
-     * Branch filtering is done by the API, which is being mocked, so the function is expected to return all commits in
-     * the testCommits list.
+     * Test that the getCommitPage method passes the branch, author and dates on to the GitLab API, and only keeps the
+     * commits whose author email is exactly the one filtered by, as GitLab matches any author containing it.
      * @throws GitLabApiException if an error occurs when calling the GitLab API
      */
     @Test
-    void testGetCommitsWithBranchNameNoAuthor() throws GitLabApiException {
-        String branchName = testBranches.get(0).getName();
+    void testGetCommitPageWithFilters() throws GitLabApiException {
+        Contributor contributor = testContributors.get(3);
+        String branchName = testBranches.get(2).getName();
+        Date since = new Date(-10000);
+        Date until = new Date(0);
         when(groupSettingsService.getGroupSettingsByGroupId(testGroupSettings.getGroupId())).thenReturn(testGroupSettings);
-        when(testGroupSettings.getGitLabApi()).thenReturn(gitLabApi);
-        when(gitLabApi.getCommitsApi()).thenReturn(commitsApi);
-        when(gitLabApi.getCommitsApi().getCommits(testGroupSettings.getRepoId(), branchName, null, null)).thenReturn(testCommits);
-
-        List<Commit> commits = gitLabApiService.getCommits(testGroupSettings.getGroupId(), branchName, null);
-        assertEquals(testCommits, commits);
+        when(gitLabClientPool.lease(testGroupSettings)).thenReturn(lease);
+        when(lease.getCommitPageApi()).thenReturn(commitPageApi);
+        when(commitPageApi.getCommits(testGroupSettings.getRepoId(), branchName, contributor.getEmail(), since, until,
+                1, GitLabApiService.COMMITS_PER_PAGE)).thenReturn(new GitLabCommitPageApi.Page(testCommits, null));
+
+        GitLabApiService.CommitPage page = gitLabApiService.getCommitPage(testGroupSettings.getGroupId(), branchName,
+                contributor.getEmail(), since, until, null);
+        assertEquals(testCommits.stream().filter(commit -> Objects.equals(commit.getAuthorEmail(), contributor.getEmail())).toList(),
+                page.getCommits());
+        assertNull(page.getNextPageToken());
     }
 
     /**
-     * Test that the getCommits method returns all the commits returned from the GitLab API when filtering by user but
-     * not by branch.
-     * The function is expected to return all commits in the testCommits list with a matching author.
+     * Test that the getCommitPage method gets the page named by the page token, and starts from the first page when
+     * given a token it cannot read.
      * @throws GitLabApiException if an error occurs when calling the GitLab API
      */
     @Test
-    void testGetCommitsNoBranchNameWithAuthor() throws GitLabApiException {
-        Contributor contributor = testContributors.get(3);
+    void testGetCommitPageFromPageToken() throws GitLabApiException {
         when(groupSettingsService.getGroupSettingsByGroupId(testGroupSettings.getGroupId())).thenReturn(testGroupSettings);
-        when(testGroupSettings.getGitLabApi()).thenReturn(gitLabApi);
-        when(gitLabApi.getCommitsApi()).thenReturn(commitsApi);
-        when(gitLabApi.getCommitsApi().getCommits(testGroupSettings.getRepoId())).thenReturn(testCommits);
-
-        List<Commit> commits = gitLabApiService.getCommits(testGroupSettings.getGroupId(), null, contributor.getEmail());
-        assertEquals(testCommits.stream().filter(commit -> Objects.equals(commit.getAuthorEmail(), contributor.getEmail())).toList(), commits);
+        when(gitLabClientPool.lease(testGroupSettings)).thenReturn(lease);
+        when(lease.getCommitPageApi()).thenReturn(commitPageApi);
+        when(commitPageApi.getCommits(eq(testGroupSettings.getRepoId()), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(new GitLabCommitPageApi.Page(testCommits, null));
+
+        gitLabApiService.getCommitPage(testGroupSettings.getGroupId(), null, null, null, null, "3");
+        gitLabApiService.getCommitPage(testGroupSettings.getGroupId(), null, null, null, null, "not a page");
+
+        verify(commitPageApi).getCommits(testGroupSettings.getRepoId(), null, null, null, null, 3,
+                GitLabApiService.COMMITS_PER_PAGE);
+        verify(commitPageApi).getCommits(testGroupSettings.getRepoId(), null, null, null, null, 1,
+                GitLabApiService.COMMITS_PER_PAGE);
     }
 
     /**
-     * Test that the getCommits method returns all the commits returned from the GitLab API when filtering by branch
-     * and user.
-     * The function is expected to return all commits in the testCommits list with a matching author.
-     * Branch filtering is done by the API, which is being mocked, so the branch name doesn't affect the output
+     * Test that asking for the same page with the same filters again reuses the page instead of asking GitLab, while a
+     * different filter asks GitLab for its page.
      * @throws GitLabApiException if an error occurs when calling the GitLab API
      */
     @Test
-    void testGetCommitsWithBranchNameAndAuthor() throws GitLabApiException {
-        Contributor contributor = testContributors.get(4);
-        String branchName = testBranches.get(2).getName();
+    void testGetCommitPageIsCached() throws GitLabApiException {
+        String branchName = testBranches.get(0).getName();
         when(groupSettingsService.getGroupSettingsByGroupId(testGroupSettings.getGroupId())).thenReturn(testGroupSettings);
-        when(testGroupSettings.getGitLabApi()).thenReturn(gitLabApi);
-        when(gitLabApi.getCommitsApi()).thenReturn(commitsApi);
-        when(gitLabApi.getCommitsApi().getCommits(testGroupSettings.getRepoId(), branchName, null, null)).thenReturn(testCommits);
+        when(gitLabClientPool.lease(testGroupSettings)).thenReturn(lease);
+        when(lease.getCommitPageApi()).thenReturn(commitPageApi);
+        when(commitPageApi.getCommits(eq(testGroupSettings.getRepoId()), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(new GitLabCommitPageApi.Page(testCommits, 2));
+
+        GitLabApiService.CommitPage first = gitLabApiService.getCommitPage(testGroupSettings.getGroupId(), null, null,
+                null, null, null);
+        GitLabApiService.CommitPage second = gitLabApiService.getCommitPage(testGroupSettings.getGroupId(), null, null,
+                null, null, null);
+        gitLabApiService.getCommitPage(testGroupSettings.getGroupId(), branchName, null, null, null, null);
+
+        assertSame(first, second);
+        verify(commitPageApi, times(2)).getCommits(eq(testGroupSettings.getRepoId()), any(), any(), any(), any(),
+                anyInt(), anyInt());
+    }
 
-        List<Commit> commits = gitLabApiService.getCommits(testGroupSettings.getGroupId(), branchName, contributor.getEmail());
-        assertEquals(testCommits.stream().filter(commit -> Objects.equals(commit.getAuthorEmail(), contributor.getEmail())).toList(), commits);
+    /**
+     * Test that a page fetched with one API key is not reused after the group's key changes, even for the same
+     * repository, as the new key may not be allowed to see it.
+     * @throws GitLabApiException if an error occurs when calling the GitLab API
+     */
+    @Test
+    void testGetCommitPageIsNotSharedBetweenApiKeys() throws GitLabApiException {
+        GroupSettings otherKeySettings = new GroupSettings(testGroupSettings.getRepoId(), "test repo", "other key",
+                testGroupSettings.getGroupId(), testGroupSettings.getRepoUrl());
+        when(groupSettingsService.getGroupSettingsByGroupId(testGroupSettings.getGroupId()))
+                .thenReturn(testGroupSettings, otherKeySettings);
+        when(gitLabClientPool.lease(any(GroupSettings.class))).thenReturn(lease);
+        when(lease.getCommitPageApi()).thenReturn(commitPageApi);
+        when(commitPageApi.getCommits(eq(testGroupSettings.getRepoId()), any(), any(), any(), any(), anyInt(), anyInt()))
+                .thenReturn(new GitLabCommitPageApi.Page(testCommits, 2));
+
+        GitLabApiService.CommitPage first = gitLabApiService.getCommitPage(testGroupSettings.getGroupId(), null, null,
+                null, null, null);
+        GitLabApiService.CommitPage second = gitLabApiService.getCommitPage(testGroupSettings.getGroupId(), null, null,
+                null, null, null);
+
+        assertNotSame(first, second);
+        verify(commitPageApi, times(2)).getCommits(eq(testGroupSettings.getRepoId()), any(), any(), any(), any(),
+                anyInt(), anyInt());
     }
 
     /**
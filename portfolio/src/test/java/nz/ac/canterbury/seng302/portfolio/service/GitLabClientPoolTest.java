@@ -0,0 +1,122 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
+import org.gitlab4j.api.GitLabApi;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedConstruction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link GitLabClientPool} class. The GitLab clients it makes are mocked, so no connections are made.
+ */
+class GitLabClientPoolTest {
+
+    private static final String SERVER_URL = "https://eng-git.canterbury.ac.nz";
+
+    private MockedConstruction<GitLabApi> mockedConstruction;
+
+    private GitLabClientPool pool;
+
+    @BeforeEach
+    void setUp() {
+        mockedConstruction = mockConstruction(GitLabApi.class);
+        pool = new GitLabClientPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        mockedConstruction.close();
+    }
+
+    /**
+     * Leases the client for some settings and gives it straight back.
+     */
+    private GitLabApi use(GroupSettings groupSettings) {
+        try (GitLabClientPool.Lease lease = pool.lease(groupSettings)) {
+            return lease.getGitLabApi();
+        }
+    }
+
+    /**
+     * Tests that groups using the same server and key share one client, which is reused, while a different key gets a
+     * client of its own.
+     */
+    @Test
+    void testClientIsSharedBetweenGroupsWithSameServerAndKey() {
+        GitLabApi first = use(new GroupSettings(1, "repo", "token", 5, SERVER_URL));
+        GitLabApi second = use(new GroupSettings(2, "other repo", "token", 6, SERVER_URL));
+        GitLabApi third = use(new GroupSettings(1, "repo", "other token", 7, SERVER_URL));
+
+        assertSame(first, second);
+        assertSame(first, use(new GroupSettings(1, "repo", "token", 5, SERVER_URL)));
+        assertNotSame(first, third);
+        assertEquals(2, mockedConstruction.constructed().size());
+    }
+
+    /**
+     * Tests that the client for a group's old key is closed once the group's settings change to a new key.
+     */
+    @Test
+    void testClientIsClosedWhenSettingsChange() {
+        GitLabApi old = use(new GroupSettings(1, "repo", "token", 5, SERVER_URL));
+
+        GitLabApi changed = use(new GroupSettings(1, "repo", "new token", 5, SERVER_URL));
+
+        verify(old).close();
+        verify(changed, never()).close();
+    }
+
+    /**
+     * Tests that a client still used by another group is kept open when one group's settings are saved, and closed
+     * when the last group using it saves its settings.
+     */
+    @Test
+    void testClientIsClosedWhenNoGroupUsesIt() {
+        GitLabApi shared = use(new GroupSettings(1, "repo", "token", 5, SERVER_URL));
+        use(new GroupSettings(2, "other repo", "token", 6, SERVER_URL));
+
+        pool.settingsChanged(5);
+        verify(shared, never()).close();
+
+        pool.settingsChanged(6);
+        verify(shared).close();
+    }
+
+    /**
+     * Tests that a client no group uses any more is only closed once the last lease of it is closed, and that closing
+     * a lease twice does not close the client under another lease.
+     */
+    @Test
+    void testClientIsClosedOnlyOnceItsLeasesAreClosed() {
+        GroupSettings groupSettings = new GroupSettings(1, "repo", "token", 5, SERVER_URL);
+        GitLabClientPool.Lease first = pool.lease(groupSettings);
+        GitLabClientPool.Lease second = pool.lease(groupSettings);
+        GitLabApi leased = first.getGitLabApi();
+
+        pool.settingsChanged(5);
+        first.close();
+        first.close();
+        verify(leased, never()).close();
+
+        second.close();
+        verify(leased).close();
+    }
+
+    /**
+     * Tests that every client is closed when the pool shuts down.
+     */
+    @Test
+    void testShutdownClosesEveryClient() {
+        GitLabApi first = use(new GroupSettings(1, "repo", "token", 5, SERVER_URL));
+        GitLabApi second = use(new GroupSettings(1, "repo", "other token", 6, SERVER_URL));
+
+        pool.shutdown();
+
+        verify(first).close();
+        verify(second).close();
+    }
+}
@@ -0,0 +1,235 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.model.GroupSettings;
+import org.gitlab4j.api.GitLabApiException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link GitLabRepositoryCache} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class GitLabRepositoryCacheTest {
+
+    private static final long FRESH_MILLIS = 1000;
+
+    private static final long STALE_MILLIS = 5000;
+
+    @Mock
+    private GitLabApiService gitLabApiService;
+
+    private final AtomicLong now = new AtomicLong(0);
+
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor();
+
+    private final GroupSettings groupSettings = new GroupSettings(12, "test repo", "token", 5, "https://eng-git.canterbury.ac.nz");
+
+    private GitLabRepositoryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new GitLabRepositoryCache(FRESH_MILLIS, STALE_MILLIS, now::get, refresher);
+        cache.gitLabApiService = gitLabApiService;
+        cache.gitLabRequestExecutor = new GitLabRequestExecutor(5000, 3, 30000, now::get,
+                Executors.newFixedThreadPool(2));
+    }
+
+    /**
+     * Waits for the background refreshes started so far to finish.
+     */
+    private void awaitRefreshes() throws InterruptedException {
+        refresher.shutdown();
+        assertTrue(refresher.awaitTermination(5, TimeUnit.SECONDS));
+    }
+
+    /**
+     * Tests that fresh information is shown without asking GitLab again.
+     */
+    @Test
+    void testFreshInformationIsNotLoadedAgain() throws GitLabApiException {
+        when(gitLabApiService.getBranchNames(groupSettings)).thenReturn(List.of("main"));
+        when(gitLabApiService.getContributors(groupSettings)).thenReturn(List.of());
+
+        GitLabRepositoryCache.RepositoryInfo first = cache.get(groupSettings);
+        now.set(FRESH_MILLIS - 1);
+        GitLabRepositoryCache.RepositoryInfo second = cache.get(groupSettings);
+
+        assertSame(first, second);
+        assertEquals(List.of("main"), second.getBranchNames());
+        assertTrue(second.isConnectionSuccessful());
+        verify(gitLabApiService, times(1)).getBranchNames(groupSettings);
+    }
+
+    /**
+     * Tests that stale information is shown straight away while it is refreshed in the background, and that the next
+     * view shows the refreshed information.
+     */
+    @Test
+    void testStaleInformationIsShownWhileRefreshed() throws GitLabApiException, InterruptedException {
+        when(gitLabApiService.getBranchNames(groupSettings)).thenReturn(List.of("main"), List.of("main", "dev"));
+        when(gitLabApiService.getContributors(groupSettings)).thenReturn(List.of());
+
+        cache.get(groupSettings);
+        now.set(FRESH_MILLIS + 1);
+        assertEquals(List.of("main"), cache.get(groupSettings).getBranchNames());
+        awaitRefreshes();
+
+        assertEquals(List.of("main", "dev"), cache.get(groupSettings).getBranchNames());
+        verify(gitLabApiService, times(2)).getBranchNames(groupSettings);
+    }
+
+    /**
+     * Tests that information older than the stale window is loaded again before it is shown.
+     */
+    @Test
+    void testExpiredInformationIsLoadedBeforeShown() throws GitLabApiException {
+        when(gitLabApiService.getBranchNames(groupSettings)).thenReturn(List.of("main"), List.of("dev"));
+        when(gitLabApiService.getContributors(groupSettings)).thenReturn(List.of());
+
+        cache.get(groupSettings);
+        now.set(FRESH_MILLIS + STALE_MILLIS);
+
+        assertEquals(List.of("dev"), cache.get(groupSettings).getBranchNames());
+    }
+
+    /**
+     * Tests that information is loaded again when the group's settings change or are saved.
+     */
+    @Test
+    void testChangedSettingsAreLoadedAgain() throws GitLabApiException {
+        GroupSettings newSettings = new GroupSettings(12, "test repo", "new token", 5, "https://eng-git.canterbury.ac.nz");
+        when(gitLabApiService.getBranchNames(any(GroupSettings.class))).thenReturn(List.of("main"));
+        when(gitLabApiService.getContributors(any(GroupSettings.class))).thenReturn(List.of());
+
+        cache.get(groupSettings);
+        cache.get(newSettings);
+        cache.invalidate(newSettings.getGroupId());
+        cache.get(newSettings);
+
+        verify(gitLabApiService, times(1)).getBranchNames(groupSettings);
+        verify(gitLabApiService, times(2)).getBranchNames(newSettings);
+    }
+
+    /**
+     * Tests that a repository that cannot be reached is cached with the reason it could not be reached.
+     */
+    @Test
+    void testUnreachableRepositoryHasAlertMessage() throws GitLabApiException {
+        when(gitLabApiService.getBranchNames(groupSettings)).thenThrow(new GitLabApiException("test", 401));
+
+        GitLabRepositoryCache.RepositoryInfo info = cache.get(groupSettings);
+
+        assertFalse(info.isConnectionSuccessful());
+        assertEquals("Invalid API key", info.getAlertMessage());
+        assertSame(info, cache.get(groupSettings));
+    }
+
+    /**
+     * Tests that a repository whose server is not responding is shown as such but not kept, so the next view asks
+     * again.
+     */
+    @Test
+    void testUnavailableServerIsNotCached() throws GitLabApiException {
+        when(gitLabApiService.getBranchNames(groupSettings))
+                .thenThrow(new GitLabApiException("test", GitLabRequestExecutor.UNAVAILABLE_STATUS))
+                .thenReturn(List.of("main"));
+        when(gitLabApiService.getContributors(groupSettings)).thenReturn(List.of());
+
+        GitLabRepositoryCache.RepositoryInfo info = cache.get(groupSettings);
+        assertFalse(info.isConnectionSuccessful());
+        assertEquals("Repository server is not responding", info.getAlertMessage());
+
+        assertTrue(cache.get(groupSettings).isConnectionSuccessful());
+        verify(gitLabApiService, times(2)).getBranchNames(groupSettings);
+    }
+
+    /**
+     * Tests that once a server's breaker lets a trial call through, the branches and contributors are asked for one
+     * after the other, so the second call is not turned away while the first runs.
+     */
+    @Test
+    void testHalfOpenBreakerCallsOneAfterAnother() throws GitLabApiException {
+        cache.gitLabRequestExecutor = new GitLabRequestExecutor(5000, 1, 30000, now::get,
+                Executors.newFixedThreadPool(2));
+        assertThrows(GitLabApiException.class, () -> cache.gitLabRequestExecutor.call(groupSettings.getRepoUrl(),
+                () -> {
+                    throw new GitLabApiException("test", GitLabRequestExecutor.UNAVAILABLE_STATUS);
+                }));
+        now.set(30000);
+        assertTrue(cache.gitLabRequestExecutor.isHalfOpen(groupSettings.getRepoUrl()));
+        when(gitLabApiService.getBranchNames(groupSettings)).thenReturn(List.of("main"));
+        when(gitLabApiService.getContributors(groupSettings)).thenReturn(List.of());
+
+        GitLabRepositoryCache.RepositoryInfo info = cache.get(groupSettings);
+        assertTrue(info.isConnectionSuccessful());
+        assertEquals(List.of("main"), info.getBranchNames());
+    }
+
+    /**
+     * Blocks the refresher until the returned latch is counted down, so refreshes asked for meanwhile wait in its queue.
+     */
+    private CountDownLatch blockRefresher() {
+        CountDownLatch mayFinish = new CountDownLatch(1);
+        refresher.execute(() -> {
+            try {
+                mayFinish.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        return mayFinish;
+    }
+
+    /**
+     * Tests that repeated views of stale information queue a single refresh.
+     */
+    @Test
+    void testRepeatedStaleViewsQueueOneRefresh() throws GitLabApiException, InterruptedException {
+        when(gitLabApiService.getBranchNames(groupSettings)).thenReturn(List.of("main"));
+        when(gitLabApiService.getContributors(groupSettings)).thenReturn(List.of());
+
+        cache.get(groupSettings);
+        CountDownLatch mayFinish = blockRefresher();
+        now.set(FRESH_MILLIS + 1);
+        cache.get(groupSettings);
+        cache.get(groupSettings);
+        cache.get(groupSettings);
+        mayFinish.countDown();
+        awaitRefreshes();
+
+        verify(gitLabApiService, times(2)).getBranchNames(groupSettings);
+    }
+
+    /**
+     * Tests that a queued refresh asks GitLab for nothing if the information was loaded again while it waited.
+     */
+    @Test
+    void testQueuedRefreshSkippedOnceFreshAgain() throws GitLabApiException, InterruptedException {
+        when(gitLabApiService.getBranchNames(groupSettings)).thenReturn(List.of("main"));
+        when(gitLabApiService.getContributors(groupSettings)).thenReturn(List.of());
+
+        cache.get(groupSettings);
+        CountDownLatch mayFinish = blockRefresher();
+        now.set(FRESH_MILLIS + 1);
+        cache.get(groupSettings);
+        now.set(FRESH_MILLIS + STALE_MILLIS + 1);
+        cache.get(groupSettings);
+        mayFinish.countDown();
+        awaitRefreshes();
+
+        verify(gitLabApiService, times(2)).getBranchNames(groupSettings);
+    }
+}
@@ -0,0 +1,167 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.gitlab4j.api.GitLabApi;
+import org.gitlab4j.api.GitLabApiException;
+import org.gitlab4j.api.models.Branch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link GitLabRequestExecutor} class. Calls are made with a real GitLab client to a local HTTP
+ * server standing in for GitLab.
+ */
+class GitLabRequestExecutorTest {
+
+    private static final long DEADLINE_MILLIS = 1000;
+
+    private static final long OPEN_MILLIS = 10000;
+
+    private static final String BRANCHES = "[{\"name\":\"main\"}]";
+
+    private final AtomicLong now = new AtomicLong(0);
+
+    private final AtomicInteger requestCount = new AtomicInteger(0);
+
+    /**
+     * Answers each request to the stand-in, and returns the status to respond with.
+     */
+    private volatile Callable<Integer> handler = () -> 200;
+
+    private HttpServer server;
+
+    private String serverUrl;
+
+    private GitLabApi gitLabApi;
+
+    private GitLabRequestExecutor executor;
+
+    @BeforeEach
+    void setUp() throws IOException, GitLabApiException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::respond);
+        server.start();
+        serverUrl = "http://localhost:" + server.getAddress().getPort();
+        gitLabApi = new GitLabApi(serverUrl, "token");
+        // The first call starts up the HTTP client, which is too slow to be made within the deadline
+        gitLabApi.getRepositoryApi().getBranches(1L);
+        requestCount.set(0);
+        executor = new GitLabRequestExecutor(DEADLINE_MILLIS, 3, OPEN_MILLIS, now::get, Executors.newFixedThreadPool(4));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        server.stop(0);
+        gitLabApi.close();
+    }
+
+    private void respond(HttpExchange exchange) throws IOException {
+        requestCount.incrementAndGet();
+        int status;
+        try {
+            status = handler.call();
+        } catch (Exception e) {
+            status = 500;
+        }
+        byte[] body = (status == 200 ? BRANCHES : "{\"message\":\"error\"}").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(body);
+        }
+    }
+
+    private CompletableFuture<List<Branch>> getBranches() {
+        return executor.submit(serverUrl, () -> gitLabApi.getRepositoryApi().getBranches(1L));
+    }
+
+    /**
+     * Tests that calls submitted together are made at the same time. The stand-in only answers once both calls have
+     * reached it, so calls made one after another would miss the deadline.
+     */
+    @Test
+    void testCallsRunConcurrently() throws GitLabApiException {
+        CountDownLatch bothArrived = new CountDownLatch(2);
+        handler = () -> {
+            bothArrived.countDown();
+            return bothArrived.await(5, TimeUnit.SECONDS) ? 200 : 500;
+        };
+
+        CompletableFuture<List<Branch>> first = getBranches();
+        CompletableFuture<List<Branch>> second = getBranches();
+
+        assertEquals("main", executor.await(first).get(0).getName());
+        assertEquals("main", executor.await(second).get(0).getName());
+    }
+
+    /**
+     * Tests that a call the server does not answer in time fails with the unavailable status at the deadline.
+     */
+    @Test
+    void testSlowCallFailsAtDeadline() {
+        handler = () -> {
+            Thread.sleep(5000);
+            return 200;
+        };
+
+        long start = System.nanoTime();
+        GitLabApiException exception = assertThrows(GitLabApiException.class, () -> executor.await(getBranches()));
+        long tookMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(GitLabRequestExecutor.UNAVAILABLE_STATUS, exception.getHttpStatus());
+        assertTrue(tookMillis < 4000, "Call took " + tookMillis + " ms");
+    }
+
+    /**
+     * Tests that once enough calls in a row fail with server errors, calls fail without reaching the server, and that a
+     * trial call is let through once the breaker has been open long enough, closing it if the server is back.
+     */
+    @Test
+    void testBreakerOpensOnServerErrorsAndClosesWhenServerRecovers() throws GitLabApiException {
+        handler = () -> 500;
+        for (int i = 0; i < 3; i++) {
+            assertThrows(GitLabApiException.class, () -> executor.await(getBranches()));
+        }
+        assertTrue(executor.isOpen(serverUrl));
+
+        GitLabApiException exception = assertThrows(GitLabApiException.class, () -> executor.await(getBranches()));
+        assertEquals(GitLabRequestExecutor.UNAVAILABLE_STATUS, exception.getHttpStatus());
+        assertEquals(3, requestCount.get());
+
+        handler = () -> 200;
+        now.set(OPEN_MILLIS);
+        assertEquals("main", executor.await(getBranches()).get(0).getName());
+        assertFalse(executor.isOpen(serverUrl));
+        assertEquals(4, requestCount.get());
+    }
+
+    /**
+     * Tests that calls failing because of what was asked, such as a missing repository, do not open the breaker, as
+     * the server is answering.
+     */
+    @Test
+    void testClientErrorsDoNotOpenBreaker() {
+        handler = () -> 404;
+        for (int i = 0; i < 5; i++) {
+            GitLabApiException exception = assertThrows(GitLabApiException.class, () -> executor.await(getBranches()));
+            assertEquals(404, exception.getHttpStatus());
+        }
+        assertFalse(executor.isOpen(serverUrl));
+        assertEquals(5, requestCount.get());
+    }
+}
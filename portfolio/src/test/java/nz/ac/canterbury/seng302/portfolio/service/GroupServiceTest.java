@@ -5,6 +5,8 @@ import nz.ac.canterbury.seng302.shared.identityprovider.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import nz.ac.canterbury.seng302.portfolio.model.GroupMembersDelta;
+import nz.ac.canterbury.seng302.portfolio.model.NotificationGroup;
 import org.mockito.ArgumentCaptor;
 
 import org.mockito.Mockito;
@@ -12,6 +14,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.util.ArrayList;
+import java.util.List;
+import java.util.function.LongFunction;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -36,12 +40,15 @@ class GroupServiceTest {
     @Autowired
     private GroupsServiceGrpc.GroupsServiceBlockingStub groupsServiceBlockingStub = mock(GroupsServiceGrpc.GroupsServiceBlockingStub.class);
 
+    private final LiveUpdateService liveUpdateService = mock(LiveUpdateService.class);
+
     /**
      * Setup to replace the autowired instances of these with the mocks
      */
     @BeforeEach
     void setup() {
         groupService.groupsServiceBlockingStub = groupsServiceBlockingStub;
+        groupService.liveUpdateService = liveUpdateService;
     }
 
 
@@ -90,6 +97,8 @@ class GroupServiceTest {
         RemoveGroupMembersResponse response = RemoveGroupMembersResponse.newBuilder()
                         .setIsSuccess(true).build();
         Mockito.when(groupsServiceBlockingStub.removeGroupMembers(any(RemoveGroupMembersRequest.class))).thenReturn(response);
+        Mockito.when(groupsServiceBlockingStub.getGroupDetails(any(GetGroupDetailsRequest.class)))
+                .thenReturn(GroupDetailsResponse.getDefaultInstance());
         ArgumentCaptor<RemoveGroupMembersRequest> captor = ArgumentCaptor.forClass(RemoveGroupMembersRequest.class);
         Integer groupId = 1;
         ArrayList<Integer> userIds = new ArrayList<Integer>();
@@ -101,6 +110,45 @@ class GroupServiceTest {
         assertEquals(userIds, captor.getValue().getUserIdsList());
     }
 
+    /**
+     * Tests that moving users between groups sends the group page the members of the changed groups, and tells the
+     * settings pages of both groups, and that a failed move does not.
+     */
+    @Test
+    void callAddMemberToGroupFromGroup_expectMembersChangedPublishedOnSuccess() {
+        Mockito.when(groupsServiceBlockingStub.addGroupMembers(any(AddGroupMembersRequest.class)))
+                .thenReturn(AddGroupMembersResponse.newBuilder().setIsSuccess(true).build())
+                .thenReturn(AddGroupMembersResponse.newBuilder().setIsSuccess(false).build());
+        Mockito.when(groupsServiceBlockingStub.getGroupDetails(any(GetGroupDetailsRequest.class)))
+                .thenAnswer(invocation -> GroupDetailsResponse.newBuilder()
+                        .setGroupId(invocation.getArgument(0, GetGroupDetailsRequest.class).getGroupId())
+                        .addMembers(UserResponse.newBuilder().setId(1).setUsername("moved"))
+                        .build());
+        ArrayList<Integer> userIds = new ArrayList<>();
+        userIds.add(1);
+
+        groupService.addMemberToGroup(3, userIds, 4);
+        groupService.addMemberToGroup(3, userIds, 5);
+
+        ArgumentCaptor<LongFunction<Object>> captor = ArgumentCaptor.forClass(LongFunction.class);
+        Mockito.verify(liveUpdateService).publishVersioned(Mockito.eq(GroupService.GROUP_MEMBERS_CHANGED_DESTINATION),
+                captor.capture());
+        // The members are only fetched once the delta has its version
+        Mockito.verify(groupsServiceBlockingStub, Mockito.never()).getGroupDetails(any(GetGroupDetailsRequest.class));
+        GroupMembersDelta delta = (GroupMembersDelta) captor.getValue().apply(2);
+        assertEquals(2, delta.getVersion());
+        assertEquals(4, delta.getSendingGroupId());
+        assertEquals(3, delta.getReceivingGroupId());
+        assertEquals(List.of(4, 3, 1), delta.getGroups().stream().map(GroupMembersDelta.GroupMembers::getGroupId).toList());
+        assertEquals("moved", delta.getGroups().get(0).getMembers().get(0).getUsername());
+        assertEquals(1, delta.getGroups().get(0).getMembersCount());
+        Mockito.verify(liveUpdateService).publish(LiveUpdateService.groupDestination(4, GroupService.GROUP_MEMBERS_TOPIC),
+                new NotificationGroup(4, 3));
+        Mockito.verify(liveUpdateService).publish(LiveUpdateService.groupDestination(3, GroupService.GROUP_MEMBERS_TOPIC),
+                new NotificationGroup(4, 3));
+        Mockito.verifyNoMoreInteractions(liveUpdateService);
+    }
+
     /**
      * Test to check method to modify group's details works in GroupService Class
      * Expect that groupsServiceBlockingStub.modifyGroupDetails() method to be called with the right content of the request
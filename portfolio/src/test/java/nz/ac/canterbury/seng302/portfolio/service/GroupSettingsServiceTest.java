@@ -6,6 +6,7 @@ import nz.ac.canterbury.seng302.portfolio.repository.GroupSettingsRepository;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
@@ -28,6 +29,9 @@ class GroupSettingsServiceTest {
     @Mock
     private GroupSettingsRepository repository;
 
+    @Mock
+    private GitLabClientPool gitLabClientPool;
+
     @InjectMocks
     private GroupSettingsService groupSettingsService;
 
@@ -59,6 +63,18 @@ class GroupSettingsServiceTest {
         assertEquals(testGroupSettings, groupSettingsService.getGroupSettingsByGroupId(testGroupSettings.getGroupId()));
     }
 
+    /**
+     * Test that a group without settings gets default settings for the group, and that nothing is saved.
+     */
+    @Test
+    void testGetGroupSettingsByGroupIdWithoutSettingsDoesNotSave() {
+        when(repository.findByGroupId(42)).thenReturn(Optional.empty());
+        GroupSettings groupSettings = groupSettingsService.getGroupSettingsByGroupId(42);
+        assertEquals(42, groupSettings.getGroupId());
+        assertEquals(0, groupSettings.getRepoId());
+        verify(repository, never()).save(any());
+    }
+
     /**
      * Tests that the save method is called by the group settings repository with the correct argument when calling
      * the saveGroupSettings method.
@@ -69,6 +85,7 @@ class GroupSettingsServiceTest {
         GroupSettings savedGroupSettings = groupSettingsService.saveGroupSettings(testGroupSettings);
         assertEquals(testGroupSettings, savedGroupSettings);
         verify(repository).save(testGroupSettings);
+        verify(gitLabClientPool).settingsChanged(testGroupSettings.getGroupId());
     }
 
     /**
@@ -104,7 +121,7 @@ class GroupSettingsServiceTest {
     @Test
     void checkRepositoryHasBeenSetUpWhenItIsNot() {
         GroupSettings test = new GroupSettings(0, "test repo", null, 1234, "https://eng-git.canterbury.ac.nz");
-        lenient().when(groupSettingsService.getGroupSettingsByGroupId(test.getGroupId())).thenReturn(test);
+        when(repository.findByGroupId(test.getGroupId())).thenReturn(Optional.of(test));
         assertFalse(groupSettingsService.doesGroupHaveRepo(test.getGroupId()));
     }
 
@@ -128,6 +145,22 @@ class GroupSettingsServiceTest {
         assertTrue(groupSettingsService.isGroupSettingSaved(1,1, "test", "test", 1234, "https://eng-git.canterbury.ac.nz"));
     }
 
+    /**
+     * Tests that saving settings shown as unsaved defaults updates the group's settings if they have been saved since,
+     * rather than saving a second set for the group.
+     */
+    @Test
+    void checkIsGroupSettingSavedUpdatesSettingsSavedSince() {
+        when(repository.findByGroupId(testGroupSettings.getGroupId())).thenReturn(Optional.of(testGroupSettings));
+        ArgumentCaptor<GroupSettings> captor = ArgumentCaptor.forClass(GroupSettings.class);
+
+        assertTrue(groupSettingsService.isGroupSettingSaved(0, 1, "test", "test", testGroupSettings.getGroupId(),
+                "https://eng-git.canterbury.ac.nz"));
+
+        verify(repository).save(captor.capture());
+        assertEquals(testGroupSettings.getGroupSettingsId(), captor.getValue().getGroupSettingsId());
+    }
+
     /**
      * Checks that the isValidGroupSettings method returns true when all arguments are valid.
      */
@@ -0,0 +1,57 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link HighFiversMigration} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class HighFiversMigrationTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @InjectMocks
+    private HighFiversMigration highFiversMigration;
+
+    /**
+     * Tests that nothing is changed once the old join table is gone.
+     */
+    @Test
+    void testNothingDoneWithoutJoinTable() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(HighFiversMigration.OLD_JOIN_TABLE)))
+                .thenReturn(0);
+
+        highFiversMigration.run(null);
+
+        verify(jdbcTemplate, never()).update(anyString());
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+
+    /**
+     * Tests that the old high fives are copied and counted before the join table is dropped, and the duplicates left
+     * behind are only deleted after that.
+     */
+    @Test
+    void testJoinTableCopiedCountedThenDropped() {
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq(HighFiversMigration.OLD_JOIN_TABLE)))
+                .thenReturn(1);
+
+        highFiversMigration.run(null);
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(startsWith("update ignore high_fivers"));
+        inOrder.verify(jdbcTemplate).update(startsWith("update evidence e set e.high_five_count"));
+        inOrder.verify(jdbcTemplate).execute("drop table " + HighFiversMigration.OLD_JOIN_TABLE);
+        inOrder.verify(jdbcTemplate).update("delete from high_fivers where evidence_id is null");
+    }
+}
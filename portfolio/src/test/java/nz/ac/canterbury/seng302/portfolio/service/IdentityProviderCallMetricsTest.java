@@ -0,0 +1,89 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import nz.ac.canterbury.seng302.shared.identityprovider.GetUserByIdRequest;
+import nz.ac.canterbury.seng302.shared.identityprovider.UserAccountServiceGrpc;
+import nz.ac.canterbury.seng302.shared.identityprovider.UserResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link IdentityProviderCallMetrics} class. Calls are made over an in-process channel to a
+ * stand-in for the identity provider, which is unavailable for the first call to get a user.
+ */
+class IdentityProviderCallMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicInteger userCalls = new AtomicInteger();
+
+    private Server server;
+
+    private ManagedChannel channel;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        String serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName).directExecutor()
+                .addService(new UserAccountServiceGrpc.UserAccountServiceImplBase() {
+                    @Override
+                    public void getUserAccountById(GetUserByIdRequest request,
+                                                   StreamObserver<UserResponse> responseObserver) {
+                        if (userCalls.incrementAndGet() == 1) {
+                            responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+                        } else {
+                            responseObserver.onNext(UserResponse.newBuilder().setId(request.getId()).build());
+                            responseObserver.onCompleted();
+                        }
+                    }
+                }).build().start();
+        IdentityProviderCallPolicy policy = new IdentityProviderCallPolicy(5000, List.of(),
+                List.of("UserAccountService/GetUserAccountById"), 3, 10, 50, false, 0);
+        InProcessChannelBuilder builder = InProcessChannelBuilder.forName(serverName)
+                .intercept(new IdentityProviderCallMetrics(meterRegistry, policy));
+        policy.accept(builder, IdentityProviderCallPolicy.CHANNEL_NAME);
+        channel = builder.build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    private double countAttempts(String attempt, String status) {
+        Counter counter = meterRegistry.find(IdentityProviderCallMetrics.ATTEMPTS_METRIC)
+                .tag("service", "nz.ac.canterbury.seng302.UserAccountService")
+                .tag("method", "GetUserAccountById")
+                .tag("attempt", attempt)
+                .tag("status", status)
+                .counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    /**
+     * Tests that the failed first attempt and the retry that succeeded are each counted, with how they ended.
+     */
+    @Test
+    void testEachAttemptIsCounted() {
+        UserAccountServiceGrpc.newBlockingStub(channel).getUserAccountById(GetUserByIdRequest.newBuilder().setId(3).build());
+
+        assertEquals(1, countAttempts("first", "UNAVAILABLE"));
+        assertEquals(1, countAttempts("retry", "OK"));
+        assertEquals(0, countAttempts("hedge", "OK"));
+    }
+}
@@ -0,0 +1,190 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import io.grpc.*;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import nz.ac.canterbury.seng302.shared.identityprovider.*;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link IdentityProviderCallPolicy} class. Calls are made over an in-process channel given the
+ * policy, to a stand-in for the identity provider's user account service.
+ */
+class IdentityProviderCallPolicyTest {
+
+    private static final List<String> READS = List.of("UserAccountService/GetUserAccountById",
+            "UserAccountService/GetPaginatedUsers");
+
+    /**
+     * Calls the stand-in has received to get a user.
+     */
+    private final AtomicInteger userCalls = new AtomicInteger();
+
+    /**
+     * Calls the stand-in has received to edit a user.
+     */
+    private final AtomicInteger editCalls = new AtomicInteger();
+
+    private String serverName;
+
+    private Server server;
+
+    private ManagedChannel channel;
+
+    /**
+     * Stand-in for the identity provider. The first call to get a user fails as unavailable, or never gets an answer
+     * when the user asked for is -1. Editing a user always fails as unavailable, and getting users never gets an
+     * answer.
+     */
+    private class StandInUserAccountService extends UserAccountServiceGrpc.UserAccountServiceImplBase {
+
+        @Override
+        public void getUserAccountById(GetUserByIdRequest request, StreamObserver<UserResponse> responseObserver) {
+            if (userCalls.incrementAndGet() > 1) {
+                responseObserver.onNext(UserResponse.newBuilder().setId(request.getId()).build());
+                responseObserver.onCompleted();
+            } else if (request.getId() != -1) {
+                responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+            }
+        }
+
+        @Override
+        public void editUser(EditUserRequest request, StreamObserver<EditUserResponse> responseObserver) {
+            editCalls.incrementAndGet();
+            responseObserver.onError(Status.UNAVAILABLE.asRuntimeException());
+        }
+
+        @Override
+        public void getPaginatedUsers(GetPaginatedUsersRequest request,
+                                      StreamObserver<PaginatedUsersResponse> responseObserver) {
+            // Never answers
+        }
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverName = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(serverName).directExecutor()
+                .addService(new StandInUserAccountService()).build().start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (channel != null) {
+            channel.shutdownNow();
+        }
+        server.shutdownNow();
+    }
+
+    private UserAccountServiceGrpc.UserAccountServiceBlockingStub connect(IdentityProviderCallPolicy policy) {
+        InProcessChannelBuilder builder = InProcessChannelBuilder.forName(serverName);
+        policy.accept(builder, IdentityProviderCallPolicy.CHANNEL_NAME);
+        channel = builder.build();
+        return UserAccountServiceGrpc.newBlockingStub(channel);
+    }
+
+    private static IdentityProviderCallPolicy retryingPolicy() {
+        return new IdentityProviderCallPolicy(5000, List.of("UserAccountService/GetPaginatedUsers=100"), READS, 3,
+                10, 50, false, 0);
+    }
+
+    /**
+     * Tests that every service gets the default deadline, that methods with their own deadline get it, and that only
+     * reads are retried.
+     */
+    @Test
+    void testServiceConfigHasDeadlinesAndRetries() {
+        Map<String, Object> serviceConfig = retryingPolicy().getServiceConfig();
+
+        List<?> methodConfigs = (List<?>) serviceConfig.get("methodConfig");
+        assertEquals(IdentityProviderCallPolicy.SERVICES.size() + READS.size(), methodConfigs.size());
+        Map<?, ?> serviceDefault = (Map<?, ?>) methodConfigs.get(0);
+        assertEquals("5.000s", serviceDefault.get("timeout"));
+        assertNull(serviceDefault.get("retryPolicy"));
+        Map<?, ?> paginatedUsers = (Map<?, ?>) methodConfigs.get(IdentityProviderCallPolicy.SERVICES.size());
+        assertEquals(List.of(Map.of("service", "nz.ac.canterbury.seng302.UserAccountService",
+                "method", "GetPaginatedUsers")), paginatedUsers.get("name"));
+        assertEquals("0.100s", paginatedUsers.get("timeout"));
+        Map<?, ?> retryPolicy = (Map<?, ?>) paginatedUsers.get("retryPolicy");
+        assertEquals(3.0, retryPolicy.get("maxAttempts"));
+        assertEquals("0.010s", retryPolicy.get("initialBackoff"));
+        assertEquals(List.of("UNAVAILABLE"), retryPolicy.get("retryableStatusCodes"));
+    }
+
+    /**
+     * Tests that a read is retried when the identity provider is unavailable.
+     */
+    @Test
+    void testReadIsRetriedWhenUnavailable() {
+        UserAccountServiceGrpc.UserAccountServiceBlockingStub stub = connect(retryingPolicy());
+
+        UserResponse user = stub.getUserAccountById(GetUserByIdRequest.newBuilder().setId(3).build());
+
+        assertEquals(3, user.getId());
+        assertEquals(2, userCalls.get());
+    }
+
+    /**
+     * Tests that a call that changes something is only sent once, even when the identity provider is unavailable.
+     */
+    @Test
+    void testWriteIsNotRetried() {
+        UserAccountServiceGrpc.UserAccountServiceBlockingStub stub = connect(retryingPolicy());
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> stub.editUser(EditUserRequest.newBuilder().setUserId(3).build()));
+
+        assertEquals(Status.Code.UNAVAILABLE, exception.getStatus().getCode());
+        assertEquals(1, editCalls.get());
+    }
+
+    /**
+     * Tests that a call the identity provider never answers fails once its method's deadline has passed.
+     */
+    @Test
+    void testCallFailsAfterDeadline() {
+        UserAccountServiceGrpc.UserAccountServiceBlockingStub stub = connect(retryingPolicy());
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> stub.getPaginatedUsers(GetPaginatedUsersRequest.newBuilder().build()));
+
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, exception.getStatus().getCode());
+    }
+
+    /**
+     * Tests that with hedging enabled, a read that has not been answered is sent again, and the answer to the second
+     * copy is used.
+     */
+    @Test
+    void testReadIsHedgedWhenEnabled() {
+        IdentityProviderCallPolicy policy = new IdentityProviderCallPolicy(5000, List.of(), READS, 2, 10, 50, true, 20);
+        UserAccountServiceGrpc.UserAccountServiceBlockingStub stub = connect(policy);
+
+        UserResponse user = stub.getUserAccountById(GetUserByIdRequest.newBuilder().setId(-1).build());
+
+        assertEquals(-1, user.getId());
+        assertEquals(2, userCalls.get());
+        assertTrue(policy.isHedged("nz.ac.canterbury.seng302.UserAccountService/GetUserAccountById"));
+        assertFalse(policy.isHedged("nz.ac.canterbury.seng302.UserAccountService/EditUser"));
+    }
+
+    /**
+     * Tests that methods not named as Service/Method for one of the identity provider's services are rejected.
+     */
+    @Test
+    void testMethodNotOfIdentityProviderIsRejected() {
+        List<String> reads = List.of("GetUserAccountById");
+        assertThrows(IllegalArgumentException.class,
+                () -> new IdentityProviderCallPolicy(5000, List.of(), reads, 3, 10, 50, false, 0));
+    }
+}
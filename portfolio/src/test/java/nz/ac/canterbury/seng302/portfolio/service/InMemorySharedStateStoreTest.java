@@ -0,0 +1,96 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link InMemorySharedStateStore} class.
+ */
+class InMemorySharedStateStoreTest {
+
+    private static final long START = 1_000;
+
+    private static final String LOG = "log";
+
+    private final InMemorySharedStateStore store = new InMemorySharedStateStore(START);
+
+    private static List<String> values(List<SharedStateStore.Entry> entries) {
+        return entries.stream().map(SharedStateStore.Entry::getValue).toList();
+    }
+
+    /**
+     * Tests that counters start from the store's starting value and are incremented independently.
+     */
+    @Test
+    void testCountersStartFromStart() {
+        assertEquals(START, store.getCounter("a"));
+        assertEquals(START + 1, store.incrementCounter("a"));
+        assertEquals(START + 2, store.incrementCounter("a"));
+        assertEquals(START + 1, store.incrementCounter("b"));
+        assertEquals(START + 2, store.getCounter("a"));
+    }
+
+    /**
+     * Tests that only the most recent values are kept once a log wraps, oldest first, with consecutive sequences.
+     */
+    @Test
+    void testLogKeepsMostRecentInOrder() {
+        assertTrue(store.readAfter(LOG, 0).isEmpty());
+        assertEquals(START, store.getLastSequence(LOG));
+        assertEquals(START + 1, store.getFirstSequence(LOG));
+        for (int i = 1; i <= 5; i++) {
+            assertEquals(START + i, store.append(LOG, "value " + i, 3));
+        }
+        assertEquals(List.of("value 3", "value 4", "value 5"), values(store.readAfter(LOG, 0)));
+        assertEquals(List.of("value 5"), values(store.readAfter(LOG, START + 4)));
+        assertEquals(START + 3, store.readAfter(LOG, 0).get(0).getSequence());
+        assertEquals(START + 5, store.getLastSequence(LOG));
+        assertEquals(START + 3, store.getFirstSequence(LOG));
+        assertTrue(store.readAfter("other", 0).isEmpty());
+    }
+
+    /**
+     * Tests that reading while many threads add never fails, and never returns more than the capacity, the same
+     * value twice, or values out of order.
+     */
+    @Test
+    void testConcurrentAppendsAndReads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int thread = 0; thread < 3; thread++) {
+                int offset = thread * 100_000;
+                writers.add(executor.submit(() -> {
+                    for (int i = 0; i < 100_000; i++) {
+                        store.append(LOG, Integer.toString(offset + i), 3);
+                    }
+                }));
+            }
+            while (!writers.stream().allMatch(Future::isDone)) {
+                List<SharedStateStore.Entry> recent = store.readAfter(LOG, 0);
+                assertTrue(recent.size() <= 3);
+                assertEquals(recent.size(), new HashSet<>(values(recent)).size());
+                for (int i = 1; i < recent.size(); i++) {
+                    assertEquals(recent.get(i - 1).getSequence() + 1, recent.get(i).getSequence());
+                }
+            }
+            for (Future<?> writer : writers) {
+                writer.get();
+            }
+            assertEquals(3, store.readAfter(LOG, 0).size());
+            assertEquals(START + 300_000, store.getLastSequence(LOG));
+        } finally {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package nz.ac.canterbury.seng302.portfolio.service;
 
-import nz.ac.canterbury.seng302.portfolio.model.Evidence;
 import nz.ac.canterbury.seng302.portfolio.model.LeaderboardEntry;
 import nz.ac.canterbury.seng302.portfolio.repository.EvidenceRepository;
 import nz.ac.canterbury.seng302.shared.identityprovider.*;
@@ -9,8 +8,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.when;
 
@@ -54,10 +54,11 @@ class LeaderboardServiceTest {
 
         List<UserResponse> usersList = response.getUsersList();
 
+        Map<Integer, Long> evidenceCounts = new HashMap<>();
         for (UserResponse user : usersList) {
-            List<Evidence> evidences = List.of(new Evidence());
-            when(evidenceService.getEvidences(user.getId())).thenReturn(evidences);
+            evidenceCounts.put(user.getId(), 1L);
         }
+        when(evidenceService.getEvidenceCountsByUser()).thenReturn(evidenceCounts);
         List<LeaderboardEntry> leaderboardEntries = leaderboardService.getLeaderboardEntries(usersList);
         assertEquals(3, leaderboardEntries.size());
     }
@@ -76,10 +77,11 @@ class LeaderboardServiceTest {
 
         List<UserResponse> usersList = response.getUsersList();
 
+        Map<Integer, Long> evidenceCounts = new HashMap<>();
         for (UserResponse user : usersList) {
-            List<Evidence> evidences = List.of(new Evidence());
-            when(evidenceService.getEvidences(user.getId())).thenReturn(evidences);
+            evidenceCounts.put(user.getId(), 1L);
         }
+        when(evidenceService.getEvidenceCountsByUser()).thenReturn(evidenceCounts);
         List<LeaderboardEntry> leaderboardEntries = leaderboardService.getLeaderboardEntries(usersList);
         leaderboardService.setRanks(leaderboardEntries);
         assertEquals(1, leaderboardEntries.get(0).getRank());
@@ -101,20 +103,11 @@ class LeaderboardServiceTest {
 
         List<UserResponse> usersList = response.getUsersList();
 
-        List<Evidence> evidences1 = new ArrayList<>();
-        when(evidenceService.getEvidences(0)).thenReturn(evidences1);
-
-
-        List<Evidence> evidences2 = new ArrayList<>();
-        evidences2.add(new Evidence());
-        evidences2.add(new Evidence());
-        when(evidenceService.getEvidences(1)).thenReturn(evidences2);
-
-        List<Evidence> evidences3 = new ArrayList<>();
-        evidences3.add(new Evidence());
-        evidences3.add(new Evidence());
-        evidences3.add(new Evidence());
-        when(evidenceService.getEvidences(2)).thenReturn(evidences3);
+        // User 0 has no evidence so is not returned by the count query.
+        Map<Integer, Long> evidenceCounts = new HashMap<>();
+        evidenceCounts.put(1, 2L);
+        evidenceCounts.put(2, 3L);
+        when(evidenceService.getEvidenceCountsByUser()).thenReturn(evidenceCounts);
 
         List<LeaderboardEntry> leaderboardEntries = leaderboardService.getLeaderboardEntries(usersList);
 
@@ -0,0 +1,130 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.model.NotificationGroup;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link LiveUpdateService} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class LiveUpdateServiceTest {
+
+    @Mock
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Spy
+    private SharedStateStore sharedStateStore = new InMemorySharedStateStore(0);
+
+    @InjectMocks
+    private LiveUpdateService liveUpdateService;
+
+    private static final String DESTINATION = "/webSocketGet/group-change-users";
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        liveUpdateService.shutdown();
+    }
+
+    /**
+     * Tests that many equal updates published together are sent once, while different updates are all sent.
+     */
+    @Test
+    void testEqualUpdatesAreCoalesced() {
+        for (int i = 0; i < 30; i++) {
+            liveUpdateService.publish(DESTINATION, new NotificationGroup(1, 3));
+        }
+        liveUpdateService.publish(DESTINATION, new NotificationGroup(3, 1));
+        liveUpdateService.flush();
+
+        verify(messagingTemplate, times(1)).convertAndSend(DESTINATION, (Object) new NotificationGroup(1, 3));
+        verify(messagingTemplate, times(1)).convertAndSend(DESTINATION, (Object) new NotificationGroup(3, 1));
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    /**
+     * Tests that only the latest update for a key is sent.
+     */
+    @Test
+    void testLatestUpdateForKeyIsSent() {
+        liveUpdateService.publish(DESTINATION, 1, "first");
+        liveUpdateService.publish(DESTINATION, 1, "second");
+        liveUpdateService.flush();
+
+        verify(messagingTemplate).convertAndSend(DESTINATION, (Object) "second");
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    /**
+     * Tests that versioned deltas are numbered in the order they are published, are never coalesced, and that the
+     * current version is the last one sent.
+     */
+    @Test
+    void testVersionedDeltasAreNumberedInOrder() {
+        assertEquals(0, liveUpdateService.getVersion(DESTINATION));
+        liveUpdateService.publishVersioned(DESTINATION, version -> "delta " + version);
+        liveUpdateService.publishVersioned(DESTINATION, version -> "delta " + version);
+        liveUpdateService.flush();
+        assertEquals(2, liveUpdateService.getVersion(DESTINATION));
+        assertEquals(0, liveUpdateService.getVersion("/webSocketGet/leaderboard"));
+
+        InOrder inOrder = inOrder(messagingTemplate);
+        inOrder.verify(messagingTemplate).convertAndSend(DESTINATION, (Object) "delta 1");
+        inOrder.verify(messagingTemplate).convertAndSend(DESTINATION, (Object) "delta 2");
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    /**
+     * Tests that an update published in a transaction is only sent after it commits, and never if it rolls back.
+     */
+    @Test
+    void testUpdatesInTransactionWaitForCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+        liveUpdateService.publish(DESTINATION, "committed");
+        liveUpdateService.flush();
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        liveUpdateService.flush();
+        verify(messagingTemplate).convertAndSend(DESTINATION, (Object) "committed");
+
+        TransactionSynchronizationManager.initSynchronization();
+        liveUpdateService.publish(DESTINATION, "rolled back");
+        TransactionSynchronizationManager.clearSynchronization();
+        liveUpdateService.flush();
+        verifyNoMoreInteractions(messagingTemplate);
+    }
+
+    /**
+     * Tests that an update published by an action running after a commit is sent, as the committed transaction would
+     * never run it if it were registered then.
+     */
+    @Test
+    void testUpdatePublishedAfterCommitIsSent() {
+        TransactionSynchronizationManager.initSynchronization();
+        liveUpdateService.runAfterCommit(() -> liveUpdateService.publish(DESTINATION, "after commit"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        TransactionSynchronizationManager.clearSynchronization();
+        liveUpdateService.flush();
+        verify(messagingTemplate).convertAndSend(DESTINATION, (Object) "after commit");
+    }
+}
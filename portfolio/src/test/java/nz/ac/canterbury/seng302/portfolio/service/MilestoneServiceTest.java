@@ -36,6 +36,9 @@ class MilestoneServiceTest {
     @Mock
     private MilestoneRepository milestoneRepository;
 
+    @Mock
+    private ArtefactNotificationService artefactNotificationService;
+
     /**
      * DeadlineService object.
      */
@@ -84,6 +87,37 @@ class MilestoneServiceTest {
         verify(milestoneRepository, times(0)).deleteById(any(Integer.class));
     }
 
+    /**
+     * Tests that adding a milestone for a user publishes that the user added it, with its saved name.
+     */
+    @Test
+    void testAddMilestoneWithEditorPublishesAdd() {
+        when(milestoneRepository.save(any(Milestone.class))).then(returnsFirstArg());
+        Milestone milestone = new Milestone(0, " Test Milestone ", new Date());
+        milestone.setId(4);
+
+        milestoneService.addMilestone(milestone, 7);
+
+        verify(artefactNotificationService).publishAdded("Milestone", 4, "Test Milestone", 7);
+    }
+
+    /**
+     * Tests that removing a milestone for a user publishes the removal only when the milestone existed.
+     */
+    @Test
+    void testRemoveMilestoneWithEditorPublishesDeleteOnlyWhenItExists() {
+        Milestone milestone = new Milestone(0, "Test Milestone", new Date());
+        milestone.setId(4);
+        when(milestoneRepository.findById(Integer.valueOf(4))).thenReturn(Optional.of(milestone));
+        when(milestoneRepository.findById(Integer.valueOf(5))).thenReturn(Optional.empty());
+
+        milestoneService.removeMilestone(4, 7);
+        milestoneService.removeMilestone(5, 7);
+
+        verify(artefactNotificationService).publishDeleted("Milestone", 4, "Test Milestone", 7);
+        verifyNoMoreInteractions(artefactNotificationService);
+    }
+
     @Test
     void testGetMilestoneWithColour_givenOneMilestoneOccurInASprint_returnColour() {
         Sprint sprint = new Sprint();
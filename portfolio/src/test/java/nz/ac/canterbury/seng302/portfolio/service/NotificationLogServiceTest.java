@@ -0,0 +1,115 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the {@link NotificationLogService} class.
+ */
+class NotificationLogServiceTest {
+
+    private static final String LEADERBOARD = "/webSocketGet/leaderboard";
+
+    private static final String GROUP_MEMBERS = "/webSocketGet/group/3/members";
+
+    private NotificationLogService notificationLogService;
+
+    @BeforeEach
+    void setUp() {
+        notificationLogService = new NotificationLogService();
+        notificationLogService.sharedStateStore = new InMemorySharedStateStore();
+    }
+
+    private Message<byte[]> brokerMessage(String destination, String body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        return MessageBuilder.createMessage(body.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+
+    private String getSequenceHeader(Message<?> message) {
+        return SimpMessageHeaderAccessor.wrap(message).getFirstNativeHeader(NotificationLogService.SEQUENCE_HEADER);
+    }
+
+    /**
+     * Tests that each update is given the next sequence in its header, and a page that saw the first is sent only the
+     * updates to its destinations after it.
+     */
+    @Test
+    void testCatchUpSendsUpdatesAfterSequence() {
+        long first = Long.parseLong(getSequenceHeader(
+                notificationLogService.preSend(brokerMessage(LEADERBOARD, "{\"version\":1}"), null)));
+        Message<?> second = notificationLogService.preSend(brokerMessage(GROUP_MEMBERS, "{\"version\":2}"), null);
+        notificationLogService.preSend(brokerMessage(LEADERBOARD, "{\"version\":3}"), null);
+
+        assertEquals(Long.toString(first + 1), getSequenceHeader(second));
+        NotificationLogService.CatchUp catchUp = notificationLogService.getSince(first, List.of(LEADERBOARD));
+        assertFalse(catchUp.isReloadRequired());
+        assertEquals(1, catchUp.getMessages().size());
+        assertEquals(first + 2, catchUp.getMessages().get(0).getSequence());
+        assertEquals("{\"version\":3}", catchUp.getMessages().get(0).getBody());
+        assertEquals(first + 2, catchUp.getLatestSequence());
+    }
+
+    /**
+     * Tests that a page which missed updates no longer kept, or which saw updates from before a restart, must reload.
+     */
+    @Test
+    void testCatchUpRequiresReloadWhenGapTooLarge() {
+        long first = notificationLogService.append(LEADERBOARD, "first");
+        for (int i = 0; i < NotificationLogService.CAPACITY; i++) {
+            notificationLogService.append(LEADERBOARD, "later");
+        }
+
+        assertTrue(notificationLogService.getSince(first - 1, List.of(LEADERBOARD)).isReloadRequired());
+        assertFalse(notificationLogService.getSince(first, List.of(LEADERBOARD)).isReloadRequired());
+        assertEquals(NotificationLogService.CAPACITY,
+                notificationLogService.getSince(first, List.of(LEADERBOARD)).getMessages().size());
+        assertTrue(notificationLogService.getSince(first + NotificationLogService.CAPACITY + 1, List.of(LEADERBOARD))
+                .isReloadRequired());
+    }
+
+    /**
+     * Tests that a page is not told to reload when the updates after the one it saw are still kept, but cannot be
+     * read yet because they are still being written.
+     */
+    @Test
+    void testCatchUpDoesNotReloadForUpdatesStillBeingWritten() {
+        SharedStateStore store = mock(SharedStateStore.class);
+        notificationLogService.sharedStateStore = store;
+        when(store.getLastSequence(anyString())).thenReturn(12L);
+        when(store.readAfter(anyString(), eq(10L))).thenReturn(List.of());
+        when(store.getFirstSequence(anyString())).thenReturn(8L);
+
+        NotificationLogService.CatchUp catchUp = notificationLogService.getSince(10, List.of(LEADERBOARD));
+        assertFalse(catchUp.isReloadRequired());
+        assertTrue(catchUp.getMessages().isEmpty());
+    }
+
+    /**
+     * Tests that updates about editing in progress, and updates to users' queues, are neither numbered nor kept.
+     */
+    @Test
+    void testTransientAndUserUpdatesAreNotLogged() {
+        long before = notificationLogService.getLatest().getLatestSequence();
+        Message<?> editing = notificationLogService.preSend(brokerMessage("/webSocketGet/being-edited", "{}"), null);
+        Message<?> highFive = notificationLogService.preSend(
+                brokerMessage("/queue/high-fives-user123", "{}"), null);
+
+        assertNull(getSequenceHeader(editing));
+        assertNull(getSequenceHeader(highFive));
+        assertEquals(before, notificationLogService.getLatest().getLatestSequence());
+    }
+}
@@ -0,0 +1,134 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import com.google.common.util.concurrent.SettableFuture;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link PageDataLoader} class.
+ */
+class PageDataLoaderTest {
+
+    private PageDataLoader pageDataLoader;
+
+    @BeforeEach
+    void setUp() {
+        pageDataLoader = new PageDataLoader(2000, Executors.newFixedThreadPool(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        pageDataLoader.shutdown();
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    /**
+     * Tests that loads started together run at the same time, rather than one after the other.
+     */
+    @Test
+    void testLoadsRunAtTheSameTime() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        CompletableFuture<Boolean> first = pageDataLoader.load(() -> awaitOther(bothStarted));
+        CompletableFuture<Boolean> second = pageDataLoader.load(() -> awaitOther(bothStarted));
+
+        assertTrue(pageDataLoader.join(first));
+        assertTrue(pageDataLoader.join(second));
+    }
+
+    private static boolean awaitOther(CountDownLatch bothStarted) {
+        bothStarted.countDown();
+        try {
+            return bothStarted.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Tests that a load sees the request of the thread that started it, so its calls are authenticated.
+     */
+    @Test
+    void testLoadSeesRequestOfThreadStartingIt() {
+        RequestAttributes requestAttributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(requestAttributes);
+
+        CompletableFuture<RequestAttributes> seen = pageDataLoader.load(RequestContextHolder::getRequestAttributes);
+
+        assertSame(requestAttributes, pageDataLoader.join(seen));
+    }
+
+    /**
+     * Tests that a load runs on the thread starting it when the pool cannot take it.
+     */
+    @Test
+    void testLoadRunsOnCallerWhenPoolIsFull() {
+        ExecutorService rejecting = Executors.newSingleThreadExecutor();
+        rejecting.shutdown();
+        PageDataLoader fullLoader = new PageDataLoader(2000, rejecting);
+
+        CompletableFuture<Thread> thread = fullLoader.load(Thread::currentThread);
+
+        assertSame(Thread.currentThread(), fullLoader.join(thread));
+    }
+
+    /**
+     * Tests that joining a failed load throws the exception the load threw.
+     */
+    @Test
+    void testJoinThrowsExceptionOfFailedLoad() {
+        StatusRuntimeException unavailable = Status.UNAVAILABLE.asRuntimeException();
+        CompletableFuture<Object> failed = pageDataLoader.load(() -> {
+            throw unavailable;
+        });
+
+        assertSame(unavailable, assertThrows(StatusRuntimeException.class, () -> pageDataLoader.join(failed)));
+    }
+
+    /**
+     * Tests that a page stops waiting for a load that takes longer than the timeout, and that the load is cancelled.
+     */
+    @Test
+    void testJoinGivesUpAfterTimeout() {
+        PageDataLoader impatientLoader = new PageDataLoader(50, Executors.newSingleThreadExecutor());
+        SettableFuture<String> call = SettableFuture.create();
+        CompletableFuture<String> response = PageDataLoader.fromGrpc(call);
+
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> impatientLoader.join(response));
+
+        assertEquals(Status.Code.DEADLINE_EXCEEDED, exception.getStatus().getCode());
+        assertTrue(call.isCancelled());
+        impatientLoader.shutdown();
+    }
+
+    /**
+     * Tests that the result of a call made with a future stub is passed on, as is the status of a failed call.
+     */
+    @Test
+    void testFromGrpcPassesOnResult() {
+        SettableFuture<String> call = SettableFuture.create();
+        SettableFuture<String> failedCall = SettableFuture.create();
+        CompletableFuture<String> response = PageDataLoader.fromGrpc(call);
+        CompletableFuture<String> failedResponse = PageDataLoader.fromGrpc(failedCall);
+
+        call.set("response");
+        failedCall.setException(Status.NOT_FOUND.asRuntimeException());
+
+        assertEquals("response", pageDataLoader.join(response));
+        StatusRuntimeException exception = assertThrows(StatusRuntimeException.class,
+                () -> pageDataLoader.join(failedResponse));
+        assertEquals(Status.Code.NOT_FOUND, exception.getStatus().getCode());
+    }
+}
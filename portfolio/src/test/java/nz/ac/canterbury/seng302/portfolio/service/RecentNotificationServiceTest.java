@@ -0,0 +1,68 @@
+package nz.ac.canterbury.seng302.portfolio.service;
+
+import nz.ac.canterbury.seng302.portfolio.model.NotificationResponse;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the {@link RecentNotificationService} class.
+ */
+@ExtendWith(MockitoExtension.class)
+class RecentNotificationServiceTest {
+
+    private static final long NOW = 1_000_000;
+
+    @Spy
+    private SharedStateStore sharedStateStore = new InMemorySharedStateStore();
+
+    @InjectMocks
+    private RecentNotificationService recentNotificationService;
+
+    private static NotificationResponse notification(int id, long dateOfCreation) {
+        return new NotificationResponse("Artefact " + id, id, "user", "First", "Last", dateOfCreation, "Event", "save");
+    }
+
+    private static List<Integer> ids(List<NotificationResponse> notifications) {
+        return notifications.stream().map(NotificationResponse::getArtefactId).toList();
+    }
+
+    /**
+     * Tests that only each page's most recent notifications are shown, oldest first, with all their details.
+     */
+    @Test
+    void testKeepsMostRecentForEachPage() {
+        assertTrue(recentNotificationService.getRecent(RecentNotificationService.DETAILS_FEED, NOW).isEmpty());
+        for (int id = 1; id <= 5; id++) {
+            recentNotificationService.add(RecentNotificationService.DETAILS_FEED, notification(id, NOW));
+        }
+        recentNotificationService.add(RecentNotificationService.GROUPS_FEED, notification(6, NOW));
+
+        List<NotificationResponse> recent = recentNotificationService.getRecent(RecentNotificationService.DETAILS_FEED,
+                NOW);
+        assertEquals(List.of(3, 4, 5), ids(recent));
+        assertEquals("Artefact 5", recent.get(2).getArtefactName());
+        assertEquals("save", recent.get(2).getAction());
+        assertEquals(List.of(6), ids(recentNotificationService.getRecent(RecentNotificationService.GROUPS_FEED, NOW)));
+    }
+
+    /**
+     * Tests that notifications older than the display time are skipped without being removed.
+     */
+    @Test
+    void testSkipsExpiredNotifications() {
+        String feed = RecentNotificationService.DETAILS_FEED;
+        recentNotificationService.add(feed, notification(1, NOW - RecentNotificationService.SECONDS_TO_DISPLAY - 1));
+        recentNotificationService.add(feed, notification(2, NOW - RecentNotificationService.SECONDS_TO_DISPLAY));
+        recentNotificationService.add(feed, notification(3, NOW));
+        assertEquals(List.of(2, 3), ids(recentNotificationService.getRecent(feed, NOW)));
+        assertEquals(List.of(1, 2, 3), ids(recentNotificationService.getRecent(feed,
+                NOW - RecentNotificationService.SECONDS_TO_DISPLAY)));
+    }
+}
@@ -16,7 +16,7 @@ import java.util.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @ExtendWith(SpringExtension.class)
@@ -24,6 +24,9 @@ class SprintServiceTest {
     @Mock
     private SprintRepository sprintRepository;
 
+    @Mock
+    private ArtefactNotificationService artefactNotificationService;
+
     @InjectMocks
     private SprintService sprintService;
 
@@ -46,6 +49,20 @@ class SprintServiceTest {
         assertThat(created.getName()).isSameAs(sprint.getName());
     }
 
+    /**
+     * Tests that adding a sprint for a user tells the pages showing sprints who added it.
+     */
+    @Test
+    void testAddSprintPublishesAdded() {
+        Sprint sprint = new Sprint();
+        sprint.setName("Testing");
+        when(sprintRepository.save(any(Sprint.class))).thenReturn(sprint);
+
+        sprintService.addSprint(sprint, 7);
+
+        verify(artefactNotificationService).publishAdded("Sprint", sprint.getId(), "Testing", 7);
+    }
+
     @Test
     void testGetAllSprint_givenSpringExistInDb_returnNonEmptyList() {
         Sprint sprint = new Sprint();
@@ -101,6 +118,24 @@ class SprintServiceTest {
         assertEquals(sprint.getEndDate(), sprintService.calendarDateStringToDate(newEndDate, true));
     }
 
+    /**
+     * Tests that moving a sprint for a user tells the pages showing sprints who saved it, and that nothing is published
+     * for a sprint that does not exist.
+     */
+    @Test
+    void testUpdateSprintDatesPublishesSaved() {
+        Sprint sprint = new Sprint();
+        sprint.setName("Testing");
+        when(sprintRepository.findById((Integer) 1)).thenReturn(Optional.of(sprint));
+        when(sprintRepository.findById((Integer) 2)).thenReturn(Optional.empty());
+
+        assertTrue(sprintService.updateSprintDates(1, "2001-12-25", "2001-12-27", 7));
+        assertFalse(sprintService.updateSprintDates(2, "2001-12-25", "2001-12-27", 7));
+
+        verify(artefactNotificationService).publishSaved("Sprint", sprint.getId(), "Testing", 7);
+        verifyNoMoreInteractions(artefactNotificationService);
+    }
+
     /**
      * Tests that if the updateSprintDates method is given the id of a sprint that does not exist, it returns false.
      */
@@ -169,4 +204,22 @@ class SprintServiceTest {
 
 
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that assigning sprint colours for the details page does not write the sprints back to the repository.
+     */
+    @Test
+    void testGetAllSprintsOrderedWithColour_doesNotSaveSprints() {
+        Sprint sprint = new Sprint();
+        sprint.setName("Testing");
+        List<Sprint> sprintList = new ArrayList<>();
+        sprintList.add(sprint);
+
+        when(sprintRepository.findAllByOrderBySprintStartDate()).thenReturn(sprintList);
+        List<Sprint> outputSprints = sprintService.getAllSprintsOrderedWithColour();
+
+        assertThat(outputSprints.get(0).getColour()).isSameAs(colours.get(0));
+        verify(sprintRepository, never()).save(any(Sprint.class));
+        verify(sprintRepository, times(1)).findAllByOrderBySprintStartDate();
+    }
+}
@@ -2,10 +2,14 @@ package nz.ac.canterbury.seng302.portfolio.utility;
 
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
 import java.util.Calendar;
 import java.util.Date;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class DateUtilityTest {
 
@@ -45,4 +49,81 @@ class DateUtilityTest {
 
         assertEquals(DateUtility.setToEndOfDay(date).toString(), expectedDate.toString());
     }
-}
\ No newline at end of file
+
+    /**
+     * Tests that dates are parsed as leniently as the old formatter did: any case, single digit days and text after
+     * the date.
+     */
+    @Test
+    void testStringToLocalDateIsLenient() {
+        assertEquals(LocalDate.of(2022, 6, 3), DateUtility.stringToLocalDate("03/Jun/2022"));
+        assertEquals(LocalDate.of(2022, 6, 3), DateUtility.stringToLocalDate("3/jun/2022"));
+        assertEquals(LocalDate.of(2022, 6, 3), DateUtility.stringToLocalDate("03/JUN/2022 4:32 pm"));
+        assertNull(DateUtility.stringToLocalDate("2022-06-03"));
+    }
+
+    /**
+     * Tests that a day can be given the time of another date, and starts the day when there is no time.
+     */
+    @Test
+    void testAtTimeOf() {
+        Calendar cal = Calendar.getInstance();
+        cal.set(2021, Calendar.DECEMBER, 12, 16, 32, 0);
+        Date time = cal.getTime();
+        LocalDate day = LocalDate.of(2022, 6, 3);
+
+        assertEquals(DateUtility.toDate(day.atTime(16, 32)), DateUtility.atTimeOf(day, time));
+        assertEquals(DateUtility.toDate(day), DateUtility.atTimeOf(day, null));
+        assertNull(DateUtility.atTimeOf(null, time));
+    }
+
+    /**
+     * Microbenchmark of the formatting done for each artefact when a page is rendered. Formatting with the shared
+     * formatters should allocate much less than creating a SimpleDateFormat for every date, as the models used to.
+     */
+    @Test
+    void testSharedFormattersAllocateLessThanSimpleDateFormat() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled());
+        Date date = new Date();
+        int renders = 2000;
+
+        // Warm up both paths so class loading isn't counted
+        formatWithSimpleDateFormat(date, renders);
+        formatWithSharedFormatters(date, renders);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        formatWithSimpleDateFormat(date, renders);
+        long simpleDateFormatBytes = threads.getThreadAllocatedBytes(threadId) - before;
+
+        before = threads.getThreadAllocatedBytes(threadId);
+        formatWithSharedFormatters(date, renders);
+        long sharedFormatterBytes = threads.getThreadAllocatedBytes(threadId) - before;
+
+        assertTrue(sharedFormatterBytes * 2 < simpleDateFormatBytes,
+                String.format("Shared formatters allocated %d bytes per render, SimpleDateFormat allocated %d",
+                        sharedFormatterBytes / renders, simpleDateFormatBytes / renders));
+    }
+
+    private static int formatWithSimpleDateFormat(Date date, int renders) {
+        int length = 0;
+        for (int i = 0; i < renders; i++) {
+            length += new SimpleDateFormat("dd/MMM/yyyy").format(date).length();
+            length += new SimpleDateFormat("MMM").format(date).length();
+            length += new SimpleDateFormat("h:mm a").format(date).length();
+        }
+        return length;
+    }
+
+    private static int formatWithSharedFormatters(Date date, int renders) {
+        int length = 0;
+        for (int i = 0; i < renders; i++) {
+            length += DateUtility.format(date, DateUtility.DATE_FORMAT).length();
+            length += DateUtility.format(date, DateUtility.MONTH_FORMAT).length();
+            length += DateUtility.format(date, DateUtility.TIME_12_HOUR_FORMAT).length();
+        }
+        return length;
+    }
+}
@@ -1,35 +1,59 @@
 package nz.ac.canterbury.seng302.portfolio.utility;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import nz.ac.canterbury.seng302.portfolio.model.Deadline;
 import nz.ac.canterbury.seng302.portfolio.model.Event;
 import nz.ac.canterbury.seng302.portfolio.model.Milestone;
 import org.junit.jupiter.api.Assertions;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.io.StringWriter;
 import java.time.Instant;
-import java.time.LocalTime;
-import java.util.ArrayList;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Date;
 
 /**
  * This class test all the functionality of the EventDic class which purpose is to add event-types to a HashMap
- * and provide a single JSON list out to be used by FullCalendar.
+ * and write them out as a single JSON list to be used by FullCalendar, as the calendar feed does.
  */
 class EventDicTest {
 
     /**
-     * Dictionary Object
+     * Dictionary Object, keeping a year either side of today
      */
-    private final EventDic dictionary = new EventDic();
+    private final EventDic dictionary = new EventDic(ZoneId.systemDefault(), LocalDate.now().minusYears(1),
+            LocalDate.now().plusYears(1));
     private Date testDate;
 
-    @BeforeEach
-    public void setUp() {
-        dictionary.reset(); // Ensures the dic is empty
+    /**
+     * Writes the dictionary's entries into a JSON array, as the calendar feed does, and reads the array back.
+     */
+    private JsonNode makeJSON(EventDic eventDic) throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        StringWriter writer = new StringWriter();
+        try (JsonGenerator json = mapper.getFactory().createGenerator(writer)) {
+            json.writeStartArray();
+            eventDic.writeEntries(json);
+            json.writeEndArray();
+        }
+        return mapper.readTree(writer.toString());
+    }
+
+    private static String startOfDay(Date date) {
+        return Instant.ofEpochMilli(date.getTime()).atZone(ZoneId.systemDefault()).toLocalDate()
+                .atStartOfDay(ZoneId.systemDefault()).toInstant().toString();
+    }
+
+    private static void assertEntry(JsonNode entry, String title, String start, String type, String description) {
+        Assertions.assertEquals(title, entry.get("title").asText());
+        Assertions.assertEquals(start, entry.get("start").asText());
+        Assertions.assertEquals(type, entry.get("type").asText());
+        Assertions.assertEquals(description, entry.get("description").asText());
     }
 
     /**
@@ -38,15 +62,10 @@ class EventDicTest {
      * This tests to ensure that an event over multiple days has all days added to the final JSON list.
      */
     @Test
-    void testEventDicAddMultiDayEvent() {
+    void testEventDicAddMultiDayEvent() throws Exception {
         testDate = Date.from(Instant.now());
         Calendar calStart = Calendar.getInstance();
         calStart.setTime(testDate);
-        calStart.setTime(testDate);
-        calStart.set(Calendar.HOUR_OF_DAY, 0);
-        calStart.set(Calendar.MINUTE,0);
-        calStart.set(Calendar.SECOND,0);
-        calStart.set(Calendar.MILLISECOND, 0);
         Calendar calEnd = Calendar.getInstance();
         calEnd.setTime(testDate);
         calEnd.add(Calendar.DAY_OF_MONTH, 5);
@@ -57,10 +76,12 @@ class EventDicTest {
         Event event = new Event(-1, "Test-Event & <br>", testDate, calEnd.getTime());
         dictionary.add(event);
 
-        String JSON = dictionary.makeJSON();
+        JsonNode json = makeJSON(dictionary);
         String timeAndDate = event.getEndDateString() + " " + event.getEventEndTime();
-        while (calStart.compareTo(calEnd) <= 0) {
-            Assertions.assertTrue(JSON.contains("{title: '1', start: '"+calStart.getTime().toInstant()+"', type: 'Event', description: '<strong>Events:</strong><br>- Test-Event &amp; &lt;br&gt;<br>"+timeAndDate+"'},"));
+        Assertions.assertEquals(6, json.size());
+        for (JsonNode entry : json) {
+            assertEntry(entry, "1", startOfDay(calStart.getTime()), "Event",
+                    "<strong>Events:</strong><br>- Test-Event &amp; &lt;br&gt;<br>" + timeAndDate);
             calStart.add(Calendar.DATE, 1);
         }
     }
@@ -71,15 +92,17 @@ class EventDicTest {
      * This also tests to ensure that the special HTML characters such as "&" are escaped.
      */
     @Test
-    void testEventDicAddDeadline() {
+    void testEventDicAddDeadline() throws Exception {
         testDate = Date.from(Instant.now());
 
         Deadline deadline = new Deadline(-1, "Test-Deadline & <br>", testDate);
         dictionary.add(deadline);
-        String testDateString = updateDateString(deadline.getDeadlineDate());
         String timeString1 = deadline.getDeadlineTimeString12Hour();
-        String expectJSON = "{title: '1', start: '"+testDateString+"', type: 'Deadline', description: '<strong>Deadlines:</strong><br>- Test-Deadline &amp; &lt;br&gt;<br>"+ timeString1 + "'},";
-        Assertions.assertEquals(expectJSON, dictionary.makeJSON());
+
+        JsonNode json = makeJSON(dictionary);
+        Assertions.assertEquals(1, json.size());
+        assertEntry(json.get(0), "1", startOfDay(deadline.getDeadlineDate()), "Deadline",
+                "<strong>Deadlines:</strong><br>- Test-Deadline &amp; &lt;br&gt;<br>" + timeString1);
     }
 
     /**
@@ -88,52 +111,41 @@ class EventDicTest {
      * This also tests to ensure that the special HTML characters such as "&" are escaped.
      */
     @Test
-    void testEventDicAddMilestone() {
+    void testEventDicAddMilestone() throws Exception {
         testDate = Date.from(Instant.now());
         Milestone milestone = new Milestone(-1, "Test-Milestone & <br>", testDate);
         dictionary.add(milestone);
-        String testDateString = updateDateString(milestone.getMilestoneDate());
-        String expectJSON = "{title: '1', start: '"+testDateString+"', type: 'Milestone', description: '<strong>Milestones:</strong><br>- Test-Milestone &amp; &lt;br&gt;'},";
-        Assertions.assertEquals(expectJSON, dictionary.makeJSON());
+
+        JsonNode json = makeJSON(dictionary);
+        Assertions.assertEquals(1, json.size());
+        assertEntry(json.get(0), "1", startOfDay(milestone.getMilestoneDate()), "Milestone",
+                "<strong>Milestones:</strong><br>- Test-Milestone &amp; &lt;br&gt;");
     }
 
     /**
-     * This tests to ensure that all objects are hashed correctly so that the final JSON list separate all events based on date and type.
+     * This tests to ensure that all objects are hashed correctly so that the final JSON list separate all events
+     * based on date and type, listing events, then deadlines, then milestones within a day.
      */
     @Test
-    void testEventDicAddOneOfEachEventType() {
+    void testEventDicAddOneOfEachEventType() throws Exception {
         testDate = Date.from(Instant.now());
-        Event event = new Event(-1, "Test-Event & <br>", testDate, testDate);
-        dictionary.add(event);
         Milestone milestone = new Milestone(-1, "Test-Milestone & <br>", testDate);
         dictionary.add(milestone);
         Deadline deadline = new Deadline(-1, "Test-Deadline & <br>", testDate);
         dictionary.add(deadline);
+        Event event = new Event(-1, "Test-Event & <br>", testDate, testDate);
+        dictionary.add(event);
 
-
-        ArrayList<String> events = new ArrayList<>();
-
-        String deadlineDateString = updateDateString(deadline.getDeadlineDate());
-        String timeString1 = deadline.getDeadlineTimeString12Hour();
-        events.add("{title: '1', start: '"+deadlineDateString+"', type: 'Deadline', description: '<strong>Deadlines:</strong><br>- Test-Deadline &amp; &lt;br&gt;<br>"+timeString1+"'},");
-        String milestoneDateString = updateDateString(milestone.getMilestoneDate());
-        events.add("{title: '1', start: '"+milestoneDateString+"', type: 'Milestone', description: '<strong>Milestones:</strong><br>- Test-Milestone &amp; &lt;br&gt;'},");
-
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(event.getEventStartDate());
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE,0);
-        cal.set(Calendar.SECOND,0);
-        cal.set(Calendar.MILLISECOND, 0);
-        Instant eventDate = cal.toInstant();
+        JsonNode json = makeJSON(dictionary);
+        String start = startOfDay(testDate);
         String timeAndDate = event.getEndDateString() + " " + event.getEventEndTime();
-        events.add("{title: '1', start: '"+eventDate+"', type: 'Event', description: '<strong>Events:</strong><br>- Test-Event &amp; &lt;br&gt;<br>"+timeAndDate+"'},");
-
-        String JSON = dictionary.makeJSON();
-
-        for (String eventString : events) {
-            Assertions.assertTrue(JSON.contains(eventString));
-        }
+        Assertions.assertEquals(3, json.size());
+        assertEntry(json.get(0), "1", start, "Event",
+                "<strong>Events:</strong><br>- Test-Event &amp; &lt;br&gt;<br>" + timeAndDate);
+        assertEntry(json.get(1), "1", start, "Deadline",
+                "<strong>Deadlines:</strong><br>- Test-Deadline &amp; &lt;br&gt;<br>" + deadline.getDeadlineTimeString12Hour());
+        assertEntry(json.get(2), "1", start, "Milestone",
+                "<strong>Milestones:</strong><br>- Test-Milestone &amp; &lt;br&gt;");
     }
 
     /**
@@ -141,7 +153,7 @@ class EventDicTest {
      * The JSON list should also reflect that in its title.
      */
     @Test
-    void testEventDicAddTwoDeadlinesWithSameDateButDifferentTimes() {
+    void testEventDicAddTwoDeadlinesWithSameDateButDifferentTimes() throws Exception {
         testDate = Date.from(Instant.now());
         Deadline deadline1 = new Deadline(-1, "Test-Deadline-1", testDate);
         Calendar cal = Calendar.getInstance();
@@ -158,24 +170,35 @@ class EventDicTest {
 
         dictionary.add(deadline1);
         dictionary.add(deadline2);
-        String testDateString = updateDateString(deadline1.getDeadlineDate());
         String timeString1 = deadline1.getDeadlineTimeString12Hour();
         String timeString2 = deadline2.getDeadlineTimeString12Hour();
+
+        JsonNode json = makeJSON(dictionary);
         // Title is 2 as there are 2 deadlines added.
-        String expectJSON = "{title: '2', start: '"+testDateString+"', type: 'Deadline', description: '<strong>Deadlines:</strong><br>- Test-Deadline-1<br>"+timeString1+"<br>- Test-Deadline-2<br>"+timeString2+"'},";
-        Assertions.assertEquals(expectJSON, dictionary.makeJSON());
+        Assertions.assertEquals(1, json.size());
+        assertEntry(json.get(0), "2", startOfDay(deadline1.getDeadlineDate()), "Deadline",
+                "<strong>Deadlines:</strong><br>- Test-Deadline-1<br>" + timeString1 + "<br>- Test-Deadline-2<br>" + timeString2);
     }
 
-    public String updateDateString(Date date) {
-        // Changes the date to the start of the day so that it is added to the correct date.
-        DateFormat df = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'");
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(date);
-        cal.set(Calendar.HOUR_OF_DAY, 0);
-        cal.set(Calendar.MINUTE,0);
-        cal.set(Calendar.SECOND,0);
-        cal.set(Calendar.MILLISECOND, 0);
-        return df.format(cal.getTime());
+    /**
+     * Tests that a dictionary limited to a range of days only adds the days of a long event within the range, and
+     * leaves out artefacts outside it.
+     */
+    @Test
+    void testEventDicWithRangeOnlyAddsDaysInRange() throws Exception {
+        ZoneId zone = ZoneId.systemDefault();
+        EventDic rangeDictionary = new EventDic(zone, LocalDate.of(2022, 5, 10), LocalDate.of(2022, 5, 12));
+        rangeDictionary.add(new Event(-1, "Long Event",
+                Date.from(LocalDateTime.of(2020, 1, 1, 9, 0).atZone(zone).toInstant()),
+                Date.from(LocalDateTime.of(2030, 1, 1, 9, 0).atZone(zone).toInstant())));
+        rangeDictionary.add(new Milestone(-1, "Outside",
+                Date.from(LocalDateTime.of(2022, 5, 12, 0, 0).atZone(zone).toInstant())));
+
+        JsonNode json = makeJSON(rangeDictionary);
+        Assertions.assertEquals(2, json.size());
+        Assertions.assertEquals(LocalDate.of(2022, 5, 10).atStartOfDay(zone).toInstant().toString(),
+                json.get(0).get("start").asText());
+        Assertions.assertEquals(LocalDate.of(2022, 5, 11).atStartOfDay(zone).toInstant().toString(),
+                json.get(1).get("start").asText());
     }
-
 }
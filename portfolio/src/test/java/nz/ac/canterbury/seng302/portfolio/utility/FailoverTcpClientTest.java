@@ -0,0 +1,107 @@
+package nz.ac.canterbury.seng302.portfolio.utility;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.messaging.tcp.FixedIntervalReconnectStrategy;
+import org.springframework.messaging.tcp.ReconnectStrategy;
+import org.springframework.messaging.tcp.TcpConnectionHandler;
+import org.springframework.messaging.tcp.TcpOperations;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for the {@link FailoverTcpClient} class.
+ */
+class FailoverTcpClientTest {
+
+    private static final List<InetSocketAddress> ADDRESSES =
+            FailoverTcpClient.parseAddresses(List.of("broker1:61613", "broker2:61614"));
+
+    private TcpOperations<byte[]> delegate;
+
+    private FailoverTcpClient client;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        delegate = mock(TcpOperations.class);
+        client = new FailoverTcpClient(ADDRESSES, 1000, 30000, delegate);
+    }
+
+    @SuppressWarnings("unchecked")
+    private TcpConnectionHandler<byte[]> connectAndCaptureHandler(TcpConnectionHandler<byte[]> handler) {
+        client.connect(handler);
+        ArgumentCaptor<TcpConnectionHandler<byte[]>> captor = ArgumentCaptor.forClass(TcpConnectionHandler.class);
+        verify(delegate, atLeastOnce()).connect(captor.capture());
+        return captor.getValue();
+    }
+
+    /**
+     * Tests that broker addresses are read as host and port, and that anything else is rejected.
+     */
+    @Test
+    void testParseAddresses() {
+        assertEquals("broker2", ADDRESSES.get(1).getHostString());
+        assertEquals(61614, ADDRESSES.get(1).getPort());
+        assertThrows(IllegalArgumentException.class, () -> FailoverTcpClient.parseAddresses(List.of("broker1")));
+        assertThrows(IllegalArgumentException.class, () -> FailoverTcpClient.parseAddresses(List.of("broker1:abc")));
+    }
+
+    /**
+     * Tests that connections stay on a broker until connecting to it fails, then move on to the next, and that many
+     * connections failing at once only move on once.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testConnectFailureMovesToNextBroker() {
+        TcpConnectionHandler<byte[]> first = connectAndCaptureHandler(mock(TcpConnectionHandler.class));
+        TcpConnectionHandler<byte[]> second = connectAndCaptureHandler(mock(TcpConnectionHandler.class));
+        assertEquals(ADDRESSES.get(0), client.getCurrentAddress());
+
+        first.afterConnectFailure(new IllegalStateException("refused"));
+        second.afterConnectFailure(new IllegalStateException("refused"));
+        assertEquals(ADDRESSES.get(1), client.getCurrentAddress());
+
+        first.afterConnectFailure(new IllegalStateException("refused"));
+        assertEquals(ADDRESSES.get(0), client.getCurrentAddress());
+    }
+
+    /**
+     * Tests that the handler given is still told about connection failures.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testConnectFailureIsPassedOn() {
+        TcpConnectionHandler<byte[]> handler = mock(TcpConnectionHandler.class);
+        IllegalStateException failure = new IllegalStateException("refused");
+        connectAndCaptureHandler(handler).afterConnectFailure(failure);
+        verify(handler).afterConnectFailure(failure);
+    }
+
+    /**
+     * Tests that the relay's fixed reconnect interval is replaced by a backoff that grows to the maximum, with jitter.
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    void testReconnectBacksOffToMaximum() {
+        client.connect(mock(TcpConnectionHandler.class), new FixedIntervalReconnectStrategy(5000));
+        ArgumentCaptor<ReconnectStrategy> captor = ArgumentCaptor.forClass(ReconnectStrategy.class);
+        verify(delegate).connect(any(TcpConnectionHandler.class), captor.capture());
+        ReconnectStrategy strategy = captor.getValue();
+
+        for (int i = 0; i < 20; i++) {
+            long first = strategy.getTimeToNextAttempt(1);
+            assertTrue(first >= 500 && first <= 1000);
+            long fourth = strategy.getTimeToNextAttempt(4);
+            assertTrue(fourth >= 4000 && fourth <= 8000);
+            long late = strategy.getTimeToNextAttempt(50);
+            assertTrue(late >= 15000 && late <= 30000);
+        }
+    }
+}
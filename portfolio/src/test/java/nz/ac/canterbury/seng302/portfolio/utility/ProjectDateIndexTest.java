@@ -0,0 +1,107 @@
+package nz.ac.canterbury.seng302.portfolio.utility;
+
+import nz.ac.canterbury.seng302.portfolio.model.Deadline;
+import nz.ac.canterbury.seng302.portfolio.model.Event;
+import nz.ac.canterbury.seng302.portfolio.model.Sprint;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectDateIndexTest {
+
+    private static Date day(int dayOfYear, int hour) {
+        return Date.from(LocalDate.ofYearDay(2022, dayOfYear).atTime(hour, 0).atZone(ZoneId.systemDefault()).toInstant());
+    }
+
+    private static Sprint sprint(int id, int startDay, int endDay) {
+        Sprint sprint = new Sprint();
+        sprint.setId(id);
+        sprint.setStartDate(day(startDay, 0));
+        sprint.setEndDate(day(endDay, 23));
+        return sprint;
+    }
+
+    private static ProjectDateIndex sprintIndex(List<Sprint> sprints) {
+        return new ProjectDateIndex(sprints, List.of(), List.of(), List.of());
+    }
+
+    /**
+     * Tests that sprints sharing only a first or last day with the dates are found, and that dates falling between
+     * sprints or on the sprint being edited are allowed.
+     */
+    @Test
+    void testFindOverlappingSprintComparesDays() {
+        Sprint first = sprint(1, 10, 19);
+        Sprint second = sprint(2, 30, 39);
+        ProjectDateIndex index = sprintIndex(List.of(second, first));
+
+        assertSame(first, index.findOverlappingSprint(day(19, 12), day(25, 0), -1));
+        assertSame(second, index.findOverlappingSprint(day(25, 0), day(30, 0), -1));
+        assertNull(index.findOverlappingSprint(day(20, 0), day(29, 23), -1));
+        assertNull(index.findOverlappingSprint(day(30, 0), day(39, 0), 2));
+        assertNull(index.findOverlappingSprint(day(1, 0), day(9, 0), -1));
+    }
+
+    /**
+     * Tests that the earliest and latest of each type are kept, using the end dates for the latest sprint and event.
+     */
+    @Test
+    void testFirstAndLastArtefacts() {
+        Sprint longSprint = sprint(1, 10, 50);
+        Sprint laterSprint = sprint(2, 20, 30);
+        Event firstEvent = new Event(0, "First", day(5, 9), day(6, 9));
+        Event lastEvent = new Event(0, "Last", day(7, 9), day(60, 9));
+        Deadline deadline = new Deadline(0, "Only", day(40, 9));
+        ProjectDateIndex index = new ProjectDateIndex(List.of(longSprint, laterSprint), List.of(lastEvent, firstEvent),
+                List.of(), List.of(deadline));
+
+        assertSame(longSprint, index.getFirstSprint());
+        assertSame(longSprint, index.getLastSprint());
+        assertSame(firstEvent, index.getFirstEvent());
+        assertSame(lastEvent, index.getLastEvent());
+        assertNull(index.getFirstMilestone());
+        assertSame(deadline, index.getFirstDeadline());
+        assertSame(deadline, index.getLastDeadline());
+    }
+
+    /**
+     * Tests that finding an overlapping sprint agrees with comparing against every sprint, including when stored
+     * sprints overlap each other.
+     */
+    @Test
+    void testFindOverlappingSprintMatchesComparingEverySprint() {
+        Random random = new Random(302);
+        for (int round = 0; round < 50; round++) {
+            List<Sprint> sprints = new ArrayList<>();
+            int sprintCount = random.nextInt(10);
+            for (int i = 0; i < sprintCount; i++) {
+                int start = 1 + random.nextInt(300);
+                sprints.add(sprint(i, start, start + random.nextInt(40)));
+            }
+            ProjectDateIndex index = sprintIndex(sprints);
+            for (int check = 0; check < 30; check++) {
+                int start = 1 + random.nextInt(320);
+                int end = Math.min(365, start + random.nextInt(30));
+                int ignoredId = random.nextInt(10);
+
+                boolean expected = false;
+                for (Sprint sprint : sprints) {
+                    expected |= sprint.getId() != ignoredId
+                            && !sprint.getStartDate().after(day(end, 0)) && !sprint.getEndDate().before(day(start, 0));
+                }
+                Sprint found = index.findOverlappingSprint(day(start, 0), day(end, 0), ignoredId);
+                assertEquals(expected, found != null);
+                if (found != null) {
+                    assertNotEquals(ignoredId, found.getId());
+                }
+            }
+        }
+    }
+}
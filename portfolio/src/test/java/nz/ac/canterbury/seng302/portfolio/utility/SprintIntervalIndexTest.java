@@ -0,0 +1,97 @@
+package nz.ac.canterbury.seng302.portfolio.utility;
+
+import nz.ac.canterbury.seng302.portfolio.model.Sprint;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SprintIntervalIndexTest {
+
+    private static Sprint sprint(long start, long end) {
+        Sprint sprint = new Sprint();
+        sprint.setStartDate(new Date(start));
+        sprint.setEndDate(new Date(end));
+        return sprint;
+    }
+
+    /**
+     * Tests that a range overlapping several sprints, including touching their first and last moments, is put in
+     * each of them and no others.
+     */
+    @Test
+    void testBucketRangesTouchingSprintEdges() {
+        List<Sprint> sprints = List.of(sprint(0, 9), sprint(10, 19), sprint(20, 29), sprint(30, 39));
+        List<long[]> ranges = List.of(new long[]{9, 20}, new long[]{40, 50}, new long[]{-5, 0}, new long[]{25, 25});
+
+        List<List<long[]>> buckets = new SprintIntervalIndex(sprints).bucket(ranges, r -> r[0], r -> r[1]);
+
+        assertEquals(List.of(ranges.get(0), ranges.get(2)), buckets.get(0));
+        assertEquals(List.of(ranges.get(0)), buckets.get(1));
+        assertEquals(List.of(ranges.get(0), ranges.get(3)), buckets.get(2));
+        assertTrue(buckets.get(3).isEmpty());
+    }
+
+    /**
+     * Tests that positions refer to the list the index was built from, even when it is not in chronological order.
+     */
+    @Test
+    void testPositionsMatchUnsortedList() {
+        List<Sprint> sprints = List.of(sprint(20, 29), sprint(0, 9), sprint(10, 19));
+        SprintIntervalIndex index = new SprintIntervalIndex(sprints);
+
+        assertEquals(1, index.firstContaining(5));
+        assertEquals(0, index.lastContaining(29));
+        assertEquals(-1, index.firstContaining(30));
+        assertEquals(-1, index.lastContaining(-1));
+    }
+
+    /**
+     * Tests that an index of no sprints finds nothing.
+     */
+    @Test
+    void testEmptyIndex() {
+        SprintIntervalIndex index = new SprintIntervalIndex(new ArrayList<>());
+        assertEquals(-1, index.lastContaining(0));
+        assertTrue(index.bucket(List.of(1L), r -> r, r -> r).isEmpty());
+    }
+
+    /**
+     * Tests that bucketing gives the same result as comparing every range against every sprint, including when
+     * sprints overlap each other.
+     */
+    @Test
+    void testBucketMatchesComparingEverySprint() {
+        Random random = new Random(302);
+        for (int round = 0; round < 50; round++) {
+            List<Sprint> sprints = new ArrayList<>();
+            int sprintCount = random.nextInt(10);
+            for (int i = 0; i < sprintCount; i++) {
+                long start = random.nextInt(1000);
+                sprints.add(sprint(start, start + random.nextInt(200)));
+            }
+            List<long[]> ranges = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                long start = random.nextInt(1200) - 100;
+                ranges.add(new long[]{start, start + random.nextInt(150)});
+            }
+
+            List<List<long[]>> buckets = new SprintIntervalIndex(sprints).bucket(ranges, r -> r[0], r -> r[1]);
+
+            for (int i = 0; i < sprints.size(); i++) {
+                List<long[]> expected = new ArrayList<>();
+                for (long[] range : ranges) {
+                    if (range[0] <= sprints.get(i).getEndDate().getTime()
+                            && range[1] >= sprints.get(i).getStartDate().getTime()) {
+                        expected.add(range);
+                    }
+                }
+                assertEquals(expected, buckets.get(i));
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package nz.ac.canterbury.seng302.shared.util;
+
+import io.grpc.Status;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Hashes passwords and checks them against their hashes on a pool of its own. Hashing is slow on purpose and takes a
+ * whole core while it runs, so doing it on request threads would let a burst of sign ups or log ins hold every one of
+ * them. The pool has a fixed number of threads and a limit on how many hashes may wait for one, and hashes asked for
+ * while that many are waiting fail straight away with RESOURCE_EXHAUSTED.
+ * <p>
+ * The portfolio hashes the passwords that the identity provider later checks, so both use this class and the PBKDF2
+ * parameters are only ever set here.
+ */
+public class BoundedPasswordHasher {
+
+    private final Pbkdf2PasswordEncoder pbkdf2PasswordEncoder = new Pbkdf2PasswordEncoder();
+
+    private final long timeoutMillis;
+
+    private final ExecutorService executor;
+
+    /**
+     * Creates the hasher with a pool of its own.
+     * @param threads number of threads hashing passwords
+     * @param queueLimit most hashes that may wait for a thread
+     * @param timeoutMillis longest a caller waits for its hash, including the time spent waiting for a thread
+     */
+    public BoundedPasswordHasher(int threads, int queueLimit, long timeoutMillis) {
+        this(timeoutMillis, new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueLimit), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing");
+                    thread.setDaemon(true);
+                    return thread;
+                }));
+    }
+
+    protected BoundedPasswordHasher(long timeoutMillis, ExecutorService executor) {
+        this.timeoutMillis = timeoutMillis;
+        this.executor = executor;
+    }
+
+    /**
+     * Hashes a password so it can be saved.
+     * @param rawPassword password to hash
+     * @return the hash of the password
+     * @throws io.grpc.StatusRuntimeException with RESOURCE_EXHAUSTED if too many hashes are waiting, or
+     * DEADLINE_EXCEEDED if hashing takes longer than the timeout
+     */
+    public String encode(String rawPassword) {
+        return run(() -> pbkdf2PasswordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Checks whether a password matches the hash saved for it.
+     * @param rawPassword password given
+     * @param encodedPassword hash saved for the password
+     * @return true if the password matches
+     * @throws io.grpc.StatusRuntimeException with RESOURCE_EXHAUSTED if too many hashes are waiting, or
+     * DEADLINE_EXCEEDED if the check takes longer than the timeout
+     */
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return run(() -> pbkdf2PasswordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    /**
+     * Stops the threads hashing passwords.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Supplier<T> hashing) {
+        Future<T> hash;
+        try {
+            hash = executor.submit(hashing::get);
+        } catch (RejectedExecutionException e) {
+            throw Status.RESOURCE_EXHAUSTED.withDescription("Too many passwords are being hashed, try again shortly")
+                    .asRuntimeException();
+        }
+        try {
+            return hash.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            hash.cancel(true);
+            throw Status.DEADLINE_EXCEEDED.withDescription("Hashing the password took longer than " + timeoutMillis
+                    + " ms").asRuntimeException();
+        } catch (InterruptedException e) {
+            hash.cancel(true);
+            Thread.currentThread().interrupt();
+            throw Status.CANCELLED.withDescription("Interrupted hashing the password").withCause(e)
+                    .asRuntimeException();
+        }
+    }
+}